@@ -37,6 +37,7 @@ public class AttachmentDataSource implements DataSource {
     private InputStream ins;
     private DelegatingInputStream delegate;
     private String name;
+    private long contentLength = -1;
 
     public AttachmentDataSource(String ctParam, InputStream inParam) throws IOException {
         this.ct = ctParam;
@@ -50,6 +51,10 @@ public class AttachmentDataSource implements DataSource {
         if (cache == null) {
             cache = new CachedOutputStream();
             AttachmentUtil.setStreamedAttachmentProperties(message, cache);
+            if (contentLength > cache.getThreshold()) {
+                // the attachment is going to end up in a file anyway, don't buffer it in memory first
+                cache.setThreshold(0);
+            }
             try {
                 IOUtils.copyAndCloseInput(ins, cache);
                 cache.lockOutputStream();
@@ -65,6 +70,13 @@ public class AttachmentDataSource implements DataSource {
             }
         }
     }
+    /**
+     * Sets the length of the attachment as declared by the Content-Length header of the part.
+     */
+    void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
     public void hold(Message message) throws IOException {
         cache(message);
         cache.holdTempFile();
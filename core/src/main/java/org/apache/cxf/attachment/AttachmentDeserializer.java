@@ -74,7 +74,7 @@ public class AttachmentDeserializer {
 
     private static final Logger LOG = LogUtils.getL7dLogger(AttachmentDeserializer.class);
 
-    private static final int PUSHBACK_AMOUNT = 2048;
+    private static final int PUSHBACK_AMOUNT = 8192;
 
     private boolean lazyLoading = true;
 
@@ -84,6 +84,7 @@ public class AttachmentDeserializer {
     private boolean closed;
 
     private byte[] boundary;
+    private int[] boundarySkipTable;
 
     private String contentType;
 
@@ -149,9 +150,10 @@ public class AttachmentDeserializer {
                 throw new IOException("Couldn't determine the boundary from the message!");
             }
             boundary = boundaryString.getBytes("utf-8");
+            boundarySkipTable = MimeBodyPartInputStream.createSkipTable(boundary);
 
             stream = new PushbackInputStream(message.getContent(InputStream.class), PUSHBACK_AMOUNT);
-            if (!readTillFirstBoundary(stream, boundary)) {
+            if (!readTillFirstBoundary()) {
                 throw new IOException("Couldn't find MIME boundary: " + boundaryString);
             }
 
@@ -166,7 +168,7 @@ public class AttachmentDeserializer {
             }
             val = AttachmentUtil.getHeader(ih, "Content-Transfer-Encoding");
 
-            MimeBodyPartInputStream mmps = new MimeBodyPartInputStream(stream, boundary, PUSHBACK_AMOUNT);
+            MimeBodyPartInputStream mmps = createPartInputStream();
             InputStream ins = AttachmentUtil.decode(mmps, val);
             if (ins != mmps) {
                 ih.remove("Content-Transfer-Encoding");
@@ -264,41 +266,15 @@ public class AttachmentDeserializer {
     /**
      * Move the read pointer to the begining of the first part read till the end
      * of first boundary
-     *
-     * @param pushbackInStream
-     * @param boundary
-     * @throws IOException
      */
-    private static boolean readTillFirstBoundary(PushbackInputStream pushbackInStream,
-        byte[] boundary) throws IOException {
-
-        // work around a bug in PushBackInputStream where the buffer isn't
-        // initialized
-        // and available always returns 0.
-        int value = pushbackInStream.read();
-        pushbackInStream.unread(value);
-        while (value != -1) {
-            value = pushbackInStream.read();
-            if ((byte) value == boundary[0]) {
-                int boundaryIndex = 0;
-                while (value != -1 && (boundaryIndex < boundary.length) && ((byte) value == boundary[boundaryIndex])) {
-
-                    value = pushbackInStream.read();
-                    if (value == -1) {
-                        throw new IOException("Unexpected End while searching for first Mime Boundary");
-                    }
-                    boundaryIndex++;
-                }
-                if (boundaryIndex == boundary.length) {
-                    // boundary found, read the newline
-                    if (value == 13) {
-                        pushbackInStream.read();
-                    }
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean readTillFirstBoundary() throws IOException {
+        MimeBodyPartInputStream preamble = createPartInputStream();
+        IOUtils.consume(preamble);
+        return preamble.boundaryFound;
+    }
+
+    private MimeBodyPartInputStream createPartInputStream() {
+        return new MimeBodyPartInputStream(stream, boundary, PUSHBACK_AMOUNT, boundarySkipTable);
     }
 
     /**
@@ -308,9 +284,7 @@ public class AttachmentDeserializer {
      * @throws IOException
      */
     private Attachment createAttachment(Map<String, List<String>> headers) throws IOException {
-        InputStream partStream =
-            new DelegatingInputStream(new MimeBodyPartInputStream(stream, boundary, PUSHBACK_AMOUNT),
-                                      this);
+        InputStream partStream = new DelegatingInputStream(createPartInputStream(), this);
         createCount++;
 
         return AttachmentUtil.createAttachment(partStream, headers);
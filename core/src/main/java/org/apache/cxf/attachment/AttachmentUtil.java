@@ -381,9 +381,17 @@ public final class AttachmentUtil {
         if (ins != stream) {
             headers.remove("Content-Transfer-Encoding");
         }
-        DataSource source = new AttachmentDataSource(ct, ins);
+        AttachmentDataSource source = new AttachmentDataSource(ct, ins);
         if (!StringUtils.isEmpty(fileName)) {
-            ((AttachmentDataSource)source).setName(FileUtils.stripPath(fileName));
+            source.setName(FileUtils.stripPath(fileName));
+        }
+        String length = getHeader(headers, "Content-Length");
+        if (!StringUtils.isEmpty(length)) {
+            try {
+                source.setContentLength(Long.parseLong(length.trim()));
+            } catch (NumberFormatException ex) {
+                // ignore, the attachment is cached as if there was no Content-Length
+            }
         }
         att.setDataHandler(new DataHandler(source));
         return att;
@@ -22,249 +22,256 @@ package org.apache.cxf.attachment;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.util.Arrays;
 
+/**
+ * Reads the body of a MIME part up to the next boundary. The bytes are read from the underlying
+ * stream into a buffer which is searched for the boundary with the Boyer-Moore-Horspool algorithm,
+ * so that the part body is handed to the consumer in blocks. Only the bytes read beyond the boundary
+ * are pushed back, once, for the headers of the next part. The buffer is sized from the push back size
+ * so that these bytes always fit into the push back buffer of the stream.
+ */
 public class MimeBodyPartInputStream extends InputStream {
+    // a CRLF preceding the boundary and the "--" and CRLF following it
+    private static final int BOUNDARY_LINE_EXTRA = 6;
 
     PushbackInputStream inStream;
 
     boolean boundaryFound;
     int pbAmount;
     byte[] boundary;
-    byte[] boundaryBuffer;
 
+    private final int[] skipTable;
+    private byte[] buffer;
+    // the bytes between pos and end have been read, the ones before limit belong to the part
+    private int pos;
+    private int limit;
+    private int end;
+    private boolean eof;
     private boolean closed;
 
     public MimeBodyPartInputStream(PushbackInputStream inStreamParam,
                                    byte[] boundaryParam,
                                    int pbsize) {
+        this(inStreamParam, boundaryParam, pbsize, createSkipTable(boundaryParam));
+    }
+
+    MimeBodyPartInputStream(PushbackInputStream inStreamParam,
+                            byte[] boundaryParam,
+                            int pbsize,
+                            int[] skipTableParam) {
         super();
+        if (pbsize < BOUNDARY_LINE_EXTRA) {
+            throw new IllegalArgumentException("The push back size must be at least "
+                + BOUNDARY_LINE_EXTRA + " bytes, not " + pbsize);
+        }
         this.inStream = inStreamParam;
         this.boundary = boundaryParam;
         this.pbAmount = pbsize;
+        this.skipTable = skipTableParam;
     }
 
-    public int read(byte[] buf, int origOff, int origLen) throws IOException {
-        byte[] b = buf;
-        int off = origOff;
-        int len = origLen;
-        if (boundaryFound || closed) {
-            return -1;
+    /**
+     * Creates the Horspool skip table for the boundary: the distance from the last occurrence of
+     * each byte, the last byte of the boundary excluded, to the end of the boundary.
+     */
+    static int[] createSkipTable(byte[] boundary) {
+        int[] table = new int[256];
+        Arrays.fill(table, boundary.length);
+        for (int i = 0; i < boundary.length - 1; i++) {
+            table[boundary[i] & 0xff] = boundary.length - 1 - i;
         }
-        if ((off < 0) || (off > b.length) || (len < 0)
-            || ((off + len) > b.length) || ((off + len) < 0)) {
+        return table;
+    }
 
+    public int read(byte[] b, int off, int len) throws IOException {
+        if ((boundaryFound && pos == limit) || closed) {
+            return -1;
+        }
+        if (off < 0 || len < 0 || len > b.length - off) {
             throw new IndexOutOfBoundsException();
         }
         if (len == 0) {
             return 0;
         }
-        boolean bufferCreated = false;
-        if (len < boundary.length * 2) {
-            //buffer is too short to detect boundaries with it.  We'll need to create a larger buffer
-            bufferCreated = true;
-            if (boundaryBuffer == null) {
-                boundaryBuffer = new byte[boundary.length * 2];
-            }
-            b = boundaryBuffer;
-            off = 0;
-            len = boundaryBuffer.length;
-        }
-        if (len > pbAmount) {
-            len = pbAmount;  //can only pushback that much so make sure we can
-        }
-        int read = 0;
-        int idx = 0;
-        while (read >= 0 && idx < len && idx < (boundary.length * 2)) {
-            //make sure we read enough to detect the boundary
-            read = inStream.read(b, off + idx, len - idx);
-            if (read != -1) {
-                idx += read;
-            }
-        }
-        if (read == -1 && idx == 0) {
+        if (!fill()) {
             return -1;
         }
-        len = idx;
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(buffer, pos, b, off, n);
+        pos += n;
+        return n;
+    }
 
-        int i = processBuffer(b, off, len);
-        if (bufferCreated && i > 0) {
-            // read more than we need, push it back
-            if (origLen >= i) {
-                System.arraycopy(b, 0, buf, origOff, i);
-            } else {
-                System.arraycopy(b, 0, buf, origOff, origLen);
-                inStream.unread(b, origLen, i - origLen);
-                i = origLen;
-            }
-        } else if (i == 0 && boundaryFound) {
+    public int read() throws IOException {
+        if (!fill()) {
             return -1;
         }
-
-        return i;
+        return buffer[pos++] & 0xff;
     }
 
-    //Has Data after encountering CRLF
-    private boolean hasData(byte[] b, int initialPointer, int pointer, int off, int len)
-        throws IOException {
-        if (pointer < (off + len)) {
-            return true;
-        } else if (pointer >= 1000000000) {
-            inStream.unread(b, initialPointer, (off + len) - initialPointer);
+    /**
+     * Makes sure that there are bytes of the part left in the buffer.
+     *
+     * @return false if the end of the part has been reached
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
             return false;
-        } else {
-            int x = inStream.read();
-            if (x != -1) {
-                inStream.unread(x);
-                inStream.unread(b, initialPointer, (off + len) - initialPointer);
+        }
+        while (pos == limit) {
+            if (boundaryFound || eof) {
                 return false;
             }
-            return true;
+            scan();
         }
+        return true;
     }
 
-    protected int processBuffer(byte[] buffer, int off, int len) throws IOException {
-        for (int i = off; i < (off + len); i++) {
-            boolean needUnread0d0a = false;
-            int value = buffer[i];
-            int initialI = i;
-            if (value == 13) {
-                if (!hasData(buffer, initialI, initialI + 1, off, len)) {
-                    return initialI - off;
-                }
-                value = buffer[initialI + 1];
-                if (value != 10) {
-                    continue;
-                }
-                if (!hasData(buffer, initialI, initialI + 2, off, len)) {
-                    return initialI - off;
-                }
-                value = buffer[initialI + 2];
-                if ((byte) value != boundary[0]) {
-                    i++;
-                    continue;
-                }
-                needUnread0d0a = true;
-                i += 2; //i after this points to boundary[0] element
-            } else if (value != boundary[0]) {
-                continue;
-            }
-
-            int boundaryIndex = 0;
-            while ((boundaryIndex < boundary.length) && (value == boundary[boundaryIndex])) {
-                if (!hasData(buffer, initialI, i + 1, off, len)) {
-                    return initialI - off;
-                }
-                value = buffer[++i];
-                boundaryIndex++;
-            }
-            if (boundaryIndex == boundary.length) {
-                // read the end of line character
-                if (initialI != off) {
-                    i = 1000000000;
-                }
-                if (initialI - off != 0
-                    && !hasData(buffer, initialI, i + 1, off, len)) {
-                    return initialI - off;
-                }
-                boundaryFound = true;
-                int j = i + 1;
-                if (j < len && buffer[j] == 45 && value == 45) {
-                    // Last mime boundary should have a succeeding "--"
-                    // as we are on it, read the terminating CRLF
-                    i += 2;
-                    //last mime boundary
-                }
+    private void scan() throws IOException {
+        if (buffer == null) {
+            // at most the bytes following the boundary, so no more than pbAmount, are pushed back
+            buffer = new byte[pbAmount + boundary.length];
+        }
+        // keep the bytes which could not be told apart from the start of a boundary yet
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, end - pos);
+            end -= pos;
+            limit -= pos;
+            pos = 0;
+        }
+        // a preceding CRLF, the boundary and the "--" and CRLF following it
+        fillBuffer(boundary.length + BOUNDARY_LINE_EXTRA);
 
-                //boundary matched (may or may not be last mime boundary)
-                int processed = initialI - off;
-                if ((len - ((i - off) + 2)) > 0) {
-                    inStream.unread(buffer, i + 2, len - (i + 2) + off);
-                }
-                return processed;
-            }
+        int idx = indexOf(buffer, 0, end);
+        if (idx == -1) {
+            // the end of the buffer may be a CRLF followed by the start of the boundary
+            limit = eof ? end : Math.max(0, end - boundary.length - 1);
+            return;
+        }
+        int after = idx + boundary.length;
+        if (after + 4 > buffer.length) {
+            // make room for the end of the boundary line first
+            limit = idx - 2;
+            return;
+        }
+        fillBuffer(after + 4);
+        int dataEnd = idx;
+        if (idx >= 2 && buffer[idx - 2] == 13 && buffer[idx - 1] == 10) {
+            // the CRLF preceding the boundary is part of the boundary
+            dataEnd = idx - 2;
+        }
+        if (after + 1 < end && buffer[after] == 45 && buffer[after + 1] == 45) {
+            // last mime boundary
+            after += 2;
+        }
+        if (after < end && buffer[after] == 13) {
+            after++;
+        }
+        if (after < end && buffer[after] == 10) {
+            after++;
+        }
+        if (after < end) {
+            inStream.unread(buffer, after, end - after);
+        }
+        boundaryFound = true;
+        limit = dataEnd;
+        end = dataEnd;
+    }
 
-            // Boundary not found. Restoring bytes skipped.
-            // write first skipped byte, push back the rest
-            if (value != -1) { //pushing back first byte of boundary
-                // Stream might have ended
-                i--;
-            }
-            if (needUnread0d0a) { //Pushing all,  returning 13
-                i = i - boundaryIndex;
-                i--; //for 10
-//                value = 13;
+    private void fillBuffer(int min) throws IOException {
+        while (!eof && end < min) {
+            int n = inStream.read(buffer, end, buffer.length - end);
+            if (n == -1) {
+                eof = true;
             } else {
-                i = i - boundaryIndex;
-                i++;
-//                value = boundary[0];
+                end += n;
             }
         }
-        return len;
     }
 
-    public int read() throws IOException {
-        boolean needUnread0d0a = false;
-        if (boundaryFound) {
-            return -1;
+    private int indexOf(byte[] b, int from, int to) {
+        int last = boundary.length - 1;
+        byte lastByte = boundary[last];
+        int i = from;
+        while (i + last < to) {
+            byte c = b[i + last];
+            if (c == lastByte) {
+                int j = last - 1;
+                while (j >= 0 && b[i + j] == boundary[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += skipTable[c & 0xff];
         }
+        return -1;
+    }
 
-        // read the next value from stream
-        int value = inStream.read();
-        // A problem occurred because all the mime parts tends to have a /r/n
-        // at the end. Making it hard to transform them to correct
-        // DataSources.
-        // This logic introduced to handle it
-        if (value == 13) {
-            value = inStream.read();
-            if (value != 10) {
-                inStream.unread(value);
-                return 13;
+    /**
+     * Returns the number of bytes of the given buffer which belong to the part. The bytes following a
+     * boundary, or those which may be the start of one, are pushed back.
+     *
+     * @deprecated no longer used by the read methods, which scan their own buffer
+     */
+    @Deprecated
+    protected int processBuffer(byte[] b, int off, int len) throws IOException {
+        int to = off + len;
+        int idx = indexOf(b, off, to);
+        if (idx == -1) {
+            int start = Math.max(off, to - boundary.length - 1);
+            while (start < to && !isBoundaryStart(b, start, to)) {
+                start++;
             }
-            value = inStream.read();
-            if ((byte) value != boundary[0]) {
-                inStream.unread(value);
-                inStream.unread(10);
-                return 13;
+            if (start < to) {
+                inStream.unread(b, start, to - start);
             }
-            needUnread0d0a = true;
-        } else if ((byte) value != boundary[0]) {
-            return value;
+            return start - off;
         }
-        // read value is the first byte of the boundary. Start matching the
-        // next characters to find a boundary
-        int boundaryIndex = 0;
-        while ((boundaryIndex < boundary.length) && ((byte) value == boundary[boundaryIndex])) {
-            value = inStream.read();
-            boundaryIndex++;
+        int dataEnd = idx;
+        if (idx - off >= 2 && b[idx - 2] == 13 && b[idx - 1] == 10) {
+            dataEnd = idx - 2;
         }
-        if (boundaryIndex == boundary.length) {
-            // boundary found
-            boundaryFound = true;
-            int dashNext = inStream.read();
-            // read the end of line character
-            if (dashNext == 45 && value == 45) {
-                // Last mime boundary should have a succeeding "--"
-                // as we are on it, read the terminating CRLF
-                inStream.read();
-                inStream.read();
-            }
-            return -1;
+        int after = idx + boundary.length;
+        if (after + 1 < to && b[after] == 45 && b[after + 1] == 45) {
+            after += 2;
         }
-        // Boundary not found. Restoring bytes skipped.
-        // write first skipped byte, push back the rest
-        if (value != -1) {
-            // Stream might have ended
-            inStream.unread(value);
+        if (after < to && b[after] == 13) {
+            after++;
         }
-        if (needUnread0d0a) {
-            inStream.unread(boundary, 0, boundaryIndex);
-            inStream.unread(10);
-            value = 13;
-        } else {
-            inStream.unread(boundary, 1, boundaryIndex - 1);
-            value = boundary[0];
+        if (after < to && b[after] == 10) {
+            after++;
         }
-        return value;
+        if (after < to) {
+            inStream.unread(b, after, to - after);
+        }
+        boundaryFound = true;
+        return dataEnd - off;
+    }
+
+    /**
+     * Checks if the bytes from start to the end of the buffer may be followed by the rest of a boundary,
+     * with or without the preceding CRLF.
+     */
+    private boolean isBoundaryStart(byte[] b, int start, int to) {
+        int i = start;
+        if (b[i] == 13) {
+            if (++i < to && b[i++] != 10) {
+                return false;
+            }
+        }
+        for (int j = 0; i < to; i++, j++) {
+            if (b[i] != boundary[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int available() throws IOException {
+        return closed ? 0 : limit - pos;
     }
 
     public void close() throws IOException {
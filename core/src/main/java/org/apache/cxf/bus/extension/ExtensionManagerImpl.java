@@ -26,16 +26,20 @@ import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Enumeration;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.injection.ResourceInjector;
+import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.configuration.ConfiguredBeanLocator;
 import org.apache.cxf.configuration.Configurer;
 import org.apache.cxf.resource.ObjectTypeResolver;
@@ -48,6 +52,10 @@ public class ExtensionManagerImpl implements ExtensionManager, ConfiguredBeanLoc
     public static final String ACTIVATION_NAMESPACES_PROPERTY_NAME = "activationNamespaces";
     public static final String ACTIVATION_NAMESPACES_SETTER_METHOD_NAME = "setActivationNamespaces";
     public static final String BUS_EXTENSION_RESOURCE = "META-INF/cxf/bus-extensions.txt";
+    public static final String BUS_EXTENSION_INDEX_PROPERTY = "org.apache.cxf.bus.extension.index";
+
+    private static final Map<ClassLoader, Map<String, List<Extension>>> EXTENSION_TEMPLATES =
+        new WeakHashMap<>();
 
     private final ClassLoader loader;
     private ResourceManager resourceManager;
@@ -157,30 +165,74 @@ public class ExtensionManagerImpl implements ExtensionManager, ConfiguredBeanLoc
         load(resource, loader);
     }
     final synchronized void load(String resource, ClassLoader l) throws IOException {
+        for (Extension template : getExtensionTemplates(resource, l)) {
+            if (!all.containsKey(template.getName())) {
+                Extension e = template.cloneNoObject();
+                e.classloader = l;
+                all.put(e.getName(), e);
+                ordered.add(e);
+            }
+        }
+    }
 
-        Enumeration<URL> urls = l.getResources(resource);
+    /**
+     * Returns the extensions declared in the resources of the class loader. The resources are only
+     * located and parsed for the first bus created with a class loader, the following buses get
+     * copies of the parsed extensions. If the {@link #BUS_EXTENSION_INDEX_PROPERTY} system property
+     * names a resource which merges all the bus-extensions.txt of the application, this single
+     * resource is read instead of scanning the class path.
+     */
+    private static List<Extension> getExtensionTemplates(String resource, ClassLoader l) throws IOException {
+        synchronized (EXTENSION_TEMPLATES) {
+            Map<String, List<Extension>> templates =
+                EXTENSION_TEMPLATES.computeIfAbsent(l, k -> new HashMap<>());
+            List<Extension> exts = templates.get(resource);
+            if (exts == null) {
+                exts = parseExtensions(resource, l);
+                templates.put(resource, exts);
+            }
+            return exts;
+        }
+    }
 
-        while (urls.hasMoreElements()) {
-            final URL url = urls.nextElement();
+    private static List<Extension> parseExtensions(String resource, ClassLoader l) throws IOException {
+        List<URL> urls = null;
+        if (BUS_EXTENSION_RESOURCE.equals(resource)) {
+            String index = SystemPropertyAction.getPropertyOrNull(BUS_EXTENSION_INDEX_PROPERTY);
+            URL url = index == null ? null : l.getResource(index);
+            if (url != null) {
+                urls = Collections.singletonList(url);
+            }
+        }
+        if (urls == null) {
+            urls = Collections.list(l.getResources(resource));
+        }
+
+        // the templates do not reference the class loader, which is only set on their copies
+        TextExtensionFragmentParser parser = new TextExtensionFragmentParser(null);
+        List<Extension> exts = new ArrayList<>();
+        for (final URL url : urls) {
             try (InputStream is = AccessController.doPrivileged(new PrivilegedExceptionAction<InputStream>() {
                     public InputStream run() throws Exception {
                         return url.openStream();
                     }
                 })) {
-                List<Extension> exts = new TextExtensionFragmentParser(loader).getExtensions(is);
-                for (Extension e : exts) {
-                    if (loader != l) {
-                        e.classloader = l;
-                    }
-                    if (!all.containsKey(e.getName())) {
-                        all.put(e.getName(), e);
-                        ordered.add(e);
-                    }
-                }
+                exts.addAll(parser.getExtensions(is));
             } catch (PrivilegedActionException pae) {
                 throw (IOException)pae.getException();
             }
         }
+        return exts;
+    }
+
+    /**
+     * Discards the extensions parsed for the previously created buses, so that the resources are
+     * read again when the next bus is created.
+     */
+    public static void clearExtensionCache() {
+        synchronized (EXTENSION_TEMPLATES) {
+            EXTENSION_TEMPLATES.clear();
+        }
     }
 
     final void loadAndRegister(Extension e) {
@@ -0,0 +1,429 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.common.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.CodeSource;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.version.Version;
+
+/**
+ * A directory in which artifacts derived from classes, such as generated schemas or wrapper class
+ * bytecode, are kept across restarts. The entries are keyed by a fingerprint of the classes they
+ * are derived from, so that a changed class leads to a new entry. The cache is only used if the
+ * {@link #CACHE_DIRECTORY_PROPERTY} system property is set. Failing to read or write an entry is
+ * never an error, the artifact is then just computed again.
+ * <p>
+ * The directory is created readable by its owner only, and a directory writable by other users is
+ * not used. Every entry is stored with an HMAC computed with a random key kept in the directory, and
+ * an entry whose HMAC does not match is deleted instead of being returned. Entries that have not been
+ * used for {@link #MAX_AGE_DAYS} days are deleted.
+ */
+public final class PersistentCache {
+    public static final String CACHE_DIRECTORY_PROPERTY = "org.apache.cxf.persistent.cache.dir";
+    public static final int MAX_AGE_DAYS = 30;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(PersistentCache.class);
+    private static final Map<String, PersistentCache> INSTANCES = new ConcurrentHashMap<>();
+    private static final String SECRET_FILE = ".secret";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SECRET_LENGTH = 32;
+    private static final int HMAC_LENGTH = 32;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(MAX_AGE_DAYS);
+    private static final long TOUCH_INTERVAL = TimeUnit.DAYS.toMillis(1);
+    private static final long TMP_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path directory;
+    private final Set<String> prunedAreas = ConcurrentHashMap.newKeySet();
+    private volatile SecretKeySpec secret;
+
+    public PersistentCache(File directory) {
+        this.directory = directory.toPath();
+    }
+
+    /**
+     * @return the cache in the directory set by the {@link #CACHE_DIRECTORY_PROPERTY} system
+     * property, or null if it is not set or the directory is writable by other users
+     */
+    public static PersistentCache getInstance() {
+        String dir = SystemPropertyAction.getPropertyOrNull(CACHE_DIRECTORY_PROPERTY);
+        if (StringUtils.isEmpty(dir)) {
+            return null;
+        }
+        PersistentCache cache = INSTANCES.computeIfAbsent(dir, d -> new PersistentCache(new File(d)));
+        return cache.isSecure() ? cache : null;
+    }
+
+    /**
+     * Creates the key of an artifact from the classes it is derived from and the configuration
+     * values it depends on. The key covers the bytecode of the classes, the size and time stamp of
+     * the jars or directories they are loaded from, the CXF and Java versions and the values.
+     * The values may be null, strings, numbers, booleans, enums, QNames, URIs, classes, methods,
+     * types, annotations and arrays, collections and maps of them, the entries of maps and sets are
+     * sorted. Anything else has no representation that is the same in every JVM.
+     *
+     * @return the key, or null if one of the values can't be represented, the artifact must then
+     * not be cached
+     */
+    public static String createKey(Collection<Class<?>> classes, Object... params) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new SecurityException(ex);
+        }
+        update(digest, Version.getCompleteVersionString());
+        update(digest, SystemPropertyAction.getProperty("java.version"));
+        for (Object param : params) {
+            String value = toStableString(param);
+            if (value == null) {
+                LOG.log(Level.FINE, "Not caching, no stable representation of {0}", param.getClass());
+                return null;
+            }
+            update(digest, value);
+        }
+        List<Class<?>> sorted = classes.stream()
+            .sorted(Comparator.comparing(Class::getName)).collect(Collectors.toList());
+        for (Class<?> cls : sorted) {
+            update(digest, cls.getName());
+            updateClass(digest, cls);
+        }
+        return Base64UrlUtility.encode(digest.digest());
+    }
+
+    /**
+     * @return a representation of the value that does not depend on the JVM it is created in, or
+     * null if there is none
+     */
+    static String toStableString(Object value) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+            || value instanceof Character || value instanceof QName || value instanceof URI) {
+            return value.getClass().getName() + ':' + value;
+        } else if (value instanceof Enum) {
+            return ((Enum<?>)value).getDeclaringClass().getName() + ':' + ((Enum<?>)value).name();
+        } else if (value instanceof Class) {
+            return "class:" + ((Class<?>)value).getName();
+        } else if (value instanceof Method) {
+            return "method:" + ((Method)value).toGenericString();
+        } else if (value instanceof Type) {
+            return "type:" + ((Type)value).getTypeName();
+        } else if (value instanceof Annotation) {
+            // the annotation classes are part of the key, their toString lists the member values
+            return "annotation:" + value;
+        } else if (value instanceof Map) {
+            Map<String, String> entries = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+                String k = toStableString(entry.getKey());
+                String v = toStableString(entry.getValue());
+                if (k == null || v == null) {
+                    return null;
+                }
+                entries.put(k, v);
+            }
+            return "map:" + entries;
+        } else if (value instanceof Collection) {
+            List<String> elements = new ArrayList<>();
+            for (Object element : (Collection<?>)value) {
+                String s = toStableString(element);
+                if (s == null) {
+                    return null;
+                }
+                elements.add(s);
+            }
+            if (value instanceof Set && !(value instanceof SortedSet)) {
+                Collections.sort(elements);
+            }
+            return "collection:" + elements;
+        } else if (value instanceof Object[]) {
+            return toStableString(Arrays.asList((Object[])value));
+        }
+        return null;
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+
+    private static void updateClass(MessageDigest digest, Class<?> cls) {
+        if (cls.isPrimitive() || cls.isArray()) {
+            return;
+        }
+        ClassLoader loader = cls.getClassLoader();
+        String resource = cls.getName().replace('.', '/') + ".class";
+        try (InputStream in = loader == null
+            ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource)) {
+            if (in != null) {
+                digest.update(IOUtils.readBytesFromStream(in));
+            }
+        } catch (IOException ex) {
+            // the jar or directory is still covered below
+        }
+        CodeSource source = cls.getProtectionDomain().getCodeSource();
+        URL location = source == null ? null : source.getLocation();
+        if (location != null && "file".equals(location.getProtocol())) {
+            File file = new File(location.getPath());
+            update(digest, location + ":" + file.length() + ":" + file.lastModified());
+        }
+    }
+
+    /**
+     * @return the content of the entry, or null if there is no such entry or it has been modified
+     */
+    public byte[] get(String area, String key) {
+        if (key == null) {
+            return null;
+        }
+        Path file = directory.resolve(area).resolve(key);
+        try {
+            byte[] entry = Files.readAllBytes(file);
+            if (entry.length < HMAC_LENGTH) {
+                throw new IOException("Truncated entry");
+            }
+            byte[] content = Arrays.copyOfRange(entry, HMAC_LENGTH, entry.length);
+            if (!MessageDigest.isEqual(Arrays.copyOf(entry, HMAC_LENGTH), hmac(area, key, content))) {
+                LOG.log(Level.WARNING, "Deleting the modified entry " + file);
+                Files.deleteIfExists(file);
+                return null;
+            }
+            touch(file);
+            return content;
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | GeneralSecurityException ex) {
+            LOG.log(Level.FINE, "Could not read " + file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the entry. The content is written to a temporary file first, which is then moved to
+     * the entry, so that concurrent readers in other processes never see a partial entry. The first
+     * write to an area of this cache deletes the entries of the area that have not been used for
+     * {@link #MAX_AGE_DAYS} days.
+     */
+    public void put(String area, String key, byte[] content) {
+        if (key == null) {
+            return;
+        }
+        Path dir = directory.resolve(area);
+        Path tmp = null;
+        try {
+            byte[] mac = hmac(area, key, content);
+            createDirectory(dir);
+            if (prunedAreas.add(area)) {
+                prune(dir);
+            }
+            // temporary files are only readable by their owner
+            tmp = Files.createTempFile(dir, key, ".tmp");
+            byte[] entry = Arrays.copyOf(mac, HMAC_LENGTH + content.length);
+            System.arraycopy(content, 0, entry, HMAC_LENGTH, content.length);
+            Files.write(tmp, entry);
+            Files.move(tmp, dir.resolve(key), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+            tmp = null;
+        } catch (IOException | GeneralSecurityException | UnsupportedOperationException ex) {
+            LOG.log(Level.FINE, "Could not write " + dir.resolve(key), ex);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Deletes the entry, for example because its content turned out to be unusable.
+     */
+    public void remove(String area, String key) {
+        if (key != null) {
+            deleteQuietly(directory.resolve(area).resolve(key));
+        }
+    }
+
+    private boolean isSecure() {
+        if (!Files.isDirectory(directory) || !isPosix()) {
+            return true;
+        }
+        try {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+            if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+                || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                LOG.log(Level.WARNING, "Not using the cache directory " + directory
+                    + ", it is writable by other users");
+                return false;
+            }
+            return true;
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, "Could not check " + directory, ex);
+            return false;
+        }
+    }
+
+    private boolean isPosix() {
+        return directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private void createDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            if (isPosix()) {
+                Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            } else {
+                Files.createDirectories(dir);
+            }
+        }
+    }
+
+    private byte[] hmac(String area, String key, byte[] content)
+        throws IOException, GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(getSecret());
+        mac.update(area.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte)0);
+        mac.update(key.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte)0);
+        return mac.doFinal(content);
+    }
+
+    private SecretKeySpec getSecret() throws IOException {
+        SecretKeySpec s = secret;
+        if (s == null) {
+            synchronized (this) {
+                s = secret;
+                if (s == null) {
+                    s = new SecretKeySpec(loadSecret(), HMAC_ALGORITHM);
+                    secret = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Reads the key of the HMACs, or creates it if this is the first use of the directory. Another
+     * process creating it at the same time just invalidates the entries written with the other key.
+     */
+    private byte[] loadSecret() throws IOException {
+        Path file = directory.resolve(SECRET_FILE);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                byte[] s = Files.readAllBytes(file);
+                if (s.length != SECRET_LENGTH) {
+                    throw new IOException("Invalid " + file);
+                }
+                return s;
+            } catch (NoSuchFileException ex) {
+                // created below
+            }
+            createDirectory(directory);
+            byte[] s = new byte[SECRET_LENGTH];
+            new SecureRandom().nextBytes(s);
+            Path tmp = Files.createTempFile(directory, SECRET_FILE, ".tmp");
+            try {
+                Files.write(tmp, s);
+                Files.move(tmp, file);
+                tmp = null;
+                return s;
+            } catch (FileAlreadyExistsException ex) {
+                // created by another process in the meantime, read it
+            } finally {
+                deleteQuietly(tmp);
+            }
+        }
+        throw new IOException("Could not create " + file);
+    }
+
+    private static void touch(Path file) {
+        try {
+            long now = System.currentTimeMillis();
+            if (Files.getLastModifiedTime(file).toMillis() < now - TOUCH_INTERVAL) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(now));
+            }
+        } catch (IOException ex) {
+            // only delays its pruning
+        }
+    }
+
+    private static void prune(Path dir) {
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                long maxAge = file.getFileName().toString().endsWith(".tmp") ? TMP_MAX_AGE : MAX_AGE;
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toMillis() < now - maxAge) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, "Could not prune " + dir, ex);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.common.xmlschema;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.util.Base64Utility;
+
+/**
+ * A bus wide cache of compiled schemas, such as javax.xml.validation.Schema or the Woodstox
+ * XMLValidationSchema, keyed by a digest of the schema documents they are compiled from. The
+ * endpoints and clients of services sharing the same schema set then share one compiled grammar
+ * instead of compiling and retaining a copy each. The cache only keeps weak references to the
+ * schemas, which are held by the services using them.
+ */
+public final class CompiledSchemaCache {
+    private static final CompiledSchemaCache DEFAULT = new CompiledSchemaCache();
+
+    private final Map<String, Holder> schemas = new ConcurrentHashMap<>();
+
+    public CompiledSchemaCache() {
+    }
+
+    /**
+     * Returns the cache of the bus, or a cache shared by the callers without a bus.
+     */
+    public static CompiledSchemaCache getInstance(Bus bus) {
+        if (bus == null) {
+            return DEFAULT;
+        }
+        CompiledSchemaCache cache = bus.getExtension(CompiledSchemaCache.class);
+        if (cache == null) {
+            synchronized (bus) {
+                cache = bus.getExtension(CompiledSchemaCache.class);
+                if (cache == null) {
+                    cache = new CompiledSchemaCache();
+                    bus.setExtension(cache, CompiledSchemaCache.class);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Creates the key of a schema set from the system ids and the serialized documents of its
+     * schemas, in the order they are compiled.
+     */
+    public static String createKey(Map<String, byte[]> sources) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new SecurityException(ex);
+        }
+        for (Map.Entry<String, byte[]> entry : sources.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+            digest.update(entry.getValue());
+            digest.update((byte)0);
+        }
+        return Base64Utility.encode(digest.digest());
+    }
+
+    /**
+     * Returns the cached schema of the given type for the key, compiling it with the compiler if
+     * it is not cached. A schema is only compiled once for concurrent callers with the same key.
+     *
+     * @return the schema, or null if the compiler returned null, which is not cached
+     */
+    public <T> T getSchema(Class<T> type, String key, Callable<T> compiler) throws Exception {
+        Holder holder = schemas.computeIfAbsent(type.getName() + ':' + key, k -> new Holder());
+        synchronized (holder) {
+            Object schema = holder.get();
+            if (schema == null) {
+                schemas.values().removeIf(Holder::isCleared);
+                schema = compiler.call();
+                if (schema == null) {
+                    return null;
+                }
+                holder.schema = new WeakReference<>(schema);
+                schemas.put(type.getName() + ':' + key, holder);
+            }
+            return type.cast(schema);
+        }
+    }
+
+    /**
+     * @return the number of compiled schemas which are still in use
+     */
+    public int size() {
+        int size = 0;
+        for (Holder holder : schemas.values()) {
+            if (holder.get() != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        schemas.clear();
+    }
+
+    private static final class Holder {
+        volatile WeakReference<Object> schema;
+
+        Object get() {
+            WeakReference<Object> ref = schema;
+            return ref == null ? null : ref.get();
+        }
+
+        boolean isCleared() {
+            WeakReference<Object> ref = schema;
+            return ref != null && ref.get() == null;
+        }
+    }
+}
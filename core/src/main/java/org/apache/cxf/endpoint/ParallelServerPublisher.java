@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
+import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.service.factory.ServiceConstructionException;
+
+/**
+ * Publishes many servers at once. The service models of the servers, with their JAXB contexts,
+ * schemas and WSDL definitions, are prepared in parallel on a fork-join pool, then the servers are
+ * created and started one at a time in the order of the factories, so that the servers are
+ * registered and the destinations are bound in the same order as when they are published one
+ * by one.
+ */
+public class ParallelServerPublisher {
+    public static final String PHASE_PREPARE = "prepare";
+    public static final String PHASE_CREATE = "create";
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ParallelServerPublisher.class);
+
+    private final ForkJoinPool pool;
+    private final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+
+    public ParallelServerPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelServerPublisher(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Publishes the servers of the factories.
+     *
+     * @param factories the factories of the servers
+     * @return the servers, in the order of the factories
+     */
+    public List<Server> publish(List<? extends ServerFactory> factories) {
+        long start = System.nanoTime();
+        prepare(factories);
+        long prepared = System.nanoTime();
+
+        List<Server> servers = new ArrayList<>(factories.size());
+        try {
+            for (ServerFactory factory : factories) {
+                servers.add(factory.create());
+            }
+        } catch (RuntimeException ex) {
+            for (Server server : servers) {
+                server.destroy();
+            }
+            throw ex;
+        }
+        long end = System.nanoTime();
+
+        long prepareTime = TimeUnit.NANOSECONDS.toMillis(prepared - start);
+        long createTime = TimeUnit.NANOSECONDS.toMillis(end - prepared);
+        synchronized (phaseTimes) {
+            phaseTimes.put(PHASE_PREPARE, prepareTime);
+            phaseTimes.put(PHASE_CREATE, createTime);
+        }
+        LOG.log(Level.INFO, "SERVERS_PUBLISHED", new Object[] {servers.size(),
+            TimeUnit.NANOSECONDS.toMillis(end - start), prepareTime, pool.getParallelism(), createTime});
+        return servers;
+    }
+
+    /**
+     * @return the time in milliseconds each phase of the last publication took
+     */
+    public Map<String, Long> getPhaseTimes() {
+        synchronized (phaseTimes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(phaseTimes));
+        }
+    }
+
+    private void prepare(List<? extends ServerFactory> factories) {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(factories.size());
+        for (ServerFactory factory : factories) {
+            tasks.add(pool.submit(() -> {
+                ClassLoaderHolder orig = ClassLoaderUtils.setThreadContextClassloader(loader);
+                try {
+                    factory.prepare();
+                } finally {
+                    orig.reset();
+                }
+            }));
+        }
+        // wait for all the factories, then report the failure of the first one in order
+        Throwable failure = null;
+        for (ForkJoinTask<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ServiceConstructionException(ex);
+            }
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        } else if (failure instanceof Error) {
+            throw (Error)failure;
+        } else if (failure != null) {
+            throw new ServiceConstructionException(failure);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.endpoint;
+
+/**
+ * A factory of servers which can build the service model of the server, that is the data binding
+ * contexts, the schemas and the WSDL model, before the server is created. The preparation of
+ * different factories may run concurrently, see {@link ParallelServerPublisher}.
+ */
+public interface ServerFactory {
+
+    /**
+     * Builds the service model of the server to create. Calling it is optional, {@link #create()}
+     * builds the service model if it has not been prepared.
+     */
+    void prepare();
+
+    Server create();
+}
@@ -31,6 +31,7 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
+import org.apache.cxf.staxutils.transform.TransformPlan;
 import org.apache.cxf.staxutils.transform.TransformUtils;
 
 
@@ -45,6 +46,8 @@ public class TransformInInterceptor extends AbstractPhaseInterceptor<Message> {
     private Map<String, String> inAttributesMap;
     private boolean blockOriginalReader = true;
     private String contextPropertyName;
+    private volatile TransformPlan plan;
+    private volatile boolean planCreated;
 
     public TransformInInterceptor() {
         this(Phase.POST_STREAM);
@@ -86,27 +89,41 @@ public class TransformInInterceptor extends AbstractPhaseInterceptor<Message> {
 
     protected XMLStreamReader createTransformReaderIfNeeded(XMLStreamReader reader, InputStream is) {
         return TransformUtils.createTransformReaderIfNeeded(reader, is,
-                                                            inDropElements,
-                                                            inElementsMap,
-                                                            inAppendMap,
-                                                            inAttributesMap,
+                                                            getTransformPlan(),
                                                             blockOriginalReader);
     }
 
+    /**
+     * Returns the plan of the configured transformation, which is created once and shared by the
+     * readers of all the messages.
+     */
+    protected TransformPlan getTransformPlan() {
+        if (!planCreated) {
+            plan = TransformUtils.createTransformPlanIfNeeded(inElementsMap, inAppendMap,
+                                                              inDropElements, inAttributesMap);
+            planCreated = true;
+        }
+        return plan;
+    }
+
     public void setInAppendElements(Map<String, String> inElements) {
         this.inAppendMap = inElements;
+        planCreated = false;
     }
 
     public void setInDropElements(List<String> dropElementsSet) {
         this.inDropElements = dropElementsSet;
+        planCreated = false;
     }
 
     public void setInTransformElements(Map<String, String> inElements) {
         this.inElementsMap = inElements;
+        planCreated = false;
     }
 
     public void setInTransformAttributes(Map<String, String> inAttributes) {
         this.inAttributesMap = inAttributes;
+        planCreated = false;
     }
 
     public void setBlockOriginalReader(boolean blockOriginalReader) {
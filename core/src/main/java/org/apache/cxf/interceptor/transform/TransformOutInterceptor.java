@@ -35,6 +35,7 @@ import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
 import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.apache.cxf.staxutils.transform.TransformPlan;
 import org.apache.cxf.staxutils.transform.TransformUtils;
 
 import static org.apache.cxf.interceptor.AbstractOutDatabindingInterceptor.DISABLE_OUTPUTSTREAM_OPTIMIZATION;
@@ -57,6 +58,8 @@ public class TransformOutInterceptor extends AbstractPhaseInterceptor<Message> {
     private boolean skipOnFault;
     private String contextPropertyName;
     private String defaultNamespace;
+    private volatile TransformPlan plan;
+    private volatile boolean planCreated;
 
     public TransformOutInterceptor() {
         this(Phase.PRE_STREAM);
@@ -128,32 +131,51 @@ public class TransformOutInterceptor extends AbstractPhaseInterceptor<Message> {
     }
 
     protected XMLStreamWriter createTransformWriterIfNeeded(XMLStreamWriter writer, OutputStream os) {
+        if (outElementsMap == null && outDropElements == null && outAppendMap == null
+            && !attributesToElements) {
+            // the attributes alone do not cause the message to be transformed
+            return writer;
+        }
         Message m = PhaseInterceptorChain.getCurrentMessage();
         String encoding = getEncoding(m);
         return TransformUtils.createTransformWriterIfNeeded(writer, os,
-                                                      outElementsMap,
-                                                      outDropElements,
-                                                      outAppendMap,
-                                                      outAttributesMap,
+                                                      getTransformPlan(),
                                                       attributesToElements,
                                                       defaultNamespace,
                                                       encoding);
     }
 
+    /**
+     * Returns the plan of the configured transformation, which is created once and shared by the
+     * writers of all the messages.
+     */
+    protected TransformPlan getTransformPlan() {
+        if (!planCreated) {
+            plan = TransformUtils.createTransformPlanIfNeeded(outElementsMap, outAppendMap,
+                                                              outDropElements, outAttributesMap);
+            planCreated = true;
+        }
+        return plan;
+    }
+
     public void setOutTransformElements(Map<String, String> outElements) {
         this.outElementsMap = outElements;
+        planCreated = false;
     }
 
     public void setOutAppendElements(Map<String, String> map) {
         this.outAppendMap = map;
+        planCreated = false;
     }
 
     public void setOutDropElements(List<String> dropElementsSet) {
         this.outDropElements = dropElementsSet;
+        planCreated = false;
     }
 
     public void setOutTransformAttributes(Map<String, String> outAttributes) {
         this.outAttributesMap = outAttributes;
+        planCreated = false;
     }
 
     public void setAttributesToElements(boolean value) {
@@ -19,8 +19,6 @@
 package org.apache.cxf.staxutils.transform;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -46,9 +44,9 @@ public class InTransformReader extends DepthXMLStreamReader {
 
     private QNamesMap inElementsMap;
     private QNamesMap inAttributesMap;
-    private Map<QName, ElementProperty> inAppendMap = new HashMap<>(5);
-    private Set<QName> inDropSet = new HashSet<>(5);
-    private Map<String, String> nsMap = new HashMap<>(5);
+    private Map<QName, ElementProperty> inAppendMap;
+    private Set<QName> inDropSet;
+    private Map<String, String> nsMap;
     private List<ParsingEvent> pushedBackEvents = new LinkedList<>();
     private List<List<ParsingEvent>> pushedAheadEvents = new LinkedList<>();
     private String replaceText;
@@ -72,15 +70,19 @@ public class InTransformReader extends DepthXMLStreamReader {
                              List<String> dropESet,
                              Map<String, String> inAMap,
                              boolean blockOriginalReader) {
+        this(reader, new TransformPlan(inEMap, appendMap, dropESet, inAMap), blockOriginalReader);
+    }
+
+    public InTransformReader(XMLStreamReader reader,
+                             TransformPlan plan,
+                             boolean blockOriginalReader) {
         super(reader);
-        inElementsMap = new QNamesMap(inEMap == null ? 0 : inEMap.size());
-        inAttributesMap = new QNamesMap(inAMap == null ? 0 : inAMap.size());
+        inElementsMap = plan.getElementsMap();
+        inAttributesMap = plan.getAttributesMap();
         this.blockOriginalReader = blockOriginalReader;
-        TransformUtils.convertToQNamesMap(inEMap, inElementsMap, nsMap);
-        TransformUtils.convertToQNamesMap(inAMap, inAttributesMap, null);
-
-        TransformUtils.convertToMapOfElementProperties(appendMap, inAppendMap);
-        TransformUtils.convertToSetOfQNames(dropESet, inDropSet);
+        nsMap = plan.getNsMap();
+        inAppendMap = plan.createAppendMap();
+        inDropSet = plan.getDropElements();
         namespaceContext = new DelegatingNamespaceContext(
             reader.getNamespaceContext(), nsMap);
     }
@@ -19,7 +19,6 @@
 package org.apache.cxf.staxutils.transform;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -34,15 +33,14 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.cxf.common.util.StringUtils;
-import org.apache.cxf.helpers.DOMUtils;
 import org.apache.cxf.staxutils.DelegatingXMLStreamWriter;
 
 public class OutTransformWriter extends DelegatingXMLStreamWriter {
     private String defaultNamespace;
     private QNamesMap elementsMap;
     private QNamesMap attributesMap;
-    private Map<QName, ElementProperty> appendMap = new HashMap<>(5);
-    private Map<String, String> nsMap = new HashMap<>(5);
+    private Map<QName, ElementProperty> appendMap;
+    private Map<String, String> nsMap;
     private List<Set<String>> writtenUris = new LinkedList<>();
 
     private Set<QName> dropElements;
@@ -76,14 +74,20 @@ public class OutTransformWriter extends DelegatingXMLStreamWriter {
                               Map<String, String> outAMap,
                               boolean attributesToElements,
                               String defaultNamespace) {
-        super(writer);
-        elementsMap = new QNamesMap(outEMap == null ? 0 : outEMap.size());
-        attributesMap = new QNamesMap(outAMap == null ? 0 : outAMap.size());
-        TransformUtils.convertToQNamesMap(outEMap, elementsMap, nsMap);
-        TransformUtils.convertToQNamesMap(outAMap, attributesMap, null);
+        this(writer, new TransformPlan(outEMap, append, dropEls, outAMap), attributesToElements,
+             defaultNamespace);
+    }
 
-        TransformUtils.convertToMapOfElementProperties(append, appendMap);
-        dropElements = DOMUtils.convertStringsToQNames(dropEls);
+    public OutTransformWriter(XMLStreamWriter writer,
+                              TransformPlan plan,
+                              boolean attributesToElements,
+                              String defaultNamespace) {
+        super(writer);
+        elementsMap = plan.getElementsMap();
+        attributesMap = plan.getAttributesMap();
+        nsMap = plan.getNsMap();
+        appendMap = plan.createAppendMap();
+        dropElements = plan.getDropElements();
         this.attributesToElements = attributesToElements;
         namespaceContext = new DelegatingNamespaceContext(
             writer.getNamespaceContext(), nsMap);
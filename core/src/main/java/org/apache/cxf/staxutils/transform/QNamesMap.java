@@ -16,43 +16,58 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.cxf.staxutils.transform;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.xml.namespace.QName;
 
+/**
+ * Maps the names of elements or attributes, {ns}* keys mapping all the names of a namespace. A name
+ * matching several keys is mapped by the key which was put first. Once populated, the map is only
+ * read, so that it can be shared by the readers and writers using the same {@link TransformPlan}.
+ */
 class QNamesMap {
-    private QName[] keys;
-    private QName[] values;
+    private final Map<QName, Mapping> names;
+    private final Map<String, Mapping> wildcards = new HashMap<>(4);
     private int index;
 
     QNamesMap(int size) {
-        keys = new QName[size];
-        values = new QName[size];
+        names = new HashMap<>(size * 2);
     }
 
     public void put(QName key, QName value) {
-        keys[index] = key;
-        values[index] = value;
-        index++;
+        Mapping mapping = new Mapping(index++, value);
+        if ("*".equals(key.getLocalPart())) {
+            wildcards.putIfAbsent(key.getNamespaceURI(), mapping);
+        } else {
+            names.putIfAbsent(key, mapping);
+        }
     }
 
     public QName get(QName key) {
-        for (int i = 0; i < keys.length; i++) {
-            if (keys[i].getNamespaceURI().equals(key.getNamespaceURI())) {
-                if (keys[i].getLocalPart().equals(key.getLocalPart())) {
-                    return values[i];
-                } else if ("*".equals(keys[i].getLocalPart())) {
-                    // assume it is something like {somens}* => * or {somens}* => {anotherns}*
-                    // and return QName(nsuri, lcname) which covers both cases.
-                    return new QName(values[i].getNamespaceURI(), key.getLocalPart());
-                }
-            }
+        Mapping name = names.get(key);
+        Mapping wildcard = wildcards.isEmpty() ? null : wildcards.get(key.getNamespaceURI());
+        if (wildcard != null && (name == null || wildcard.position < name.position)) {
+            // assume it is something like {somens}* => * or {somens}* => {anotherns}*
+            // and return QName(nsuri, lcname) which covers both cases.
+            return new QName(wildcard.value.getNamespaceURI(), key.getLocalPart());
         }
-        return null;
+        return name == null ? null : name.value;
     }
 
     public int size() {
         return index;
     }
+
+    private static final class Mapping {
+        final int position;
+        final QName value;
+
+        Mapping(int position, QName value) {
+            this.position = position;
+            this.value = value;
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.staxutils.transform;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.helpers.DOMUtils;
+
+/**
+ * The parsed element, attribute, append and drop rules of a transformation. Parsing the QName strings
+ * of the configuration is done once when the plan is created, and the plan is never modified
+ * afterwards, so a TransformInInterceptor or TransformOutInterceptor can share its plan between the
+ * InTransformReader or OutTransformWriter instances created for each message.
+ */
+public final class TransformPlan {
+    private final QNamesMap elementsMap;
+    private final QNamesMap attributesMap;
+    private final Map<String, String> nsMap;
+    private final Map<QName, ElementProperty> appendMap;
+    private final Set<QName> dropElements;
+
+    public TransformPlan(Map<String, String> elementsMap,
+                         Map<String, String> appendMap,
+                         List<String> dropElements,
+                         Map<String, String> attributesMap) {
+        Map<String, String> ns = new HashMap<>(5);
+        this.elementsMap = new QNamesMap(elementsMap == null ? 0 : elementsMap.size());
+        TransformUtils.convertToQNamesMap(elementsMap, this.elementsMap, ns);
+        this.attributesMap = new QNamesMap(attributesMap == null ? 0 : attributesMap.size());
+        TransformUtils.convertToQNamesMap(attributesMap, this.attributesMap, null);
+        this.nsMap = Collections.unmodifiableMap(ns);
+
+        Map<QName, ElementProperty> append = new HashMap<>(5);
+        TransformUtils.convertToMapOfElementProperties(appendMap, append);
+        this.appendMap = Collections.unmodifiableMap(append);
+        this.dropElements = Collections.unmodifiableSet(DOMUtils.convertStringsToQNames(dropElements));
+    }
+
+    QNamesMap getElementsMap() {
+        return elementsMap;
+    }
+
+    QNamesMap getAttributesMap() {
+        return attributesMap;
+    }
+
+    Map<String, String> getNsMap() {
+        return nsMap;
+    }
+
+    /**
+     * @return a copy of the append rules, from which the reader or writer removes the rules it has
+     *         applied
+     */
+    Map<QName, ElementProperty> createAppendMap() {
+        return new HashMap<>(appendMap);
+    }
+
+    Set<QName> getDropElements() {
+        return dropElements;
+    }
+}
@@ -116,6 +116,46 @@ public final class TransformUtils {
         return reader;
     }
 
+    /**
+     * Creates the plan of the transformation configured by the given rules, or returns null if there
+     * is nothing to transform.
+     */
+    public static TransformPlan createTransformPlanIfNeeded(Map<String, String> elementsMap,
+                                                            Map<String, String> appendMap,
+                                                            List<String> dropElements,
+                                                            Map<String, String> attributesMap) {
+        if (elementsMap != null || appendMap != null || dropElements != null || attributesMap != null) {
+            return new TransformPlan(elementsMap, appendMap, dropElements, attributesMap);
+        }
+        return null;
+    }
+
+    public static XMLStreamWriter createTransformWriterIfNeeded(XMLStreamWriter writer,
+                                                                OutputStream os,
+                                                                TransformPlan plan,
+                                                                boolean attributesToElements,
+                                                                String defaultNamespace,
+                                                                String encoding) {
+        if (plan != null || attributesToElements) {
+            if (plan == null) {
+                plan = new TransformPlan(null, null, null, null);
+            }
+            writer = new OutTransformWriter(createNewWriterIfNeeded(writer, os, encoding), plan,
+                                            attributesToElements, defaultNamespace);
+        }
+        return writer;
+    }
+
+    public static XMLStreamReader createTransformReaderIfNeeded(XMLStreamReader reader,
+                                                                InputStream is,
+                                                                TransformPlan plan,
+                                                                boolean blockOriginalReader) {
+        if (plan != null) {
+            reader = new InTransformReader(createNewReaderIfNeeded(reader, is), plan, blockOriginalReader);
+        }
+        return reader;
+    }
+
     protected static void convertToQNamesMap(Map<String, String> map,
                                              QNamesMap elementsMap,
                                              Map<String, String> nsMap) {
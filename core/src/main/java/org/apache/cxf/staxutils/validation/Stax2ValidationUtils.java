@@ -20,6 +20,8 @@
 package org.apache.cxf.staxutils.validation;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
@@ -37,9 +39,11 @@ import org.w3c.dom.Element;
 
 import org.xml.sax.InputSource;
 
+import org.apache.cxf.BusFactory;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.i18n.Message;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.xmlschema.CompiledSchemaCache;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.service.model.SchemaInfo;
@@ -187,9 +191,15 @@ class Stax2ValidationUtils {
                 }
 
                 try {
-                    // I don't think that we need the baseURI.
-                    Method method = multiSchemaFactory.getMethod("createSchema", String.class, Map.class);
-                    ret = (XMLValidationSchema) method.invoke(multiSchemaFactory.newInstance(), null, sources);
+                    // endpoints and clients of services with the same schemas share the validation schema
+                    ret = CompiledSchemaCache.getInstance(BusFactory.getThreadDefaultBus(false))
+                        .getSchema(XMLValidationSchema.class, createKey(sources), () -> {
+                            // I don't think that we need the baseURI.
+                            Method method =
+                                multiSchemaFactory.getMethod("createSchema", String.class, Map.class);
+                            return (XMLValidationSchema) method.invoke(multiSchemaFactory.newInstance(),
+                                                                       null, sources);
+                        });
                     endpoint.put(KEY, ret);
                 } catch (Throwable t) {
                     LOG.log(Level.INFO, "Problem loading schemas. Falling back to slower method.", ret);
@@ -209,6 +219,15 @@ class Stax2ValidationUtils {
         sources.put(schema.getTargetNamespace(), new DOMSource(element, schemaSystemId));
     }
 
+    private static String createKey(Map<String, Source> sources) {
+        Map<String, byte[]> documents = new LinkedHashMap<>();
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            documents.put(entry.getKey() + ':' + entry.getValue().getSystemId(),
+                          StaxUtils.toString(entry.getValue()).getBytes(StandardCharsets.UTF_8));
+        }
+        return CompiledSchemaCache.createKey(documents);
+    }
+
     private Element getElement(String path) throws XMLStreamException {
         InputSource in = new InputSource(path);
         Document doc = StaxUtils.read(in);
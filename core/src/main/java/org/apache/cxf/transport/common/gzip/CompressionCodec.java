@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A content coding which the {@link GZIPOutInterceptor} and {@link GZIPInInterceptor} can use
+ * to compress and uncompress messages. Codecs for codings the JDK has no support for, such as br or
+ * zstd, can be plugged in through {@link GZIPFeature#setCodecs}.
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the name of the content coding, as used in the Content-Encoding and
+     *         Accept-Encoding headers
+     */
+    String getEncoding();
+
+    /**
+     * Wraps the stream in a stream which compresses the data written to it. Closing the returned
+     * stream closes the wrapped one.
+     *
+     * @param out the stream the compressed data is written to
+     * @param level the compression level, from 0 to 9 or -1 for the default level of the codec
+     */
+    OutputStream compress(OutputStream out, int level) throws IOException;
+
+    /**
+     * Wraps the stream in a stream which uncompresses the data read from it. Closing the returned
+     * stream closes the wrapped one.
+     */
+    InputStream decompress(InputStream in) throws IOException;
+}
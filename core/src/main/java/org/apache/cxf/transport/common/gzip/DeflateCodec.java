@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The deflate content coding, which is the zlib format, using pooled Deflater and Inflater
+ * instances.
+ */
+public class DeflateCodec implements CompressionCodec {
+    private final DeflatePool pool;
+
+    public DeflateCodec() {
+        this(DeflatePool.getDefault());
+    }
+
+    public DeflateCodec(DeflatePool pool) {
+        this.pool = pool;
+    }
+
+    public String getEncoding() {
+        return "deflate";
+    }
+
+    public OutputStream compress(OutputStream out, int level) throws IOException {
+        return new PooledDeflaterOutputStream(out, pool, level, false);
+    }
+
+    public InputStream decompress(InputStream in) throws IOException {
+        return new PooledInflaterInputStream(in, pool, false);
+    }
+}
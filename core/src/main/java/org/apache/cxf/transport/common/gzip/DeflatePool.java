@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A pool of the Deflater and Inflater instances used by the gzip and deflate codecs. Each of them
+ * holds native zlib memory which is only released by end() or once the instance has been garbage
+ * collected, so they are reset and reused rather than created for each message.
+ */
+public class DeflatePool {
+
+    private static final DeflatePool DEFAULT_POOL =
+        new DeflatePool(Runtime.getRuntime().availableProcessors() * 2);
+
+    private final BlockingQueue<Deflater> deflaters;
+    private final BlockingQueue<Deflater> rawDeflaters;
+    private final BlockingQueue<Inflater> inflaters;
+    private final BlockingQueue<Inflater> rawInflaters;
+
+    /**
+     * @param maxSize the maximum number of idle instances of each kind kept by the pool
+     */
+    public DeflatePool(int maxSize) {
+        deflaters = new ArrayBlockingQueue<>(maxSize);
+        rawDeflaters = new ArrayBlockingQueue<>(maxSize);
+        inflaters = new ArrayBlockingQueue<>(maxSize);
+        rawInflaters = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    public static DeflatePool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * @param level the compression level
+     * @param nowrap whether the zlib header and checksum are omitted, as in the gzip format
+     */
+    public Deflater acquireDeflater(int level, boolean nowrap) {
+        Deflater deflater = (nowrap ? rawDeflaters : deflaters).poll();
+        if (deflater == null) {
+            return new Deflater(level, nowrap);
+        }
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    public void releaseDeflater(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        if (!(nowrap ? rawDeflaters : deflaters).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @param nowrap whether the zlib header and checksum are omitted, as in the gzip format
+     */
+    public Inflater acquireInflater(boolean nowrap) {
+        Inflater inflater = (nowrap ? rawInflaters : inflaters).poll();
+        return inflater == null ? new Inflater(nowrap) : inflater;
+    }
+
+    public void releaseInflater(Inflater inflater, boolean nowrap) {
+        inflater.reset();
+        if (!(nowrap ? rawInflaters : inflaters).offer(inflater)) {
+            inflater.end();
+        }
+    }
+}
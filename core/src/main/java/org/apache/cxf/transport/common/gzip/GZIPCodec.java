@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The gzip content coding, using pooled Deflater and Inflater instances.
+ */
+public class GZIPCodec implements CompressionCodec {
+    private final String encoding;
+    private final DeflatePool pool;
+
+    public GZIPCodec() {
+        this("gzip");
+    }
+
+    /**
+     * @param encoding the name of the coding, gzip or x-gzip
+     */
+    public GZIPCodec(String encoding) {
+        this(encoding, DeflatePool.getDefault());
+    }
+
+    public GZIPCodec(String encoding, DeflatePool pool) {
+        this.encoding = encoding;
+        this.pool = pool;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public OutputStream compress(OutputStream out, int level) throws IOException {
+        return new PooledDeflaterOutputStream(out, pool, level, true);
+    }
+
+    public InputStream decompress(InputStream in) throws IOException {
+        return new PooledInflaterInputStream(in, pool, true);
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.cxf.transport.common.gzip;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.annotations.Provider;
@@ -48,6 +49,10 @@ import org.apache.cxf.message.Message;
  * to be compressed and incoming compressed responses to be uncompressed.
  * Accept-Encoding header is sent to let the service know
  * that your client can accept compressed responses.
+ * <p>
+ * Other content codings than gzip, such as deflate or codecs plugged in for br
+ * or zstd, can be enabled with {@link #setCodecs}, and the compression level can
+ * be set per content type with {@link #setCompressionLevels}.
  */
 @NoJSR250Annotations
 @Provider(value = Provider.Type.Feature)
@@ -77,6 +82,30 @@ public class GZIPFeature extends DelegatingFeature<GZIPFeature.Portable> {
         return delegate.getForce();
     }
 
+    public void setCodecs(List<CompressionCodec> codecs) {
+        delegate.setCodecs(codecs);
+    }
+
+    public List<CompressionCodec> getCodecs() {
+        return delegate.getCodecs();
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        delegate.setCompressionLevel(compressionLevel);
+    }
+
+    public int getCompressionLevel() {
+        return delegate.getCompressionLevel();
+    }
+
+    public void setCompressionLevels(Map<String, Integer> compressionLevels) {
+        delegate.setCompressionLevels(compressionLevels);
+    }
+
+    public Map<String, Integer> getCompressionLevels() {
+        return delegate.getCompressionLevels();
+    }
+
     public static class Portable implements AbstractPortableFeature {
         private static final GZIPInInterceptor IN = new GZIPInInterceptor();
         private static final GZIPOutInterceptor OUT = new GZIPOutInterceptor();
@@ -91,17 +120,41 @@ public class GZIPFeature extends DelegatingFeature<GZIPFeature.Portable> {
          */
         boolean force;
 
+        /**
+         * The codecs, in order of preference, or null for the defaults of the interceptors
+         */
+        List<CompressionCodec> codecs;
+
+        int compressionLevel = -1;
+
+        Map<String, Integer> compressionLevels;
 
         @Override
         public void doInitializeProvider(InterceptorProvider provider, Bus bus) {
-            provider.getInInterceptors().add(IN);
-            if (threshold == -1 && !force) {
+            if (codecs == null) {
+                provider.getInInterceptors().add(IN);
+            } else {
+                GZIPInInterceptor in = new GZIPInInterceptor();
+                in.setCodecs(codecs);
+                provider.getInInterceptors().add(in);
+            }
+            if (threshold == -1 && !force && codecs == null && compressionLevel == -1
+                && compressionLevels == null) {
                 provider.getOutInterceptors().add(OUT);
                 provider.getOutFaultInterceptors().add(OUT);
             } else {
                 GZIPOutInterceptor out = new GZIPOutInterceptor();
-                out.setThreshold(threshold);
+                if (threshold != -1) {
+                    out.setThreshold(threshold);
+                }
                 out.setForce(force);
+                if (codecs != null) {
+                    out.setCodecs(codecs);
+                }
+                out.setCompressionLevel(compressionLevel);
+                if (compressionLevels != null) {
+                    out.setCompressionLevels(compressionLevels);
+                }
                 remove(provider.getOutInterceptors());
                 remove(provider.getOutFaultInterceptors());
                 provider.getOutInterceptors().add(out);
@@ -142,5 +195,38 @@ public class GZIPFeature extends DelegatingFeature<GZIPFeature.Portable> {
         public boolean getForce() {
             return force;
         }
+
+        /**
+         * Set the codecs used to compress and uncompress messages, in order of preference.
+         */
+        public void setCodecs(List<CompressionCodec> codecs) {
+            this.codecs = codecs;
+        }
+
+        public List<CompressionCodec> getCodecs() {
+            return codecs;
+        }
+
+        /**
+         * Set the compression level, from 0 to 9, or -1 for the default level of the codecs.
+         */
+        public void setCompressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+        }
+
+        public int getCompressionLevel() {
+            return compressionLevel;
+        }
+
+        /**
+         * Set the compression levels of content types, such as text/xml or image/*.
+         */
+        public void setCompressionLevels(Map<String, Integer> compressionLevels) {
+            this.compressionLevels = compressionLevels;
+        }
+
+        public Map<String, Integer> getCompressionLevels() {
+            return compressionLevels;
+        }
     }
 }
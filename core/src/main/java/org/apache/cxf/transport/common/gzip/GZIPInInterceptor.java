@@ -20,11 +20,15 @@ package org.apache.cxf.transport.common.gzip;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
@@ -47,6 +51,9 @@ import org.apache.cxf.phase.Phase;
  * to let the server know you can handle compressed responses. To compress
  * outgoing messages, see {@link GZIPOutInterceptor}. This class was originally
  * based on one of the CXF samples (configuration_interceptor).
+ * <p>
+ * Messages are uncompressed by the {@link CompressionCodec} matching the content-encoding,
+ * gzip, x-gzip and deflate being supported by default.
  */
 public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
 
@@ -54,9 +61,40 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(GZIPInInterceptor.class);
     private static final Logger LOG = LogUtils.getL7dLogger(GZIPInInterceptor.class);
 
+    private List<CompressionCodec> codecs;
+    private Map<String, CompressionCodec> codecsByEncoding;
+
     public GZIPInInterceptor() {
         super(Phase.RECEIVE);
         addBefore(AttachmentInInterceptor.class.getName());
+        setCodecs(Arrays.<CompressionCodec>asList(new GZIPCodec("gzip"), new GZIPCodec("x-gzip"),
+                                                  new DeflateCodec()));
+    }
+
+    /**
+     * Sets the codecs used to uncompress messages. The default codecs are gzip, x-gzip and deflate.
+     */
+    public void setCodecs(List<CompressionCodec> codecs) {
+        Map<String, CompressionCodec> map = new HashMap<>();
+        for (CompressionCodec codec : codecs) {
+            map.putIfAbsent(codec.getEncoding().toLowerCase(Locale.ENGLISH), codec);
+        }
+        this.codecs = new ArrayList<>(codecs);
+        this.codecsByEncoding = map;
+    }
+
+    public List<CompressionCodec> getCodecs() {
+        return Collections.unmodifiableList(codecs);
+    }
+
+    private CompressionCodec getCodec(List<String> contentEncoding) {
+        for (String enc : contentEncoding) {
+            CompressionCodec codec = codecsByEncoding.get(enc.trim().toLowerCase(Locale.ENGLISH));
+            if (codec != null) {
+                return codec;
+            }
+        }
+        return null;
     }
 
     public void handleMessage(Message message) {
@@ -73,8 +111,8 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
             if (contentEncoding == null) {
                 contentEncoding = protocolHeaders.get(GZIPOutInterceptor.SOAP_JMS_CONTENTENCODING);
             }
-            if (contentEncoding != null
-                && (contentEncoding.contains("gzip") || contentEncoding.contains("x-gzip"))) {
+            CompressionCodec codec = contentEncoding == null ? null : getCodec(contentEncoding);
+            if (codec != null) {
                 try {
                     LOG.fine("Uncompressing response");
                     InputStream is = message.getContent(InputStream.class);
@@ -83,7 +121,7 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
                     }
 
                     // wrap an unzipping stream around the original one
-                    GZIPInputStream zipInput = new GZIPInputStream(is);
+                    InputStream zipInput = codec.decompress(is);
                     message.setContent(InputStream.class, zipInput);
 
                     // remove content encoding header as we've now dealt with it
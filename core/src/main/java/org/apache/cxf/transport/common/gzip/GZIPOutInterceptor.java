@@ -21,16 +21,19 @@ package org.apache.cxf.transport.common.gzip;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.Deflater;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
@@ -58,6 +61,11 @@ import org.apache.cxf.phase.Phase;
  * not be compressed. To force compression of all messages, set the threshold to
  * 0. This class was originally based on one of the CXF samples
  * (configuration_interceptor).
+ * <p>
+ * The compression itself is done by the configured {@link CompressionCodec}s, gzip and x-gzip by
+ * default. For a response, the codec is the one with the highest q-value in the Accept-Encoding
+ * header of the request, the first configured codec winning a tie. The compression level can be
+ * set per content type with {@link #setCompressionLevels}.
  */
 public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
 
@@ -114,14 +122,19 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
     private int threshold = 1024;
     private boolean force;
     private Set<String> supportedPayloadContentTypes;
-    
+    private List<CompressionCodec> codecs;
+    private Map<String, CompressionCodec> codecsByEncoding;
+    private String acceptEncoding;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private Map<String, Integer> compressionLevels = Collections.emptyMap();
+
     public GZIPOutInterceptor() {
         super(Phase.PREPARE_SEND);
         addAfter(MessageSenderInterceptor.class.getName());
+        setCodecs(Arrays.<CompressionCodec>asList(new GZIPCodec("gzip"), new GZIPCodec("x-gzip")));
     }
     public GZIPOutInterceptor(int threshold) {
-        super(Phase.PREPARE_SEND);
-        addAfter(MessageSenderInterceptor.class.getName());
+        this();
         this.threshold = threshold;
     }
 
@@ -145,16 +158,114 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
             message.put(ORIGINAL_OUTPUT_STREAM_KEY, os);
             message.put(USE_GZIP_KEY, use);
 
+            PrecompressedContent content = (PrecompressedContent)message.get(PrecompressedContent.KEY);
+            if (content != null) {
+                if (use == UseGzip.FORCE || content.getContent().length >= threshold) {
+                    message.setContent(OutputStream.class, createPrecompressedStream(message, os, content));
+                }
+                return;
+            }
+
             // new stream to cache the message
             GZipThresholdOutputStream cs
                 = new GZipThresholdOutputStream(threshold,
                                                 os,
                                                 use == UseGzip.FORCE,
-                                                message);
+                                                message,
+                                                this);
             message.setContent(OutputStream.class, cs);
         }
     }
 
+    private OutputStream createPrecompressedStream(Message message, OutputStream os,
+                                                   PrecompressedContent content) {
+        String enc = (String)message.get(GZIP_ENCODING_KEY);
+        byte[] compressed;
+        try {
+            compressed = content.getContent(getCodec(enc), getCompressionLevel(message));
+        } catch (IOException ex) {
+            throw new Fault(new org.apache.cxf.common.i18n.Message("COULD_NOT_ZIP", BUNDLE), ex);
+        }
+        LOG.fine("Sending precompressed message.");
+        addContentEncodingHeaders(message, enc);
+        return new PrecompressedOutputStream(os, compressed);
+    }
+
+    /**
+     * Sets the codecs used for compression, in order of preference. The default codecs are gzip and
+     * x-gzip.
+     */
+    public void setCodecs(List<CompressionCodec> codecs) {
+        Map<String, CompressionCodec> map = new HashMap<>();
+        StringBuilder accept = new StringBuilder();
+        for (CompressionCodec codec : codecs) {
+            String enc = codec.getEncoding().toLowerCase(Locale.ENGLISH);
+            map.putIfAbsent(enc, codec);
+            // no need to list the x- aliases
+            if (!enc.startsWith("x-")) {
+                accept.append(enc).append(accept.length() == 0 ? ";q=1.0, " : ", ");
+            }
+        }
+        this.codecs = new ArrayList<>(codecs);
+        this.codecsByEncoding = map;
+        this.acceptEncoding = accept.append("identity; q=0.5, *;q=0").toString();
+    }
+
+    public List<CompressionCodec> getCodecs() {
+        return Collections.unmodifiableList(codecs);
+    }
+
+    CompressionCodec getCodec(String encoding) {
+        CompressionCodec codec = encoding == null ? null
+            : codecsByEncoding.get(encoding.toLowerCase(Locale.ENGLISH));
+        return codec != null ? codec : new GZIPCodec(encoding == null ? "gzip" : encoding);
+    }
+
+    /**
+     * Sets the compression level used for the content types which have no level set with
+     * {@link #setCompressionLevels}. The default is the default level of the codec.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the compression levels of content types, such as text/xml or image/*. A level of 0 stores
+     * the content uncompressed.
+     */
+    public void setCompressionLevels(Map<String, Integer> compressionLevels) {
+        Map<String, Integer> map = new HashMap<>();
+        for (Map.Entry<String, Integer> e : compressionLevels.entrySet()) {
+            map.put(e.getKey().trim().toLowerCase(Locale.ENGLISH), e.getValue());
+        }
+        this.compressionLevels = map;
+    }
+
+    public Map<String, Integer> getCompressionLevels() {
+        return Collections.unmodifiableMap(compressionLevels);
+    }
+
+    int getCompressionLevel(Message message) {
+        String ct = (String)message.get(Message.CONTENT_TYPE);
+        if (ct == null || compressionLevels.isEmpty()) {
+            return compressionLevel;
+        }
+        int idx = ct.indexOf(';');
+        String type = (idx == -1 ? ct : ct.substring(0, idx)).trim().toLowerCase(Locale.ENGLISH);
+        Integer level = compressionLevels.get(type);
+        if (level == null) {
+            idx = type.indexOf('/');
+            if (idx != -1) {
+                level = compressionLevels.get(type.substring(0, idx + 1) + '*');
+            }
+        }
+        return level != null ? level : compressionLevel;
+    }
+
     /**
      * Checks whether we can, cannot or must use gzip compression on this output
      * message. Gzip is always permitted if the message is a client request. If
@@ -185,8 +296,8 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
             } else {
                 permitted = force ? UseGzip.YES : UseGzip.NO;
             }
-            message.put(GZIP_ENCODING_KEY, "gzip");
-            addHeader(message, "Accept-Encoding", "gzip;q=1.0, identity; q=0.5, *;q=0");
+            message.put(GZIP_ENCODING_KEY, codecs.isEmpty() ? "gzip" : codecs.get(0).getEncoding());
+            addHeader(message, "Accept-Encoding", acceptEncoding);
         } else {
             LOG.fine("Response role, checking accept-encoding");
             Exchange exchange = message.getExchange();
@@ -205,60 +316,42 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                     if (LOG.isLoggable(Level.FINE)) {
                         LOG.fine("Accept-Encoding header: " + acceptEncodingHeader);
                     }
-                    // Accept-Encoding is a comma separated list of entries, so
-                    // we split it into its component parts and build two
-                    // lists, one with all the "q=0" encodings and the other
-                    // with the rest (no q, or q=<non-zero>).
-                    List<String> zeros = new ArrayList<>(3);
-                    List<String> nonZeros = new ArrayList<>(3);
-
-                    for (String headerLine : acceptEncodingHeader) {
-                        String[] encodings = ENCODINGS.split(headerLine.trim());
-
-                        for (String enc : encodings) {
-                            Matcher m = ZERO_Q.matcher(enc);
-                            if (m.find()) {
-                                zeros.add(enc.substring(0, m.start()));
-                            } else if (enc.indexOf(';') >= 0) {
-                                nonZeros.add(enc.substring(0, enc.indexOf(';')));
-                            } else {
-                                nonZeros.add(enc);
-                            }
-                        }
-                    }
+                    Map<String, Float> qValues = parseAcceptEncoding(acceptEncodingHeader);
 
                     // identity encoding is permitted if (a) it is not
                     // specifically disabled by an identity;q=0 and (b) if
                     // there is a *;q=0 then there is also an explicit
                     // identity[;q=<non-zero>]
                     //
-                    // [x-]gzip is permitted if (a) there is an explicit
-                    // [x-]gzip[;q=<non-zero>], or (b) there is a
-                    // *[;q=<non-zero>] and no [x-]gzip;q=0 to disable it.
-                    boolean identityEnabled = !zeros.contains("identity")
-                                              && (!zeros.contains("*") || nonZeros.contains("identity"));
-                    boolean gzipEnabled = nonZeros.contains("gzip")
-                                          || (nonZeros.contains("*") && !zeros.contains("gzip"));
-                    boolean xGzipEnabled = nonZeros.contains("x-gzip")
-                                           || (nonZeros.contains("*") && !zeros.contains("x-gzip"));
-
-                    if (identityEnabled && !gzipEnabled && !xGzipEnabled) {
+                    // a codec is permitted if there is an explicit
+                    // coding[;q=<non-zero>], or a *[;q=<non-zero>] and no
+                    // coding;q=0 to disable it. The one with the highest
+                    // q-value is used.
+                    Float anyQ = qValues.get("*");
+                    Float identityQ = qValues.get("identity");
+                    boolean identityEnabled = identityQ != null ? identityQ > 0 : anyQ == null || anyQ > 0;
+                    String encoding = null;
+                    float best = 0;
+                    for (CompressionCodec codec : codecs) {
+                        Float q = qValues.get(codec.getEncoding().toLowerCase(Locale.ENGLISH));
+                        if (q == null) {
+                            q = anyQ;
+                        }
+                        if (q != null && q > best) {
+                            best = q;
+                            encoding = codec.getEncoding();
+                        }
+                    }
+
+                    if (encoding == null) {
+                        if (!identityEnabled) {
+                            throw new Fault(new org.apache.cxf.common.i18n.Message("NO_SUPPORTED_ENCODING",
+                                                                                   BUNDLE));
+                        }
                         permitted = UseGzip.NO;
-                    } else if (identityEnabled && gzipEnabled) {
-                        permitted = UseGzip.YES;
-                        message.put(GZIP_ENCODING_KEY, "gzip");
-                    } else if (identityEnabled && xGzipEnabled) {
-                        permitted = UseGzip.YES;
-                        message.put(GZIP_ENCODING_KEY, "x-gzip");
-                    } else if (!identityEnabled && gzipEnabled) {
-                        permitted = UseGzip.FORCE;
-                        message.put(GZIP_ENCODING_KEY, "gzip");
-                    } else if (!identityEnabled && xGzipEnabled) {
-                        permitted = UseGzip.FORCE;
-                        message.put(GZIP_ENCODING_KEY, "x-gzip");
                     } else {
-                        throw new Fault(new org.apache.cxf.common.i18n.Message("NO_SUPPORTED_ENCODING",
-                                                                               BUNDLE));
+                        permitted = identityEnabled ? UseGzip.YES : UseGzip.FORCE;
+                        message.put(GZIP_ENCODING_KEY, encoding);
                     }
                 } else {
                     LOG.fine("No accept-encoding header");
@@ -272,14 +365,56 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
         return permitted;
     }
 
+    /**
+     * Parses the Accept-Encoding header into the q-values of the codings, keyed by the lower case
+     * names of the codings. A coding without a q-value has a q-value of 1.
+     */
+    static Map<String, Float> parseAcceptEncoding(List<String> acceptEncodingHeader) {
+        Map<String, Float> qValues = new HashMap<>();
+        for (String headerLine : acceptEncodingHeader) {
+            for (String enc : ENCODINGS.split(headerLine.trim())) {
+                String[] parts = enc.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+                if (name.isEmpty()) {
+                    continue;
+                }
+                float q = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            q = Float.parseFloat(param.substring(2).trim());
+                        } catch (NumberFormatException ex) {
+                            // ignore the invalid q-value
+                        }
+                    }
+                }
+                qValues.put(name, q);
+            }
+        }
+        return qValues;
+    }
+
+    private static void addContentEncodingHeaders(Message message, String enc) {
+        // Set the Content-Encoding HTTP header
+        addHeader(message, "Content-Encoding", enc);
+        // if this is a response message, add the Vary header
+        if (!Boolean.TRUE.equals(message.get(Message.REQUESTOR_ROLE))) {
+            addHeader(message, "Vary", "Accept-Encoding");
+        }
+    }
+
     static class GZipThresholdOutputStream extends AbstractThresholdOutputStream {
         Message message;
+        GZIPOutInterceptor interceptor;
 
         GZipThresholdOutputStream(int t, OutputStream orig,
-                                         boolean force, Message msg) {
+                                         boolean force, Message msg,
+                                         GZIPOutInterceptor interceptor) {
             super(t);
             super.wrappedStream = orig;
             message = msg;
+            this.interceptor = interceptor;
             if (force) {
                 setupGZip();
             }
@@ -298,17 +433,54 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
         @Override
         public void thresholdReached() throws IOException {
             LOG.fine("Compressing message.");
-            // Set the Content-Encoding HTTP header
             String enc = (String)message.get(GZIP_ENCODING_KEY);
-            addHeader(message, "Content-Encoding", enc);
-            // if this is a response message, add the Vary header
-            if (!Boolean.TRUE.equals(message.get(Message.REQUESTOR_ROLE))) {
-                addHeader(message, "Vary", "Accept-Encoding");
-            }
+            addContentEncodingHeaders(message, enc);
 
-            // gzip the result
-            GZIPOutputStream zipOutput = new GZIPOutputStream(wrappedStream);
-            wrappedStream = zipOutput;
+            // compress the result
+            wrappedStream = interceptor.getCodec(enc).compress(wrappedStream,
+                                                               interceptor.getCompressionLevel(message));
+        }
+    }
+
+    /**
+     * Sends the precompressed content in place of the content written to the message.
+     */
+    static class PrecompressedOutputStream extends OutputStream {
+        private final OutputStream wrappedStream;
+        private final byte[] content;
+        private boolean written;
+
+        PrecompressedOutputStream(OutputStream wrappedStream, byte[] content) {
+            this.wrappedStream = wrappedStream;
+            this.content = content;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writeContent();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writeContent();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            wrappedStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeContent();
+            wrappedStream.close();
+        }
+
+        private void writeContent() throws IOException {
+            if (!written) {
+                written = true;
+                wrappedStream.write(content);
+            }
         }
     }
 
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Uncompresses the zlib or gzip format with an Inflater taken from a {@link DeflatePool}, which is
+ * returned to the pool when the stream is closed. Like GZIPInputStream, concatenated gzip members
+ * are read as one stream.
+ */
+class PooledInflaterInputStream extends InflaterInputStream {
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final DeflatePool pool;
+    private final boolean gzip;
+    private final CRC32 crc;
+    private boolean eos;
+    private boolean closed;
+
+    PooledInflaterInputStream(InputStream in, DeflatePool pool, boolean gzip) throws IOException {
+        super(in, pool.acquireInflater(gzip), 4096);
+        this.pool = pool;
+        this.gzip = gzip;
+        if (gzip) {
+            crc = new CRC32();
+            try {
+                readHeader(in);
+            } catch (IOException ex) {
+                pool.releaseInflater(inf, gzip);
+                throw ex;
+            }
+        } else {
+            crc = null;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (eos) {
+            return -1;
+        }
+        int n = super.read(b, off, len);
+        if (n == -1) {
+            if (!gzip || readTrailer()) {
+                eos = true;
+                return -1;
+            }
+            return read(b, off, len);
+        }
+        if (crc != null) {
+            crc.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                pool.releaseInflater(inf, gzip);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * @return the length of the header
+     */
+    private int readHeader(InputStream is) throws IOException {
+        if (readUShort(is) != 0x8b1f) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readUByte(is) != Deflater.DEFLATED) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readUByte(is);
+        // modification time, extra flags and operating system
+        skipBytes(is, 6);
+        int n = 10;
+        if ((flags & FEXTRA) == FEXTRA) {
+            int m = readUShort(is);
+            skipBytes(is, m);
+            n += m + 2;
+        }
+        if ((flags & FNAME) == FNAME) {
+            do {
+                n++;
+            } while (readUByte(is) != 0);
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            do {
+                n++;
+            } while (readUByte(is) != 0);
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            skipBytes(is, 2);
+            n += 2;
+        }
+        crc.reset();
+        return n;
+    }
+
+    /**
+     * @return true if the end of the stream has been reached, false if another member follows
+     */
+    private boolean readTrailer() throws IOException {
+        InputStream is = this.in;
+        int n = inf.getRemaining();
+        if (n > 0) {
+            is = new SequenceInputStream(new ByteArrayInputStream(buf, len - n, n),
+                new FilterInputStream(this.in) {
+                    @Override
+                    public void close() throws IOException {
+                        // the stream is closed by the PooledInflaterInputStream
+                    }
+                });
+        }
+        if (readUInt(is) != crc.getValue() || readUInt(is) != (inf.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+        if (this.in.available() > 0 || n > 26) {
+            int m = 8;
+            try {
+                m += readHeader(is);
+            } catch (IOException ex) {
+                // not another member, ignore the trailing bytes
+                return true;
+            }
+            inf.reset();
+            if (n > m) {
+                inf.setInput(buf, len - n + m, n - m);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static long readUInt(InputStream is) throws IOException {
+        long s = readUShort(is);
+        return ((long)readUShort(is) << 16) | s;
+    }
+
+    private static int readUShort(InputStream is) throws IOException {
+        int b = readUByte(is);
+        return (readUByte(is) << 8) | b;
+    }
+
+    private static int readUByte(InputStream is) throws IOException {
+        int b = is.read();
+        if (b == -1) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private static void skipBytes(InputStream is, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readUByte(is);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The content of a cacheable response, such as a WSDL or OpenAPI document, which keeps the
+ * compressed forms of the content once they have been created. Code sending such a response
+ * puts the instance on the outgoing message under {@link #KEY} and writes {@link #getContent()}
+ * to the message. If the response is to be compressed, the {@link GZIPOutInterceptor} sends the
+ * compressed content kept here instead of compressing the message again.
+ */
+public class PrecompressedContent {
+    public static final String KEY = PrecompressedContent.class.getName();
+
+    private final byte[] content;
+    private final ConcurrentMap<String, byte[]> compressed = new ConcurrentHashMap<>();
+
+    public PrecompressedContent(byte[] content) {
+        this.content = content;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the content compressed with the given codec and level, compressing it on the first
+     * call.
+     */
+    public byte[] getContent(CompressionCodec codec, int level) throws IOException {
+        String key = codec.getEncoding() + ':' + level;
+        byte[] bytes = compressed.get(key);
+        if (bytes == null) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (OutputStream out = codec.compress(bos, level)) {
+                out.write(content);
+            }
+            bytes = bos.toByteArray();
+            byte[] previous = compressed.putIfAbsent(key, bytes);
+            if (previous != null) {
+                bytes = previous;
+            }
+        }
+        return bytes;
+    }
+}
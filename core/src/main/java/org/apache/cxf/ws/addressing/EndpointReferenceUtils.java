@@ -60,6 +60,7 @@ import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
 import org.apache.cxf.common.jaxb.JAXBContextCache;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.xmlschema.CompiledSchemaCache;
 import org.apache.cxf.common.xmlschema.LSInputImpl;
 import org.apache.cxf.endpoint.EndpointResolverRegistry;
 import org.apache.cxf.endpoint.Server;
@@ -486,7 +487,6 @@ public final class EndpointReferenceUtils {
     private static Schema createSchema(ServiceInfo serviceInfo, Bus b) {
         Schema schema = serviceInfo.getProperty(Schema.class.getName(), Schema.class);
         if (schema == null) {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
             Map<String, byte[]> schemaSourcesMap = new LinkedHashMap<>();
             Map<String, Source> schemaSourcesMap2 = new LinkedHashMap<>();
 
@@ -543,11 +543,15 @@ public final class EndpointReferenceUtils {
                     }
                 }
 
-                factory.setResourceResolver(new SchemaLSResourceResolver(schemaSourcesMap,
-                        b != null ? b : BusFactory.getThreadDefaultBus(false)));
-                schema = factory.newSchema(schemaSourcesMap2.values()
-                                           .toArray(new Source[schemaSourcesMap2.size()]));
-
+                Bus bus = b != null ? b : BusFactory.getThreadDefaultBus(false);
+                // services sharing the same schemas share the compiled schema
+                schema = CompiledSchemaCache.getInstance(bus).getSchema(Schema.class,
+                    CompiledSchemaCache.createKey(schemaSourcesMap), () -> {
+                        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+                        factory.setResourceResolver(new SchemaLSResourceResolver(schemaSourcesMap, bus));
+                        return factory.newSchema(schemaSourcesMap2.values()
+                                                 .toArray(new Source[schemaSourcesMap2.size()]));
+                    });
 
             } catch (Exception ex) {
                 // Something not right with the schema from the wsdl.
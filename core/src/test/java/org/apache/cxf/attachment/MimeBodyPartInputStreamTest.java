@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.attachment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MimeBodyPartInputStreamTest {
+    private static final byte[] BOUNDARY = "--uuid:1234-abcd".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testBoundaryAndCrLfAreStripped() throws Exception {
+        PushbackInputStream in = createStream("part one\r\n--uuid:1234-abcd\r\nContent-ID: <b>\r\n", 64);
+        MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, 64);
+        assertEquals("part one", readFully(m, 1000));
+        assertEquals(-1, m.read());
+        assertEquals("Content-ID: <b>\r\n", readFully(in, 1000));
+    }
+
+    @Test
+    public void testLastBoundary() throws Exception {
+        PushbackInputStream in = createStream("part\r\n--uuid:1234-abcd--\r\nepilogue", 64);
+        MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, 64);
+        assertEquals("part", readFully(m, 1000));
+        assertEquals("epilogue", readFully(in, 1000));
+    }
+
+    @Test
+    public void testBoundaryAcrossBuffers() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            // partial matches of the boundary
+            body.append("\r\n--uuid:1234-").append(i).append("\r\n--uuid");
+        }
+        String data = body + "\r\n--uuid:1234-abcd\r\nnext";
+        for (int bufferSize : new int[] {6, 8, 20, 40, 41, 57, 64, 100, 8192}) {
+            for (int readSize : new int[] {1, 3, 17, 1000}) {
+                PushbackInputStream in = createStream(data, bufferSize);
+                MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, bufferSize);
+                assertEquals(body.toString(), readFully(m, readSize));
+                assertEquals("next", readFully(in, 1000));
+            }
+        }
+    }
+
+    @Test
+    public void testSingleByteReads() throws Exception {
+        PushbackInputStream in = createStream("\r\r\n-\r\n--uuid:1234-abc\r\n--uuid:1234-abcd\r\nnext", 64);
+        MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, 64);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int c = m.read(); c != -1; c = m.read()) {
+            out.write(c);
+        }
+        assertEquals("\r\r\n-\r\n--uuid:1234-abc", out.toString("US-ASCII"));
+        assertEquals("next", readFully(in, 1000));
+    }
+
+    @Test
+    public void testNoBoundary() throws Exception {
+        PushbackInputStream in = createStream("no boundary at all\r\n--uuid:1234", 64);
+        MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, 64);
+        assertEquals("no boundary at all\r\n--uuid:1234", readFully(m, 7));
+        assertFalse(m.boundaryFound);
+    }
+
+    @Test
+    public void testSmallPushbackSize() throws Exception {
+        String next = "Content-ID: <b>\r\n\r\nthe next part, longer than the push back buffer";
+        byte[] data = ("part\r\n--uuid:1234-abcd\r\n" + next).getBytes(StandardCharsets.US_ASCII);
+        PushbackInputStream in = new PushbackInputStream(new ByteArrayInputStream(data), 8);
+        MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, 8);
+        assertEquals("part", readFully(m, 1000));
+        assertEquals(next, readFully(in, 1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPushbackSizeTooSmall() throws Exception {
+        new MimeBodyPartInputStream(createStream("part", 5), BOUNDARY, 5);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testProcessBuffer() throws Exception {
+        byte[] data = "part\r\n--uuid:1234-abcd\r\nnext".getBytes(StandardCharsets.US_ASCII);
+        PushbackInputStream in = createStream("", 64);
+        MimeBodyPartInputStream m = new MimeBodyPartInputStream(in, BOUNDARY, 64);
+        assertEquals(4, m.processBuffer(data, 0, data.length));
+        assertTrue(m.boundaryFound);
+        assertEquals("next", readFully(in, 1000));
+
+        data = "part\r\n--uuid:12".getBytes(StandardCharsets.US_ASCII);
+        m = new MimeBodyPartInputStream(in, BOUNDARY, 64);
+        assertEquals(4, m.processBuffer(data, 0, data.length));
+        assertFalse(m.boundaryFound);
+        assertEquals("\r\n--uuid:12", readFully(in, 1000));
+    }
+
+    private static PushbackInputStream createStream(String data, int size) {
+        // deliver the data in small chunks, like a socket does
+        InputStream in = new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 13));
+            }
+        };
+        return new PushbackInputStream(in, size);
+    }
+
+    private static String readFully(InputStream in, int readSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[readSize];
+        for (int n = in.read(buf); n != -1; n = in.read(buf)) {
+            out.write(buf, 0, n);
+        }
+        return out.toString("US-ASCII");
+    }
+}
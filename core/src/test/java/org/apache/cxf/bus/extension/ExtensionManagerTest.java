@@ -19,6 +19,9 @@
 
 package org.apache.cxf.bus.extension;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,9 +33,12 @@ import org.apache.cxf.resource.SinglePropertyResolver;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ExtensionManagerTest {
 
@@ -78,6 +84,59 @@ public class ExtensionManagerTest {
 
     }
 
+    @Test
+    public void testExtensionsAreParsedOncePerClassLoader() {
+        String resource = "org/apache/cxf/bus/extension/extension2.txt";
+        CountingClassLoader cl = new CountingClassLoader(getClass().getClassLoader());
+        try {
+            ExtensionManagerImpl first = new ExtensionManagerImpl(resource, cl, new HashMap<>(),
+                                                                  new DefaultResourceManager(), null);
+            ExtensionManagerImpl second = new ExtensionManagerImpl(resource, cl, new HashMap<>(),
+                                                                   new DefaultResourceManager(), null);
+            assertEquals(1, cl.count);
+            assertTrue(first.hasBeanOfName("org.apache.cxf.foo.Foo"));
+            assertTrue(second.hasBeanOfName("org.apache.cxf.foo.Foo"));
+            assertTrue(second.hasBeanOfName("java.lang.Long"));
+
+            ExtensionManagerImpl.clearExtensionCache();
+            new ExtensionManagerImpl(resource, cl, new HashMap<>(), new DefaultResourceManager(), null);
+            assertEquals(2, cl.count);
+        } finally {
+            ExtensionManagerImpl.clearExtensionCache();
+        }
+    }
+
+    @Test
+    public void testExtensionIndex() {
+        CountingClassLoader cl = new CountingClassLoader(getClass().getClassLoader());
+        System.setProperty(ExtensionManagerImpl.BUS_EXTENSION_INDEX_PROPERTY,
+                           "org/apache/cxf/bus/extension/extension2.txt");
+        try {
+            ExtensionManagerImpl mgr = new ExtensionManagerImpl(cl, new HashMap<>(),
+                                                                new DefaultResourceManager(), null);
+            assertEquals(0, cl.count);
+            assertTrue(mgr.hasBeanOfName("org.apache.cxf.foo.Foo"));
+            assertFalse(mgr.hasBeanOfName("org.apache.cxf.phase.PhaseManager"));
+        } finally {
+            System.clearProperty(ExtensionManagerImpl.BUS_EXTENSION_INDEX_PROPERTY);
+            ExtensionManagerImpl.clearExtensionCache();
+        }
+    }
+
+    static class CountingClassLoader extends ClassLoader {
+        int count;
+
+        CountingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            count++;
+            return super.getResources(name);
+        }
+    }
+
 
 
 }
\ No newline at end of file
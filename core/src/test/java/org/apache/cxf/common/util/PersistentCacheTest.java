@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.common.util;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.helpers.FileUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentCacheTest {
+
+    @Test
+    public void testCreateKey() {
+        String key = PersistentCache.createKey(Arrays.<Class<?>>asList(String.class, PersistentCache.class),
+                                               "ns", Boolean.TRUE);
+        assertEquals(key, PersistentCache.createKey(
+            Arrays.<Class<?>>asList(PersistentCache.class, String.class), "ns", Boolean.TRUE));
+        assertNotEquals(key, PersistentCache.createKey(
+            Arrays.<Class<?>>asList(PersistentCache.class, String.class), "ns", Boolean.FALSE));
+        assertNotEquals(key, PersistentCache.createKey(
+            Collections.<Class<?>>singletonList(PersistentCache.class), "ns", Boolean.TRUE));
+    }
+
+    @Test
+    public void testCreateKeyFromStableValues() {
+        Map<String, Object> props = new HashMap<>();
+        props.put("b", Boolean.TRUE);
+        props.put("a", new QName("urn:test", "test"));
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("a", new QName("urn:test", "test"));
+        reordered.put("b", Boolean.TRUE);
+        String key = PersistentCache.createKey(Collections.<Class<?>>emptyList(), props);
+        assertNotNull(key);
+        assertEquals(key, PersistentCache.createKey(Collections.<Class<?>>emptyList(), reordered));
+
+        // the identity hash code in the toString of the value differs in every JVM
+        props.put("c", new Object());
+        assertNull(PersistentCache.createKey(Collections.<Class<?>>emptyList(), props));
+        assertNull(PersistentCache.createKey(Collections.<Class<?>>emptyList(), "ns", new Object()));
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        File dir = FileUtils.createTmpDir();
+        try {
+            PersistentCache cache = new PersistentCache(dir);
+            String key = PersistentCache.createKey(Collections.<Class<?>>singletonList(getClass()));
+            assertNull(cache.get("test", key));
+
+            byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+            cache.put("test", key, content);
+            assertArrayEquals(content, cache.get("test", key));
+            // another instance, as after a restart
+            assertArrayEquals(content, new PersistentCache(dir).get("test", key));
+            assertNull(cache.get("other", key));
+
+            cache.remove("test", key);
+            assertNull(cache.get("test", key));
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+
+    @Test
+    public void testModifiedEntryDeleted() throws Exception {
+        File dir = FileUtils.createTmpDir();
+        try {
+            PersistentCache cache = new PersistentCache(dir);
+            String key = PersistentCache.createKey(Collections.<Class<?>>singletonList(getClass()));
+            cache.put("test", key, "content".getBytes(StandardCharsets.UTF_8));
+
+            Path entry = dir.toPath().resolve("test").resolve(key);
+            byte[] bytes = Files.readAllBytes(entry);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(entry, bytes);
+            assertNull(cache.get("test", key));
+            assertFalse(Files.exists(entry));
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+
+    @Test
+    public void testUnusedEntriesPruned() throws Exception {
+        File dir = FileUtils.createTmpDir();
+        try {
+            PersistentCache cache = new PersistentCache(dir);
+            cache.put("test", "old", new byte[] {1});
+            Path old = dir.toPath().resolve("test").resolve("old");
+            long longAgo = System.currentTimeMillis()
+                - TimeUnit.DAYS.toMillis(PersistentCache.MAX_AGE_DAYS + 1L);
+            Files.setLastModifiedTime(old, FileTime.fromMillis(longAgo));
+
+            // a new instance, as after a restart, prunes the area when it first writes to it
+            new PersistentCache(dir).put("test", "new", new byte[] {2});
+            assertFalse(Files.exists(old));
+            assertArrayEquals(new byte[] {2}, cache.get("test", "new"));
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+
+    @Test
+    public void testDirectoryOwnerOnly() throws Exception {
+        File dir = FileUtils.createTmpDir();
+        try {
+            File cacheDir = new File(dir, "cache");
+            new PersistentCache(cacheDir).put("test", "entry", new byte[] {1});
+            Path path = cacheDir.toPath();
+            if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                for (Path p : Arrays.asList(path, path.resolve("test"))) {
+                    Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(p);
+                    assertTrue(permissions.contains(PosixFilePermission.OWNER_WRITE));
+                    assertFalse(permissions.contains(PosixFilePermission.GROUP_READ));
+                    assertFalse(permissions.contains(PosixFilePermission.OTHERS_READ));
+                }
+            }
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+}
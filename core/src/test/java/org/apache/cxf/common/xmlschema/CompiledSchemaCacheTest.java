@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.common.xmlschema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CompiledSchemaCacheTest {
+
+    @Test
+    public void testCreateKey() {
+        Map<String, byte[]> sources = new LinkedHashMap<>();
+        sources.put("a.xsd:http://a", "<a/>".getBytes(StandardCharsets.UTF_8));
+        sources.put("b.xsd:http://b", "<b/>".getBytes(StandardCharsets.UTF_8));
+        Map<String, byte[]> same = new LinkedHashMap<>(sources);
+        assertEquals(CompiledSchemaCache.createKey(sources), CompiledSchemaCache.createKey(same));
+
+        Map<String, byte[]> other = Collections.singletonMap("a.xsd:http://a",
+                                                             "<a1/>".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(CompiledSchemaCache.createKey(sources), CompiledSchemaCache.createKey(other));
+    }
+
+    @Test
+    public void testSchemaIsCompiledOnce() throws Exception {
+        CompiledSchemaCache cache = new CompiledSchemaCache();
+        AtomicInteger count = new AtomicInteger();
+        Object schema = cache.getSchema(Object.class, "key", () -> {
+            count.incrementAndGet();
+            return new Object();
+        });
+        assertSame(schema, cache.getSchema(Object.class, "key", () -> {
+            count.incrementAndGet();
+            return new Object();
+        }));
+        assertEquals(1, count.get());
+        assertEquals(1, cache.size());
+
+        Object other = cache.getSchema(Object.class, "other", Object::new);
+        assertNotEquals(schema, other);
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNullIsNotCached() throws Exception {
+        CompiledSchemaCache cache = new CompiledSchemaCache();
+        assertNull(cache.getSchema(Object.class, "key", () -> null));
+        assertEquals(0, cache.size());
+        String schema = cache.getSchema(String.class, "key", () -> "schema");
+        assertEquals("schema", schema);
+    }
+}
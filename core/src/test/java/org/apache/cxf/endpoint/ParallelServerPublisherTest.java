@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.endpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.cxf.bus.managers.ServerRegistryImpl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelServerPublisherTest {
+
+    @Test
+    public void testServersCreatedInOrder() {
+        ServerRegistryImpl registry = new ServerRegistryImpl();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<TestServerFactory> factories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            factories.add(new TestServerFactory(i, registry, threads, false, false));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelServerPublisher publisher = new ParallelServerPublisher(pool);
+            List<Server> servers = publisher.publish(factories);
+
+            assertEquals(20, servers.size());
+            assertEquals(servers, registry.getServers());
+            for (int i = 0; i < 20; i++) {
+                assertTrue(factories.get(i).prepared);
+                assertSame(factories.get(i).server, servers.get(i));
+            }
+            assertFalse(threads.contains(Thread.currentThread()));
+            assertTrue(publisher.getPhaseTimes().containsKey(ParallelServerPublisher.PHASE_PREPARE));
+            assertTrue(publisher.getPhaseTimes().containsKey(ParallelServerPublisher.PHASE_CREATE));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedPreparation() {
+        ServerRegistryImpl registry = new ServerRegistryImpl();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<TestServerFactory> factories = new ArrayList<>();
+        factories.add(new TestServerFactory(0, registry, threads, false, false));
+        factories.add(new TestServerFactory(1, registry, threads, true, false));
+        factories.add(new TestServerFactory(2, registry, threads, true, false));
+        try {
+            new ParallelServerPublisher().publish(factories);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ex) {
+            assertEquals("prepare 1", ex.getMessage());
+        }
+        assertTrue(registry.getServers().isEmpty());
+    }
+
+    @Test
+    public void testFailedCreation() {
+        ServerRegistryImpl registry = new ServerRegistryImpl();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<TestServerFactory> factories = new ArrayList<>();
+        factories.add(new TestServerFactory(0, registry, threads, false, false));
+        factories.add(new TestServerFactory(1, registry, threads, false, true));
+        factories.add(new TestServerFactory(2, registry, threads, false, false));
+        try {
+            new ParallelServerPublisher().publish(factories);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ex) {
+            assertEquals("create 1", ex.getMessage());
+        }
+        // the server created before the failure is destroyed
+        assertTrue(registry.getServers().isEmpty());
+        assertTrue(factories.get(2).server == null);
+    }
+
+    private static final class TestServerFactory implements ServerFactory {
+        private final int index;
+        private final ServerRegistryImpl registry;
+        private final Set<Thread> threads;
+        private final boolean failPrepare;
+        private final boolean failCreate;
+        private volatile boolean prepared;
+        private Server server;
+
+        TestServerFactory(int index, ServerRegistryImpl registry, Set<Thread> threads,
+                          boolean failPrepare, boolean failCreate) {
+            this.index = index;
+            this.registry = registry;
+            this.threads = threads;
+            this.failPrepare = failPrepare;
+            this.failCreate = failCreate;
+        }
+
+        public void prepare() {
+            threads.add(Thread.currentThread());
+            if (failPrepare) {
+                throw new IllegalStateException("prepare " + index);
+            }
+            prepared = true;
+        }
+
+        public Server create() {
+            if (failCreate) {
+                throw new IllegalStateException("create " + index);
+            }
+            server = new DummyServer(registry);
+            server.start();
+            return server;
+        }
+    }
+}
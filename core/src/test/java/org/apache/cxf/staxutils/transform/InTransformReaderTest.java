@@ -461,4 +461,21 @@ public class InTransformReaderTest {
 
     }
 
+    @Test
+    public void testReadWithSharedTransformPlan() throws Exception {
+        TransformPlan plan = TransformUtils.createTransformPlanIfNeeded(
+            null, Collections.singletonMap("{http://bar}a", "{http://bar}a=1 2 3"), null, null);
+
+        // the readers get their own copy of the append map, which they consume
+        for (int i = 0; i < 2; i++) {
+            InputStream is = new ByteArrayInputStream(
+                "<ns:test xmlns:ns=\"http://bar\"><ns:a>1</ns:a></ns:test>".getBytes());
+            XMLStreamReader reader = new InTransformReader(StaxUtils.createXMLStreamReader(is), plan, false);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            StaxUtils.copy(reader, bos);
+            assertEquals("<ns:test xmlns:ns=\"http://bar\"><ns:a>1 2 3</ns:a></ns:test>", bos.toString());
+        }
+    }
+
 }
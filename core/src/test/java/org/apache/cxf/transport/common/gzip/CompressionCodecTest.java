@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class CompressionCodecTest {
+    private static final byte[] DATA = createData();
+
+    @Test
+    public void testGZIPCodecIsCompatibleWithJDK() throws Exception {
+        GZIPCodec codec = new GZIPCodec("gzip", new DeflatePool(2));
+        byte[] compressed = compress(codec, Deflater.BEST_COMPRESSION);
+        assertArrayEquals(DATA, readFully(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bos)) {
+            out.write(DATA);
+        }
+        assertArrayEquals(DATA, readFully(codec.decompress(new ByteArrayInputStream(bos.toByteArray()))));
+    }
+
+    @Test
+    public void testGZIPConcatenatedMembers() throws Exception {
+        GZIPCodec codec = new GZIPCodec();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(compress(codec, Deflater.DEFAULT_COMPRESSION));
+        bos.write(compress(codec, Deflater.BEST_SPEED));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(DATA);
+        expected.write(DATA);
+        assertArrayEquals(expected.toByteArray(),
+                          readFully(codec.decompress(new ByteArrayInputStream(bos.toByteArray()))));
+    }
+
+    @Test
+    public void testDeflateCodecIsCompatibleWithJDK() throws Exception {
+        DeflateCodec codec = new DeflateCodec(new DeflatePool(2));
+        byte[] compressed = compress(codec, Deflater.DEFAULT_COMPRESSION);
+        assertArrayEquals(DATA, readFully(new InflaterInputStream(new ByteArrayInputStream(compressed))));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(bos)) {
+            out.write(DATA);
+        }
+        assertArrayEquals(DATA, readFully(codec.decompress(new ByteArrayInputStream(bos.toByteArray()))));
+    }
+
+    @Test
+    public void testPool() throws Exception {
+        DeflatePool pool = new DeflatePool(1);
+        Deflater deflater = pool.acquireDeflater(Deflater.BEST_SPEED, true);
+        Deflater other = pool.acquireDeflater(Deflater.BEST_SPEED, true);
+        assertNotSame(deflater, other);
+        pool.releaseDeflater(deflater, true);
+        // the pool is full
+        pool.releaseDeflater(other, true);
+        assertSame(deflater, pool.acquireDeflater(Deflater.BEST_COMPRESSION, true));
+        assertNotSame(deflater, pool.acquireDeflater(Deflater.BEST_COMPRESSION, true));
+
+        Inflater inflater = pool.acquireInflater(false);
+        pool.releaseInflater(inflater, false);
+        assertNotSame(inflater, pool.acquireInflater(true));
+        assertSame(inflater, pool.acquireInflater(false));
+
+        // the codecs return what they take from the pool
+        GZIPCodec codec = new GZIPCodec("gzip", pool);
+        byte[] compressed = compress(codec, Deflater.DEFAULT_COMPRESSION);
+        deflater = pool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, true);
+        pool.releaseDeflater(deflater, true);
+        assertArrayEquals(compressed, compress(codec, Deflater.DEFAULT_COMPRESSION));
+        assertSame(deflater, pool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, true));
+    }
+
+    @Test
+    public void testPrecompressedContent() throws Exception {
+        PrecompressedContent content = new PrecompressedContent(DATA);
+        GZIPCodec codec = new GZIPCodec();
+        byte[] compressed = content.getContent(codec, Deflater.DEFAULT_COMPRESSION);
+        assertSame(compressed, content.getContent(codec, Deflater.DEFAULT_COMPRESSION));
+        assertNotSame(compressed, content.getContent(new GZIPCodec("x-gzip"), Deflater.DEFAULT_COMPRESSION));
+        assertArrayEquals(DATA, readFully(codec.decompress(new ByteArrayInputStream(compressed))));
+        assertEquals(DATA.length, content.getContent().length);
+    }
+
+    private static byte[] compress(CompressionCodec codec, int level) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = codec.compress(bos, level)) {
+            out.write(DATA, 0, 100);
+            out.write(DATA[100]);
+            out.write(DATA, 101, DATA.length - 101);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (InputStream is = in) {
+            byte[] buf = new byte[1000];
+            for (int n = is.read(buf); n != -1; n = is.read(buf)) {
+                bos.write(buf, 0, n);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] createData() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("<element attr=\"").append(i).append("\">value ").append(i * 31 % 97)
+                .append("</element>");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -22,10 +22,12 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.zip.Deflater;
 
 import org.apache.cxf.helpers.HttpHeaderHelper;
 import org.apache.cxf.interceptor.Fault;
@@ -41,6 +43,7 @@ import org.junit.Test;
 
 import static org.apache.cxf.transport.common.gzip.GZIPOutInterceptor.UseGzip.FORCE;
 import static org.apache.cxf.transport.common.gzip.GZIPOutInterceptor.UseGzip.YES;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 
@@ -117,6 +120,42 @@ public class GZIPAcceptEncodingTest {
         interceptor.handleMessage(outMessage);
     }
 
+    @Test
+    public void testHighestQValueWins() throws Exception {
+        interceptor.setCodecs(Arrays.<CompressionCodec>asList(new GZIPCodec(), new DeflateCodec()));
+        singleTest("gzip;q=0.5, deflate;q=0.8", YES, "deflate");
+    }
+
+    @Test
+    public void testFirstCodecWinsTie() throws Exception {
+        interceptor.setCodecs(Arrays.<CompressionCodec>asList(new GZIPCodec(), new DeflateCodec()));
+        singleTest("deflate, gzip", YES, "gzip");
+    }
+
+    @Test
+    public void testCompressionLevels() throws Exception {
+        interceptor.setCompressionLevel(Deflater.BEST_SPEED);
+        interceptor.setCompressionLevels(Collections.singletonMap("image/*", Deflater.NO_COMPRESSION));
+        outMessage.put(Message.CONTENT_TYPE, "image/png");
+        assertEquals(Deflater.NO_COMPRESSION, interceptor.getCompressionLevel(outMessage));
+        outMessage.put(Message.CONTENT_TYPE, "text/xml; charset=UTF-8");
+        assertEquals(Deflater.BEST_SPEED, interceptor.getCompressionLevel(outMessage));
+    }
+
+    @Test
+    public void testPrecompressedContent() throws Exception {
+        ByteArrayOutputStream bos = (ByteArrayOutputStream)outMessage.getContent(OutputStream.class);
+        PrecompressedContent content = new PrecompressedContent(new byte[2048]);
+        outMessage.put(PrecompressedContent.KEY, content);
+        singleTest("gzip", YES, "gzip");
+
+        try (OutputStream out = outMessage.getContent(OutputStream.class)) {
+            out.write(content.getContent());
+        }
+        assertArrayEquals(content.getContent(new GZIPCodec(), Deflater.DEFAULT_COMPRESSION),
+                          bos.toByteArray());
+    }
+
     private void singleTest(String encoding,
                             GZIPOutInterceptor.UseGzip expectedUseGzip, String expectedGzipEncoding)
         throws Exception {
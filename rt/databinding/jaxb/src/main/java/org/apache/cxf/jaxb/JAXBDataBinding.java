@@ -19,6 +19,10 @@
 
 package org.apache.cxf.jaxb;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
@@ -53,6 +57,7 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.dom.DOMResult;
@@ -71,6 +76,7 @@ import org.apache.cxf.common.jaxb.JAXBContextProxy;
 import org.apache.cxf.common.jaxb.JAXBUtils;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PackageUtils;
+import org.apache.cxf.common.util.PersistentCache;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.ReflectionUtil;
 import org.apache.cxf.common.xmlschema.SchemaCollection;
@@ -147,6 +153,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
         }
     }
     private static final Map<String, DOMResult> BUILT_IN_SCHEMAS = new HashMap<>();
+    private static final String SCHEMA_CACHE_AREA = "jaxb-schemas";
     static {
         URIResolver resolver = new URIResolver();
         try {
@@ -380,21 +387,37 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
             Set<DOMSource> bi = new LinkedHashSet<>();
             if (schemas == null) {
                 schemas = new LinkedHashSet<>();
-                try {
-                    for (DOMResult r : generateJaxbSchemas()) {
-                        DOMSource src = new DOMSource(r.getNode(), r.getSystemId());
-                        if (BUILT_IN_SCHEMAS.containsValue(r)) {
-                            bi.add(src);
-                        } else {
-                            schemas.add(src);
+                // the schemas generated by a previous run for the same classes
+                PersistentCache persistentCache = PersistentCache.getInstance();
+                String key = null;
+                List<Object> typeRefKeys = persistentCache == null ? null : getTypeReferenceKeys();
+                if (typeRefKeys != null) {
+                    // the JAXB implementation is part of the key too
+                    List<Class<?>> keyClasses = new ArrayList<>(contextClasses);
+                    keyClasses.add(ctx.getClass());
+                    key = PersistentCache.createKey(keyClasses, tns, contextProperties, typeRefKeys);
+                }
+                if (key == null || !readSchemas(persistentCache.get(SCHEMA_CACHE_AREA, key), schemas, bi)) {
+                    try {
+                        for (DOMResult r : generateJaxbSchemas()) {
+                            DOMSource src = new DOMSource(r.getNode(), r.getSystemId());
+                            if (BUILT_IN_SCHEMAS.containsValue(r)) {
+                                bi.add(src);
+                            } else {
+                                schemas.add(src);
+                            }
                         }
+                    } catch (IOException e) {
+                        throw new ServiceConstructionException("SCHEMA_GEN_EXC", LOG, e);
+                    }
+                    byte[] content = key == null ? null : writeSchemas(schemas, bi);
+                    if (content != null) {
+                        persistentCache.put(SCHEMA_CACHE_AREA, key, content);
                     }
-                    //put any builtins at the end.   Anything that DOES import them
-                    //will cause it to load automatically and we'll skip them later
-                    schemas.addAll(bi);
-                } catch (IOException e) {
-                    throw new ServiceConstructionException("SCHEMA_GEN_EXC", LOG, e);
                 }
+                //put any builtins at the end.   Anything that DOES import them
+                //will cause it to load automatically and we'll skip them later
+                schemas.addAll(bi);
             }
             for (DOMSource r : schemas) {
                 if (bi.contains(r)) {
@@ -420,6 +443,85 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
         }
     }
 
+    /**
+     * @return the tag names, types and annotations of the type references, which have no toString
+     * of their own, or null if they can't be read
+     */
+    private List<Object> getTypeReferenceKeys() {
+        List<Object> keys = new ArrayList<>();
+        try {
+            for (Object ref : typeRefs) {
+                Class<?> refClass = ref.getClass();
+                keys.add(Arrays.asList(refClass.getField("tagName").get(ref),
+                                       refClass.getField("type").get(ref),
+                                       refClass.getField("annotations").get(ref)));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.log(Level.FINE, "Not caching the schemas, could not read the type references", e);
+            return null;
+        }
+        return keys;
+    }
+
+    static byte[] writeSchemas(Collection<DOMSource> schemas, Collection<DOMSource> builtIns) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeInt(schemas.size() + builtIns.size());
+            for (DOMSource src : schemas) {
+                writeSchema(out, src, false);
+            }
+            for (DOMSource src : builtIns) {
+                writeSchema(out, src, true);
+            }
+        } catch (IOException | XMLStreamException e) {
+            LOG.log(Level.FINE, "Could not serialize the generated schemas", e);
+            return null;
+        }
+        return bos.toByteArray();
+    }
+
+    private static void writeSchema(DataOutputStream out, DOMSource src, boolean builtIn)
+        throws IOException, XMLStreamException {
+        out.writeBoolean(builtIn);
+        out.writeBoolean(src.getSystemId() != null);
+        if (src.getSystemId() != null) {
+            out.writeUTF(src.getSystemId());
+        }
+        ByteArrayOutputStream doc = new ByteArrayOutputStream();
+        StaxUtils.writeTo(src.getNode(), doc);
+        out.writeInt(doc.size());
+        doc.writeTo(out);
+    }
+
+    static boolean readSchemas(byte[] content, Collection<DOMSource> schemas,
+                                       Collection<DOMSource> builtIns) {
+        if (content == null) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+            List<DOMSource> read = new ArrayList<>();
+            List<DOMSource> readBuiltIns = new ArrayList<>();
+            for (int count = in.readInt(); count > 0; count--) {
+                boolean builtIn = in.readBoolean();
+                String systemId = in.readBoolean() ? in.readUTF() : null;
+                byte[] doc = new byte[in.readInt()];
+                in.readFully(doc);
+                DOMSource src = new DOMSource(StaxUtils.read(new ByteArrayInputStream(doc)), systemId);
+                if (builtIn) {
+                    readBuiltIns.add(src);
+                } else {
+                    read.add(src);
+                }
+            }
+            schemas.addAll(read);
+            builtIns.addAll(readBuiltIns);
+            return true;
+        } catch (IOException | XMLStreamException e) {
+            LOG.log(Level.FINE, "Could not read the cached schemas", e);
+            return false;
+        }
+    }
+
     private void justCheckForJAXBAnnotations(ServiceInfo serviceInfo) {
         for (MessageInfo mi: serviceInfo.getMessages().values()) {
             for (MessagePartInfo mpi : mi.getMessageParts()) {
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.dom.DOMSource;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import org.apache.cxf.common.jaxb.JAXBContextCache;
+import org.apache.cxf.common.util.PersistentCache;
+import org.apache.cxf.databinding.DataReader;
+import org.apache.cxf.databinding.DataWriter;
+import org.apache.cxf.helpers.FileUtils;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.service.ServiceImpl;
+import org.apache.cxf.service.model.InterfaceInfo;
+import org.apache.cxf.service.model.ServiceInfo;
+import org.apache.cxf.staxutils.StaxUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JAXBDataBindingPersistentCacheTest {
+    private static final String NS = "http://cxf.apache.org/jaxb/persistent";
+    private static final String SCHEMA_AREA = "jaxb-schemas";
+    private static final QName MARKER = new QName(NS, "cachedMarker");
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = FileUtils.createTmpDir();
+        System.setProperty(PersistentCache.CACHE_DIRECTORY_PROPERTY, dir.getAbsolutePath());
+        JAXBContextCache.clearCaches();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(PersistentCache.CACHE_DIRECTORY_PROPERTY);
+        JAXBContextCache.clearCaches();
+        FileUtils.removeDir(dir);
+    }
+
+    @Test
+    public void testSchemasReadInFreshBinding() throws Exception {
+        Service service = createService();
+        new JAXBDataBinding().initialize(service);
+        assertNull(service.getServiceInfos().get(0).getXmlSchemaCollection().getElementByQName(MARKER));
+
+        // mark the cached schemas, so that reading them can be told from generating them
+        PersistentCache cache = PersistentCache.getInstance();
+        String key = getSingleEntry();
+        List<DOMSource> schemas = new ArrayList<>();
+        List<DOMSource> builtIns = new ArrayList<>();
+        assertTrue(JAXBDataBinding.readSchemas(cache.get(SCHEMA_AREA, key), schemas, builtIns));
+        addMarker(schemas);
+        cache.put(SCHEMA_AREA, key, JAXBDataBinding.writeSchemas(schemas, builtIns));
+
+        // a fresh binding, without the schemas kept in memory, as after a restart
+        JAXBContextCache.clearCaches();
+        service = createService();
+        JAXBDataBinding binding = new JAXBDataBinding();
+        binding.initialize(service);
+        assertNotNull(service.getServiceInfos().get(0).getXmlSchemaCollection().getElementByQName(MARKER));
+        assertEquals(key, getSingleEntry());
+
+        CachedBean bean = new CachedBean();
+        bean.setName("cached");
+        DataWriter<OutputStream> writer = binding.createWriter(OutputStream.class);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.write(bean, baos);
+
+        DataReader<XMLStreamReader> reader = binding.createReader(XMLStreamReader.class);
+        XMLStreamReader xmlReader = StaxUtils.createXMLStreamReader(new StringReader(baos.toString()));
+        CachedBean read = (CachedBean)reader.read(xmlReader);
+        assertEquals("cached", read.getName());
+    }
+
+    private String getSingleEntry() {
+        File[] entries = new File(dir, SCHEMA_AREA).listFiles((d, name) -> !name.endsWith(".tmp"));
+        assertNotNull(entries);
+        assertEquals(1, entries.length);
+        return entries[0].getName();
+    }
+
+    private static void addMarker(List<DOMSource> schemas) {
+        for (DOMSource src : schemas) {
+            Element schema = ((Document)src.getNode()).getDocumentElement();
+            if (NS.equals(schema.getAttribute("targetNamespace"))) {
+                String prefix = schema.getPrefix() == null ? "" : schema.getPrefix() + ":";
+                Element element = schema.getOwnerDocument()
+                    .createElementNS(schema.getNamespaceURI(), prefix + "element");
+                element.setAttribute("name", MARKER.getLocalPart());
+                element.setAttribute("type", prefix + "string");
+                schema.appendChild(element);
+                return;
+            }
+        }
+        throw new AssertionError("No schema for " + NS);
+    }
+
+    private static Service createService() {
+        ServiceInfo serviceInfo = new ServiceInfo();
+        serviceInfo.setName(new QName(NS, "CachedService"));
+        new InterfaceInfo(serviceInfo, new QName(NS, "CachedPortType"));
+        serviceInfo.setProperty("extra.class", Collections.singleton(CachedBean.class));
+        return new ServiceImpl(serviceInfo);
+    }
+
+    @XmlRootElement(name = "cachedBean", namespace = NS)
+    @XmlType(name = "cachedBeanType", namespace = NS)
+    public static class CachedBean {
+        private String name;
+
+        @XmlAttribute
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerFactory;
 import org.apache.cxf.endpoint.ServerImpl;
 import org.apache.cxf.feature.Feature;
 import org.apache.cxf.helpers.CastUtils;
@@ -70,7 +71,7 @@ import org.apache.cxf.service.invoker.Invoker;
  * myServer.destroy(); // closes first if close() not previously called
  * </pre>
  */
-public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
+public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean implements ServerFactory {
 
     protected Map<Class<?>, ResourceProvider> resourceProviders = new HashMap<>();
 
@@ -141,6 +142,32 @@ public class JAXRSServerFactoryBean extends AbstractJAXRSFactoryBean {
         }
     }
 
+    /**
+     * Creates the resource models of the service, so that several servers can be prepared in
+     * parallel before they are created.
+     */
+    public void prepare() {
+        ClassLoaderHolder origLoader = null;
+        try {
+            Bus bus = getBus();
+            ClassLoader loader = bus.getExtension(ClassLoader.class);
+            if (loader != null) {
+                origLoader = ClassLoaderUtils.setThreadContextClassloader(loader);
+            }
+            serviceFactory.setBus(bus);
+            checkResources(true);
+            if (serviceFactory.getService() == null) {
+                serviceFactory.create();
+            }
+        } catch (Exception e) {
+            throw new ServiceConstructionException(e);
+        } finally {
+            if (origLoader != null) {
+                origLoader.reset();
+            }
+        }
+    }
+
     /**
      * Creates the JAX-RS Server instance
      * @return the server
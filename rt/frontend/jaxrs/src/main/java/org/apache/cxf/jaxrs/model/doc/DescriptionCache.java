@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.model.doc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.Service;
+
+/**
+ * The rendered descriptions of a service, such as its WADL or OpenAPI documents, keyed by the base
+ * URI and the media type they were requested with. A description is only returned as long as the
+ * resource model it was generated from has not changed, and it is sent with a strong ETag so that
+ * the clients which already have it get a 304 response.
+ */
+public class DescriptionCache {
+    private static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private final Map<String, Description> descriptions;
+
+    public DescriptionCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public DescriptionCache(final int maxEntries) {
+        descriptions = Collections.synchronizedMap(new LinkedHashMap<String, Description>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Description> eldest) {
+                // the base URI comes from the request, so the number of entries has to be bounded
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @param key the key of the description, which has to contain the base URI and media type
+     * @param modelState the current state of the resource model, see {@link #getModelState(Message)}
+     * @return the description, or null if it has not been cached or the model has changed since
+     */
+    public Description get(String key, Object modelState) {
+        Description description = descriptions.get(key);
+        if (description != null && !Objects.equals(description.modelState, modelState)) {
+            descriptions.remove(key);
+            return null;
+        }
+        return description;
+    }
+
+    /**
+     * @param key the key of the description
+     * @param modelState the state of the resource model after the description was generated
+     * @param content the description
+     * @param mediaType the media type of the description
+     * @return the cached description
+     */
+    public Description put(String key, Object modelState, String content, MediaType mediaType) {
+        Description description = new Description(modelState, content, mediaType);
+        descriptions.put(key, description);
+        return description;
+    }
+
+    public void clear() {
+        descriptions.clear();
+    }
+
+    /**
+     * Returns the state of the resource model of the service the message was sent to. The state
+     * changes when resources or operations are added, including the subresources found at runtime.
+     */
+    public static Object getModelState(Message m) {
+        Service service = m.getExchange().getService();
+        if (service instanceof JAXRSServiceImpl) {
+            return getModelState(((JAXRSServiceImpl)service).getClassResourceInfos());
+        }
+        return null;
+    }
+
+    public static Object getModelState(List<ClassResourceInfo> cris) {
+        List<Object> state = new ArrayList<>();
+        Set<ClassResourceInfo> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ClassResourceInfo cri : cris) {
+            addModelState(state, cri, visited);
+        }
+        return state;
+    }
+
+    private static void addModelState(List<Object> state, ClassResourceInfo cri,
+                                      Set<ClassResourceInfo> visited) {
+        if (!visited.add(cri)) {
+            return;
+        }
+        // the model classes do not override equals, so the state compares them by identity
+        state.add(cri);
+        state.add(cri.getMethodDispatcher());
+        state.add(cri.getMethodDispatcher().getOperationResourceInfos().size());
+        for (ClassResourceInfo sub : cri.getSubResources()) {
+            addModelState(state, sub, visited);
+        }
+    }
+
+    public static final class Description {
+        private final Object modelState;
+        private final String content;
+        private final MediaType mediaType;
+        private final EntityTag entityTag;
+
+        Description(Object modelState, String content, MediaType mediaType) {
+            this.modelState = modelState;
+            this.content = content;
+            this.mediaType = mediaType;
+            this.entityTag = new EntityTag(createTag(content, mediaType));
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public EntityTag getEntityTag() {
+            return entityTag;
+        }
+
+        /**
+         * @return the 304 response if the request has an If-None-Match header matching the
+         * ETag of the description, otherwise null
+         */
+        public Response evaluatePreconditions(Request request) {
+            ResponseBuilder rb = request.evaluatePreconditions(entityTag);
+            return rb == null ? null : rb.build();
+        }
+
+        /**
+         * Creates the response with the content of the description.
+         */
+        public Response toResponse() {
+            return toResponse(content);
+        }
+
+        /**
+         * Creates the response with an entity created from the content of the description.
+         */
+        public Response toResponse(Object entity) {
+            return Response.ok(entity, mediaType).tag(entityTag).build();
+        }
+
+        private static String createTag(String content, MediaType mediaType) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(String.valueOf(mediaType).getBytes(StandardCharsets.UTF_8));
+                digest.update(content.getBytes(StandardCharsets.UTF_8));
+                return Base64UrlUtility.encode(digest.digest());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new SecurityException(ex);
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.cxf.endpoint.Server;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.resources.BookStore;
 import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.Service;
 
 import org.junit.Test;
 
@@ -68,6 +69,21 @@ public class JAXRSServerFactoryBeanTest {
     }
 
 
+    @Test
+    public void testPreparedServiceReused() {
+        JAXRSServerFactoryBean bean = new JAXRSServerFactoryBean();
+        bean.setAddress("http://localhost:8080/rest");
+        bean.setStart(false);
+        bean.setResourceClasses(BookStore.class);
+
+        bean.prepare();
+        Service service = bean.getServiceFactory().getService();
+        assertNotNull(service);
+
+        Server s = bean.create();
+        assertSame(service, s.getEndpoint().getService());
+    }
+
     private static class CustomExceptionMapper implements ExceptionMapper<Exception> {
 
         public Response toResponse(Exception exception) {
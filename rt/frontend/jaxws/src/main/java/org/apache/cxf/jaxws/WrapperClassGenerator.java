@@ -26,9 +26,11 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.bind.annotation.XmlAttachmentRef;
@@ -46,6 +48,7 @@ import org.apache.cxf.common.jaxb.JAXBUtils;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.ASMHelper;
 import org.apache.cxf.common.util.PackageUtils;
+import org.apache.cxf.common.util.PersistentCache;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.helpers.JavaUtils;
 import org.apache.cxf.jaxws.support.JaxWsServiceFactoryBean;
@@ -60,6 +63,7 @@ public final class WrapperClassGenerator extends ASMHelper {
     public static final String DEFAULT_PACKAGE_NAME = "defaultnamespace";
 
     private static final Logger LOG = LogUtils.getL7dLogger(WrapperClassGenerator.class);
+    private static final String WRAPPER_CACHE_AREA = "jaxws-wrappers";
     private Set<Class<?>> wrapperBeans = new LinkedHashSet<>();
     private InterfaceInfo interfaceInfo;
     private boolean qualified;
@@ -184,6 +188,24 @@ public final class WrapperClassGenerator extends ASMHelper {
                 return;
             }
         }
+        // the bytecode generated by a previous run for the same SEI and configuration, the cache
+        // only returns entries carrying the HMAC it has written them with
+        PersistentCache persistentCache = PersistentCache.getInstance();
+        String key = persistentCache == null ? null
+            : createCacheKey(className, wrapperElement, anonymous, messageInfo, method);
+        byte[] cached = key == null ? null : persistentCache.get(WRAPPER_CACHE_AREA, key);
+        if (cached != null) {
+            try {
+                Class<?> clz = loadClass(className, method.getDeclaringClass(), cached);
+                wrapperPart.setTypeClass(clz);
+                wrapperBeans.add(clz);
+                return;
+            } catch (LinkageError e) {
+                LOG.log(Level.FINE, "Could not load the cached wrapper class " + className, e);
+                persistentCache.remove(WRAPPER_CACHE_AREA, key);
+            }
+        }
+
         String classFileName = periodToSlashes(className);
         cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, classFileName, null,
                  "java/lang/Object", null);
@@ -226,11 +248,32 @@ public final class WrapperClassGenerator extends ASMHelper {
 
         cw.visitEnd();
 
-        Class<?> clz = loadClass(className, method.getDeclaringClass(), cw.toByteArray());
+        byte[] bytes = cw.toByteArray();
+        if (key != null) {
+            persistentCache.put(WRAPPER_CACHE_AREA, key, bytes);
+        }
+        Class<?> clz = loadClass(className, method.getDeclaringClass(), bytes);
         wrapperPart.setTypeClass(clz);
         wrapperBeans.add(clz);
     }
 
+    private String createCacheKey(String className, QName wrapperElement, boolean anonymous,
+                                  MessageInfo messageInfo, Method method) {
+        StringBuilder parts = new StringBuilder();
+        for (MessagePartInfo mpi : messageInfo.getMessageParts()) {
+            parts.append(mpi.getName()).append(' ').append(mpi.getConcreteName()).append(' ')
+                .append(mpi.getTypeClass() == null ? null : mpi.getTypeClass().getName()).append(' ')
+                .append(mpi.getProperty(ReflectionServiceFactoryBean.RAW_CLASS)).append(' ')
+                .append(mpi.getProperty(ReflectionServiceFactoryBean.GENERIC_TYPE)).append(' ')
+                .append(mpi.getProperty(ReflectionServiceFactoryBean.HEADER)).append(' ')
+                .append(factory.isWrapperPartQualified(mpi)).append(' ')
+                .append(factory.isWrapperPartNillable(mpi)).append(' ')
+                .append(factory.getWrapperPartMinOccurs(mpi)).append(';');
+        }
+        return PersistentCache.createKey(Collections.<Class<?>>singleton(method.getDeclaringClass()),
+                                         className, wrapperElement, anonymous, method, parts);
+    }
+
     private void generatePackageInfo(String className, String ns, Class<?> clz) {
         ClassWriter cw = createClassWriter();
         String classFileName = periodToSlashes(className);
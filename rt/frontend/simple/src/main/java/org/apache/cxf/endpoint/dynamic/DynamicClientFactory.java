@@ -18,10 +18,14 @@
  */
 package org.apache.cxf.endpoint.dynamic;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -31,19 +35,34 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.wsdl.Definition;
+import javax.wsdl.Import;
+import javax.wsdl.WSDLException;
+import javax.wsdl.xml.WSDLWriter;
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -88,6 +107,8 @@ import org.apache.cxf.common.jaxb.JAXBUtils.Options;
 import org.apache.cxf.common.jaxb.JAXBUtils.S2JJAXBModel;
 import org.apache.cxf.common.jaxb.JAXBUtils.SchemaCompiler;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.common.util.PersistentCache;
 import org.apache.cxf.common.util.ReflectionInvokationHandler;
 import org.apache.cxf.common.util.ReflectionUtil;
 import org.apache.cxf.common.util.StringUtils;
@@ -98,7 +119,9 @@ import org.apache.cxf.endpoint.ClientImpl;
 import org.apache.cxf.endpoint.EndpointImplFactory;
 import org.apache.cxf.endpoint.SimpleEndpointImplFactory;
 import org.apache.cxf.helpers.DOMUtils;
+import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.helpers.FileUtils;
+import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.helpers.JavaUtils;
 import org.apache.cxf.jaxb.JAXBDataBinding;
 import org.apache.cxf.resource.URIResolver;
@@ -108,6 +131,8 @@ import org.apache.cxf.service.model.SchemaInfo;
 import org.apache.cxf.service.model.ServiceInfo;
 import org.apache.cxf.staxutils.StaxUtils;
 import org.apache.cxf.wsdl.WSDLConstants;
+import org.apache.cxf.wsdl.WSDLManager;
+import org.apache.cxf.wsdl11.WSDLServiceBuilder;
 import org.apache.cxf.wsdl11.WSDLServiceFactory;
 import org.apache.ws.commons.schema.XmlSchema;
 import org.apache.ws.commons.schema.XmlSchemaSerializer;
@@ -129,6 +154,10 @@ public class DynamicClientFactory {
 
     private static final Logger LOG = LogUtils.getL7dLogger(DynamicClientFactory.class);
 
+    private static final String CACHE_AREA = "dynamic-clients";
+    private static final Map<ClassLoader, Map<String, Reference<GeneratedClasses>>> GENERATED_CLASSES
+        = new WeakHashMap<>();
+
     private Bus bus;
 
     private String tmpdir = SystemPropertyAction.getProperty("java.io.tmpdir");
@@ -324,25 +353,83 @@ public class DynamicClientFactory {
         //all SI's should have the same schemas
         SchemaCollection schemas = svc.getServiceInfos().get(0).getXmlSchemaCollection();
 
-        SchemaCompiler compiler = createSchemaCompiler();
+        // clients for the same contract share the classes generated for the first one
+        String key = createCacheKey(svc, bindingFiles);
+        GeneratedClasses generated = key == null ? null : getCachedClasses(classLoader, key);
+        PersistentCache persistentCache = key == null ? null : PersistentCache.getInstance();
+        S2JJAXBModel intermediateModel = null;
+        if (generated == null && persistentCache != null) {
+            byte[] cached = persistentCache.get(CACHE_AREA, key);
+            if (cached != null) {
+                generated = restoreClasses(cached, classLoader);
+                if (generated == null) {
+                    // a corrupt or stale entry, the classes are generated again
+                    persistentCache.remove(CACHE_AREA, key);
+                }
+            }
+        }
+        if (generated == null) {
+            SchemaCompiler compiler = createSchemaCompiler();
 
-        InnerErrorListener listener = new InnerErrorListener(wsdlUrl);
-        Object elForRun = ReflectionInvokationHandler
-            .createProxyWrapper(listener,
-                                JAXBUtils.getParamClass(compiler, "setErrorListener"));
+            InnerErrorListener listener = new InnerErrorListener(wsdlUrl);
+            Object elForRun = ReflectionInvokationHandler
+                .createProxyWrapper(listener,
+                                    JAXBUtils.getParamClass(compiler, "setErrorListener"));
 
-        compiler.setErrorListener(elForRun);
+            compiler.setErrorListener(elForRun);
 
-        OASISCatalogManager catalog = bus.getExtension(OASISCatalogManager.class);
-        hackInNewInternalizationLogic(compiler, catalog);
+            OASISCatalogManager catalog = bus.getExtension(OASISCatalogManager.class);
+            hackInNewInternalizationLogic(compiler, catalog);
+
+            addSchemas(compiler.getOptions(), compiler, svc.getServiceInfos(), schemas);
+            addBindingFiles(bindingFiles, compiler);
+            applySchemaCompilerOptions(compiler);
+            intermediateModel = compiler.bind();
+
+            listener.throwException();
+
+            generated = generateClasses(wsdlUrl, intermediateModel, elForRun, classLoader);
+        }
+
+        JAXBDataBinding databinding = new JAXBDataBinding();
+        databinding.setContext(generated.context);
+        svc.setDataBinding(databinding);
+
+        ClientImpl client = new DynamicClientImpl(bus, svc, port,
+                                                  getEndpointImplFactory(), generated.classLoader);
 
-        addSchemas(compiler.getOptions(), compiler, svc.getServiceInfos(), schemas);
-        addBindingFiles(bindingFiles, compiler);
-        applySchemaCompilerOptions(compiler);
-        S2JJAXBModel intermediateModel = compiler.bind();
+        ServiceInfo svcfo = client.getEndpoint().getEndpointInfo().getService();
 
-        listener.throwException();
+        // Setup the new classloader!
+        ClassLoaderUtils.setThreadContextClassloader(generated.classLoader);
+
+        TypeClassInitializer visitor;
+        if (intermediateModel != null) {
+            visitor = new TypeClassInitializer(svcfo, intermediateModel, allowWrapperOps());
+        } else {
+            visitor = new TypeClassInitializer(svcfo, generated.typeClassNames, allowWrapperOps());
+        }
+        visitor.walk();
+        if (generated.directory != null) {
+            generated.typeClassNames = visitor.getTypeClassNames();
+            if (generated.compiled && intermediateModel != null && persistentCache != null) {
+                byte[] content = generated.toByteArray();
+                if (content != null) {
+                    persistentCache.put(CACHE_AREA, key, content);
+                }
+            }
+            // delete the classes files
+            FileUtils.removeDir(generated.directory);
+            generated.directory = null;
+            if (generated.compiled && key != null) {
+                cacheClasses(classLoader, key, generated);
+            }
+        }
+        return client;
+    }
 
+    private GeneratedClasses generateClasses(String wsdlUrl, S2JJAXBModel intermediateModel,
+                                             Object elForRun, ClassLoader classLoader) {
         JCodeModel codeModel = intermediateModel.generateCode(null, elForRun);
         StringBuilder sb = new StringBuilder();
         boolean firstnt = false;
@@ -387,11 +474,18 @@ public class DynamicClientFactory {
             throw new RuntimeException(ex);
         }
 
+        boolean compiled = true;
         List<File> srcFiles = FileUtils.getFilesRecurseUsingSuffix(src, ".java");
         if (!srcFiles.isEmpty() && !compileJavaSrc(classPath.toString(), srcFiles, classes.toString())) {
             LOG.log(Level.SEVERE, new Message("COULD_NOT_COMPILE_SRC", LOG, wsdlUrl).toString());
+            compiled = false;
         }
         FileUtils.removeDir(src);
+        return loadClasses(packageList, classes, classLoader, compiled);
+    }
+
+    private GeneratedClasses loadClasses(String packageList, File classes, ClassLoader classLoader,
+                                         boolean compiled) {
         URL[] urls = null;
         try {
             urls = new URL[] {classes.toURI().toURL()};
@@ -415,30 +509,141 @@ public class DynamicClientFactory {
                 context = JAXBContext.newInstance(packageList, cl, contextProperties);
             }
         } catch (JAXBException jbe) {
+            FileUtils.removeDir(classes);
             throw new IllegalStateException("Unable to create JAXBContext for generated packages: "
                                             + jbe.getMessage(), jbe);
         }
+        return new GeneratedClasses(packageList, classes, cl, context, compiled);
+    }
 
-        JAXBDataBinding databinding = new JAXBDataBinding();
-        databinding.setContext(context);
-        svc.setDataBinding(databinding);
+    /**
+     * @return the classes of the cache entry, or null if the entry can't be used
+     */
+    private GeneratedClasses restoreClasses(byte[] cached, ClassLoader classLoader) {
+        File classes = new File(tmpdir, toString() + "-" + System.currentTimeMillis() + "-classes");
+        if (!classes.mkdir()) {
+            throw new IllegalStateException("Unable to create working directory " + classes.getPath());
+        }
+        Properties props = new Properties();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(cached))) {
+            String dir = classes.getCanonicalPath() + File.separator;
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (GeneratedClasses.PROPERTIES_ENTRY.equals(entry.getName())) {
+                    props.load(zip);
+                } else if (!entry.isDirectory()) {
+                    File file = new File(classes, entry.getName());
+                    if (!file.getCanonicalPath().startsWith(dir)) {
+                        throw new IOException("Invalid entry " + entry.getName());
+                    }
+                    file.getParentFile().mkdirs();
+                    Files.copy(zip, file.toPath());
+                }
+            }
+            if (props.getProperty(GeneratedClasses.PACKAGES) == null) {
+                throw new IOException("Missing " + GeneratedClasses.PROPERTIES_ENTRY);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Could not restore the cached classes", e);
+            FileUtils.removeDir(classes);
+            return null;
+        }
+        GeneratedClasses generated;
+        try {
+            generated = loadClasses(props.getProperty(GeneratedClasses.PACKAGES), classes, classLoader, true);
+        } catch (RuntimeException | LinkageError e) {
+            LOG.log(Level.FINE, "Could not load the cached classes", e);
+            FileUtils.removeDir(classes);
+            return null;
+        }
+        generated.typeClassNames = new HashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith(GeneratedClasses.TYPE_CLASS)) {
+                generated.typeClassNames.put(name.substring(GeneratedClasses.TYPE_CLASS.length()),
+                                             props.getProperty(name));
+            }
+        }
+        return generated;
+    }
 
-        ClientImpl client = new DynamicClientImpl(bus, svc, port,
-                                                  getEndpointImplFactory(), cl);
+    /**
+     * Creates the key of the generated classes from the WSDL documents and schemas of the service,
+     * the binding files and the options the schemas are compiled with. The cache entries are
+     * protected by the HMAC of the PersistentCache.
+     *
+     * @return the key, or null if the classes can't be cached, because the contract can't be read or
+     * the JAXBContext properties have no representation that is the same in every JVM
+     */
+    private String createCacheKey(Service svc, List<String> bindingFiles) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new SecurityException(ex);
+        }
+        try {
+            WSDLManager wsdlManager = bus.getExtension(WSDLManager.class);
+            WSDLWriter writer = wsdlManager == null ? null : wsdlManager.getWSDLFactory().newWSDLWriter();
+            Set<Definition> done = new HashSet<>();
+            for (ServiceInfo si : svc.getServiceInfos()) {
+                if (writer != null) {
+                    Definition def = si.getProperty(WSDLServiceBuilder.WSDL_DEFINITION, Definition.class);
+                    updateDefinition(digest, writer, def, done);
+                }
+                for (SchemaInfo schemaInfo : si.getSchemas()) {
+                    String schema = StaxUtils.toString(schemaInfo.getElement());
+                    digest.update(String.valueOf(schemaInfo.getSystemId()).getBytes(StandardCharsets.UTF_8));
+                    digest.update(schema.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (bindingFiles != null) {
+                for (String s : bindingFiles) {
+                    try (InputStream ins = composeUrl(s).openStream()) {
+                        digest.update(IOUtils.readBytesFromStream(ins));
+                    }
+                }
+            }
+        } catch (IOException | WSDLException e) {
+            LOG.log(Level.FINE, "Not caching the generated classes", e);
+            return null;
+        }
+        return PersistentCache.createKey(Collections.<Class<?>>emptyList(), getClass().getName(),
+                                         allowWrapperOps(), allowRefs, simpleBindingEnabled,
+                                         schemaCompilerOptions, jaxbContextProperties,
+                                         Base64UrlUtility.encode(digest.digest()));
+    }
 
-        ServiceInfo svcfo = client.getEndpoint().getEndpointInfo().getService();
+    private static void updateDefinition(MessageDigest digest, WSDLWriter writer, Definition def,
+                                         Set<Definition> done) throws WSDLException {
+        if (def == null || !done.add(def)) {
+            return;
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.writeWSDL(def, bos);
+        digest.update(bos.toByteArray());
+        Collection<List<?>> imports = CastUtils.cast((Collection<?>)def.getImports().values());
+        for (List<?> lst : imports) {
+            List<Import> impLst = CastUtils.cast(lst);
+            for (Import imp : impLst) {
+                updateDefinition(digest, writer, imp.getDefinition(), done);
+            }
+        }
+    }
 
-        // Setup the new classloader!
-        ClassLoaderUtils.setThreadContextClassloader(cl);
+    private static GeneratedClasses getCachedClasses(ClassLoader classLoader, String key) {
+        synchronized (GENERATED_CLASSES) {
+            Map<String, Reference<GeneratedClasses>> cache = GENERATED_CLASSES.get(classLoader);
+            Reference<GeneratedClasses> ref = cache == null ? null : cache.get(key);
+            return ref == null ? null : ref.get();
+        }
+    }
 
-        TypeClassInitializer visitor = new TypeClassInitializer(svcfo,
-                                                                intermediateModel,
-                                                                allowWrapperOps());
-        visitor.walk();
-        // delete the classes files
-        FileUtils.removeDir(classes);
-        return client;
+    private static void cacheClasses(ClassLoader classLoader, String key, GeneratedClasses generated) {
+        synchronized (GENERATED_CLASSES) {
+            GENERATED_CLASSES.computeIfAbsent(classLoader, k -> new HashMap<>())
+                .put(key, new SoftReference<>(generated));
+        }
     }
+
     protected boolean allowWrapperOps() {
         return false;
     }
@@ -740,6 +945,57 @@ public class DynamicClientFactory {
         }
     }
 
+    /**
+     * The classes generated for a contract, with the JAXBContext and the type classes of the
+     * message parts.
+     */
+    private static final class GeneratedClasses {
+        static final String PROPERTIES_ENTRY = "META-INF/cxf/dynamic-client.properties";
+        static final String PACKAGES = "packages";
+        static final String TYPE_CLASS = "typeClass.";
+
+        final String packageList;
+        final ClassLoader classLoader;
+        final JAXBContext context;
+        final boolean compiled;
+        volatile Map<String, String> typeClassNames;
+        File directory;
+
+        GeneratedClasses(String packageList, File directory, ClassLoader classLoader,
+                         JAXBContext context, boolean compiled) {
+            this.packageList = packageList;
+            this.directory = directory;
+            this.classLoader = classLoader;
+            this.context = context;
+            this.compiled = compiled;
+        }
+
+        byte[] toByteArray() {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ZipOutputStream zip = new ZipOutputStream(bos)) {
+                Path root = directory.toPath();
+                for (File file : FileUtils.getFilesRecurseUsingSuffix(directory, ".class")) {
+                    String name = root.relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+                    zip.putNextEntry(new ZipEntry(name));
+                    Files.copy(file.toPath(), zip);
+                    zip.closeEntry();
+                }
+                Properties props = new Properties();
+                props.setProperty(PACKAGES, packageList);
+                for (Map.Entry<String, String> e : typeClassNames.entrySet()) {
+                    props.setProperty(TYPE_CLASS + e.getKey(), e.getValue());
+                }
+                zip.putNextEntry(new ZipEntry(PROPERTIES_ENTRY));
+                props.store(zip, null);
+                zip.closeEntry();
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "Could not store the generated classes", e);
+                return null;
+            }
+            return bos.toByteArray();
+        }
+    }
+
     static class InnerErrorListener {
 
         private String url;
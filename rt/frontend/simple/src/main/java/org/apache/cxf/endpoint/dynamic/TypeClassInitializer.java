@@ -19,7 +19,9 @@
 package org.apache.cxf.endpoint.dynamic;
 
 import java.lang.reflect.Array;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
@@ -48,6 +50,7 @@ public class TypeClassInitializer extends ServiceModelVisitor {
     S2JJAXBModel model;
     boolean allowWrapperOperations;
     boolean isFault;
+    Map<String, String> typeClassNames;
 
     public TypeClassInitializer(ServiceInfo serviceInfo,
                                 S2JJAXBModel model,
@@ -55,6 +58,27 @@ public class TypeClassInitializer extends ServiceModelVisitor {
         super(serviceInfo);
         this.model = model;
         this.allowWrapperOperations = allowWr;
+        this.typeClassNames = new HashMap<>();
+    }
+
+    /**
+     * Sets the type classes recorded by a previous walk over a service with the same contract,
+     * see {@link #getTypeClassNames()}, so that the schemas do not have to be compiled again.
+     */
+    public TypeClassInitializer(ServiceInfo serviceInfo,
+                                Map<String, String> typeClassNames,
+                                boolean allowWr) {
+        super(serviceInfo);
+        this.allowWrapperOperations = allowWr;
+        this.typeClassNames = typeClassNames;
+    }
+
+    /**
+     * @return the names of the type classes set on the parts, keyed by the operation, message and
+     * part names
+     */
+    public Map<String, String> getTypeClassNames() {
+        return typeClassNames;
     }
 
     @Override
@@ -70,6 +94,43 @@ public class TypeClassInitializer extends ServiceModelVisitor {
         } else {
             name = part.getTypeQName();
         }
+        Class<?> cls;
+        String key = getPartKey(part);
+        if (model == null) {
+            String clsName = typeClassNames.get(key);
+            if (clsName == null) {
+                throw new ServiceConstructionException(new Message("NO_JAXB_CLASSMapping", LOG, name));
+            }
+            try {
+                cls = getClassByName(clsName);
+            } catch (ClassNotFoundException e) {
+                throw new ServiceConstructionException(e);
+            }
+        } else {
+            cls = getClassFromModel(part, name);
+            typeClassNames.put(key, cls.getName());
+        }
+
+        part.setTypeClass(cls);
+        if (isFault) {
+            //need to create an Exception class for this
+            try {
+                part.getMessageInfo().setProperty(Class.class.getName(), createFaultClass(cls));
+            } catch (Throwable t) {
+                //ignore - probably no asm
+            }
+        }
+        super.begin(part);
+    }
+
+    private static String getPartKey(MessagePartInfo part) {
+        OperationInfo op = part.getMessageInfo().getOperation();
+        return op.getName() + (op.isUnwrapped() ? " unwrapped " : " ") + part.getMessageInfo().getName()
+            + " " + part.getName();
+    }
+
+    private Class<?> getClassFromModel(MessagePartInfo part, QName name) {
+        OperationInfo op = part.getMessageInfo().getOperation();
         Mapping mapping = model.get(name);
 
         //String clsName = null;
@@ -148,17 +209,7 @@ public class TypeClassInitializer extends ServiceModelVisitor {
         } catch (ClassNotFoundException e) {
             throw new ServiceConstructionException(e);
         }
-
-        part.setTypeClass(cls);
-        if (isFault) {
-            //need to create an Exception class for this
-            try {
-                part.getMessageInfo().setProperty(Class.class.getName(), createFaultClass(cls));
-            } catch (Throwable t) {
-                //ignore - probably no asm
-            }
-        }
-        super.begin(part);
+        return cls;
     }
 
     private Class<?> createFaultClass(Class<?> cls) {
@@ -175,6 +226,17 @@ public class TypeClassInitializer extends ServiceModelVisitor {
         }
         return cls;
     }
+    private Class<?> getClassByName(String name) throws ClassNotFoundException {
+        Class<?> cls = PrimitiveUtils.getClass(name);
+        if (cls == null) {
+            if (name.charAt(0) == '[') {
+                cls = Class.forName(name, false, Thread.currentThread().getContextClassLoader());
+            } else {
+                cls = ClassLoaderUtils.loadClass(name, getClass());
+            }
+        }
+        return cls;
+    }
     public void begin(FaultInfo fault) {
         isFault = true;
     }
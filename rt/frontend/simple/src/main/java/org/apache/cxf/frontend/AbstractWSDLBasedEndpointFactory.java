@@ -86,7 +86,10 @@ public abstract class AbstractWSDLBasedEndpointFactory extends AbstractEndpointF
         }
     }
 
-    protected Endpoint createEndpoint() throws BusException, EndpointException {
+    /**
+     * Creates the service with the service factory, unless it has already been created.
+     */
+    protected Service initializeService() {
         serviceFactory.setFeatures(getFeatures());
         if (serviceName != null) {
             serviceFactory.setServiceName(serviceName);
@@ -102,6 +105,11 @@ public abstract class AbstractWSDLBasedEndpointFactory extends AbstractEndpointF
             initializeServiceFactory();
             service = serviceFactory.create();
         }
+        return service;
+    }
+
+    protected Endpoint createEndpoint() throws BusException, EndpointException {
+        Service service = initializeService();
 
         if (endpointName == null) {
             endpointName = serviceFactory.getEndpointName();
@@ -29,6 +29,7 @@ import org.apache.cxf.common.util.ClassHelper;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.endpoint.EndpointException;
 import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerFactory;
 import org.apache.cxf.endpoint.ServerImpl;
 import org.apache.cxf.feature.Feature;
 import org.apache.cxf.service.factory.FactoryBeanListener;
@@ -74,7 +75,7 @@ import org.apache.cxf.wsdl11.WSDLEndpointFactory;
  * sf.create();
  * </pre>
  */
-public class ServerFactoryBean extends AbstractWSDLBasedEndpointFactory {
+public class ServerFactoryBean extends AbstractWSDLBasedEndpointFactory implements ServerFactory {
     private boolean start = true;
     private Object serviceBean;
     private List<String> schemaLocations;
@@ -138,6 +139,45 @@ public class ServerFactoryBean extends AbstractWSDLBasedEndpointFactory {
         return null;
     }
 
+    /**
+     * Builds the service model of the server, with its data binding and WSDL, so that several
+     * servers can be prepared in parallel before they are created.
+     */
+    public void prepare() {
+        ClassLoaderHolder orig = null;
+        try {
+            if (bus != null) {
+                ClassLoader loader = bus.getExtension(ClassLoader.class);
+                if (loader != null) {
+                    orig = ClassLoaderUtils.setThreadContextClassloader(loader);
+                }
+            }
+            initializeServerFactory();
+            initializeService();
+        } finally {
+            if (orig != null) {
+                orig.reset();
+            }
+        }
+    }
+
+    private void initializeServerFactory() {
+        if (getServiceFactory().getProperties() == null) {
+            getServiceFactory().setProperties(getProperties());
+        } else if (getProperties() != null) {
+            getServiceFactory().getProperties().putAll(getProperties());
+        }
+        if (serviceBean != null && getServiceClass() == null) {
+            setServiceClass(ClassHelper.getRealClass(bus, serviceBean));
+        }
+        if (invoker != null) {
+            getServiceFactory().setInvoker(invoker);
+        } else if (serviceBean != null) {
+            invoker = createInvoker();
+            getServiceFactory().setInvoker(invoker);
+        }
+    }
+
     public Server create() {
         ClassLoaderHolder orig = null;
         try {
@@ -150,20 +190,7 @@ public class ServerFactoryBean extends AbstractWSDLBasedEndpointFactory {
                     }
                 }
 
-                if (getServiceFactory().getProperties() == null) {
-                    getServiceFactory().setProperties(getProperties());
-                } else if (getProperties() != null) {
-                    getServiceFactory().getProperties().putAll(getProperties());
-                }
-                if (serviceBean != null && getServiceClass() == null) {
-                    setServiceClass(ClassHelper.getRealClass(bus, serviceBean));
-                }
-                if (invoker != null) {
-                    getServiceFactory().setInvoker(invoker);
-                } else if (serviceBean != null) {
-                    invoker = createInvoker();
-                    getServiceFactory().setInvoker(invoker);
-                }
+                initializeServerFactory();
 
                 Endpoint ep = createEndpoint();
 
@@ -19,6 +19,7 @@
 
 package org.apache.cxf.frontend;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -35,13 +36,21 @@ import org.apache.cxf.interceptor.OutgoingChainInterceptor;
 import org.apache.cxf.interceptor.StaxOutInterceptor;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.common.gzip.GZIPOutInterceptor;
+import org.apache.cxf.transport.common.gzip.PrecompressedContent;
 
 public class WSDLGetInterceptor extends AbstractPhaseInterceptor<Message> {
     public static final WSDLGetInterceptor INSTANCE = new WSDLGetInterceptor();
     public static final String DOCUMENT_HOLDER = WSDLGetInterceptor.class.getName() + ".documentHolder";
+    /**
+     * Whether the rendered responses are cached on the endpoint, true by default. The responses
+     * are only cached with the default WSDLGetUtils and WSDLGetOutInterceptor.
+     */
+    public static final String CACHE_RESPONSES = "org.apache.cxf.wsdl.cacheResponses";
     private static final String TRANSFORM_SKIP = "transform.skip";
     private Interceptor<Message> wsdlGetOutInterceptor = WSDLGetOutInterceptor.INSTANCE;
 
@@ -74,7 +83,13 @@ public class WSDLGetInterceptor extends AbstractPhaseInterceptor<Message> {
         }
         Map<String, String> map = UrlUtils.parseQueryString(query);
         if (isRecognizedQuery(map)) {
-            Document doc = getDocument(utils, message, baseUri, map, ctx);
+            PrecompressedContent content = null;
+            Document doc = null;
+            if (isCacheable(utils, message)) {
+                content = getCachedContent(utils, message, baseUri, map, ctx);
+            } else {
+                doc = getDocument(utils, message, baseUri, map, ctx);
+            }
 
             Endpoint e = message.getExchange().getEndpoint();
             Message mout = new MessageImpl();
@@ -83,11 +98,20 @@ public class WSDLGetInterceptor extends AbstractPhaseInterceptor<Message> {
             mout.setInterceptorChain(OutgoingChainInterceptor.getOutInterceptorChain(message.getExchange()));
             message.getExchange().setOutMessage(mout);
 
-            mout.put(DOCUMENT_HOLDER, doc);
+            if (content != null) {
+                // the content is written as is, without the stax writer
+                mout.put(PrecompressedContent.KEY, content);
+                mout.put(Message.ENCODING, StandardCharsets.UTF_8.name());
+            } else {
+                mout.put(DOCUMENT_HOLDER, doc);
+            }
             mout.put(Message.CONTENT_TYPE, "text/xml");
 
             // just remove the interceptor which should not be used
             cleanUpOutInterceptors(mout);
+            if (content != null) {
+                removeInterceptor(mout, StaxOutInterceptor.class);
+            }
 
             // notice this is being added after the purge above, don't swap the order!
             mout.getInterceptorChain().add(wsdlGetOutInterceptor);
@@ -116,6 +140,39 @@ public class WSDLGetInterceptor extends AbstractPhaseInterceptor<Message> {
 
     }
 
+    private static void removeInterceptor(Message outMessage, Class<?> cls) {
+        Iterator<Interceptor<? extends Message>> iterator = outMessage.getInterceptorChain().iterator();
+        while (iterator.hasNext()) {
+            Interceptor<? extends Message> interceptor = iterator.next();
+            if (interceptor.getClass().equals(cls)) {
+                outMessage.getInterceptorChain().remove(interceptor);
+            }
+        }
+    }
+
+    private boolean isCacheable(WSDLGetUtils utils, Message message) {
+        return utils.getClass() == WSDLGetUtils.class
+            && wsdlGetOutInterceptor.getClass() == WSDLGetOutInterceptor.class
+            && MessageUtils.getContextualBoolean(message, CACHE_RESPONSES, true);
+    }
+
+    private PrecompressedContent getCachedContent(WSDLGetUtils utils,
+                                                  Message message, String base,
+                                                  Map<String, String> params, String ctxUri) {
+        EndpointInfo endpointInfo = message.getExchange().getEndpoint().getEndpointInfo();
+        WSDLQueryCache cache = WSDLQueryCache.getInstance(endpointInfo);
+        // everything the rendered document depends on besides the service model
+        String key = base + '\n' + ctxUri + '\n' + params.get("wsdl") + '\n' + params.get("xsd")
+            + '\n' + message.get("http.base.path")
+            + '\n' + message.getContextualProperty(WSDLGetUtils.PUBLISHED_ENDPOINT_URL)
+            + '\n' + message.getContextualProperty(WSDLGetUtils.AUTO_REWRITE_ADDRESS)
+            + '\n' + message.getContextualProperty(WSDLGetUtils.AUTO_REWRITE_ADDRESS_ALL)
+            + '\n' + message.getContextualProperty(WSDLGetUtils.WSDL_CREATE_IMPORTS);
+        // only the rewriting of the addresses is done under the endpoint lock, the rendered
+        // responses are returned without it
+        return cache.get(key, () -> getDocument(utils, message, base, params, ctxUri));
+    }
+
     private Document getDocument(WSDLGetUtils utils,
                                  Message message, String base,
                                  Map<String, String> params, String ctxUri) {
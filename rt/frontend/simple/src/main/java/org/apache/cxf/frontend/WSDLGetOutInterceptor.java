@@ -19,6 +19,9 @@
 
 package org.apache.cxf.frontend;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -31,6 +34,7 @@ import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
 import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.common.gzip.PrecompressedContent;
 
 public class WSDLGetOutInterceptor extends AbstractPhaseInterceptor<Message> {
     public static final WSDLGetOutInterceptor INSTANCE = new WSDLGetOutInterceptor();
@@ -43,6 +47,7 @@ public class WSDLGetOutInterceptor extends AbstractPhaseInterceptor<Message> {
     public void handleMessage(Message message) throws Fault {
         Document doc = (Document)message.get(WSDLGetInterceptor.DOCUMENT_HOLDER);
         if (doc == null) {
+            writeContent(message);
             return;
         }
         message.remove(WSDLGetInterceptor.DOCUMENT_HOLDER);
@@ -62,4 +67,18 @@ public class WSDLGetOutInterceptor extends AbstractPhaseInterceptor<Message> {
             throw new Fault(e);
         }
     }
+
+    private static void writeContent(Message message) {
+        PrecompressedContent content = (PrecompressedContent)message.get(PrecompressedContent.KEY);
+        OutputStream os = message.getContent(OutputStream.class);
+        if (content == null || os == null) {
+            return;
+        }
+        // the GZIPOutInterceptor may have replaced the stream to send the compressed content instead
+        try {
+            os.write(content.getContent());
+        } catch (IOException e) {
+            throw new Fault(e);
+        }
+    }
 }
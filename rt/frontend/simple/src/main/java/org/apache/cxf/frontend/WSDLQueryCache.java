@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.w3c.dom.Document;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.service.model.ServiceInfo;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.common.gzip.PrecompressedContent;
+import org.apache.cxf.wsdl11.WSDLServiceBuilder;
+
+/**
+ * The rendered responses to the ?wsdl and ?xsd queries of an endpoint, kept on its EndpointInfo.
+ * The responses are keyed by the base URL and the query, and are dropped when the address or the
+ * service model of the endpoint changes. A missing response is rendered once, concurrent requests
+ * for the same key wait for it while requests for other keys are not held up.
+ */
+final class WSDLQueryCache {
+    private static final String KEY = WSDLQueryCache.class.getName();
+    private static final int MAX_ENTRIES = 64;
+
+    private final Object[] modelState;
+    private final Map<String, PrecompressedContent> responses = Collections.synchronizedMap(
+        new LinkedHashMap<String, PrecompressedContent>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PrecompressedContent> eldest) {
+                // the base URL comes from the request, so the number of entries has to be bounded
+                return size() > MAX_ENTRIES;
+            }
+        });
+    private final ConcurrentMap<String, FutureTask<PrecompressedContent>> rendering
+        = new ConcurrentHashMap<>();
+
+    private WSDLQueryCache(Object[] modelState) {
+        this.modelState = modelState;
+    }
+
+    static WSDLQueryCache getInstance(EndpointInfo endpointInfo) {
+        Object[] state = getModelState(endpointInfo);
+        synchronized (endpointInfo) {
+            WSDLQueryCache cache = endpointInfo.getProperty(KEY, WSDLQueryCache.class);
+            if (cache == null || !Arrays.equals(cache.modelState, state)) {
+                cache = new WSDLQueryCache(state);
+                endpointInfo.setProperty(KEY, cache);
+            }
+            return cache;
+        }
+    }
+
+    PrecompressedContent get(String key) {
+        return responses.get(key);
+    }
+
+    /**
+     * Returns the response for the key, rendering the document given by the renderer if it is not
+     * cached yet. Returns null if the renderer returns null.
+     */
+    PrecompressedContent get(String key, Supplier<Document> renderer) {
+        PrecompressedContent content = responses.get(key);
+        if (content != null) {
+            return content;
+        }
+        FutureTask<PrecompressedContent> task = rendering.computeIfAbsent(key, k -> new FutureTask<>(() -> {
+            // the response may have been added since the check above
+            PrecompressedContent rendered = responses.get(k);
+            if (rendered == null) {
+                Document doc = renderer.get();
+                rendered = doc == null ? null : put(k, doc);
+            }
+            return rendered;
+        }));
+        try {
+            // only the first caller renders, the others wait for its result
+            task.run();
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new Fault(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new Fault(cause);
+        } finally {
+            // a failed or uncached rendering is tried again by the next request
+            rendering.remove(key, task);
+        }
+    }
+
+    PrecompressedContent put(String key, Document doc) throws XMLStreamException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(bos, StandardCharsets.UTF_8.name());
+        try {
+            StaxUtils.writeDocument(doc, writer, true, true);
+        } finally {
+            StaxUtils.close(writer);
+        }
+        PrecompressedContent content = new PrecompressedContent(bos.toByteArray());
+        responses.put(key, content);
+        return content;
+    }
+
+    private static Object[] getModelState(EndpointInfo endpointInfo) {
+        ServiceInfo serviceInfo = endpointInfo.getService();
+        return new Object[] {
+            endpointInfo.getAddress(),
+            endpointInfo.getProperty(WSDLGetUtils.PUBLISHED_ENDPOINT_URL),
+            serviceInfo,
+            serviceInfo == null ? 0 : serviceInfo.getSchemas().size(),
+            serviceInfo == null ? null : serviceInfo.getProperty(WSDLServiceBuilder.WSDL_DEFINITION)
+        };
+    }
+}
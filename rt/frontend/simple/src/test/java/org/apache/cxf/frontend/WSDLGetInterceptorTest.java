@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.frontend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import org.w3c.dom.Document;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.binding.Binding;
+import org.apache.cxf.common.util.CastUtils;
+import org.apache.cxf.endpoint.ConduitSelector;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.PreexistingConduitSelector;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.helpers.HttpHeaderHelper;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.apache.cxf.phase.PhaseManager;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.service.factory.AbstractSimpleFrontendTest;
+import org.apache.cxf.service.factory.HelloService;
+import org.apache.cxf.service.factory.HelloServiceImpl;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.AbstractConduit;
+import org.apache.cxf.transport.common.gzip.GZIPOutInterceptor;
+import org.apache.cxf.transport.common.gzip.PrecompressedContent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WSDLGetInterceptorTest extends AbstractSimpleFrontendTest {
+
+    private Endpoint endpoint;
+
+    @Before
+    public void createServer() throws Exception {
+        ServerFactoryBean svrBean = new ServerFactoryBean();
+        svrBean.setAddress("http://localhost/Hello");
+        svrBean.setServiceClass(HelloService.class);
+        svrBean.setServiceBean(new HelloServiceImpl());
+        svrBean.setBus(getBus());
+        Server server = svrBean.create();
+        endpoint = server.getEndpoint();
+    }
+
+    @Test
+    public void testCachedContentWritten() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Message out = getWSDL(bos, null);
+
+        PrecompressedContent content = (PrecompressedContent)out.get(PrecompressedContent.KEY);
+        assertNotNull(content);
+        assertNull(out.get(WSDLGetInterceptor.DOCUMENT_HOLDER));
+        assertFalse(hasInterceptor(out, StaxOutInterceptor.class));
+        assertArrayEquals(content.getContent(), bos.toByteArray());
+        assertDefinitions(bos.toByteArray());
+
+        // the next request gets the same bytes without rendering them again
+        ByteArrayOutputStream bos2 = new ByteArrayOutputStream();
+        assertSame(content, getWSDL(bos2, null).get(PrecompressedContent.KEY));
+        assertArrayEquals(content.getContent(), bos2.toByteArray());
+    }
+
+    @Test
+    public void testCachedContentCompressed() throws Exception {
+        endpoint.getOutInterceptors().add(new GZIPOutInterceptor(0));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Message out = getWSDL(bos, "gzip");
+
+        PrecompressedContent content = (PrecompressedContent)out.get(PrecompressedContent.KEY);
+        assertNotNull(content);
+        assertTrue(hasInterceptor(out, GZIPOutInterceptor.class));
+        assertFalse(hasInterceptor(out, StaxOutInterceptor.class));
+        Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>)out.get(Message.PROTOCOL_HEADERS));
+        assertEquals(Collections.singletonList("gzip"),
+                     HttpHeaderHelper.getHeader(headers, HttpHeaderHelper.CONTENT_ENCODING));
+        byte[] uncompressed;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            uncompressed = IOUtils.readBytesFromStream(in);
+        }
+        assertArrayEquals(content.getContent(), uncompressed);
+        assertDefinitions(uncompressed);
+
+        // the compressed form is kept with the cached content
+        ByteArrayOutputStream bos2 = new ByteArrayOutputStream();
+        getWSDL(bos2, "gzip");
+        assertArrayEquals(bos.toByteArray(), bos2.toByteArray());
+    }
+
+    @Test
+    public void testCachingDisabled() throws Exception {
+        endpoint.put(WSDLGetInterceptor.CACHE_RESPONSES, Boolean.FALSE);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Message out = getWSDL(bos, null);
+
+        assertNull(out.get(PrecompressedContent.KEY));
+        assertTrue(hasInterceptor(out, StaxOutInterceptor.class));
+        assertDefinitions(bos.toByteArray());
+    }
+
+    private Message getWSDL(OutputStream os, String acceptEncoding) {
+        Bus bus = getBus();
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(Bus.class, bus);
+        exchange.put(Endpoint.class, endpoint);
+        exchange.put(Service.class, endpoint.getService());
+        exchange.put(Binding.class, endpoint.getBinding());
+        exchange.put(ConduitSelector.class,
+                     new PreexistingConduitSelector(new CapturingConduit(os), endpoint));
+
+        Message message = new MessageImpl();
+        exchange.setInMessage(message);
+        message.put(Message.HTTP_REQUEST_METHOD, "GET");
+        message.put(Message.QUERY_STRING, "wsdl");
+        message.put(Message.REQUEST_URL, "http://localhost/Hello");
+        message.put(Message.PATH_INFO, "/Hello");
+        if (acceptEncoding != null) {
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.put(HttpHeaderHelper.ACCEPT_ENCODING, Arrays.asList(acceptEncoding));
+            message.put(Message.PROTOCOL_HEADERS, headers);
+        }
+        PhaseInterceptorChain chain
+            = new PhaseInterceptorChain(bus.getExtension(PhaseManager.class).getInPhases());
+        chain.add(new OutgoingChainInterceptor());
+        message.setInterceptorChain(chain);
+
+        new WSDLGetInterceptor().handleMessage(message);
+        return exchange.getOutMessage();
+    }
+
+    private static boolean hasInterceptor(Message message, Class<?> cls) {
+        for (Interceptor<? extends Message> interceptor : message.getInterceptorChain()) {
+            if (interceptor.getClass().equals(cls)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertDefinitions(byte[] bytes) throws Exception {
+        Document doc = StaxUtils.read(new ByteArrayInputStream(bytes));
+        assertEquals("definitions", doc.getDocumentElement().getLocalName());
+    }
+
+    private static final class CapturingConduit extends AbstractConduit {
+        private final OutputStream os;
+
+        CapturingConduit(OutputStream os) {
+            super(null);
+            this.os = os;
+        }
+
+        public void prepare(Message message) throws IOException {
+            message.setContent(OutputStream.class, os);
+        }
+
+        protected Logger getLogger() {
+            return Logger.getLogger(CapturingConduit.class.getName());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.frontend;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Document;
+
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.service.model.SchemaInfo;
+import org.apache.cxf.service.model.ServiceInfo;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.common.gzip.PrecompressedContent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WSDLQueryCacheTest {
+
+    @Test
+    public void testRenderedDocument() throws Exception {
+        EndpointInfo ei = createEndpointInfo();
+        WSDLQueryCache cache = WSDLQueryCache.getInstance(ei);
+        assertNull(cache.get("key"));
+
+        PrecompressedContent content = cache.put("key", createDocument());
+        assertSame(content, cache.get("key"));
+        assertSame(cache, WSDLQueryCache.getInstance(ei));
+
+        Document read = StaxUtils.read(new ByteArrayInputStream(content.getContent()));
+        assertEquals("definitions", read.getDocumentElement().getLocalName());
+        assertEquals("test", read.getDocumentElement().getAttribute("name"));
+    }
+
+    @Test
+    public void testModelChange() throws Exception {
+        EndpointInfo ei = createEndpointInfo();
+        WSDLQueryCache cache = WSDLQueryCache.getInstance(ei);
+        cache.put("key", createDocument());
+
+        ei.setAddress("http://localhost:9001/test");
+        WSDLQueryCache cache2 = WSDLQueryCache.getInstance(ei);
+        assertNotSame(cache, cache2);
+        assertNull(cache2.get("key"));
+
+        cache2.put("key", createDocument());
+        ei.getService().addSchema(new SchemaInfo("urn:test"));
+        assertNull(WSDLQueryCache.getInstance(ei).get("key"));
+    }
+
+    @Test
+    public void testConcurrentRenderingShared() throws Exception {
+        WSDLQueryCache cache = WSDLQueryCache.getInstance(createEndpointInfo());
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<PrecompressedContent> first = executor.submit(() -> cache.get("key", () -> {
+                renders.incrementAndGet();
+                rendering.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                    return createDocument();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+            assertTrue(rendering.await(10, TimeUnit.SECONDS));
+            Future<PrecompressedContent> second = executor.submit(() -> cache.get("key", () -> {
+                renders.incrementAndGet();
+                return null;
+            }));
+            // a different key is not held up by the rendering in progress
+            assertNull(cache.get("other", () -> null));
+            release.countDown();
+
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, renders.get());
+            assertSame(first.get(), cache.get("key"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Document createDocument() throws Exception {
+        return StaxUtils.read(new ByteArrayInputStream(
+            "<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\" name=\"test\"/>"
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static EndpointInfo createEndpointInfo() {
+        ServiceInfo si = new ServiceInfo();
+        si.setName(new QName("urn:test", "TestService"));
+        EndpointInfo ei = new EndpointInfo(si, "http://schemas.xmlsoap.org/soap/http");
+        ei.setName(new QName("urn:test", "TestPort"));
+        ei.setAddress("http://localhost:9000/test");
+        return ei;
+    }
+}
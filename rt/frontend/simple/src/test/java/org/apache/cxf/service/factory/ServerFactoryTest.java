@@ -29,6 +29,7 @@ import org.apache.cxf.endpoint.ServerImpl;
 import org.apache.cxf.frontend.ServerFactoryBean;
 import org.apache.cxf.jaxb.JAXBDataBinding;
 import org.apache.cxf.message.Message;
+import org.apache.cxf.service.Service;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.AbstractTransportFactory;
 import org.apache.cxf.transport.Conduit;
@@ -42,6 +43,8 @@ import org.apache.hello_world_soap_http.types.GreetMeOneWay;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class ServerFactoryTest extends AbstractSimpleFrontendTest {
@@ -59,6 +62,23 @@ public class ServerFactoryTest extends AbstractSimpleFrontendTest {
         assertTrue(server.getDestination() instanceof CustomDestination);
     }
 
+    @Test
+    public void testPreparedServiceReused() throws Exception {
+        ServerFactoryBean svrBean = new ServerFactoryBean();
+        svrBean.setAddress("http://localhost/Hello");
+        svrBean.setServiceClass(HelloService.class);
+        svrBean.setServiceBean(new HelloServiceImpl());
+        svrBean.setBus(getBus());
+        svrBean.setStart(false);
+
+        svrBean.prepare();
+        Service service = svrBean.getServiceFactory().getService();
+        assertNotNull(service);
+
+        Server server = svrBean.create();
+        assertSame(service, server.getEndpoint().getService());
+    }
+
     public interface TestService<P> {
         int open(P args);
         void close(int handle);
@@ -65,6 +65,18 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
 
     @Override
     public Object aroundReadFrom(final ReaderInterceptorContext context) throws IOException, WebApplicationException {
+        final Object fetch = context.getProperty(CacheControlClientRequestFilter.IN_FLIGHT);
+        try {
+            return readFrom(context);
+        } finally {
+            if (fetch instanceof CacheControlClientRequestFilter.InFlight) {
+                // the requests waiting for this entry can read it from the cache now
+                ((CacheControlClientRequestFilter.InFlight)fetch).complete();
+            }
+        }
+    }
+
+    private Object readFrom(final ReaderInterceptorContext context) throws IOException {
         Object cachedEntity = context.getProperty(CacheControlClientRequestFilter.CACHED_ENTITY_PROPERTY);
         if (cachedEntity != null) {
             if (cachedEntity instanceof BytesEntity) {
@@ -123,6 +135,7 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
             final Entry entry =
                 new Entry(ser, responseHeaders,
                           computeCacheHeaders(responseHeaders), computeExpiry(cacheControl, responseHeaders));
+            entry.setStaleWhileRevalidate(computeStaleWhileRevalidate(cacheControl));
             final URI uri = uriInfo.getRequestUri();
             final String accepts = (String)context.getProperty(CacheControlClientRequestFilter.CLIENT_ACCEPTS);
             cache.put(new Key(uri, accepts), entry);
@@ -145,6 +158,18 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
         return cacheHeaders;
     }
 
+    static long computeStaleWhileRevalidate(CacheControl cacheControl) {
+        String value = cacheControl.getCacheExtension().get(CacheControlClientRequestFilter.STALE_WHILE_REVALIDATE);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (final NumberFormatException e) {
+                // ignore the malformed directive
+            }
+        }
+        return 0;
+    }
+
     private long computeExpiry(CacheControl cacheControl, MultivaluedMap<String, String> responseHeaders) {
         // if a max-age property is set then it overrides Expires
         long expiry = cacheControl.getMaxAge();
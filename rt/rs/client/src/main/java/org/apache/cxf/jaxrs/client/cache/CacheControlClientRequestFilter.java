@@ -18,10 +18,16 @@
  */
 package org.apache.cxf.jaxrs.client.cache;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Priority;
 import javax.cache.Cache;
@@ -29,18 +35,34 @@ import javax.ws.rs.HttpMethod;
 import javax.ws.rs.Priorities;
 import javax.ws.rs.client.ClientRequestContext;
 import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
 
 @Priority(Priorities.USER - 1)
-public class CacheControlClientRequestFilter implements ClientRequestFilter {
+public class CacheControlClientRequestFilter implements ClientRequestFilter, ClientResponseFilter {
     static final String NO_CACHE_PROPERTY = "no_client_cache";
     static final String CACHED_ENTITY_PROPERTY = "client_cached_entity";
     static final String CLIENT_ACCEPTS = "client_accepts";
     static final String CLIENT_CACHE_CONTROL = "client_cache_control";
+    static final String REVALIDATED_KEY = "client_cache_revalidated_key";
+    static final String IN_FLIGHT = "client_cache_in_flight";
+    static final String STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+    static final long DEFAULT_IN_FLIGHT_TIMEOUT = 10000L;
     private Cache<Key, Entry> cache;
+    // the requests currently fetching or revalidating an entry, at most one per key
+    private final ConcurrentMap<Key, InFlight> inFlight = new ConcurrentHashMap<>();
+    private boolean coalesceMisses;
+    private long inFlightTimeout = DEFAULT_IN_FLIGHT_TIMEOUT;
 
     public CacheControlClientRequestFilter(final Cache<Key, Entry> cache) {
         this.cache = cache;
@@ -62,10 +84,25 @@ public class CacheControlClientRequestFilter implements ClientRequestFilter {
         final String accepts = request.getHeaderString(HttpHeaders.ACCEPT);
         final Key key = new Key(uri, accepts);
         Entry entry = cache.get(key);
+        if (entry == null && coalesceMisses) {
+            final InFlight current = acquire(request, key);
+            if (current != null) {
+                // another request is already fetching this entry, wait for it rather than
+                // sending the same request again
+                current.await(inFlightTimeout);
+                entry = cache.get(key);
+            }
+        }
         if (entry != null) {
             //TODO: do the extra validation against the conditional headers
             //      which may be contained in the current request
-            if (entry.isOutDated()) {
+            if (!entry.isOutDated()) {
+                abortWithCachedEntity(request, entry);
+            } else if (acquire(request, key) != null && entry.isStaleWhileRevalidate()) {
+                // another request is already revalidating this entry, serve the stale one meanwhile
+                abortWithCachedEntity(request, entry);
+            } else {
+                request.setProperty(REVALIDATED_KEY, key);
                 String ifNoneMatchHeader = entry.getCacheHeaders().get(HttpHeaders.IF_NONE_MATCH);
                 String ifModifiedSinceHeader = entry.getCacheHeaders().get(HttpHeaders.IF_MODIFIED_SINCE);
 
@@ -76,18 +113,6 @@ public class CacheControlClientRequestFilter implements ClientRequestFilter {
                     request.getHeaders().add(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSinceHeader);
                     request.setProperty(CACHED_ENTITY_PROPERTY, entry.getData());
                 }
-            } else {
-                Object cachedEntity = entry.getData();
-                Response.ResponseBuilder ok = Response.ok(cachedEntity);
-                if (entry.getHeaders() != null) {
-                    for (Map.Entry<String, List<String>> h : entry.getHeaders().entrySet()) {
-                        for (final Object instance : h.getValue()) {
-                            ok = ok.header(h.getKey(), instance);
-                        }
-                    }
-                }
-                request.setProperty(CACHED_ENTITY_PROPERTY, cachedEntity);
-                request.abortWith(ok.build());
             }
         }
         // Should the map of all request headers shared ?
@@ -95,8 +120,179 @@ public class CacheControlClientRequestFilter implements ClientRequestFilter {
         request.setProperty(CLIENT_CACHE_CONTROL, request.getHeaderString(HttpHeaders.CACHE_CONTROL));
     }
 
+    /**
+     * Makes the request the one fetching or revalidating the entry of the key, unless another
+     * request already does.
+     *
+     * @return null if the request fetches the entry, the fetch of the other request otherwise
+     */
+    private InFlight acquire(final ClientRequestContext request, final Key key) {
+        if (request.getProperty(IN_FLIGHT) != null) {
+            return null;
+        }
+        final InFlight fetch = new InFlight(key);
+        while (true) {
+            final InFlight current = inFlight.putIfAbsent(key, fetch);
+            if (current == null) {
+                break;
+            }
+            if (!current.isExpired(inFlightTimeout)) {
+                return current;
+            }
+            // the other request has been abandoned without completing its fetch
+            if (inFlight.replace(key, current, fetch)) {
+                current.complete();
+                break;
+            }
+        }
+        request.setProperty(IN_FLIGHT, fetch);
+        // the response filter does not run if the request fails
+        final Message m = PhaseInterceptorChain.getCurrentMessage();
+        if (m != null && m.getInterceptorChain() != null) {
+            m.getInterceptorChain().add(new InFlightFaultInterceptor(fetch));
+        }
+        return null;
+    }
+
+    @Override
+    public void filter(final ClientRequestContext request, final ClientResponseContext response) {
+        final Key key = (Key)request.getProperty(REVALIDATED_KEY);
+        if (key != null && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            // the cached representation is still valid, restart its freshness lifetime; the entry
+            // may be read by other requests, so a new one replaces it
+            final Entry entry = cache.get(key);
+            if (entry != null) {
+                final Entry revalidated = new Entry(entry.getData(), entry.getHeaders(),
+                                                    entry.getCacheHeaders(), entry.getExpiresValue());
+                revalidated.setStaleWhileRevalidate(entry.getStaleWhileRevalidate());
+                final String cacheControlHeader = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+                if (cacheControlHeader != null) {
+                    final CacheControl cacheControl = CacheControl.valueOf(cacheControlHeader);
+                    if (cacheControl.getMaxAge() != -1) {
+                        revalidated.setExpiresValue(cacheControl.getMaxAge());
+                    }
+                    revalidated.setStaleWhileRevalidate(
+                        CacheControlClientReaderInterceptor.computeStaleWhileRevalidate(cacheControl));
+                }
+                cache.replace(key, entry, revalidated);
+            }
+        }
+        final InFlight fetch = (InFlight)request.getProperty(IN_FLIGHT);
+        if (fetch != null) {
+            if (response.getStatus() != Response.Status.OK.getStatusCode() || !response.hasEntity()) {
+                // nothing is going to be cached
+                fetch.complete();
+            } else {
+                // the reader interceptor completes the fetch once the entity is cached, and closing
+                // the response does if the entity is not read
+                response.setEntityStream(new InFlightInputStream(response.getEntityStream(), fetch));
+            }
+        }
+    }
+
+    private static void abortWithCachedEntity(final ClientRequestContext request, final Entry entry) {
+        Object cachedEntity = entry.getData();
+        Response.ResponseBuilder ok = Response.ok(cachedEntity);
+        if (entry.getHeaders() != null) {
+            for (Map.Entry<String, List<String>> h : entry.getHeaders().entrySet()) {
+                for (final Object instance : h.getValue()) {
+                    ok = ok.header(h.getKey(), instance);
+                }
+            }
+        }
+        request.setProperty(CACHED_ENTITY_PROPERTY, cachedEntity);
+        request.abortWith(ok.build());
+    }
+
     public CacheControlClientRequestFilter setCache(final Cache<Key, Entry> c) {
         this.cache = c;
         return this;
     }
+
+    /**
+     * Whether a request missing the cache waits for a concurrent request fetching the same entry,
+     * for at most the in-flight timeout, instead of sending the same request. False by default.
+     * The waiting requests are released when the entity of the response is read or the response is
+     * closed, a response which is neither holds them back until the timeout.
+     */
+    public CacheControlClientRequestFilter setCoalesceMisses(final boolean coalesceMisses) {
+        this.coalesceMisses = coalesceMisses;
+        return this;
+    }
+
+    /**
+     * Time in milliseconds after which a request which has not completed its fetch or revalidation
+     * of an entry no longer holds back the concurrent requests for it.
+     */
+    public CacheControlClientRequestFilter setInFlightTimeout(final long inFlightTimeout) {
+        this.inFlightTimeout = inFlightTimeout;
+        return this;
+    }
+
+    /**
+     * The fetch or revalidation of an entry by a single request.
+     */
+    final class InFlight {
+        private final Key key;
+        private final long started = System.currentTimeMillis();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        InFlight(final Key key) {
+            this.key = key;
+        }
+
+        void complete() {
+            inFlight.remove(key, this);
+            done.countDown();
+        }
+
+        boolean isExpired(final long timeout) {
+            return System.currentTimeMillis() - started > timeout;
+        }
+
+        void await(final long timeout) {
+            try {
+                done.await(timeout, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class InFlightInputStream extends FilterInputStream {
+        private final InFlight fetch;
+
+        InFlightInputStream(final InputStream is, final InFlight fetch) {
+            super(is);
+            this.fetch = fetch;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                fetch.complete();
+            }
+        }
+    }
+
+    private static final class InFlightFaultInterceptor extends AbstractPhaseInterceptor<Message> {
+        private final InFlight fetch;
+
+        InFlightFaultInterceptor(final InFlight fetch) {
+            super(Phase.PRE_LOGICAL_ENDING);
+            this.fetch = fetch;
+        }
+
+        @Override
+        public void handleMessage(final Message message) throws Fault {
+            // completed by the response filter or the reader interceptor
+        }
+
+        @Override
+        public void handleFault(final Message message) {
+            fetch.complete();
+        }
+    }
 }
@@ -46,12 +46,18 @@ public class CacheControlFeature implements Feature {
     private CacheManager manager;
     private Cache<Key, Entry> cache;
     private boolean cacheResponseInputStream;
+    private boolean inMemory;
+    private int maxEntries = InMemoryCache.DEFAULT_MAX_ENTRIES;
+    private boolean coalesceMisses;
+    private long inFlightTimeout = CacheControlClientRequestFilter.DEFAULT_IN_FLIGHT_TIMEOUT;
 
     @Override
     public boolean configure(final FeatureContext context) {
         // TODO: read context properties to exclude some patterns?
         final Cache<Key, Entry> entryCache = createCache(context.getConfiguration().getProperties());
-        context.register(new CacheControlClientRequestFilter(entryCache));
+        context.register(new CacheControlClientRequestFilter(entryCache)
+                             .setCoalesceMisses(coalesceMisses)
+                             .setInFlightTimeout(inFlightTimeout));
         CacheControlClientReaderInterceptor reader = new CacheControlClientReaderInterceptor(entryCache);
         reader.setCacheResponseInputStream(cacheResponseInputStream);
         context.register(reader);
@@ -79,6 +85,12 @@ public class CacheControlFeature implements Feature {
         final String uri = props.getProperty(prefix + "config-uri");
         final String name = props.getProperty(prefix + "name", this.getClass().getName());
 
+        if (inMemory || "true".equalsIgnoreCase(props.getProperty(prefix + "inMemory", "false"))) {
+            final String max = props.getProperty(prefix + "maxEntries");
+            cache = new InMemoryCache<>(name, max == null ? maxEntries : Integer.parseInt(max));
+            return cache;
+        }
+
         final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
 
         provider = Caching.getCachingProvider();
@@ -135,4 +147,45 @@ public class CacheControlFeature implements Feature {
     public void setCacheResponseInputStream(boolean cacheStream) {
         this.cacheResponseInputStream = cacheStream;
     }
+
+    /**
+     * Use the built-in bounded {@link InMemoryCache} instead of a JCache provider.
+     * Can also be enabled with the "inMemory" configuration property.
+     */
+    public void setInMemory(boolean inMemory) {
+        this.inMemory = inMemory;
+    }
+
+    /**
+     * Maximum number of entries kept by the in-memory cache, the least recently
+     * used entries are evicted first.
+     */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Whether a request missing the cache waits for a concurrent request fetching the same entry
+     * instead of sending the same request. False by default. The waiting requests are released when
+     * the entity of the response is read or the response is closed.
+     */
+    public void setCoalesceMisses(boolean coalesceMisses) {
+        this.coalesceMisses = coalesceMisses;
+    }
+
+    /**
+     * Maximum time in milliseconds a request waits for a concurrent request fetching the same entry,
+     * and after which an unfinished fetch or revalidation is considered abandoned.
+     */
+    public void setInFlightTimeout(long inFlightTimeout) {
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    /**
+     * Returns the cache created when the feature was configured, it can be unwrapped
+     * to {@link InMemoryCache} to read the hit and miss counts.
+     */
+    public Cache<Key, Entry> getCache() {
+        return cache;
+    }
 }
@@ -33,6 +33,7 @@ public class Entry implements Serializable {
     private Serializable data;
     private Map<String, List<String>> headers;
     private long expiresValue;
+    private long staleWhileRevalidate;
     private long initialTimestamp = now();
 
     public Entry(final Serializable data, final MultivaluedMap<String, String> headers,
@@ -51,6 +52,14 @@ public class Entry implements Serializable {
         return now() - initialTimestamp > expiresValue * 1000L;
     }
 
+    /**
+     * @return true if the entry is outdated but may still be served while it is being revalidated
+     */
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate > 0 && isOutDated()
+            && now() - initialTimestamp <= (expiresValue + staleWhileRevalidate) * 1000L;
+    }
+
     public Map<String, String> getCacheHeaders() {
         return cacheHeaders;
     }
@@ -90,6 +99,14 @@ public class Entry implements Serializable {
         this.expiresValue = expiresValue;
     }
 
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(final long staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
     public long getInitialTimestamp() {
         return initialTimestamp;
     }
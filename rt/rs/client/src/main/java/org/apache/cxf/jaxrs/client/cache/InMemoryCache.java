@@ -0,0 +1,552 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.client.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryEventFilter;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.event.EventType;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.processor.MutableEntry;
+
+/**
+ * A bounded, least recently used {@link Cache} kept in memory which lets {@link CacheControlFeature}
+ * work without a JCache provider. Entries do not expire, they are only evicted when the cache is full,
+ * and evictions are not reported to the listeners. Listeners are always notified synchronously. Loaders
+ * and writers are not supported.
+ */
+public class InMemoryCache<K, V> implements Cache<K, V> {
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final String name;
+    private final int maxEntries;
+    private final Map<K, V> entries;
+    private final MutableConfiguration<K, V> configuration = new MutableConfiguration<>();
+    private final List<Registration<K, V>> registrations = new CopyOnWriteArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile boolean closed;
+
+    public InMemoryCache(String name, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > InMemoryCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public V get(K key) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        synchronized (entries) {
+            return entries.containsKey(key);
+        }
+    }
+
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues,
+                        CompletionListener completionListener) {
+        if (completionListener != null) {
+            completionListener.onCompletion();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        getAndPut(key, value);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        Objects.requireNonNull(value);
+        synchronized (entries) {
+            return store(key, value);
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        synchronized (entries) {
+            if (entries.containsKey(key)) {
+                return false;
+            }
+            store(key, value);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        return getAndRemove(key) != null;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        synchronized (entries) {
+            if (Objects.equals(entries.get(key), oldValue)) {
+                delete(key);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        synchronized (entries) {
+            return delete(key);
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(newValue);
+        synchronized (entries) {
+            if (entries.containsKey(key) && Objects.equals(entries.get(key), oldValue)) {
+                store(key, newValue);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        return getAndReplace(key, value) != null;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        Objects.requireNonNull(value);
+        synchronized (entries) {
+            return entries.containsKey(key) ? store(key, value) : null;
+        }
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        synchronized (entries) {
+            for (K key : keys) {
+                delete(key);
+            }
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        synchronized (entries) {
+            for (K key : new ArrayList<>(entries.keySet())) {
+                delete(key);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        if (clazz.isInstance(configuration)) {
+            return clazz.cast(configuration);
+        }
+        throw new IllegalArgumentException("Unsupported configuration class " + clazz.getName());
+    }
+
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+        Objects.requireNonNull(entryProcessor);
+        synchronized (entries) {
+            ProcessedEntry entry = new ProcessedEntry(key, entries.get(key));
+            T result;
+            try {
+                result = entryProcessor.process(entry, arguments);
+            } catch (EntryProcessorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new EntryProcessorException(e);
+            }
+            entry.apply();
+            return result;
+        }
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(Set<? extends K> keys,
+                                                         EntryProcessor<K, V, T> entryProcessor,
+                                                         Object... arguments) {
+        Map<K, EntryProcessorResult<T>> results = new HashMap<>();
+        for (K key : keys) {
+            try {
+                T result = invoke(key, entryProcessor, arguments);
+                if (result != null) {
+                    results.put(key, () -> result);
+                }
+            } catch (EntryProcessorException e) {
+                results.put(key, () -> {
+                    throw e;
+                });
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        clear();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Unsupported unwrap class " + clazz.getName());
+    }
+
+    @Override
+    public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> listenerConfiguration) {
+        configuration.addCacheEntryListenerConfiguration(listenerConfiguration);
+        registrations.add(new Registration<>(listenerConfiguration));
+    }
+
+    @Override
+    public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> listenerConfiguration) {
+        configuration.removeCacheEntryListenerConfiguration(listenerConfiguration);
+        registrations.removeIf(r -> r.configuration.equals(listenerConfiguration));
+    }
+
+    @Override
+    public Iterator<Cache.Entry<K, V>> iterator() {
+        List<Cache.Entry<K, V>> snapshot = new ArrayList<>();
+        synchronized (entries) {
+            for (Map.Entry<K, V> e : entries.entrySet()) {
+                snapshot.add(new SimpleEntry<>(e.getKey(), e.getValue()));
+            }
+        }
+        return snapshot.iterator();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    // called with the lock held
+    private V store(K key, V value) {
+        V old = entries.put(key, value);
+        notifyListeners(old == null ? EventType.CREATED : EventType.UPDATED, key, value, old);
+        return old;
+    }
+
+    // called with the lock held
+    private V delete(K key) {
+        V old = entries.remove(key);
+        if (old != null) {
+            notifyListeners(EventType.REMOVED, key, old, old);
+        }
+        return old;
+    }
+
+    private void notifyListeners(EventType type, K key, V value, V oldValue) {
+        for (Registration<K, V> r : registrations) {
+            r.notify(new Event<>(this, type, key, value, oldValue, r.configuration.isOldValueRequired()));
+        }
+    }
+
+    private static final class Registration<K, V> {
+        private final CacheEntryListenerConfiguration<K, V> configuration;
+        private final CacheEntryListener<? super K, ? super V> listener;
+        private final CacheEntryEventFilter<? super K, ? super V> filter;
+
+        Registration(CacheEntryListenerConfiguration<K, V> configuration) {
+            this.configuration = configuration;
+            this.listener = configuration.getCacheEntryListenerFactory().create();
+            Factory<CacheEntryEventFilter<? super K, ? super V>> filterFactory =
+                configuration.getCacheEntryEventFilterFactory();
+            this.filter = filterFactory == null ? null : filterFactory.create();
+        }
+
+        @SuppressWarnings("unchecked")
+        void notify(Event<K, V> event) {
+            if (filter != null && !filter.evaluate(event)) {
+                return;
+            }
+            Iterable<CacheEntryEvent<? extends K, ? extends V>> events =
+                Collections.<CacheEntryEvent<? extends K, ? extends V>>singletonList(event);
+            switch (event.getEventType()) {
+            case CREATED:
+                if (listener instanceof CacheEntryCreatedListener) {
+                    ((CacheEntryCreatedListener<K, V>)listener).onCreated(events);
+                }
+                break;
+            case UPDATED:
+                if (listener instanceof CacheEntryUpdatedListener) {
+                    ((CacheEntryUpdatedListener<K, V>)listener).onUpdated(events);
+                }
+                break;
+            case REMOVED:
+                if (listener instanceof CacheEntryRemovedListener) {
+                    ((CacheEntryRemovedListener<K, V>)listener).onRemoved(events);
+                }
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    private static final class Event<K, V> extends CacheEntryEvent<K, V> {
+        private static final long serialVersionUID = 1L;
+        private final K key;
+        private final transient V value;
+        private final transient V oldValue;
+        private final boolean oldValueAvailable;
+
+        Event(Cache<K, V> source, EventType type, K key, V value, V oldValue, boolean oldValueRequired) {
+            super(source, type);
+            this.key = key;
+            this.value = value;
+            this.oldValueAvailable = oldValueRequired && oldValue != null;
+            this.oldValue = oldValueAvailable ? oldValue : null;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V getOldValue() {
+            return oldValue;
+        }
+
+        @Override
+        public boolean isOldValueAvailable() {
+            return oldValueAvailable;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Unsupported unwrap class " + clazz.getName());
+        }
+    }
+
+    /**
+     * The entry given to an entry processor, its changes are applied once the processor returns.
+     */
+    private final class ProcessedEntry implements MutableEntry<K, V> {
+        private final K key;
+        private V value;
+        private boolean modified;
+
+        ProcessedEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean exists() {
+            return value != null;
+        }
+
+        @Override
+        public void remove() {
+            value = null;
+            modified = true;
+        }
+
+        @Override
+        public void setValue(V newValue) {
+            value = Objects.requireNonNull(newValue);
+            modified = true;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Unsupported unwrap class " + clazz.getName());
+        }
+
+        void apply() {
+            if (!modified) {
+                return;
+            }
+            if (value == null) {
+                delete(key);
+            } else {
+                store(key, value);
+            }
+        }
+    }
+
+    private static final class SimpleEntry<K, V> implements Cache.Entry<K, V> {
+        private final Map.Entry<K, V> entry;
+
+        SimpleEntry(K key, V value) {
+            this.entry = new AbstractMap.SimpleImmutableEntry<>(key, value);
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Unsupported unwrap class " + clazz.getName());
+        }
+    }
+}
@@ -21,7 +21,20 @@ package org.apache.cxf.jaxrs.client.cache;
 
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -29,7 +42,10 @@ import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.xml.bind.annotation.XmlRootElement;
 
@@ -47,6 +63,8 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ClientCacheTest {
     public static final String ADDRESS = "local://transport";
@@ -142,6 +160,191 @@ public class ClientCacheTest {
         }
     }
 
+    @Test
+    public void testGetTimeStringInMemory() {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setInMemory(true);
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build().target(ADDRESS);
+            final Invocation.Builder cached = base.request("text/plain").header(HttpHeaders.CACHE_CONTROL, "public");
+            final Response r = cached.get();
+            assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+            final String r1 = r.readEntity(String.class);
+            waitABit();
+            assertEquals(r1, cached.get().readEntity(String.class));
+
+            InMemoryCache<?, ?> cache = feature.getCache().unwrap(InMemoryCache.class);
+            assertEquals(1, cache.size());
+            assertEquals(1L, cache.getHits());
+            assertEquals(1L, cache.getMisses());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testInMemoryCacheEviction() {
+        InMemoryCache<String, String> cache = new InMemoryCache<>("test", 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        // "a" becomes the most recently used entry
+        assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1L, cache.getEvictions());
+        assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    public void testInMemoryCacheEntryProcessorAndListener() {
+        InMemoryCache<String, String> cache = new InMemoryCache<>("test", 2);
+        final List<String> events = new ArrayList<>();
+        final RecordingListener listener = new RecordingListener(events);
+        cache.registerCacheEntryListener(
+            new MutableCacheEntryListenerConfiguration<String, String>(() -> listener, null, true, true));
+        cache.put("a", "1");
+        assertEquals("2", cache.invoke("a", (entry, args) -> {
+            entry.setValue(entry.getValue() + args[0]);
+            return "2";
+        }, "1"));
+        assertEquals("11", cache.get("a"));
+        assertEquals(Boolean.FALSE, cache.invoke("a", (entry, args) -> {
+            entry.remove();
+            return entry.exists();
+        }));
+        assertNull(cache.get("a"));
+        assertEquals(3, events.size());
+        assertEquals("CREATED a=1", events.get(0));
+        assertEquals("UPDATED a=11 (1)", events.get(1));
+        assertEquals("REMOVED a=11 (11)", events.get(2));
+    }
+
+    @Test
+    public void testRevalidationRefreshesEntry() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setInMemory(true);
+        try {
+            final WebTarget target = ClientBuilder.newBuilder().register(feature).build()
+                .target(ADDRESS).path("revalidated");
+            TheServer.CALLS.set(0);
+            final String r1 = request(target).get().readEntity(String.class);
+            // max-age is 1 second
+            Thread.sleep(1100);
+            assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), request(target).get().getStatus());
+            assertEquals(2, TheServer.CALLS.get());
+            // the 304 made the entry fresh again so the server is not called
+            final Response r = request(target).get();
+            assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+            assertEquals(r1, r.readEntity(String.class));
+            assertEquals(2, TheServer.CALLS.get());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setInMemory(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final WebTarget target = ClientBuilder.newBuilder().register(feature).build()
+                .target(ADDRESS).path("revalidated");
+            TheServer.CALLS.set(0);
+            final String r1 = request(target).get().readEntity(String.class);
+            Thread.sleep(1100);
+
+            TheServer.block();
+            Future<Response> revalidation = executor.submit(() -> request(target).get());
+            assertTrue(TheServer.entered.await(5, TimeUnit.SECONDS));
+            // the outdated entry is served while the other request revalidates it
+            final Response stale = request(target).get();
+            assertEquals(Response.Status.OK.getStatusCode(), stale.getStatus());
+            assertEquals(r1, stale.readEntity(String.class));
+            assertEquals(2, TheServer.CALLS.get());
+
+            TheServer.unblock();
+            assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), revalidation.get().getStatus());
+        } finally {
+            TheServer.unblock();
+            executor.shutdownNow();
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentMissesCoalesced() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setInMemory(true);
+        feature.setCoalesceMisses(true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final WebTarget target = ClientBuilder.newBuilder().register(feature).build()
+                .target(ADDRESS).path("coalesced");
+            TheServer.CALLS.set(0);
+            // the target client is created before the concurrent requests
+            request(target);
+
+            TheServer.block();
+            Future<String> first = executor.submit(() -> request(target).get().readEntity(String.class));
+            assertTrue(TheServer.entered.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> request(target).get().readEntity(String.class));
+            TheServer.unblock();
+
+            assertEquals(first.get(), second.get());
+            assertEquals(1, TheServer.CALLS.get());
+        } finally {
+            TheServer.unblock();
+            executor.shutdownNow();
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testUnreadResponseDoesNotHoldBackRequests() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setInMemory(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final WebTarget target = ClientBuilder.newBuilder().register(feature).build()
+                .target(ADDRESS).path("coalesced");
+            TheServer.CALLS.set(0);
+            // the entity of the response is never read
+            assertEquals(Response.Status.OK.getStatusCode(), request(target).get().getStatus());
+            Response r = executor.submit(() -> request(target).get()).get(5, TimeUnit.SECONDS);
+            assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+            assertEquals(2, TheServer.CALLS.get());
+        } finally {
+            executor.shutdownNow();
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testClosedResponseReleasesCoalescedRequests() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setInMemory(true);
+        feature.setCoalesceMisses(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final WebTarget target = ClientBuilder.newBuilder().register(feature).build()
+                .target(ADDRESS).path("coalesced");
+            TheServer.CALLS.set(0);
+            final Response unread = request(target).get();
+            assertEquals(Response.Status.OK.getStatusCode(), unread.getStatus());
+            unread.close();
+            // nothing has been cached, the request is sent again without waiting for the timeout
+            Response r = executor.submit(() -> request(target).get()).get(5, TimeUnit.SECONDS);
+            assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+            assertEquals(2, TheServer.CALLS.get());
+        } finally {
+            executor.shutdownNow();
+            feature.close();
+        }
+    }
+
     @Test
     public void testGetJaxbBookCache() {
         CacheControlFeature feature = new CacheControlFeature();
@@ -189,6 +392,10 @@ public class ClientCacheTest {
         return client;
     }
 
+    private static Invocation.Builder request(final WebTarget target) {
+        return target.request("text/plain").header(HttpHeaders.CACHE_CONTROL, "public");
+    }
+
     private static void waitABit() {
         try { // just to be sure
             Thread.sleep(150);
@@ -197,8 +404,89 @@ public class ClientCacheTest {
         }
     }
 
+    public static class RecordingListener implements CacheEntryCreatedListener<String, String>,
+        CacheEntryUpdatedListener<String, String>, CacheEntryRemovedListener<String, String> {
+        private final List<String> events;
+
+        RecordingListener(final List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onCreated(Iterable<CacheEntryEvent<? extends String, ? extends String>> created) {
+            record(created);
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<? extends String, ? extends String>> updated) {
+            record(updated);
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends String, ? extends String>> removed) {
+            record(removed);
+        }
+
+        private void record(Iterable<CacheEntryEvent<? extends String, ? extends String>> all) {
+            for (CacheEntryEvent<? extends String, ? extends String> e : all) {
+                events.add(e.getEventType() + " " + e.getKey() + "=" + e.getValue()
+                    + (e.isOldValueAvailable() ? " (" + e.getOldValue() + ")" : ""));
+            }
+        }
+    }
+
     @Path("/")
     public static class TheServer {
+        static final AtomicInteger CALLS = new AtomicInteger();
+        static volatile CountDownLatch entered;
+        static volatile CountDownLatch release;
+
+        static void block() {
+            release = new CountDownLatch(1);
+            entered = new CountDownLatch(1);
+        }
+
+        static void unblock() {
+            final CountDownLatch r = release;
+            entered = null;
+            if (r != null) {
+                r.countDown();
+            }
+        }
+
+        @GET
+        @Path("revalidated")
+        @Produces("text/plain")
+        public Response getRevalidated(@Context Request request) throws InterruptedException {
+            called();
+            final EntityTag tag = new EntityTag("123");
+            final CacheControl cacheControl = CacheControl.valueOf("max-age=1, stale-while-revalidate=60");
+            final Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified.cacheControl(cacheControl).build();
+            }
+            return Response.ok(Long.toString(System.currentTimeMillis()))
+                .tag(tag).cacheControl(cacheControl).build();
+        }
+
+        @GET
+        @Path("coalesced")
+        @Produces("text/plain")
+        public Response getCoalesced() throws InterruptedException {
+            called();
+            return Response.ok(Long.toString(System.currentTimeMillis()))
+                .tag("123").cacheControl(CacheControl.valueOf("max-age=50000")).build();
+        }
+
+        private static void called() throws InterruptedException {
+            CALLS.incrementAndGet();
+            final CountDownLatch e = entered;
+            if (e != null) {
+                e.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+        }
+
         @GET
         @Produces("text/plain")
         public Response getString() {
@@ -41,21 +41,69 @@ import io.swagger.v3.oas.integration.api.OpenAPIConfiguration;
 import io.swagger.v3.oas.integration.api.OpenApiContext;
 import io.swagger.v3.oas.models.OpenAPI;
 
+import org.apache.cxf.jaxrs.impl.RequestImpl;
+import org.apache.cxf.jaxrs.model.doc.DescriptionCache;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Message;
+
 @Path("/openapi.{type:json|yaml}")
 public class OpenApiCustomizedResource extends BaseOpenApiResource {
 
     private final OpenApiCustomizer customizer;
+    private final DescriptionCache descriptionCache = new DescriptionCache();
+    private boolean cacheDescriptions = true;
 
     public OpenApiCustomizedResource(final OpenApiCustomizer customizer) {
         this.customizer = customizer;
     }
 
+    /**
+     * Whether the generated documents are cached, per request URI and media type, until the
+     * resource model changes, and sent with an ETag. True by default. The documents are not
+     * cached if a filter which may depend on the request is configured.
+     */
+    public void setCacheDescriptions(boolean cacheDescriptions) {
+        this.cacheDescriptions = cacheDescriptions;
+        descriptionCache.clear();
+    }
+
     @GET
     @Produces({ MediaType.APPLICATION_JSON, "application/yaml" })
     @Operation(hidden = true)
     public Response getOpenApi(@Context Application app, @Context ServletConfig config, 
             @Context HttpHeaders headers, @Context UriInfo uriInfo, @PathParam("type") String type) throws Exception {
 
+        final Message m = JAXRSUtils.getCurrentMessage();
+        if (!isCacheable(m)) {
+            return generateOpenApi(app, config, headers, uriInfo, type);
+        }
+
+        final String key = uriInfo.getAbsolutePath() + " " + type + " " + headers.getAcceptableMediaTypes();
+        DescriptionCache.Description description =
+            descriptionCache.get(key, DescriptionCache.getModelState(m));
+        if (description == null) {
+            final Response response = generateOpenApi(app, config, headers, uriInfo, type);
+            if (response.getStatus() != Response.Status.OK.getStatusCode()
+                || !(response.getEntity() instanceof String)) {
+                return response;
+            }
+            description = descriptionCache.put(key, DescriptionCache.getModelState(m),
+                (String)response.getEntity(), response.getMediaType());
+        }
+
+        final Response notModified = description.evaluatePreconditions(new RequestImpl(m));
+        return notModified != null ? notModified : description.toResponse();
+    }
+
+    private boolean isCacheable(Message m) {
+        // the filters get the query parameters, headers and cookies of the request
+        final OpenAPIConfiguration configuration = getOpenApiConfiguration();
+        return cacheDescriptions && m != null && configuration != null
+            && configuration.getFilterClass() == null;
+    }
+
+    private Response generateOpenApi(Application app, ServletConfig config, HttpHeaders headers,
+            UriInfo uriInfo, String type) throws Exception {
         if (customizer != null) {
             final OpenAPIConfiguration configuration = customizer.customize(getOpenApiConfiguration());
             setOpenApiConfiguration(configuration);
@@ -121,6 +121,7 @@ import org.apache.cxf.jaxrs.model.Parameter;
 import org.apache.cxf.jaxrs.model.ParameterType;
 import org.apache.cxf.jaxrs.model.ResourceTypes;
 import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.model.doc.DescriptionCache;
 import org.apache.cxf.jaxrs.model.doc.DocumentationProvider;
 import org.apache.cxf.jaxrs.model.doc.JavaDocProvider;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
@@ -180,12 +181,14 @@ public class WadlGenerator implements ContainerRequestFilter {
     private boolean ignoreMessageWriters = true;
     private boolean ignoreRequests;
     private boolean convertResourcesToDOM = true;
+    private boolean cacheDescriptions = true;
     private String wadlSchemaLocation;
     private List<String> externalSchemasCache;
     private List<URI> externalSchemaLinks;
     private Map<String, List<String>> externalQnamesMap;
 
     private final ConcurrentHashMap<String, String> docLocationMap = new ConcurrentHashMap<>();
+    private final DescriptionCache descriptionCache = new DescriptionCache();
 
     private ElementQNameResolver resolver;
     private List<String> privateAddresses;
@@ -218,6 +221,7 @@ public class WadlGenerator implements ContainerRequestFilter {
         if (extraClasses != null) {
             this.extraClasses = extraClasses;
         }
+        descriptionCache.clear();
     }
 
     @Override
@@ -290,12 +294,39 @@ public class WadlGenerator implements ContainerRequestFilter {
 
         boolean isJson = isJson(type);
 
+        if (cacheDescriptions) {
+            context.abortWith(getCachedWadl(context, m, ui, type, isJson));
+            return;
+        }
+
         StringBuilder sbMain = generateWADL(getBaseURI(m, ui), getResourcesList(m, ui), isJson, m, ui);
 
         m.getExchange().put(JAXRSUtils.IGNORE_MESSAGE_WRITERS, !isJson && ignoreMessageWriters);
         Response r = Response.ok().type(type).entity(createResponseEntity(m, ui, sbMain.toString(), isJson)).build();
         context.abortWith(r);
     }
+
+    private Response getCachedWadl(ContainerRequestContext context, Message m, UriInfo ui,
+                                   MediaType type, boolean isJson) {
+        String baseURI = getBaseURI(m, ui);
+        // the resources depend on the request path
+        String key = baseURI + ' ' + ui.getAbsolutePath() + ' ' + type;
+        DescriptionCache.Description description =
+            descriptionCache.get(key, DescriptionCache.getModelState(m));
+        if (description == null) {
+            StringBuilder sbMain = generateWADL(baseURI, getResourcesList(m, ui), isJson, m, ui);
+            // the state is taken again as the subresources are only added to the model while
+            // the WADL is generated
+            description = descriptionCache.put(key, DescriptionCache.getModelState(m),
+                                               sbMain.toString(), type);
+        }
+        Response notModified = description.evaluatePreconditions(context.getRequest());
+        if (notModified != null) {
+            return notModified;
+        }
+        m.getExchange().put(JAXRSUtils.IGNORE_MESSAGE_WRITERS, !isJson && ignoreMessageWriters);
+        return description.toResponse(createResponseEntity(m, ui, description.getContent(), isJson));
+    }
     private boolean isJson(MediaType mt) {
         return mt == MediaType.APPLICATION_JSON_TYPE;
     }
@@ -1857,14 +1888,17 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setWadlNamespace(String namespace) {
         this.wadlNamespace = namespace;
+        descriptionCache.clear();
     }
 
     public void setSingleResourceMultipleMethods(boolean singleResourceMultipleMethods) {
         this.singleResourceMultipleMethods = singleResourceMultipleMethods;
+        descriptionCache.clear();
     }
 
     public void setUseSingleSlashResource(boolean useSingleSlashResource) {
         this.useSingleSlashResource = useSingleSlashResource;
+        descriptionCache.clear();
     }
 
     @Deprecated
@@ -1873,9 +1907,11 @@ public class WadlGenerator implements ContainerRequestFilter {
     }
     public void setLinkAnyMediaTypeToXmlSchema(boolean link) {
         linkAnyMediaTypeToXmlSchema = link;
+        descriptionCache.clear();
     }
 
     public void setSchemaLocations(List<String> locations) {
+        descriptionCache.clear();
         externalQnamesMap = new HashMap<>();
         externalSchemasCache = new ArrayList<>(locations.size());
         for (int i = 0; i < locations.size(); i++) {
@@ -1912,6 +1948,7 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setUseJaxbContextForQnames(boolean checkJaxbOnly) {
         this.useJaxbContextForQnames = checkJaxbOnly;
+        descriptionCache.clear();
     }
 
     protected ElementQNameResolver createElementQNameResolver(JAXBContext context) {
@@ -1964,6 +2001,7 @@ public class WadlGenerator implements ContainerRequestFilter {
                 break;
             }
         }
+        descriptionCache.clear();
     }
 
     protected interface SchemaWriter {
@@ -2169,6 +2207,7 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setResolver(ElementQNameResolver resolver) {
         this.resolver = resolver;
+        descriptionCache.clear();
     }
 
     public void setPrivateAddresses(List<String> privateAddresses) {
@@ -2186,6 +2225,7 @@ public class WadlGenerator implements ContainerRequestFilter {
     }
     public void setResourceIdGenerator(ResourceIdGenerator idGen) {
         this.idGenerator = idGen;
+        descriptionCache.clear();
     }
 
     private Method getMethod(OperationResourceInfo ori) {
@@ -2195,22 +2235,36 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setApplicationTitle(String applicationTitle) {
         this.applicationTitle = applicationTitle;
+        descriptionCache.clear();
     }
 
     public void setNamespacePrefix(String prefix) {
         this.nsPrefix = prefix;
+        descriptionCache.clear();
     }
 
     public void setIgnoreForwardSlash(boolean ignoreForwardSlash) {
         this.ignoreForwardSlash = ignoreForwardSlash;
+        descriptionCache.clear();
     }
 
     public void setIgnoreRequests(boolean ignoreRequests) {
         this.ignoreRequests = ignoreRequests;
     }
 
+    /**
+     * Whether the generated WADL documents are cached, per base URI, request path and media type,
+     * until the resource model changes, and sent with an ETag. True by default. The setters which
+     * change the generated documents drop the cached ones.
+     */
+    public void setCacheDescriptions(boolean cacheDescriptions) {
+        this.cacheDescriptions = cacheDescriptions;
+        descriptionCache.clear();
+    }
+
     public void setSupportCollections(boolean support) {
         this.supportCollections = support;
+        descriptionCache.clear();
     }
 
     /**
@@ -2236,14 +2290,17 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setSupportJaxbXmlType(boolean supportJaxbXmlType) {
         this.supportJaxbXmlType = supportJaxbXmlType;
+        descriptionCache.clear();
     }
 
     public void setSupportJaxbSubstitutions(boolean supportJaxbSubstitutions) {
         this.supportJaxbSubstitutions = supportJaxbSubstitutions;
+        descriptionCache.clear();
     }
 
     public void setCheckAbsolutePathSlash(boolean checkAbsolutePathSlash) {
         this.checkAbsolutePathSlash = checkAbsolutePathSlash;
+        descriptionCache.clear();
     }
 
     public void setJavaDocPath(String path) throws Exception {
@@ -2260,15 +2317,19 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setDocumentationProvider(DocumentationProvider p) {
         docProviders.add(p);
+        descriptionCache.clear();
     }
     public void setDocumentationProvider(List<DocumentationProvider> ps) {
         docProviders.addAll(ps);
+        descriptionCache.clear();
     }
     public void setStylesheetReference(String stylesheetReference) {
         this.stylesheetReference = stylesheetReference;
+        descriptionCache.clear();
     }
     public void setWadlSchemaLocation(String loc) {
         this.wadlSchemaLocation = loc;
+        descriptionCache.clear();
     }
     public void setIncludeDefaultWadlSchemaLocation(boolean inc) {
         if (inc) {
@@ -2278,18 +2339,22 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setIgnoreOverloadedMethods(boolean ignore) {
         this.ignoreOverloadedMethods = ignore;
+        descriptionCache.clear();
     }
 
     public void setKeepRelativeDocLinks(boolean keepRelativeDocLinks) {
         this.keepRelativeDocLinks = keepRelativeDocLinks;
+        descriptionCache.clear();
     }
 
     public void setApplyStylesheetLocally(boolean applyStylesheetLocally) {
         this.applyStylesheetLocally = applyStylesheetLocally;
+        descriptionCache.clear();
     }
 
     public void setUsePathParamsToCompareOperations(boolean usePathParamsToCompareOperations) {
         this.usePathParamsToCompareOperations = usePathParamsToCompareOperations;
+        descriptionCache.clear();
     }
 
     public void setConvertResourcesToDOM(boolean convertResourcesToDOM) {
@@ -2298,9 +2363,11 @@ public class WadlGenerator implements ContainerRequestFilter {
 
     public void setIncrementNamespacePrefix(boolean incrementNamespacePrefix) {
         this.incrementNamespacePrefix = incrementNamespacePrefix;
+        descriptionCache.clear();
     }
     public void setJaxbContextProperties(Map<String, Object> jaxbContextProperties) {
         this.jaxbContextProperties = jaxbContextProperties;
+        descriptionCache.clear();
     }
 
 
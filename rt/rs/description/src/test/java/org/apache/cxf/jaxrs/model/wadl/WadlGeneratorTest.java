@@ -22,14 +22,17 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -66,6 +69,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -356,6 +360,65 @@ public class WadlGeneratorTest {
         assertEquals("/orders", orderResource.getAttribute("path"));
     }
 
+    @Test
+    public void testCachedWadl() throws Exception {
+        WadlGenerator wg = new WadlGenerator();
+        wg.setDefaultMediaType(WadlGenerator.WADL_TYPE.toString());
+        List<ClassResourceInfo> cris = new ArrayList<>();
+        cris.add(ResourceUtils.createClassResourceInfo(BookStore.class, BookStore.class, true, true));
+
+        Message m = mockMessage("http://localhost:8080/baz", "", WadlGenerator.WADL_QUERY, cris);
+        Response r = handleRequest(wg, m);
+        assertEquals(200, r.getStatus());
+        EntityTag tag = r.getEntityTag();
+        assertNotNull(tag);
+        assertFalse(tag.isWeak());
+        String wadl = r.getEntity().toString();
+
+        m = mockMessage("http://localhost:8080/baz", "", WadlGenerator.WADL_QUERY, cris);
+        r = handleRequest(wg, m);
+        assertEquals(tag, r.getEntityTag());
+        assertEquals(wadl, r.getEntity().toString());
+
+        m = mockMessage("http://localhost:8080/baz", "", WadlGenerator.WADL_QUERY, cris);
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(tag.toString()));
+        m.put(Message.PROTOCOL_HEADERS, headers);
+        r = handleRequest(wg, m);
+        assertEquals(304, r.getStatus());
+        assertNull(r.getEntity());
+
+        // a new resource changes the model
+        cris.add(ResourceUtils.createClassResourceInfo(Orders.class, Orders.class, true, true));
+        m = mockMessage("http://localhost:8080/baz", "", WadlGenerator.WADL_QUERY, cris);
+        m.put(Message.PROTOCOL_HEADERS, headers);
+        r = handleRequest(wg, m);
+        assertEquals(200, r.getStatus());
+        assertNotEquals(tag, r.getEntityTag());
+        getWadlResourcesInfo(StaxUtils.read(new StringReader(r.getEntity().toString())),
+                             "http://localhost:8080/baz", 2);
+    }
+
+    @Test
+    public void testCachedWadlDroppedBySetter() throws Exception {
+        WadlGenerator wg = new WadlGenerator();
+        wg.setDefaultMediaType(WadlGenerator.WADL_TYPE.toString());
+        List<ClassResourceInfo> cris = new ArrayList<>();
+        cris.add(ResourceUtils.createClassResourceInfo(BookStore.class, BookStore.class, true, true));
+
+        Message m = mockMessage("http://localhost:8080/baz", "", WadlGenerator.WADL_QUERY, cris);
+        Response r = handleRequest(wg, m);
+        EntityTag tag = r.getEntityTag();
+        assertFalse(r.getEntity().toString().contains("My Application"));
+
+        wg.setApplicationTitle("My Application");
+        m = mockMessage("http://localhost:8080/baz", "", WadlGenerator.WADL_QUERY, cris);
+        r = handleRequest(wg, m);
+        assertEquals(200, r.getStatus());
+        assertNotEquals(tag, r.getEntityTag());
+        assertTrue(r.getEntity().toString().contains("My Application"));
+    }
+
     private Response handleRequest(WadlGenerator wg, Message m) {
         wg.doFilter(new ContainerRequestContextImpl(m, true, false), m);
         return m.getExchange().get(Response.class);
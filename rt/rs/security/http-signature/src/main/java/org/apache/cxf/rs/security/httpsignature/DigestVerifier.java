@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.rs.security.httpsignature;
 
+import java.io.InputStream;
 import java.security.MessageDigest;
 import java.util.*;
 import java.util.logging.Logger;
@@ -33,24 +34,38 @@ public class DigestVerifier {
 
     public void inspectDigest(byte[] messageBody, Map<String, List<String>> responseHeaders) {
         LOG.fine("Starting digest verification");
-        if (responseHeaders.containsKey("Digest")) {
-
-            MessageDigest messageDigest = SignatureHeaderUtils
-                    .createMessageDigestWithAlgorithm(splitDigestHeader(responseHeaders.get("Digest").get(0)).get(0));
-            messageDigest.update(messageBody);
-            byte[] generatedDigest = messageDigest.digest();
-            byte[] headerDigest = Base64.getDecoder()
-                    .decode(splitDigestHeader(responseHeaders.get("Digest").get(0)).get(1));
-
-            if (!Arrays.equals(generatedDigest, headerDigest)) {
-                throw new DifferentDigestsException("the digest does not match the body of the message");
-            }
-        } else {
-            throw new MissingDigestException("found no digest header");
+        List<String> digestHeader = getDigestHeader(responseHeaders);
+
+        MessageDigest messageDigest = SignatureHeaderUtils.createMessageDigestWithAlgorithm(digestHeader.get(0));
+        messageDigest.update(messageBody);
+        byte[] generatedDigest = messageDigest.digest();
+        byte[] headerDigest = Base64.getDecoder().decode(digestHeader.get(1));
+
+        if (!Arrays.equals(generatedDigest, headerDigest)) {
+            throw new DifferentDigestsException("the digest does not match the body of the message");
         }
         LOG.fine("Finished digest verification");
     }
 
+    /**
+     * Wraps the message body so that it is digested while it is read. The digest is compared with the
+     * Digest header once the end of the stream is reached.
+     */
+    public DigestVerifyingInputStream createVerifyingInputStream(InputStream messageBody,
+                                                                 Map<String, List<String>> responseHeaders) {
+        List<String> digestHeader = getDigestHeader(responseHeaders);
+        MessageDigest messageDigest = SignatureHeaderUtils.createMessageDigestWithAlgorithm(digestHeader.get(0));
+        return new DigestVerifyingInputStream(messageBody, messageDigest,
+                                              Base64.getDecoder().decode(digestHeader.get(1)));
+    }
+
+    private List<String> getDigestHeader(Map<String, List<String>> responseHeaders) {
+        if (!responseHeaders.containsKey("Digest")) {
+            throw new MissingDigestException("found no digest header");
+        }
+        return splitDigestHeader(responseHeaders.get("Digest").get(0));
+    }
+
     private List<String> splitDigestHeader(String digestHeader) {
         List<String> items = Arrays.asList(digestHeader.split("=", 2));
         if (items.size() != 2) {
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.httpsignature;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.function.Function;
+
+import org.apache.cxf.rs.security.httpsignature.exception.DifferentDigestsException;
+
+/**
+ * An InputStream which digests the message body as it is read and verifies the digest once the end of
+ * the stream is reached. If the stream is closed before that, the rest of the body is drained and
+ * verified as well, so that a tampered body can not go unnoticed by only reading a part of it.
+ */
+public class DigestVerifyingInputStream extends FilterInputStream {
+    private final MessageDigest messageDigest;
+    private final byte[] expectedDigest;
+    private Function<DifferentDigestsException, RuntimeException> exceptionMapper = ex -> ex;
+    private boolean verified;
+
+    public DigestVerifyingInputStream(InputStream in, MessageDigest messageDigest, byte[] expectedDigest) {
+        super(in);
+        this.messageDigest = messageDigest;
+        this.expectedDigest = expectedDigest;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b == -1) {
+            verify();
+        } else {
+            messageDigest.update((byte)b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n == -1) {
+            verify();
+        } else {
+            messageDigest.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipped bytes must be digested too
+        byte[] buffer = new byte[(int)Math.min(n, 4096)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int)Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // not supported as re-read bytes would be digested twice
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!verified) {
+                byte[] buffer = new byte[4096];
+                while (read(buffer, 0, buffer.length) != -1) {
+                    // drain the remaining body so it gets verified
+                }
+            }
+        } finally {
+            super.close();
+        }
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    private void verify() {
+        if (verified) {
+            return;
+        }
+        verified = true;
+        if (!MessageDigest.isEqual(messageDigest.digest(), expectedDigest)) {
+            throw exceptionMapper.apply(
+                new DifferentDigestsException("the digest does not match the body of the message"));
+        }
+    }
+
+    /**
+     * Sets the function mapping a digest mismatch to the exception expected by the runtime reading the body.
+     */
+    public void setExceptionMapper(Function<DifferentDigestsException, RuntimeException> exceptionMapper) {
+        this.exceptionMapper = exceptionMapper;
+    }
+}
@@ -52,6 +52,12 @@ public final class HTTPSignatureConstants extends RSSecurityConstants {
      */
     public static final String RSSEC_HTTP_SIGNATURE_DIGEST_ALGORITHM = "rs.security.http.signature.digest.algorithm";
 
+    /**
+     * Whether to verify the digest of an inbound payload while it is being read instead of buffering it first.
+     * The digest is then checked once the payload has been read completely. The default is "false".
+     */
+    public static final String RSSEC_HTTP_SIGNATURE_IN_STREAMING_DIGEST = "rs.security.http.signature.in.streaming.digest";
+
 
     private HTTPSignatureConstants() {
         // complete
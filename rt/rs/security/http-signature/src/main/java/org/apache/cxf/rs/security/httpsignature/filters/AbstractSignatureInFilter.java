@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.rs.security.httpsignature.filters;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.Provider;
@@ -36,6 +37,7 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.PhaseInterceptorChain;
 import org.apache.cxf.rs.security.httpsignature.DigestVerifier;
+import org.apache.cxf.rs.security.httpsignature.DigestVerifyingInputStream;
 import org.apache.cxf.rs.security.httpsignature.HTTPSignatureConstants;
 import org.apache.cxf.rs.security.httpsignature.MessageVerifier;
 import org.apache.cxf.rs.security.httpsignature.exception.DifferentAlgorithmsException;
@@ -60,42 +62,74 @@ abstract class AbstractSignatureInFilter {
 
     private MessageVerifier messageVerifier;
     private boolean enabled;
+    private Boolean streamingDigest;
 
     AbstractSignatureInFilter() {
         this.enabled = true;
     }
 
-    protected byte[] verifyDigest(MultivaluedMap<String, String> headers, InputStream entityStream) {
-        byte[] messageBody = null;
+    /**
+     * Verifies the digest of the message body.
+     *
+     * @return the stream the body has to be read from afterwards, or null if the body was not touched
+     */
+    protected InputStream verifyDigest(MultivaluedMap<String, String> headers, InputStream entityStream) {
         if (!enabled) {
-            return messageBody;
+            return null;
         }
 
         // Verify digest if we have the appropriate header and a non-empty request body. Note that it is up to
         // the MessageVerifier configuration, or the HTTPSignatureConstants.RSSEC_HTTP_SIGNATURE_IN_HEADERS
         // configuration to require that the digest is signed (and hence present)
-        if (entityStream != null && headers.containsKey("Digest")) {
-            LOG.fine("Digesting message body");
-            try {
-                messageBody = IOUtils.readBytesFromStream(entityStream);
-            } catch (IOException e) {
-                throw new DigestFailureException("failed to validate the digest", e);
-            }
-            DigestVerifier digestVerifier = new DigestVerifier();
+        if (entityStream == null || !headers.containsKey("Digest")) {
+            return null;
+        }
+        Message message = PhaseInterceptorChain.getCurrentMessage();
+        final boolean requestor = MessageUtils.isRequestor(message);
+        DigestVerifier digestVerifier = new DigestVerifier();
 
+        if (isStreamingDigest(message)) {
+            LOG.fine("Digesting message body while it is read");
             try {
-                digestVerifier.inspectDigest(messageBody, headers);
-            } catch (DigestFailureException | DifferentDigestsException | MissingDigestException ex) {
-                Message message = PhaseInterceptorChain.getCurrentMessage();
-                if (MessageUtils.isRequestor(message)) {
+                DigestVerifyingInputStream verifyingStream =
+                    digestVerifier.createVerifyingInputStream(entityStream, headers);
+                verifyingStream.setExceptionMapper(ex -> requestor ? ex : new BadRequestException(ex));
+                return verifyingStream;
+            } catch (DigestFailureException | MissingDigestException ex) {
+                if (requestor) {
                     throw ex;
                 }
                 throw new BadRequestException(ex);
             }
         }
 
+        LOG.fine("Digesting message body");
+        byte[] messageBody;
+        try {
+            messageBody = IOUtils.readBytesFromStream(entityStream);
+        } catch (IOException e) {
+            throw new DigestFailureException("failed to validate the digest", e);
+        }
+
+        try {
+            digestVerifier.inspectDigest(messageBody, headers);
+        } catch (DigestFailureException | DifferentDigestsException | MissingDigestException ex) {
+            if (requestor) {
+                throw ex;
+            }
+            throw new BadRequestException(ex);
+        }
+
         LOG.fine("Finished digest message verification process");
-        return messageBody;
+        return new ByteArrayInputStream(messageBody);
+    }
+
+    private boolean isStreamingDigest(Message message) {
+        if (streamingDigest != null) {
+            return streamingDigest;
+        }
+        return message != null && MessageUtils.getContextualBoolean(message,
+            HTTPSignatureConstants.RSSEC_HTTP_SIGNATURE_IN_STREAMING_DIGEST, false);
     }
 
     protected void verifySignature(MultivaluedMap<String, String> headers, String uriPath,
@@ -134,6 +168,15 @@ abstract class AbstractSignatureInFilter {
         return enabled;
     }
 
+    /**
+     * Verify the digest while the body is read instead of reading it into memory first. A digest mismatch
+     * is then reported when the end of the body is reached. Overrides the
+     * HTTPSignatureConstants.RSSEC_HTTP_SIGNATURE_IN_STREAMING_DIGEST property.
+     */
+    public void setStreamingDigest(boolean streamingDigest) {
+        this.streamingDigest = streamingDigest;
+    }
+
     protected MessageVerifier createMessageVerifier() {
         Properties props = KeyManagementUtils.loadSignatureInProperties();
         if (props == null) {
@@ -20,7 +20,9 @@ package org.apache.cxf.rs.security.httpsignature.filters;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Base64;
 
 import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
@@ -30,7 +32,6 @@ import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.core.Context;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.ext.Provider;
 import javax.ws.rs.ext.WriterInterceptor;
@@ -116,18 +117,6 @@ public class CreateSignatureInterceptor extends AbstractSignatureOutFilter
     }
 
     private void addDigest(WriterInterceptorContext context) throws IOException {
-        // make sure we have all content
-        OutputStream originalOutputStream = context.getOutputStream();
-        CachedOutputStream cachedOutputStream = new CachedOutputStream();
-        context.setOutputStream(cachedOutputStream);
-
-        context.proceed();
-        cachedOutputStream.flush();
-
-        // then digest using requested encoding
-        String encoding = context.getMediaType().getParameters()
-            .getOrDefault(MediaType.CHARSET_PARAMETER, StandardCharsets.UTF_8.toString());
-
         String digestAlgorithm = digestAlgorithmName;
         if (digestAlgorithm == null) {
             Message m = PhaseInterceptorChain.getCurrentMessage();
@@ -138,11 +127,18 @@ public class CreateSignatureInterceptor extends AbstractSignatureOutFilter
             }
         }
 
-        // not so nice - would be better to have a stream
-        String digest = SignatureHeaderUtils.createDigestHeader(
-            new String(cachedOutputStream.getBytes(), encoding), digestAlgorithm);
+        // digest the bytes as they are written; the Digest header has to be sent before the body,
+        // so the content itself is still collected (and spooled to disk if it grows too big)
+        OutputStream originalOutputStream = context.getOutputStream();
+        CachedOutputStream cachedOutputStream = new CachedOutputStream();
+        MessageDigest messageDigest = SignatureHeaderUtils.createMessageDigestWithAlgorithm(digestAlgorithm);
+        context.setOutputStream(new DigestOutputStream(cachedOutputStream, messageDigest));
+
+        context.proceed();
+        cachedOutputStream.flush();
 
         // add header
+        String digest = digestAlgorithm + '=' + Base64.getEncoder().encodeToString(messageDigest.digest());
         context.getHeaders().add(DIGEST_HEADER_NAME, digest);
         sign(context);
 
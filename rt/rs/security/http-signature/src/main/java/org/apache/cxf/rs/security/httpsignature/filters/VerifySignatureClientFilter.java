@@ -18,7 +18,7 @@
  */
 package org.apache.cxf.rs.security.httpsignature.filters;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
@@ -39,9 +39,9 @@ public class VerifySignatureClientFilter extends AbstractSignatureInFilter imple
 
     @Override
     public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
-        byte[] messageBody = verifyDigest(responseContext.getHeaders(), responseContext.getEntityStream());
-        if (messageBody != null) {
-            responseContext.setEntityStream(new ByteArrayInputStream(messageBody));
+        InputStream entityStream = verifyDigest(responseContext.getHeaders(), responseContext.getEntityStream());
+        if (entityStream != null) {
+            responseContext.setEntityStream(entityStream);
         }
 
         verifySignature(responseContext.getHeaders(), "", "");
@@ -18,7 +18,7 @@
  */
 package org.apache.cxf.rs.security.httpsignature.filters;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.BadRequestException;
@@ -37,9 +37,9 @@ public class VerifySignatureFilter extends AbstractSignatureInFilter implements
 
     @Override
     public void filter(ContainerRequestContext requestCtx) {
-        byte[] messageBody = verifyDigest(requestCtx.getHeaders(), requestCtx.getEntityStream());
-        if (messageBody != null) {
-            requestCtx.setEntityStream(new ByteArrayInputStream(messageBody));
+        InputStream entityStream = verifyDigest(requestCtx.getHeaders(), requestCtx.getEntityStream());
+        if (entityStream != null) {
+            requestCtx.setEntityStream(entityStream);
         }
 
         verifySignature(requestCtx.getHeaders(),
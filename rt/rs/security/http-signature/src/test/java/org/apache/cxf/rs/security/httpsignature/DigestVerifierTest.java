@@ -18,11 +18,14 @@
  */
 package org.apache.cxf.rs.security.httpsignature;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.rs.security.httpsignature.exception.DifferentDigestsException;
 import org.apache.cxf.rs.security.httpsignature.exception.DigestFailureException;
 import org.apache.cxf.rs.security.httpsignature.utils.DefaultSignatureConstants;
@@ -31,6 +34,10 @@ import org.apache.cxf.rs.security.httpsignature.utils.SignatureHeaderUtils;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class DigestVerifierTest {
     private static final String MESSAGE_BODY = "Hello";
 
@@ -91,6 +98,26 @@ public class DigestVerifierTest {
         digestVerifier.inspectDigest(MESSAGE_BODY.getBytes(), headers);
     }
 
+    @Test
+    public void validUnalteredStreamingDigest() throws Exception {
+        Map<String, List<String>> headers = new HashMap<>();
+        createDigestHeader(MESSAGE_BODY, headers, DefaultSignatureConstants.DIGEST_ALGORITHM);
+        DigestVerifyingInputStream in = digestVerifier.createVerifyingInputStream(
+            new ByteArrayInputStream(MESSAGE_BODY.getBytes()), headers);
+        assertFalse(in.isVerified());
+        assertEquals(MESSAGE_BODY, IOUtils.toString(in));
+        assertTrue(in.isVerified());
+    }
+
+    @Test(expected = DifferentDigestsException.class)
+    public void streamingDigestAlteredMessageFails() throws Exception {
+        Map<String, List<String>> headers = new HashMap<>();
+        createDigestHeader(MESSAGE_BODY, headers, DefaultSignatureConstants.DIGEST_ALGORITHM);
+        InputStream in = digestVerifier.createVerifyingInputStream(
+            new ByteArrayInputStream("TEST".getBytes()), headers);
+        IOUtils.readBytesFromStream(in);
+    }
+
     private static void createDigestHeader(String messageBody, Map<String, List<String>> headers,
                                            String digestAlgorithm) {
         String digest = SignatureHeaderUtils.createDigestHeader(messageBody, digestAlgorithm);
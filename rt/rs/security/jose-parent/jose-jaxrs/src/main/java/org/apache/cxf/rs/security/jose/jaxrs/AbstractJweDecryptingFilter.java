@@ -19,6 +19,8 @@
 package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
@@ -29,6 +31,7 @@ import org.apache.cxf.rs.security.jose.jwe.JweCompactConsumer;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionProvider;
 import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
+import org.apache.cxf.rs.security.jose.jwe.JweInputStream;
 import org.apache.cxf.rs.security.jose.jwe.JweUtils;
 
 public class AbstractJweDecryptingFilter {
@@ -37,6 +40,7 @@ public class AbstractJweDecryptingFilter {
     private JweDecryptionProvider decryption;
     private String defaultMediaType;
     private boolean checkEmptyStream;
+    private boolean streamingDecryption;
     
     protected JweDecryptionOutput decrypt(final byte[] content) throws IOException {
         JweCompactConsumer jwe = new JweCompactConsumer(new String(content, StandardCharsets.UTF_8));
@@ -47,6 +51,24 @@ public class AbstractJweDecryptingFilter {
         return out;
     }
 
+    /**
+     * Returns a stream decrypting the given JWE compact content while it is read, or null if
+     * there is no content.
+     */
+    protected JweInputStream decrypt(final InputStream content) throws IOException {
+        PushbackInputStream pbStream = new PushbackInputStream(content, 1);
+        int first = pbStream.read();
+        if (first == -1) {
+            return null;
+        }
+        pbStream.unread(first);
+        JweInputStream jwe = new JweInputStream(pbStream);
+        jwe.decryptWith(getInitializedDecryptionProvider(jwe.getJweHeaders()));
+        JoseUtils.traceHeaders(jwe.getJweHeaders());
+        validateHeaders(jwe.getJweHeaders());
+        return jwe;
+    }
+
     protected void validateHeaders(JweHeaders headers) {
         // complete
     }
@@ -90,5 +112,18 @@ public class AbstractJweDecryptingFilter {
     public void setCheckEmptyStream(boolean checkEmptyStream) {
         this.checkEmptyStream = checkEmptyStream;
     }
+
+    public boolean isStreamingDecryption() {
+        return streamingDecryption;
+    }
+
+    /**
+     * Decrypt the content while it is read instead of reading and decrypting it completely first,
+     * see {@link JweInputStream}. An invalid authentication tag is then only reported once all the
+     * content has been read.
+     */
+    public void setStreamingDecryption(boolean streamingDecryption) {
+        this.streamingDecryption = streamingDecryption;
+    }
     
 }
@@ -32,6 +32,8 @@ import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
+import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
+import org.apache.cxf.rs.security.jose.jwe.JweInputStream;
 
 @Priority(Priorities.JWE_CLIENT_READ_PRIORITY)
 public class JweClientResponseFilter extends AbstractJweDecryptingFilter implements ClientResponseFilter {
@@ -42,20 +44,32 @@ public class JweClientResponseFilter extends AbstractJweDecryptingFilter impleme
                 || isCheckEmptyStream() && !res.hasEntity()) {
             return;
         }
-        final byte[] encryptedContent = IOUtils.readBytesFromStream(res.getEntityStream());
-        if (encryptedContent.length == 0) {
-            return;
+        final JweHeaders jweHeaders;
+        if (isStreamingDecryption()) {
+            JweInputStream in = decrypt(res.getEntityStream());
+            if (in == null) {
+                return;
+            }
+            jweHeaders = in.getJweHeaders();
+            res.setEntityStream(in);
+            res.getHeaders().remove("Content-Length");
+        } else {
+            final byte[] encryptedContent = IOUtils.readBytesFromStream(res.getEntityStream());
+            if (encryptedContent.length == 0) {
+                return;
+            }
+            JweDecryptionOutput out = decrypt(encryptedContent);
+            byte[] bytes = out.getContent();
+            jweHeaders = out.getHeaders();
+            res.setEntityStream(new ByteArrayInputStream(bytes));
+            res.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
         }
-        JweDecryptionOutput out = decrypt(encryptedContent);
-        byte[] bytes = out.getContent();
-        res.setEntityStream(new ByteArrayInputStream(bytes));
-        res.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
-        String ct = JoseUtils.checkContentType(out.getHeaders().getContentType(), getDefaultMediaType());
+        String ct = JoseUtils.checkContentType(jweHeaders.getContentType(), getDefaultMediaType());
         if (ct != null) {
             res.getHeaders().putSingle("Content-Type", ct);
         }
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(res.getHeaders(), out.getHeaders());
+            super.validateHttpHeadersIfNeeded(res.getHeaders(), jweHeaders);
         }
     }
 
@@ -31,6 +31,8 @@ import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
+import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
+import org.apache.cxf.rs.security.jose.jwe.JweInputStream;
 
 @PreMatching
 @Priority(Priorities.JWE_SERVER_READ_PRIORITY)
@@ -41,20 +43,32 @@ public class JweContainerRequestFilter extends AbstractJweDecryptingFilter imple
             || isCheckEmptyStream() && !context.hasEntity()) {
             return;
         }
-        final byte[] encryptedContent = IOUtils.readBytesFromStream(context.getEntityStream());
-        if (encryptedContent.length == 0) {
-            return;
+        final JweHeaders jweHeaders;
+        if (isStreamingDecryption()) {
+            JweInputStream in = decrypt(context.getEntityStream());
+            if (in == null) {
+                return;
+            }
+            jweHeaders = in.getJweHeaders();
+            context.setEntityStream(in);
+            context.getHeaders().remove("Content-Length");
+        } else {
+            final byte[] encryptedContent = IOUtils.readBytesFromStream(context.getEntityStream());
+            if (encryptedContent.length == 0) {
+                return;
+            }
+            JweDecryptionOutput out = decrypt(encryptedContent);
+            byte[] bytes = out.getContent();
+            jweHeaders = out.getHeaders();
+            context.setEntityStream(new ByteArrayInputStream(bytes));
+            context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
         }
-        JweDecryptionOutput out = decrypt(encryptedContent);
-        byte[] bytes = out.getContent();
-        context.setEntityStream(new ByteArrayInputStream(bytes));
-        context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
-        String ct = JoseUtils.checkContentType(out.getHeaders().getContentType(), getDefaultMediaType());
+        String ct = JoseUtils.checkContentType(jweHeaders.getContentType(), getDefaultMediaType());
         if (ct != null) {
             context.getHeaders().putSingle("Content-Type", ct);
         }
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(context.getHeaders(), out.getHeaders());
+            super.validateHttpHeadersIfNeeded(context.getHeaders(), jweHeaders);
         }
     }
     
@@ -22,6 +22,7 @@ import java.security.spec.AlgorithmParameterSpec;
 import java.util.Arrays;
 import java.util.logging.Logger;
 
+import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.security.auth.DestroyFailedException;
 
@@ -84,6 +85,37 @@ public abstract class AbstractJweDecryption implements JweDecryptionProvider {
 
         return new JweDecryptionOutput(jweDecryptionInput.getJweHeaders(), bytes);
     }
+
+    /**
+     * Returns the Cipher decrypting the content of the given input while it is read, or null if the
+     * content has to be read completely before it can be decrypted. Only AES-GCM is supported as its
+     * Cipher verifies the authentication tag itself.
+     */
+    public Cipher getContentDecryptionCipher(JweDecryptionInput jweDecryptionInput) {
+        String contentAlgo = jweDecryptionInput.getJweHeaders().getContentEncryptionAlgorithm().getJwaName();
+        if (!AlgorithmUtils.isAesGcm(contentAlgo)) {
+            return null;
+        }
+        byte[] cek = keyDecryptionAlgo.getDecryptedContentEncryptionKey(jweDecryptionInput);
+        KeyProperties keyProperties = new KeyProperties(getContentEncryptionAlgorithm(jweDecryptionInput));
+        keyProperties.setAdditionalData(getContentEncryptionCipherAAD(jweDecryptionInput));
+        keyProperties.setAlgoSpec(getContentEncryptionCipherSpec(jweDecryptionInput));
+        byte[] actualCek = getActualCek(cek, contentAlgo);
+        SecretKey secretKey = CryptoUtils.createSecretKeySpec(actualCek, keyProperties.getKeyAlgo());
+        Cipher cipher = CryptoUtils.initCipher(secretKey, keyProperties, Cipher.DECRYPT_MODE);
+
+        try {
+            secretKey.destroy();
+        } catch (DestroyFailedException e) {
+            // ignore
+        }
+        Arrays.fill(cek, (byte) 0);
+        if (actualCek != cek) {
+            Arrays.fill(actualCek, (byte) 0);
+        }
+        return cipher;
+    }
+
     protected byte[] getEncryptedContentEncryptionKey(JweCompactConsumer consumer) {
         return consumer.getEncryptedContentEncryptionKey();
     }
@@ -0,0 +1,298 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.logging.Logger;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import javax.crypto.Cipher;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.Base64Exception;
+import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
+import org.apache.cxf.rs.security.jose.common.JoseConstants;
+
+/**
+ * Reads a JWE compact serialization from a stream and returns the decrypted content, the counterpart of
+ * {@link JweOutputStream}. Only the protected headers, the encrypted key and the initialization vector are
+ * read upfront. If the decryption provider supports it (AES-GCM content encryption) the cipher text is
+ * decoded and decrypted chunk by chunk and the authentication tag is verified by the cipher once the end of
+ * the stream is reached, in which case a JweException is thrown from the last read. Other content encryption
+ * algorithms need the authentication tag before decrypting, the content is then read completely first.
+ *
+ * Note that some JCE providers, including the default SunJCE one, hold back the plain text of an AES-GCM
+ * cipher until the tag has been verified.
+ */
+public class JweInputStream extends InputStream {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JweInputStream.class);
+    private static final int MAX_PART_LENGTH = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int bufferPos;
+    private int bufferLen;
+    private boolean partEnded;
+    private boolean dotTerminated;
+
+    private final JweDecryptionInput jweDecryptionInput;
+    private InputStream content;
+
+    public JweInputStream(InputStream in) throws IOException {
+        this.in = in;
+        String headersJson = new String(decode(readSmallPart(false)), StandardCharsets.UTF_8);
+        byte[] encryptedCEK = decode(readSmallPart(false));
+        byte[] initVector = decode(readSmallPart(false));
+        JsonMapObject joseHeaders;
+        try {
+            joseHeaders = new JsonMapObjectReaderWriter().fromJsonToJsonObject(headersJson);
+        } catch (RuntimeException ex) {
+            LOG.warning("Invalid JWE headers");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE, ex);
+        }
+        if (joseHeaders.getUpdateCount() != null) {
+            LOG.warning("Duplicate headers have been detected");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+        jweDecryptionInput = new JweDecryptionInput(encryptedCEK,
+                                                    initVector,
+                                                    null,
+                                                    null,
+                                                    null,
+                                                    headersJson,
+                                                    new JweHeaders(joseHeaders.asMap()));
+    }
+
+    public JweHeaders getJweHeaders() {
+        return jweDecryptionInput.getJweHeaders();
+    }
+
+    /**
+     * Returns the decryption input without the encrypted content and the authentication tag which
+     * have not been read yet.
+     */
+    public JweDecryptionInput getJweDecryptionInput() {
+        return jweDecryptionInput;
+    }
+
+    /**
+     * Sets the provider decrypting the content, must be called before the content is read.
+     */
+    public void decryptWith(JweDecryptionProvider decryption) throws IOException {
+        Cipher cipher = decryption instanceof AbstractJweDecryption
+            ? ((AbstractJweDecryption)decryption).getContentDecryptionCipher(jweDecryptionInput) : null;
+        if (cipher != null) {
+            InputStream decrypted = new DecryptingInputStream(cipher);
+            if (JoseConstants.JWE_DEFLATE_ZIP_ALGORITHM.equals(getJweHeaders().getZipAlgorithm())) {
+                decrypted = new InflaterInputStream(decrypted, new Inflater(true));
+            }
+            content = decrypted;
+        } else {
+            ByteArrayOutputStream encryptedContent = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            for (int n = readPart(chunk, 0, chunk.length); n != -1; n = readPart(chunk, 0, chunk.length)) {
+                encryptedContent.write(chunk, 0, n);
+            }
+            checkPartEnd(false);
+            byte[] cipherText = decode(new String(encryptedContent.toByteArray(), StandardCharsets.US_ASCII));
+            byte[] authTag = decode(readSmallPart(true));
+            JweDecryptionInput input = new JweDecryptionInput(jweDecryptionInput.getEncryptedCEK(),
+                                                              jweDecryptionInput.getInitVector(),
+                                                              cipherText,
+                                                              authTag,
+                                                              null,
+                                                              jweDecryptionInput.getDecodedJsonHeaders(),
+                                                              jweDecryptionInput.getJweHeaders());
+            content = new ByteArrayInputStream(decryption.decrypt(input));
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return getContent().read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return getContent().read(b, off, len);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return content == null ? 0 : content.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private InputStream getContent() {
+        if (content == null) {
+            throw new IllegalStateException("JweDecryptionProvider has not been set");
+        }
+        return content;
+    }
+
+    /**
+     * Copies the bytes of the current part, returns -1 once the '.' ending it or the end of the stream
+     * has been reached.
+     */
+    private int readPart(byte[] b, int off, int len) throws IOException {
+        if (partEnded) {
+            return -1;
+        }
+        if (bufferPos == bufferLen) {
+            bufferPos = 0;
+            bufferLen = in.read(buffer, 0, buffer.length);
+            if (bufferLen == -1) {
+                bufferLen = 0;
+                partEnded = true;
+                return -1;
+            }
+        }
+        int end = Math.min(bufferLen, bufferPos + len);
+        for (int i = bufferPos; i < end; i++) {
+            if (buffer[i] == '.') {
+                partEnded = true;
+                dotTerminated = true;
+                end = i;
+                break;
+            }
+        }
+        int n = end - bufferPos;
+        System.arraycopy(buffer, bufferPos, b, off, n);
+        bufferPos = dotTerminated ? end + 1 : end;
+        return n == 0 && partEnded ? -1 : n;
+    }
+
+    private void checkPartEnd(boolean lastPart) {
+        if (lastPart == dotTerminated) {
+            LOG.warning("5 JWE parts are expected");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+        partEnded = false;
+        dotTerminated = false;
+    }
+
+    private String readSmallPart(boolean lastPart) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] chunk = new byte[256];
+        for (int n = readPart(chunk, 0, chunk.length); n != -1; n = readPart(chunk, 0, chunk.length)) {
+            bos.write(chunk, 0, n);
+            if (bos.size() > MAX_PART_LENGTH) {
+                LOG.warning("JWE part is too long");
+                throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+            }
+        }
+        checkPartEnd(lastPart);
+        return new String(bos.toByteArray(), StandardCharsets.US_ASCII).trim();
+    }
+
+    private static byte[] decode(String part) {
+        try {
+            return Base64UrlUtility.decode(part);
+        } catch (Base64Exception ex) {
+            LOG.warning("Incorrect Base64 URL encoding");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+    }
+
+    private final class DecryptingInputStream extends InputStream {
+        private final Cipher cipher;
+        private final InputStream cipherText;
+        private final byte[] chunk = new byte[8192];
+        private byte[] decrypted;
+        private int decryptedPos;
+        private boolean finished;
+
+        DecryptingInputStream(Cipher cipher) {
+            this.cipher = cipher;
+            this.cipherText = Base64.getUrlDecoder().wrap(new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    byte[] b = new byte[1];
+                    return readPart(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return readPart(b, off, len);
+                }
+            });
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (decrypted == null || decryptedPos == decrypted.length) {
+                if (finished) {
+                    return -1;
+                }
+                decryptNextChunk();
+            }
+            int n = Math.min(len, decrypted.length - decryptedPos);
+            System.arraycopy(decrypted, decryptedPos, b, off, n);
+            decryptedPos += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return decrypted == null ? 0 : decrypted.length - decryptedPos;
+        }
+
+        private void decryptNextChunk() throws IOException {
+            int n = cipherText.read(chunk);
+            byte[] bytes;
+            if (n == -1) {
+                checkPartEnd(false);
+                byte[] authTag = decode(readSmallPart(true));
+                try {
+                    bytes = cipher.doFinal(authTag);
+                } catch (GeneralSecurityException ex) {
+                    LOG.warning("Content decryption failure");
+                    throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+                }
+                finished = true;
+            } else {
+                bytes = cipher.update(chunk, 0, n);
+            }
+            decrypted = bytes == null ? new byte[0] : bytes;
+            decryptedPos = 0;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -78,6 +79,18 @@ import org.apache.cxf.rt.security.rs.PrivateKeyPasswordProvider;
 
 public final class JwkUtils {
     private static final Map<KeyType, List<String>> JWK_REQUIRED_FIELDS_MAP;
+    private static final int MAX_CACHED_PUBLIC_KEYS = 256;
+    // the public keys most recently converted from JWKs, keyed by the key type or curve and the encoded
+    // key parameters, verifying or encrypting with the keys of a JWK set does not have to parse them again
+    private static final Map<List<String>, PublicKey> PUBLIC_KEYS =
+        new LinkedHashMap<List<String>, PublicKey>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, PublicKey> eldest) {
+                return size() > MAX_CACHED_PUBLIC_KEYS;
+            }
+        };
     static {
         JWK_REQUIRED_FIELDS_MAP = new HashMap<>();
         JWK_REQUIRED_FIELDS_MAP.put(KeyType.RSA, Arrays.asList(
@@ -361,7 +374,13 @@ public final class JwkUtils {
         String encodedModulus = (String)jwk.getProperty(JsonWebKey.RSA_MODULUS);
         String encodedPublicExponent = (String)jwk.getProperty(JsonWebKey.RSA_PUBLIC_EXP);
         if (encodedModulus != null) {
-            return CryptoUtils.getRSAPublicKey(encodedModulus, encodedPublicExponent);
+            List<String> cacheKey = Arrays.asList(KeyType.RSA.toString(), encodedModulus, encodedPublicExponent);
+            PublicKey key = getCachedPublicKey(cacheKey);
+            if (key == null) {
+                key = CryptoUtils.getRSAPublicKey(encodedModulus, encodedPublicExponent);
+                cachePublicKey(cacheKey, key);
+            }
+            return (RSAPublicKey)key;
         } else if (checkX509) {
             List<X509Certificate> chain = toX509CertificateChain(jwk);
             return (RSAPublicKey)chain.get(0).getPublicKey();
@@ -477,7 +496,25 @@ public final class JwkUtils {
         String eCurve = (String)jwk.getProperty(JsonWebKey.EC_CURVE);
         String encodedXCoord = (String)jwk.getProperty(JsonWebKey.EC_X_COORDINATE);
         String encodedYCoord = (String)jwk.getProperty(JsonWebKey.EC_Y_COORDINATE);
-        return CryptoUtils.getECPublicKey(eCurve, encodedXCoord, encodedYCoord);
+        List<String> cacheKey = Arrays.asList(eCurve, encodedXCoord, encodedYCoord);
+        PublicKey key = getCachedPublicKey(cacheKey);
+        if (key == null) {
+            key = CryptoUtils.getECPublicKey(eCurve, encodedXCoord, encodedYCoord);
+            cachePublicKey(cacheKey, key);
+        }
+        return (ECPublicKey)key;
+    }
+
+    private static PublicKey getCachedPublicKey(List<String> cacheKey) {
+        synchronized (PUBLIC_KEYS) {
+            return PUBLIC_KEYS.get(cacheKey);
+        }
+    }
+
+    private static void cachePublicKey(List<String> cacheKey, PublicKey key) {
+        synchronized (PUBLIC_KEYS) {
+            PUBLIC_KEYS.put(cacheKey, key);
+        }
     }
     public static ECPrivateKey toECPrivateKey(JsonWebKey jwk) {
         String eCurve = (String)jwk.getProperty(JsonWebKey.EC_CURVE);
@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.rs.security.jose.jwe;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.Security;
 import java.security.interfaces.ECPrivateKey;
@@ -29,6 +30,7 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 
 import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
 import org.apache.cxf.rs.security.jose.jwa.ContentAlgorithm;
 import org.apache.cxf.rs.security.jose.jwa.KeyAlgorithm;
@@ -265,6 +267,61 @@ public class JweCompactReaderWriterTest {
         decryptDirect(key, jweContent, specPlainText);
     }
 
+    @Test
+    public void testDirectKeyEncryptDecryptStream() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb.append("The true sign of intelligence is not knowledge but imagination. ");
+        }
+        final String specPlainText = sb.toString();
+        SecretKey key = createSecretKey(true);
+        String jweContent = encryptContentDirect(key, specPlainText);
+
+        JweInputStream in = new JweInputStream(new ByteArrayInputStream(jweContent.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(ContentAlgorithm.A128GCM, in.getJweHeaders().getContentEncryptionAlgorithm());
+        in.decryptWith(new JweDecryption(new DirectKeyDecryptionAlgorithm(key),
+                                         new AesGcmContentDecryptionAlgorithm(ContentAlgorithm.A128GCM)));
+        assertEquals(specPlainText, IOUtils.toString(in, StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testDirectKeyDecryptStreamModifiedContent() throws Exception {
+        SecretKey key = createSecretKey(true);
+        String jweContent = encryptContentDirect(key, "The true sign of intelligence is not knowledge but imagination.");
+        String[] parts = jweContent.split("\\.");
+        byte[] cipherText = Base64UrlUtility.decode(parts[3]);
+        cipherText[0] ^= 1;
+        parts[3] = Base64UrlUtility.encode(cipherText);
+
+        JweInputStream in = new JweInputStream(
+            new ByteArrayInputStream(String.join(".", parts).getBytes(StandardCharsets.UTF_8)));
+        in.decryptWith(new JweDecryption(new DirectKeyDecryptionAlgorithm(key),
+                                         new AesGcmContentDecryptionAlgorithm(ContentAlgorithm.A128GCM)));
+        try {
+            IOUtils.readBytesFromStream(in);
+            fail("Decryption failure expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+        }
+    }
+
+    @Test
+    public void testEncryptDecryptAesCbcHmacStream() throws Exception {
+        final String specPlainText = "Live long and prosper.";
+        AesWrapKeyEncryptionAlgorithm keyEncryption = new AesWrapKeyEncryptionAlgorithm(
+            Base64UrlUtility.decode(KEY_ENCRYPTION_KEY_A3), KeyAlgorithm.A128KW);
+        JweEncryptionProvider encryption = new AesCbcHmacJweEncryption(ContentAlgorithm.A128CBC_HS256,
+                                                           CONTENT_ENCRYPTION_KEY_A3,
+                                                           INIT_VECTOR_A3,
+                                                           keyEncryption);
+        String jweContent = encryption.encrypt(specPlainText.getBytes(StandardCharsets.UTF_8), null);
+
+        JweInputStream in = new JweInputStream(new ByteArrayInputStream(jweContent.getBytes(StandardCharsets.UTF_8)));
+        in.decryptWith(new AesCbcHmacJweDecryption(
+            new AesWrapKeyDecryptionAlgorithm(Base64UrlUtility.decode(KEY_ENCRYPTION_KEY_A3))));
+        assertEquals(specPlainText, IOUtils.toString(in, StandardCharsets.UTF_8.name()));
+    }
+
     @Test
     public void testEncryptDecryptJwsToken() throws Exception {
         String jweContent = encryptContent(JwsCompactReaderWriterTest.ENCODED_TOKEN_SIGNED_BY_MAC, false);
@@ -19,6 +19,7 @@
 package org.apache.cxf.rs.security.jose.jwk;
 
 import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.util.Properties;
@@ -35,6 +36,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 public class JwkUtilsTest {
@@ -192,6 +194,13 @@ public class JwkUtilsTest {
         assertEquals("rz4Ohmpxg-UOWIWqWKHlOe0bHSjNUFlHW5vwG_M7qYg", thumbprint);
     }
     @Test
+    public void testPublicKeysAreReused() throws Exception {
+        RSAPublicKey rsaKey = JwkUtils.toRSAPublicKey(JwkUtils.readJwkKey(RSA_KEY));
+        assertSame(rsaKey, JwkUtils.toRSAPublicKey(JwkUtils.readJwkKey(RSA_KEY)));
+        ECPublicKey ecKey = JwkUtils.toECPublicKey(JwkUtils.readJwkKey(EC_256_KEY));
+        assertSame(ecKey, JwkUtils.toECPublicKey(JwkUtils.readJwkKey(EC_256_KEY)));
+    }
+    @Test
     public void testLoadPublicJwkSet() throws Exception {
         final Properties props = new Properties();
         props.setProperty(JoseConstants.RSSEC_KEY_STORE_FILE, "unavailable");
@@ -0,0 +1,263 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.apache.cxf.rs.security.oauth2.provider.AccessTokenValidator;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+
+/**
+ * Caches the results of another {@link AccessTokenValidator}, typically {@link AccessTokenIntrospectionClient},
+ * {@link JwtAccessTokenValidator} or {@link JwsJwksJwtAccessTokenValidator}, so that a bearer token presented
+ * many times is only introspected or verified once.
+ *
+ * Entries are keyed by a SHA-256 hash of the token and are kept until the token expires or maxTimeToLive
+ * seconds have passed, whichever comes first. Rejected tokens are remembered for negativeTimeToLive seconds.
+ * Concurrent requests presenting the same token that is not cached yet share a single validation.
+ *
+ * The extra properties passed to the validator are not part of the key, so validators whose result depends
+ * on the request (e.g. Hawk) must not be wrapped.
+ */
+public class CachingAccessTokenValidator implements AccessTokenValidator {
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_MAX_TIME_TO_LIVE = 300L;
+    public static final long DEFAULT_NEGATIVE_TIME_TO_LIVE = 10L;
+
+    private AccessTokenValidator tokenValidator;
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxTimeToLive = DEFAULT_MAX_TIME_TO_LIVE;
+    private long negativeTimeToLive = DEFAULT_NEGATIVE_TIME_TO_LIVE;
+
+    private final Map<String, CachedValidation> validations =
+        new LinkedHashMap<String, CachedValidation>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedValidation> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    private final ConcurrentHashMap<String, CompletableFuture<CachedValidation>> pendingValidations =
+        new ConcurrentHashMap<>();
+
+    public CachingAccessTokenValidator() {
+    }
+
+    public CachingAccessTokenValidator(AccessTokenValidator tokenValidator) {
+        this.tokenValidator = tokenValidator;
+    }
+
+    public List<String> getSupportedAuthorizationSchemes() {
+        return tokenValidator.getSupportedAuthorizationSchemes();
+    }
+
+    public AccessTokenValidation validateAccessToken(MessageContext mc,
+                                                     String authScheme,
+                                                     String authSchemeData,
+                                                     MultivaluedMap<String, String> extraProps)
+        throws OAuthServiceException {
+        String key = getCacheKey(authScheme, authSchemeData);
+        CachedValidation cached = getCachedValidation(key);
+        if (cached != null) {
+            return cached.get();
+        }
+
+        CompletableFuture<CachedValidation> future = new CompletableFuture<>();
+        CompletableFuture<CachedValidation> pending = pendingValidations.putIfAbsent(key, future);
+        if (pending != null) {
+            return await(pending).get();
+        }
+        try {
+            // another thread may have finished validating this token in the meantime
+            cached = getCachedValidation(key);
+            if (cached == null) {
+                cached = doValidateAccessToken(mc, authScheme, authSchemeData, extraProps);
+                if (cached.expiresAt > System.currentTimeMillis()) {
+                    synchronized (validations) {
+                        validations.put(key, cached);
+                    }
+                }
+            }
+            future.complete(cached);
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            pendingValidations.remove(key, future);
+        }
+        return cached.get();
+    }
+
+    private CachedValidation doValidateAccessToken(MessageContext mc,
+                                                   String authScheme,
+                                                   String authSchemeData,
+                                                   MultivaluedMap<String, String> extraProps) {
+        long now = System.currentTimeMillis();
+        long negativeExpiresAt = now + negativeTimeToLive * 1000L;
+        try {
+            AccessTokenValidation validation =
+                tokenValidator.validateAccessToken(mc, authScheme, authSchemeData, extraProps);
+            if (validation == null) {
+                // let the filter try its data provider, do not remember anything
+                return new CachedValidation(null, null, 0L);
+            }
+            if (!validation.isInitialValidationSuccessful()) {
+                return new CachedValidation(validation, null, negativeExpiresAt);
+            }
+            long expiresAt = now + maxTimeToLive * 1000L;
+            if (validation.getTokenLifetime() > 0L) {
+                expiresAt = Math.min(expiresAt,
+                    (validation.getTokenIssuedAt() + validation.getTokenLifetime()) * 1000L);
+            }
+            return new CachedValidation(validation, null, expiresAt);
+        } catch (OAuthServiceException ex) {
+            if (ex.getCause() instanceof WebApplicationException || ex.getCause() instanceof ProcessingException) {
+                // the token could not be checked at all, try again with the next request
+                throw ex;
+            }
+            return new CachedValidation(null, ex, negativeExpiresAt);
+        }
+    }
+
+    private CachedValidation getCachedValidation(String key) {
+        synchronized (validations) {
+            CachedValidation cached = validations.get(key);
+            if (cached != null && cached.expiresAt <= System.currentTimeMillis()) {
+                validations.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private static CachedValidation await(CompletableFuture<CachedValidation> pending) {
+        try {
+            return pending.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OAuthServiceException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)ex.getCause();
+            }
+            throw new OAuthServiceException(ex.getCause());
+        }
+    }
+
+    private static String getCacheKey(String authScheme, String authSchemeData) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(authScheme.getBytes(StandardCharsets.UTF_8));
+            md.update((byte)' ');
+            md.update(authSchemeData.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(md.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new OAuthServiceException(ex);
+        }
+    }
+
+    /**
+     * Removes all cached validations, e.g. after the signing keys have been revoked.
+     */
+    public void clear() {
+        synchronized (validations) {
+            validations.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (validations) {
+            return validations.size();
+        }
+    }
+
+    public AccessTokenValidator getTokenValidator() {
+        return tokenValidator;
+    }
+
+    public void setTokenValidator(AccessTokenValidator tokenValidator) {
+        this.tokenValidator = tokenValidator;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxTimeToLive() {
+        return maxTimeToLive;
+    }
+
+    /**
+     * Sets the maximum number of seconds a successful validation is cached for, even if the token
+     * expires later.
+     */
+    public void setMaxTimeToLive(long maxTimeToLive) {
+        this.maxTimeToLive = maxTimeToLive;
+    }
+
+    public long getNegativeTimeToLive() {
+        return negativeTimeToLive;
+    }
+
+    /**
+     * Sets the number of seconds a rejected token is remembered for, 0 disables negative caching.
+     */
+    public void setNegativeTimeToLive(long negativeTimeToLive) {
+        this.negativeTimeToLive = negativeTimeToLive;
+    }
+
+    private static final class CachedValidation {
+        private final AccessTokenValidation validation;
+        private final OAuthServiceException failure;
+        private final long expiresAt;
+
+        CachedValidation(AccessTokenValidation validation, OAuthServiceException failure, long expiresAt) {
+            this.validation = validation;
+            this.failure = failure;
+            this.expiresAt = expiresAt;
+        }
+
+        AccessTokenValidation get() {
+            if (failure != null) {
+                throw new OAuthServiceException(failure.getError(), failure);
+            }
+            return validation;
+        }
+    }
+}
@@ -19,15 +19,23 @@
 package org.apache.cxf.rs.security.oauth2.filters;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.MediaType;
 
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.rs.security.jose.jaxrs.JsonWebKeysProvider;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
@@ -41,17 +49,41 @@ import org.apache.cxf.rs.security.jose.jws.JwsUtils;
  * Validate Access Token signature using JWK Set from
  * {@link org.apache.cxf.rs.security.oauth2.services.AuthorizationMetadata#getJwksURL()} according to
  * {@link JwsHeaders#getKeyId()} 
+ *
+ * The JWK Set is loaded when a token signed with an unknown key is seen. If a refresh interval is set,
+ * it is also reloaded periodically in the background so that rotated keys are usually known before
+ * the first token signed with them arrives. Reloads triggered by unknown keys can be rate limited
+ * with the minimum refresh interval.
  */
 public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
+    private static final Logger LOG = LogUtils.getL7dLogger(JwsJwksJwtAccessTokenValidator.class);
 
     final Map<String, JwkHolder> jsonWebKeys = new ConcurrentHashMap<>();
 
     private String jwksURL;
+    private long refreshInterval;
+    private double refreshJitter = 0.1;
+    private long minRefreshInterval;
+
+    private final Object refreshLock = new Object();
+    private long lastRefresh;
+    private boolean refreshed;
+    private volatile ScheduledExecutorService refreshExecutor;
+    private volatile boolean closed;
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong refreshFailureCount = new AtomicLong();
+    private final AtomicLong refreshTime = new AtomicLong();
 
     @Override
     protected JwsSignatureVerifier getInitializedSignatureVerifier(JwsHeaders jwsHeaders) {
-        Objects.requireNonNull(jwsHeaders.getKeyId());
-        final JwkHolder jwkHolder = jsonWebKeys.computeIfAbsent(jwsHeaders.getKeyId(), keyId -> updateJwk(keyId));
+        final String keyId = Objects.requireNonNull(jwsHeaders.getKeyId());
+        startBackgroundRefresh();
+        JwkHolder jwkHolder = jsonWebKeys.get(keyId);
+        if (jwkHolder == null) {
+            refreshOnUnknownKey(keyId);
+            jwkHolder = jsonWebKeys.get(keyId);
+        }
         return jwkHolder != null ? jwkHolder.getJwsSignatureVerifier() : null;
     }
 
@@ -64,24 +96,154 @@ public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
         throw new IllegalArgumentException("Actual JwsSignatureVerifier will be populated from the JWK Set URL");
     }
 
-    private JwkHolder updateJwk(String keyId) {
+    /**
+     * Sets the interval in seconds at which the JWK Set is reloaded in the background, 0 (the default)
+     * only loads it when an unknown key id is seen.
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Sets the fraction of the refresh interval by which each background refresh is randomly moved,
+     * so that many servers do not hit the JWK Set endpoint at the same time. Defaults to 0.1.
+     */
+    public void setRefreshJitter(double refreshJitter) {
+        this.refreshJitter = refreshJitter;
+    }
+
+    /**
+     * Sets the minimum number of seconds between two reloads caused by tokens with an unknown key id.
+     * Tokens with another unknown key id seen within that time are rejected without a reload.
+     */
+    public void setMinRefreshInterval(long minRefreshInterval) {
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    public long getMinRefreshInterval() {
+        return minRefreshInterval;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailureCount.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds it took to load the JWK Set.
+     */
+    public long getAverageRefreshTime() {
+        long count = refreshCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(refreshTime.get()) / count;
+    }
+
+    /**
+     * Stops the background refresh. The JWK Set is still loaded when an unknown key id is seen.
+     */
+    @PreDestroy
+    public void close() {
+        synchronized (refreshLock) {
+            closed = true;
+            if (refreshExecutor != null) {
+                refreshExecutor.shutdownNow();
+                refreshExecutor = null;
+            }
+        }
+    }
+
+    private void refreshOnUnknownKey(String keyId) {
+        final long requested = System.nanoTime();
+        synchronized (refreshLock) {
+            if (jsonWebKeys.containsKey(keyId)) {
+                return;
+            }
+            if (refreshed) {
+                if (lastRefresh - requested >= 0) {
+                    // the keys were reloaded while this thread was waiting
+                    return;
+                }
+                if (minRefreshInterval > 0
+                    && requested - lastRefresh < TimeUnit.SECONDS.toNanos(minRefreshInterval)) {
+                    LOG.fine("Unknown key id " + keyId + ", the JWK Set was reloaded too recently");
+                    return;
+                }
+            }
+            updateJwks();
+        }
+    }
+
+    private void updateJwks() {
         Objects.requireNonNull(jwksURL, "JWK Set URL must be specified");
-        JwkHolder jwkHolder = null;
-        final Set<String> kids = new HashSet<>();
-        for (JsonWebKey jwk : getJsonWebKeys().getKeys()) {
+        final long start = System.nanoTime();
+        final JsonWebKeys keys;
+        try {
+            keys = getJsonWebKeys();
+        } catch (RuntimeException ex) {
+            refreshFailureCount.incrementAndGet();
+            throw ex;
+        } finally {
+            lastRefresh = System.nanoTime();
+            refreshed = true;
+        }
+        refreshTime.addAndGet(lastRefresh - start);
+        refreshCount.incrementAndGet();
+
+        final Map<String, JwkHolder> holders = new HashMap<>();
+        for (JsonWebKey jwk : keys.getKeys()) {
             if (PublicKeyUse.ENCRYPT != jwk.getPublicKeyUse()) {
                 final String kid = jwk.getKeyId();
-                kids.add(kid);
-                final JwkHolder h = new JwkHolder(jwk);
-                if (keyId.equals(kid)) {
-                    jwkHolder = h;
-                } else {
-                    jsonWebKeys.putIfAbsent(kid, h);
-                }
+                final JwkHolder current = jsonWebKeys.get(kid);
+                holders.put(kid, current != null && current.jsonWebKey.equals(jwk) ? current : new JwkHolder(jwk));
             }
         }
-        jsonWebKeys.keySet().removeIf(not(kids::contains));
-        return jwkHolder;
+        jsonWebKeys.putAll(holders);
+        jsonWebKeys.keySet().removeIf(not(holders::containsKey));
+    }
+
+    private void startBackgroundRefresh() {
+        if (refreshInterval <= 0 || refreshExecutor != null || closed) {
+            return;
+        }
+        synchronized (refreshLock) {
+            // a closed validator keeps loading keys on demand but never starts another refresh thread
+            if (refreshExecutor == null && !closed) {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                    Thread t = new Thread(r, "JWK Set refresh " + jwksURL);
+                    t.setDaemon(true);
+                    return t;
+                });
+                executor.setRemoveOnCancelPolicy(true);
+                refreshExecutor = executor;
+                scheduleRefresh(executor);
+            }
+        }
+    }
+
+    private void scheduleRefresh(ScheduledExecutorService executor) {
+        long delay = TimeUnit.SECONDS.toMillis(refreshInterval);
+        long jitter = (long)(delay * refreshJitter);
+        if (jitter > 0) {
+            delay += ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        }
+        executor.schedule(() -> {
+            try {
+                synchronized (refreshLock) {
+                    updateJwks();
+                }
+            } catch (RuntimeException ex) {
+                LOG.log(Level.WARNING, "Failed to reload the JWK Set from " + jwksURL, ex);
+            }
+            if (!executor.isShutdown()) {
+                scheduleRefresh(executor);
+            }
+        }, Math.max(delay, 1L), TimeUnit.MILLISECONDS);
     }
 
     JsonWebKeys getJsonWebKeys() {
@@ -97,9 +259,15 @@ public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
 
     private static class JwkHolder {
         private final JsonWebKey jsonWebKey;
-        private JwsSignatureVerifier jwsSignatureVerifier;
+        private volatile JwsSignatureVerifier jwsSignatureVerifier;
         JwkHolder(JsonWebKey jsonWebKey) {
             this.jsonWebKey = jsonWebKey;
+            try {
+                // build the verifier upfront, off the request path when loaded in the background
+                jwsSignatureVerifier = JwsUtils.getSignatureVerifier(jsonWebKey);
+            } catch (RuntimeException ex) {
+                // reported once a token signed with this key is validated
+            }
         }
         public JwsSignatureVerifier getJwsSignatureVerifier() {
             if (null == jwsSignatureVerifier) {
@@ -109,4 +277,4 @@ public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.filters;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.apache.cxf.rs.security.oauth2.provider.AccessTokenValidator;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.apache.cxf.rs.security.oauth2.utils.OAuthConstants;
+import org.apache.cxf.rs.security.oauth2.utils.OAuthUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CachingAccessTokenValidatorTest {
+
+    @Test
+    public void testValidationIsCached() {
+        CountingValidator delegate = new CountingValidator(3600L);
+        CachingAccessTokenValidator validator = new CachingAccessTokenValidator(delegate);
+
+        AccessTokenValidation first = validate(validator, "token1");
+        assertSame(first, validate(validator, "token1"));
+        assertEquals(1, delegate.count.get());
+
+        validate(validator, "token2");
+        assertEquals(2, delegate.count.get());
+        assertEquals(2, validator.size());
+    }
+
+    @Test
+    public void testExpiredTokenIsNotCached() {
+        CountingValidator delegate = new CountingValidator(3600L);
+        delegate.issuedAt = OAuthUtils.getIssuedAt() - 7200L;
+        CachingAccessTokenValidator validator = new CachingAccessTokenValidator(delegate);
+
+        validate(validator, "token1");
+        validate(validator, "token1");
+        assertEquals(2, delegate.count.get());
+        assertEquals(0, validator.size());
+    }
+
+    @Test
+    public void testMaxEntries() {
+        CountingValidator delegate = new CountingValidator(3600L);
+        CachingAccessTokenValidator validator = new CachingAccessTokenValidator(delegate);
+        validator.setMaxEntries(2);
+
+        validate(validator, "token1");
+        validate(validator, "token2");
+        validate(validator, "token3");
+        assertEquals(2, validator.size());
+        validate(validator, "token1");
+        assertEquals(4, delegate.count.get());
+    }
+
+    @Test
+    public void testRejectedTokenIsCached() {
+        CountingValidator delegate = new CountingValidator(3600L);
+        delegate.failure = new OAuthServiceException(new IllegalArgumentException("invalid signature"));
+        CachingAccessTokenValidator validator = new CachingAccessTokenValidator(delegate);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                validate(validator, "token1");
+                fail("OAuthServiceException expected");
+            } catch (OAuthServiceException ex) {
+                // expected
+            }
+        }
+        assertEquals(1, delegate.count.get());
+
+        validator.setNegativeTimeToLive(0);
+        validator.clear();
+        for (int i = 0; i < 2; i++) {
+            try {
+                validate(validator, "token1");
+                fail("OAuthServiceException expected");
+            } catch (OAuthServiceException ex) {
+                // expected
+            }
+        }
+        assertEquals(3, delegate.count.get());
+    }
+
+    @Test
+    public void testConcurrentValidationsAreCoalesced() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        CountingValidator delegate = new CountingValidator(3600L) {
+            @Override
+            public AccessTokenValidation validateAccessToken(MessageContext mc, String authScheme,
+                                                             String authSchemeData,
+                                                             MultivaluedMap<String, String> extraProps) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.validateAccessToken(mc, authScheme, authSchemeData, extraProps);
+            }
+        };
+        final CachingAccessTokenValidator validator = new CachingAccessTokenValidator(delegate);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<AccessTokenValidation> first = executor.submit(() -> validate(validator, "token1"));
+            started.await(10, TimeUnit.SECONDS);
+            Future<AccessTokenValidation> second = executor.submit(() -> validate(validator, "token1"));
+            Future<AccessTokenValidation> third = executor.submit(() -> validate(validator, "token1"));
+            Thread.sleep(100);
+            release.countDown();
+
+            AccessTokenValidation validation = first.get(10, TimeUnit.SECONDS);
+            assertSame(validation, second.get(10, TimeUnit.SECONDS));
+            assertSame(validation, third.get(10, TimeUnit.SECONDS));
+            assertEquals(1, delegate.count.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static AccessTokenValidation validate(CachingAccessTokenValidator validator, String token) {
+        return validator.validateAccessToken(null, OAuthConstants.BEARER_AUTHORIZATION_SCHEME, token, null);
+    }
+
+    private static class CountingValidator implements AccessTokenValidator {
+        final AtomicInteger count = new AtomicInteger();
+        final long lifetime;
+        long issuedAt = OAuthUtils.getIssuedAt();
+        OAuthServiceException failure;
+
+        CountingValidator(long lifetime) {
+            this.lifetime = lifetime;
+        }
+
+        @Override
+        public List<String> getSupportedAuthorizationSchemes() {
+            return Collections.singletonList(OAuthConstants.BEARER_AUTHORIZATION_SCHEME);
+        }
+
+        @Override
+        public AccessTokenValidation validateAccessToken(MessageContext mc, String authScheme,
+                                                         String authSchemeData,
+                                                         MultivaluedMap<String, String> extraProps) {
+            count.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            AccessTokenValidation atv = new AccessTokenValidation();
+            atv.setInitialValidationSuccessful(true);
+            atv.setTokenIssuedAt(issuedAt);
+            atv.setTokenLifetime(lifetime);
+            return atv;
+        }
+    }
+}
@@ -19,7 +19,9 @@
 package org.apache.cxf.rs.security.oauth2.filters;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
@@ -30,6 +32,10 @@ import org.apache.cxf.rs.security.jose.jws.NoneJwsSignatureVerifier;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class JwsJwksJwtAccessTokenValidatorTest {
 
@@ -72,6 +78,70 @@ public class JwsJwksJwtAccessTokenValidatorTest {
             validator.jsonWebKeys.keySet());
     }
 
+    @Test
+    public void testUnknownKeyRefreshIsRateLimited() {
+        final JsonWebKey jwk1 = new JsonWebKey();
+        jwk1.setKeyId("kid1");
+        final AtomicInteger invokeCnt = new AtomicInteger();
+        final JwsJwksJwtAccessTokenValidator validator = new JwsJwksJwtAccessTokenValidator() {
+            @Override
+            JsonWebKeys getJsonWebKeys() {
+                invokeCnt.incrementAndGet();
+                return new JsonWebKeys(Collections.singletonList(jwk1));
+            }
+        };
+        validator.setJwksURL("https://any.url");
+        validator.setMinRefreshInterval(60);
+
+        validator.getInitializedSignatureVerifier(new JwsHeaders(jwk1.getKeyId()));
+        validator.getInitializedSignatureVerifier(new JwsHeaders(jwk1.getKeyId()));
+        assertEquals(1, invokeCnt.get());
+
+        // unknown keys do not cause another reload within the minimum refresh interval
+        validator.getInitializedSignatureVerifier(new JwsHeaders("unknown1"));
+        validator.getInitializedSignatureVerifier(new JwsHeaders("unknown2"));
+        assertEquals(1, invokeCnt.get());
+        assertEquals(1, validator.getRefreshCount());
+        assertEquals(0, validator.getRefreshFailureCount());
+        assertTrue(validator.getAverageRefreshTime() >= 0);
+    }
+
+    @Test
+    public void testClosedValidatorDoesNotRestartRefresh() throws InterruptedException {
+        final JsonWebKey jwk1 = new JsonWebKey();
+        jwk1.setKeyId("kid1");
+        final JwsJwksJwtAccessTokenValidator validator = new JwsJwksJwtAccessTokenValidator() {
+            @Override
+            JsonWebKeys getJsonWebKeys() {
+                return new JsonWebKeys(Collections.singletonList(jwk1));
+            }
+        };
+        validator.setJwksURL("https://closed.url");
+        validator.setRefreshInterval(60);
+
+        validator.getInitializedSignatureVerifier(new JwsHeaders(jwk1.getKeyId()));
+        final Thread refreshThread = findRefreshThread("https://closed.url");
+        assertNotNull(refreshThread);
+
+        validator.close();
+        refreshThread.join(5000);
+        assertFalse(refreshThread.isAlive());
+
+        // unknown keys are still loaded on demand, without another refresh thread
+        validator.getInitializedSignatureVerifier(new JwsHeaders("unknown"));
+        assertEquals(2, validator.getRefreshCount());
+        assertNull(findRefreshThread("https://closed.url"));
+    }
+
+    private static Thread findRefreshThread(String jwksURL) {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.isAlive() && t.getName().equals("JWK Set refresh " + jwksURL)) {
+                return t;
+            }
+        }
+        return null;
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSetJwsVerifier() {
         new JwsJwksJwtAccessTokenValidator().setJwsVerifier(new NoneJwsSignatureVerifier());
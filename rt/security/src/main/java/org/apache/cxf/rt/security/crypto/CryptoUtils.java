@@ -23,6 +23,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.KeyFactory;
 import java.security.KeyPair;
@@ -324,9 +325,17 @@ public final class CryptoUtils {
     public static byte[] signData(byte[] data, PrivateKey key, String signAlgo, SecureRandom random,
                            AlgorithmParameterSpec params) {
         try {
-            Signature s = getSignature(key, signAlgo, random, params);
+            Signature s = JceInstanceCache.getSignature(signAlgo);
+            try {
+                initSignature(s, key, random, params);
+            } catch (GeneralSecurityException ex) {
+                // the provider selected for a previous key may not support this one
+                s = getSignature(key, signAlgo, random, params);
+            }
             s.update(data);
-            return s.sign();
+            byte[] signature = s.sign();
+            JceInstanceCache.releaseSignature(signAlgo, s);
+            return signature;
         } catch (Exception ex) {
             throw new SecurityException(ex);
         }
@@ -336,34 +345,44 @@ public final class CryptoUtils {
                                   AlgorithmParameterSpec params) {
         try {
             Signature s = Signature.getInstance(signAlgo);
-            if (random == null) {
-                s.initSign(key);
-            } else {
-                s.initSign(key, random);
-            }
-            if (params != null) {
-                s.setParameter(params);
-            }
+            initSignature(s, key, random, params);
             return s;
         } catch (Exception ex) {
             throw new SecurityException(ex);
         }
     }
 
+    private static void initSignature(Signature s, PrivateKey key, SecureRandom random,
+                                      AlgorithmParameterSpec params) throws GeneralSecurityException {
+        if (random == null) {
+            s.initSign(key);
+        } else {
+            s.initSign(key, random);
+        }
+        if (params != null) {
+            s.setParameter(params);
+        }
+    }
+
     public static Signature getVerificationSignature(PublicKey key,
                                                         String signAlgo,
                                                         AlgorithmParameterSpec params) {
         try {
             Signature s = Signature.getInstance(signAlgo);
-            s.initVerify(key);
-            if (params != null) {
-                s.setParameter(params);
-            }
+            initVerificationSignature(s, key, params);
             return s;
         } catch (Exception ex) {
             throw new SecurityException(ex);
         }
     }
+
+    private static void initVerificationSignature(Signature s, PublicKey key,
+                                                  AlgorithmParameterSpec params) throws GeneralSecurityException {
+        s.initVerify(key);
+        if (params != null) {
+            s.setParameter(params);
+        }
+    }
     public static boolean verifySignature(byte[] data, byte[] signature, PublicKey key, String signAlgo) {
         return verifySignature(data, signature, key, signAlgo, null);
     }
@@ -371,9 +390,16 @@ public final class CryptoUtils {
     public static boolean verifySignature(byte[] data, byte[] signature, PublicKey key, String signAlgo,
                                 AlgorithmParameterSpec params) {
         try {
-            Signature s = getVerificationSignature(key, signAlgo, params);
+            Signature s = JceInstanceCache.getSignature(signAlgo);
+            try {
+                initVerificationSignature(s, key, params);
+            } catch (GeneralSecurityException ex) {
+                s = getVerificationSignature(key, signAlgo, params);
+            }
             s.update(data);
-            return s.verify(signature);
+            boolean verified = s.verify(signature);
+            JceInstanceCache.releaseSignature(signAlgo, s);
+            return verified;
         } catch (Exception ex) {
             throw new SecurityException(ex);
         }
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rt.security.crypto;
+
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cxf.common.util.SystemPropertyAction;
+
+/**
+ * Keeps a small pool of idle Signature instances per algorithm for the helpers which create, initialize
+ * and finish a signature or its verification within a single call, so that the provider lookup done by
+ * getInstance is not repeated for every message. An instance is borrowed for the duration of one call
+ * and given back only if the call completed. Instances which are returned to the callers are never
+ * taken from this pool.
+ *
+ * The pool is bounded and not tied to any thread, so pooled container threads do not keep providers
+ * alive. Instances of a provider which is no longer registered, for example one which was added by an
+ * application that has since been undeployed, are dropped instead of being reused.
+ *
+ * A pooled instance keeps a reference to the key it was last initialized with until it is used again.
+ * This is acceptable for the long term signing and verification keys, which their providers hold on to
+ * anyway, but not for the per message content encryption and HMAC keys, which are zeroed by their users,
+ * so Cipher and Mac instances are not pooled.
+ *
+ * Setting the "org.apache.cxf.rt.security.crypto.reuseInstances" system property to false disables it.
+ */
+final class JceInstanceCache {
+    static final boolean ENABLED = Boolean.parseBoolean(
+        SystemPropertyAction.getProperty("org.apache.cxf.rt.security.crypto.reuseInstances", "true"));
+
+    static final int MAX_IDLE = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final Map<String, Queue<Signature>> SIGNATURES = new ConcurrentHashMap<>();
+
+    private JceInstanceCache() {
+    }
+
+    static Signature getSignature(String algorithm) throws GeneralSecurityException {
+        if (ENABLED) {
+            Queue<Signature> idle = SIGNATURES.get(algorithm);
+            if (idle != null) {
+                for (Signature s = idle.poll(); s != null; s = idle.poll()) {
+                    Provider provider = s.getProvider();
+                    if (Security.getProvider(provider.getName()) == provider) {
+                        return s;
+                    }
+                }
+            }
+        }
+        return Signature.getInstance(algorithm);
+    }
+
+    /**
+     * Gives back an instance obtained from {@link #getSignature(String)}, it is dropped if the pool
+     * for its algorithm is full.
+     */
+    static void releaseSignature(String algorithm, Signature s) {
+        if (ENABLED) {
+            SIGNATURES.computeIfAbsent(algorithm, a -> new ArrayBlockingQueue<>(MAX_IDLE)).offer(s);
+        }
+    }
+
+    static int getIdleCount(String algorithm) {
+        Queue<Signature> idle = SIGNATURES.get(algorithm);
+        return idle != null ? idle.size() : 0;
+    }
+
+    /**
+     * Drops all the idle instances.
+     */
+    static void clear() {
+        SIGNATURES.clear();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rt.security.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JceInstanceCacheTest {
+    private static final String ALGO = "SHA256withRSA";
+
+    @After
+    public void clear() {
+        JceInstanceCache.clear();
+    }
+
+    @Test
+    public void testSignatureReused() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        byte[] data = "data".getBytes(StandardCharsets.UTF_8);
+
+        byte[] signature = CryptoUtils.signData(data, keyPair.getPrivate(), ALGO);
+        assertEquals(1, JceInstanceCache.getIdleCount(ALGO));
+        assertTrue(CryptoUtils.verifySignature(data, signature, keyPair.getPublic(), ALGO));
+        assertFalse(CryptoUtils.verifySignature(new byte[1], signature, keyPair.getPublic(), ALGO));
+        assertEquals(1, JceInstanceCache.getIdleCount(ALGO));
+    }
+
+    @Test
+    public void testPoolIsBounded() throws Exception {
+        Signature s = JceInstanceCache.getSignature(ALGO);
+        JceInstanceCache.releaseSignature(ALGO, s);
+        assertSame(s, JceInstanceCache.getSignature(ALGO));
+        assertNotSame(s, JceInstanceCache.getSignature(ALGO));
+
+        for (int i = 0; i < JceInstanceCache.MAX_IDLE + 2; i++) {
+            JceInstanceCache.releaseSignature(ALGO, Signature.getInstance(ALGO));
+        }
+        assertEquals(JceInstanceCache.MAX_IDLE, JceInstanceCache.getIdleCount(ALGO));
+
+        JceInstanceCache.clear();
+        assertEquals(0, JceInstanceCache.getIdleCount(ALGO));
+    }
+}
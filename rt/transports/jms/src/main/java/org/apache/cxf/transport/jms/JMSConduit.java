@@ -78,6 +78,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     private Bus bus;
     private volatile Connection connection;
     private volatile Destination staticReplyDestination;
+    private volatile JMSSessionCache sessionCache;
 
     public JMSConduit(EndpointReferenceType target,
                       JMSConfiguration jmsConfig,
@@ -158,6 +159,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         jmsConfig.ensureProperlyConfigured();
         assertIsNotTextMessageAndMtom(outMessage);
 
+        JMSSessionCache.CachedSession cached = null;
         try (ResourceCloser closer = new ResourceCloser()) {
             Connection c;
 
@@ -168,13 +170,21 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 c = getConnection();
             }
 
-            Session session = closer.register(c.createSession(false, 
-                                                              Session.AUTO_ACKNOWLEDGE));
+            Session session;
+            if (jmsConfig.isCacheSessions() && !jmsConfig.isOneSessionPerConnection()) {
+                JMSSessionCache cache = getSessionCache();
+                cached = exchange.isOneWay() && cache.isBatching()
+                    ? cache.getBatchSession(c) : cache.getSession(c);
+                session = cached.getSession();
+            } else {
+                session = closer.register(c.createSession(false,
+                                                          Session.AUTO_ACKNOWLEDGE));
+            }
 
             if (exchange.isOneWay()) {
-                sendMessage(request, outMessage, null, null, closer, session);
+                sendMessage(request, outMessage, null, null, cached, session);
             } else {
-                sendAndReceiveMessage(exchange, request, outMessage, closer, session);
+                sendAndReceiveMessage(exchange, request, outMessage, cached, session);
             }
         } catch (JMSException e) {
             if (this.jmsListener != null) {
@@ -186,6 +196,11 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 if (exchange.get(JMSUtil.JMS_MESSAGE_CONSUMER) != null) {
                     ResourceCloser.close(exchange.get(JMSUtil.JMS_MESSAGE_CONSUMER));
                 }
+                if (cached != null) {
+                    // do not commit the batch of the failed session when it is released
+                    cached.close();
+                }
+                closeSessionCache();
                 ResourceCloser.close(connection);
                 this.connection = null;
                 jmsConfig.resetCachedReplyDestination();
@@ -197,6 +212,32 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 // Ignore
             }
             throw JMSUtil.convertJmsException(e);
+        } finally {
+            if (cached != null) {
+                cached.release();
+            }
+        }
+    }
+
+    private JMSSessionCache getSessionCache() {
+        JMSSessionCache result = sessionCache;
+        if (result == null) {
+            synchronized (this) {
+                result = sessionCache;
+                if (result == null) {
+                    result = new JMSSessionCache(jmsConfig.getOneWayBatchSize(),
+                                                 jmsConfig.getOneWayBatchTimeout());
+                    sessionCache = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized void closeSessionCache() {
+        if (sessionCache != null) {
+            sessionCache.close();
+            sessionCache = null;
         }
     }
 
@@ -242,7 +283,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     }
 
     private void sendAndReceiveMessage(final Exchange exchange, final Object request, final Message outMessage,
-                                ResourceCloser closer,
+                                JMSSessionCache.CachedSession cached,
                                 Session session) throws JMSException {
 
         setupReplyDestination(session);
@@ -260,7 +301,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
             String replyTo = headers.getJMSReplyTo();
             String jmsMessageID = sendMessage(request, outMessage,
                                               jmsConfig.getReplyToDestination(session, replyTo),
-                                              correlationId, closer, session);
+                                              correlationId, cached, session);
             Destination replyDestination = jmsConfig.getReplyDestination(session, replyTo);
             boolean useSyncReceive = ((correlationId == null || userCID != null) && !jmsConfig.isPubSubDomain())
                 || !replyDestination.equals(staticReplyDestination);
@@ -307,7 +348,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
 
     private String sendMessage(final Object request, final Message outMessage,
                                Destination replyToDestination, String correlationId,
-                               ResourceCloser closer, Session session) throws JMSException {
+                               JMSSessionCache.CachedSession cached, Session session) throws JMSException {
         JMSMessageHeadersType headers = getOrCreateJmsHeaders(outMessage);
         javax.jms.Message message = JMSMessageUtils.asJMSMessage(jmsConfig,
                                                                  outMessage,
@@ -327,7 +368,11 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         JMSSender sender = JMSFactory.createJmsSender(jmsConfig, headers);
 
         Destination targetDest = jmsConfig.getTargetDestination(session);
-        sender.sendMessage(session, targetDest, message);
+        if (cached != null) {
+            cached.send(sender, targetDest, message);
+        } else {
+            sender.sendMessage(session, targetDest, message);
+        }
         String jmsMessageID = message.getJMSMessageID();
         LOG.log(Level.FINE, "client sending request message "
             + jmsMessageID + " to " + targetDest);
@@ -510,6 +555,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     }
     public synchronized void close() {
         shutdownListeners();
+        closeSessionCache();
         ResourceCloser.close(connection);
         connection = null;
         LOG.log(Level.FINE, "JMSConduit closed ");
@@ -81,7 +81,12 @@ public final class JMSConfigFactory {
         jmsConfig.setUserName(endpoint.getUsername());
         jmsConfig.setPassword(endpoint.getPassword());
         jmsConfig.setConcurrentConsumers(endpoint.getConcurrentConsumers());
+        jmsConfig.setMaxConcurrentConsumers(endpoint.getMaxConcurrentConsumers());
+        jmsConfig.setMaxIdleReceives(endpoint.getMaxIdleReceives());
         jmsConfig.setOneSessionPerConnection(endpoint.isOneSessionPerConnection());
+        jmsConfig.setCacheSessions(endpoint.isCacheSessions());
+        jmsConfig.setOneWayBatchSize(endpoint.getOneWayBatchSize());
+        jmsConfig.setOneWayBatchTimeout(endpoint.getOneWayBatchTimeout());
         jmsConfig.setMessageSelector(endpoint.getMessageSelector());
 
         TransactionManager tm = getTransactionManager(bus, endpoint);
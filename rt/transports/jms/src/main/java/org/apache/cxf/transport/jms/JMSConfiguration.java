@@ -58,6 +58,8 @@ public class JMSConfiguration {
     private boolean createSecurityContext = true;
 
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private int maxIdleReceives = 10;
     private int maxSuspendedContinuations = DEFAULT_VALUE;
     private int reconnectPercentOfMax = 70;
 
@@ -93,6 +95,9 @@ public class JMSConfiguration {
     private String conduitSelectorPrefix;
     private boolean jmsProviderTibcoEms;
     private boolean oneSessionPerConnection;
+    private boolean cacheSessions;
+    private int oneWayBatchSize = 1;
+    private long oneWayBatchTimeout = 100;
 
     private TransactionManager transactionManager;
 
@@ -334,6 +339,32 @@ public class JMSConfiguration {
         this.concurrentConsumers = concurrentConsumers;
     }
 
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    /**
+     * Maximum number of consumers the destination may scale up to while all consumers are busy.
+     * Values not greater than concurrentConsumers disable scaling.
+     * @param maxConcurrentConsumers
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public int getMaxIdleReceives() {
+        return maxIdleReceives;
+    }
+
+    /**
+     * Number of consecutive empty one second receives after which a consumer started above
+     * concurrentConsumers is stopped again.
+     * @param maxIdleReceives
+     */
+    public void setMaxIdleReceives(int maxIdleReceives) {
+        this.maxIdleReceives = maxIdleReceives;
+    }
+
     public int getMaxSuspendedContinuations() {
         return maxSuspendedContinuations;
     }
@@ -440,6 +471,45 @@ public class JMSConfiguration {
         this.oneSessionPerConnection = oneSessionPerConnection;
     }
 
+    public boolean isCacheSessions() {
+        return cacheSessions;
+    }
+
+    /**
+     * Keep the sessions and their producers in a pool of the conduit instead of creating them
+     * for every message. Has no effect if oneSessionPerConnection is set.
+     * @param cacheSessions
+     */
+    public void setCacheSessions(boolean cacheSessions) {
+        this.cacheSessions = cacheSessions;
+    }
+
+    public int getOneWayBatchSize() {
+        return oneWayBatchSize;
+    }
+
+    /**
+     * Number of one way messages sent on a cached transacted session before it is committed.
+     * Values greater than 1 require cacheSessions. Messages of a batch that is not yet committed are
+     * lost if the connection fails.
+     * @param oneWayBatchSize
+     */
+    public void setOneWayBatchSize(int oneWayBatchSize) {
+        this.oneWayBatchSize = oneWayBatchSize;
+    }
+
+    public long getOneWayBatchTimeout() {
+        return oneWayBatchTimeout;
+    }
+
+    /**
+     * Maximum time in milliseconds a batched one way message stays uncommitted.
+     * @param oneWayBatchTimeout
+     */
+    public void setOneWayBatchTimeout(long oneWayBatchTimeout) {
+        this.oneWayBatchTimeout = oneWayBatchTimeout;
+    }
+
     public static Destination resolveOrCreateDestination(final Session session,
                                                          final DestinationResolver resolver,
                                                          final String replyToDestinationName,
@@ -61,7 +61,7 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
     private JMSConfiguration jmsConfig;
     private Bus bus;
 
-    private JMSListenerContainer jmsListener;
+    private volatile JMSListenerContainer jmsListener;
     private ThrottlingCounter suspendedContinuations;
     private ClassLoader loader;
     private Connection connection;
@@ -155,6 +155,8 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
             }
 
             container.setConcurrentConsumers(jmsConfig.getConcurrentConsumers());
+            container.setMaxConcurrentConsumers(jmsConfig.getMaxConcurrentConsumers());
+            container.setMaxIdleReceives(jmsConfig.getMaxIdleReceives());
             container.setTransactionManager(jmsConfig.getTransactionManager());
             container.setMessageSelector(jmsConfig.getMessageSelector());
             container.setTransacted(jmsConfig.isSessionTransacted());
@@ -182,6 +184,15 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
         }
     }
 
+    /**
+     * @return the container receiving the messages of this destination, a
+     * {@link PollingMessageListenerContainer} which reports the number of active consumers and the
+     * processed and failed messages, or null while the destination is not connected
+     */
+    public JMSListenerContainer getJMSListenerContainer() {
+        return jmsListener;
+    }
+
     protected void restartConnection() {
         int tries = 0;
         do {
@@ -0,0 +1,252 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.jms;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.transport.jms.util.JMSSender;
+import org.apache.cxf.transport.jms.util.ResourceCloser;
+
+/**
+ * Keeps a pool of long lived sessions (and their producers) per conduit so that the conduit does not
+ * create a session and a producer for every message. A session is borrowed by a sending thread for the
+ * whole exchange and only used by that thread until it is released, as a JMS Session must not be used
+ * concurrently. One way messages can additionally be sent in batches over a transacted session which is
+ * committed once the configured number of messages has been sent or the oldest uncommitted message has
+ * waited for the configured batch timeout. The timeout is checked by the borrowing thread on every send
+ * and release, and by a timer for the idle sessions, which it borrows from the pool while committing.
+ */
+final class JMSSessionCache {
+    private static final Logger LOG = LogUtils.getL7dLogger(JMSSessionCache.class);
+
+    private final Deque<CachedSession> idleSessions = new ConcurrentLinkedDeque<>();
+    private final Deque<CachedSession> idleBatchSessions = new ConcurrentLinkedDeque<>();
+    private final int batchSize;
+    private final long batchTimeout;
+    private Timer flushTimer;
+    private volatile boolean closed;
+
+    JMSSessionCache(int batchSize, long batchTimeout) {
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+    }
+
+    boolean isBatching() {
+        return batchSize > 1;
+    }
+
+    /**
+     * Borrows an auto acknowledge session for the given connection. The session must be released by
+     * the calling thread once the exchange is done with it.
+     */
+    CachedSession getSession(Connection connection) throws JMSException {
+        return borrow(idleSessions, connection, false);
+    }
+
+    /**
+     * Borrows a transacted session used to batch one way messages. The session must be released by
+     * the calling thread once the message is sent.
+     */
+    CachedSession getBatchSession(Connection connection) throws JMSException {
+        synchronized (this) {
+            if (flushTimer == null && !closed) {
+                flushTimer = new Timer("JMSConduit batch flush", true);
+                long period = Math.max(1L, batchTimeout / 2);
+                flushTimer.schedule(new TimerTask() {
+                    public void run() {
+                        flushExpired();
+                    }
+                }, period, period);
+            }
+        }
+        return borrow(idleBatchSessions, connection, true);
+    }
+
+    private CachedSession borrow(Deque<CachedSession> idle, Connection connection,
+                                 boolean transacted) throws JMSException {
+        for (CachedSession cached = idle.pollFirst(); cached != null; cached = idle.pollFirst()) {
+            if (cached.connection == connection) {
+                return cached;
+            }
+            cached.close();
+        }
+        return new CachedSession(connection, transacted);
+    }
+
+    /**
+     * Commits the batches of the idle sessions whose oldest message has waited for the batch timeout.
+     * Sessions in use are left to the thread using them.
+     */
+    void flushExpired() {
+        long expired = System.currentTimeMillis() - batchTimeout;
+        for (CachedSession cached : idleBatchSessions) {
+            // only the thread which removes the session from the pool may use it
+            if (cached.isOlderThan(expired) && idleBatchSessions.remove(cached)) {
+                try {
+                    cached.flushIfOlderThan(expired);
+                } catch (JMSException e) {
+                    LOG.log(Level.WARNING, "Could not commit batched JMS messages", e);
+                    cached.close();
+                    continue;
+                }
+                cached.release();
+            }
+        }
+    }
+
+    /**
+     * Commits outstanding batches and closes the idle sessions. Sessions still in use are committed and
+     * closed when they are released.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            if (flushTimer != null) {
+                flushTimer.cancel();
+                flushTimer = null;
+            }
+        }
+        closeIdle(idleSessions);
+        closeIdle(idleBatchSessions);
+    }
+
+    private static void closeIdle(Deque<CachedSession> idle) {
+        for (CachedSession cached = idle.pollFirst(); cached != null; cached = idle.pollFirst()) {
+            cached.flushAndClose();
+        }
+    }
+
+    final class CachedSession {
+        private final Connection connection;
+        private final Session session;
+        private final boolean transacted;
+        private final Map<Destination, MessageProducer> producers = new HashMap<>();
+        // also read by the timer to find the idle sessions to commit
+        private volatile int pending;
+        private volatile long firstPending;
+        private boolean sessionClosed;
+
+        CachedSession(Connection connection, boolean transacted) throws JMSException {
+            this.connection = connection;
+            this.transacted = transacted;
+            this.session = connection.createSession(transacted,
+                                                    transacted ? Session.SESSION_TRANSACTED
+                                                        : Session.AUTO_ACKNOWLEDGE);
+        }
+
+        Session getSession() {
+            return session;
+        }
+
+        void send(JMSSender sender, Destination destination,
+                  javax.jms.Message message) throws JMSException {
+            MessageProducer producer = producers.get(destination);
+            if (producer == null) {
+                producer = session.createProducer(destination);
+                producers.put(destination, producer);
+            }
+            sender.sendMessage(producer, message);
+            if (transacted) {
+                long now = System.currentTimeMillis();
+                if (pending++ == 0) {
+                    firstPending = now;
+                }
+                if (pending >= batchSize || firstPending <= now - batchTimeout) {
+                    commit();
+                }
+            }
+        }
+
+        /**
+         * Returns the session to the pool of the conduit, or commits and closes it if the cache has
+         * been closed meanwhile.
+         */
+        void release() {
+            if (sessionClosed) {
+                return;
+            }
+            try {
+                flushIfOlderThan(System.currentTimeMillis() - batchTimeout);
+            } catch (JMSException e) {
+                LOG.log(Level.WARNING, "Could not commit batched JMS messages", e);
+                close();
+                return;
+            }
+            Deque<CachedSession> idle = transacted ? idleBatchSessions : idleSessions;
+            idle.addFirst(this);
+            // the cache may have been closed before the session was put back
+            if (closed && idle.remove(this)) {
+                flushAndClose();
+            }
+        }
+
+        boolean isOlderThan(long time) {
+            return pending > 0 && firstPending <= time;
+        }
+
+        void flushIfOlderThan(long time) throws JMSException {
+            if (transacted && !sessionClosed && isOlderThan(time)) {
+                commit();
+            }
+        }
+
+        private void commit() throws JMSException {
+            session.commit();
+            pending = 0;
+        }
+
+        void flushAndClose() {
+            try {
+                flushIfOlderThan(Long.MAX_VALUE);
+            } catch (JMSException e) {
+                LOG.log(Level.WARNING, "Could not commit batched JMS messages", e);
+            }
+            close();
+        }
+
+        /**
+         * Closes the session without committing. Used when the connection failed.
+         */
+        void close() {
+            if (!sessionClosed) {
+                sessionClosed = true;
+                for (MessageProducer producer : producers.values()) {
+                    ResourceCloser.close(producer);
+                }
+                producers.clear();
+                ResourceCloser.close(session);
+            }
+        }
+    }
+}
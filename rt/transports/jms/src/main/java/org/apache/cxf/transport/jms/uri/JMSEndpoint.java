@@ -86,10 +86,15 @@ public class JMSEndpoint {
     private boolean useConduitIdSelector = true;
     private String username;
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private int maxIdleReceives = 10;
     private String messageSelector;
     private int retryInterval = 5000;
     private boolean oneSessionPerConnection;
     private boolean ignoreTimeoutException;
+    private boolean cacheSessions;
+    private int oneWayBatchSize = 1;
+    private long oneWayBatchTimeout = 100;
 
     /**
      * @param endpointUri
@@ -377,6 +382,30 @@ public class JMSEndpoint {
         this.concurrentConsumers = Integer.parseInt(concurrentConsumers);
     }
 
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public void setMaxConcurrentConsumers(String maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = Integer.parseInt(maxConcurrentConsumers);
+    }
+
+    public int getMaxIdleReceives() {
+        return maxIdleReceives;
+    }
+
+    public void setMaxIdleReceives(int maxIdleReceives) {
+        this.maxIdleReceives = maxIdleReceives;
+    }
+
+    public void setMaxIdleReceives(String maxIdleReceives) {
+        this.maxIdleReceives = Integer.parseInt(maxIdleReceives);
+    }
+
     public String getPassword() {
         return password;
     }
@@ -510,6 +539,42 @@ public class JMSEndpoint {
         this.oneSessionPerConnection = oneSessionPerConnection;
     }
 
+    public boolean isCacheSessions() {
+        return cacheSessions;
+    }
+
+    public void setCacheSessions(String cacheSessions) {
+        this.cacheSessions = Boolean.parseBoolean(cacheSessions);
+    }
+
+    public void setCacheSessions(boolean cacheSessions) {
+        this.cacheSessions = cacheSessions;
+    }
+
+    public int getOneWayBatchSize() {
+        return oneWayBatchSize;
+    }
+
+    public void setOneWayBatchSize(int oneWayBatchSize) {
+        this.oneWayBatchSize = oneWayBatchSize;
+    }
+
+    public void setOneWayBatchSize(String oneWayBatchSize) {
+        this.oneWayBatchSize = Integer.parseInt(oneWayBatchSize);
+    }
+
+    public long getOneWayBatchTimeout() {
+        return oneWayBatchTimeout;
+    }
+
+    public void setOneWayBatchTimeout(long oneWayBatchTimeout) {
+        this.oneWayBatchTimeout = oneWayBatchTimeout;
+    }
+
+    public void setOneWayBatchTimeout(String oneWayBatchTimeout) {
+        this.oneWayBatchTimeout = Long.parseLong(oneWayBatchTimeout);
+    }
+
     public boolean isIgnoreTimeoutException() {
         return ignoreTimeoutException;
     }
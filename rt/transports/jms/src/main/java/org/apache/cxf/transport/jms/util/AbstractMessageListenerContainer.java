@@ -53,6 +53,7 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
 
     private Executor executor;
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
     private boolean internalExecutor;
 
     public AbstractMessageListenerContainer() {
@@ -80,7 +81,7 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
 
     protected Executor getExecutor() {
         if (executor == null) {
-            executor = Executors.newFixedThreadPool(concurrentConsumers);
+            executor = Executors.newFixedThreadPool(getMaxConcurrentConsumers());
             internalExecutor = true;
         }
         return executor;
@@ -158,4 +159,17 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
         return concurrentConsumers;
     }
 
+    /**
+     * Upper bound for the number of consumers if the container adds consumers under load.
+     * Defaults to the number of concurrent consumers, which disables scaling.
+     * @param maxConcurrentConsumers
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public int getMaxConcurrentConsumers() {
+        return Math.max(concurrentConsumers, maxConcurrentConsumers);
+    }
+
 }
@@ -50,14 +50,18 @@ public class JMSSender {
         MessageProducer producer = null;
         try {
             producer = session.createProducer(targetDest);
-            if (explicitQosEnabled) {
-                producer.send(message, deliveryMode, priority, timeToLive);
-            } else {
-                producer.send(message);
-            }
+            sendMessage(producer, message);
         } finally {
             ResourceCloser.close(producer);
         }
 
     }
+
+    public void sendMessage(MessageProducer producer, javax.jms.Message message) throws JMSException {
+        if (explicitQosEnabled) {
+            producer.send(message, deliveryMode, priority, timeToLive);
+        } else {
+            producer.send(message);
+        }
+    }
 }
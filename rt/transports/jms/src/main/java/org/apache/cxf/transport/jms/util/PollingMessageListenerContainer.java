@@ -18,6 +18,9 @@
  */
 package org.apache.cxf.transport.jms.util;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,6 +46,13 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
     private JMSConfiguration jmsConfig;
     private boolean reply;
+    private int maxIdleReceives = 10;
+
+    private final AtomicInteger activeConsumers = new AtomicInteger();
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+    private final AtomicLong processedMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong processingTime = new AtomicLong();
 
     public PollingMessageListenerContainer(JMSConfiguration jmsConfig, boolean isReply,
                                            MessageListener listenerHandler) {
@@ -63,6 +73,20 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
         @Override
         public void run() {
+            boolean released = false;
+            try {
+                released = poll();
+            } finally {
+                if (!released) {
+                    activeConsumers.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @return true if this poller gave up its consumer slot because it was idle
+         */
+        private boolean poll() {
             Session session = null;
             while (running) {
                 try (ResourceCloser closer = new ResourceCloser()) {
@@ -77,20 +101,31 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                     session = closer.register(connection.createSession(transacted, acknowledgeMode));
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
 
+                    int idleReceives = 0;
                     while (running) {
-                        Message message = consumer.receive(1000);
+                        Message message = receive(consumer);
+                        if (message == null) {
+                            if (++idleReceives >= maxIdleReceives && releaseIdleConsumer()) {
+                                return true;
+                            }
+                            continue;
+                        }
+                        idleReceives = 0;
+                        addConsumerIfBusy();
+                        long start = System.nanoTime();
                         try {
-                            if (message != null) {
-                                listenerHandler.onMessage(message);
+                            listenerHandler.onMessage(message);
 
-                                if (session.getTransacted()) {
-                                    session.commit();
-                                }
+                            if (session.getTransacted()) {
+                                session.commit();
                             }
+                            processedMessages.incrementAndGet();
                         } catch (Throwable e) {
                             LOG.log(Level.WARNING, "Exception while processing jms message in cxf. Rolling back", e);
+                            failedMessages.incrementAndGet();
                             safeRollBack(session);
                         }
+                        processingTime.addAndGet(System.nanoTime() - start);
                     }
                 } catch (Throwable e) {
                     handleException(e);
@@ -101,6 +136,7 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                     }
                 }
             }
+            return false;
         }
 
         protected void safeRollBack(Session session) {
@@ -119,6 +155,21 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
         @Override
         public void run() {
+            boolean released = false;
+            try {
+                released = poll();
+            } finally {
+                if (!released) {
+                    activeConsumers.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @return true if this poller gave up its consumer slot because it was idle
+         */
+        private boolean poll() {
+            int idleReceives = 0;
             while (running) {
                 try (ResourceCloser closer = new ResourceCloser()) {
                     closer.register(createInitialContext());
@@ -142,22 +193,37 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                      */
                     Session session = closer.register(connection.createSession(transacted, acknowledgeMode));
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
-                    Message message = consumer.receive(1000);
+                    Message message = receive(consumer);
+                    if (message != null) {
+                        idleReceives = 0;
+                        addConsumerIfBusy();
+                    }
+                    long start = System.nanoTime();
                     try {
                         if (message != null) {
                             listenerHandler.onMessage(message);
                         }
                         transactionManager.commit();
+                        if (message != null) {
+                            processedMessages.incrementAndGet();
+                        }
                     } catch (Throwable e) {
                         LOG.log(Level.WARNING, "Exception while processing jms message in cxf. Rolling back", e);
+                        failedMessages.incrementAndGet();
                         safeRollBack();
                     }
+                    if (message != null) {
+                        processingTime.addAndGet(System.nanoTime() - start);
+                    } else if (++idleReceives >= maxIdleReceives && releaseIdleConsumer()) {
+                        // the transaction of the empty receive has been completed above
+                        return true;
+                    }
                 } catch (Throwable e) {
                     safeRollBack();
                     handleException(e);
                 }
             }
-
+            return false;
         }
 
         private void safeRollBack() {
@@ -170,6 +236,50 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
 
     }
 
+    private Message receive(MessageConsumer consumer) throws JMSException {
+        waitingConsumers.incrementAndGet();
+        try {
+            return consumer.receive(1000);
+        } finally {
+            waitingConsumers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Starts an additional poller if no consumer is left waiting for messages and the
+     * maximum number of consumers has not been reached yet.
+     */
+    private void addConsumerIfBusy() {
+        if (waitingConsumers.get() > 0) {
+            return;
+        }
+        int active = activeConsumers.get();
+        if (active < getMaxConcurrentConsumers() && activeConsumers.compareAndSet(active, active + 1)) {
+            LOG.fine("All " + active + " consumers are busy, adding a consumer");
+            try {
+                getExecutor().execute(createPoller());
+            } catch (RejectedExecutionException e) {
+                activeConsumers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Lets an idle poller stop as long as more than the configured number of
+     * concurrent consumers are active.
+     */
+    private boolean releaseIdleConsumer() {
+        int active = activeConsumers.get();
+        while (active > getConcurrentConsumers()) {
+            if (activeConsumers.compareAndSet(active, active - 1)) {
+                LOG.fine("Consumer idle, reducing consumers to " + (active - 1));
+                return true;
+            }
+            active = activeConsumers.get();
+        }
+        return false;
+    }
+
     private MessageConsumer createConsumer(final Connection connection, final Session session)
             throws JMSException {
         final MessageConsumer consumer;
@@ -236,11 +346,48 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
         }
         running = true;
         for (int c = 0; c < getConcurrentConsumers(); c++) {
-            Runnable poller = (transactionManager != null) ? new XAPoller() : new Poller();
-            getExecutor().execute(poller);
+            activeConsumers.incrementAndGet();
+            getExecutor().execute(createPoller());
         }
     }
 
+    private Runnable createPoller() {
+        return (transactionManager != null) ? new XAPoller() : new Poller();
+    }
+
+    /**
+     * Number of consecutive empty one second receives after which a consumer above the
+     * configured number of concurrent consumers is stopped.
+     * @param maxIdleReceives
+     */
+    public void setMaxIdleReceives(int maxIdleReceives) {
+        this.maxIdleReceives = maxIdleReceives;
+    }
+
+    public int getMaxIdleReceives() {
+        return maxIdleReceives;
+    }
+
+    public int getActiveConsumers() {
+        return activeConsumers.get();
+    }
+
+    public long getProcessedMessages() {
+        return processedMessages.get();
+    }
+
+    public long getFailedMessages() {
+        return failedMessages.get();
+    }
+
+    /**
+     * @return the average time in milliseconds spent processing a message
+     */
+    public double getAverageProcessingTime() {
+        long count = processedMessages.get() + failedMessages.get();
+        return count == 0 ? 0 : processingTime.get() / (count * 1000000.0);
+    }
+
     @Override
     public void stop() {
         LOG.fine("Shutting down " + this.getClass().getSimpleName());
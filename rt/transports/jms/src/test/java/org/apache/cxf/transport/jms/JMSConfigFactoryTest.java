@@ -89,6 +89,15 @@ public class JMSConfigFactoryTest extends AbstractJMSTester {
 
     }
 
+    @Test
+    public void testConsumerScaling() {
+        JMSEndpoint endpoint =
+            new JMSEndpoint("jms:queue:Foo.Bar?maxConcurrentConsumers=8&maxIdleReceives=3");
+        JMSConfiguration jmsConfig = JMSConfigFactory.createFromEndpoint(bus, endpoint);
+        Assert.assertEquals(8, jmsConfig.getMaxConcurrentConsumers());
+        Assert.assertEquals(3, jmsConfig.getMaxIdleReceives());
+    }
+
     @Test
     public void testMessageSelectorIsSet() {
         EndpointInfo ei = setupServiceInfo("HelloWorldSelectorService", "HelloWorldPort");
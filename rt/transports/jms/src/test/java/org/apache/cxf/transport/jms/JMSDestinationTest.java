@@ -48,6 +48,7 @@ import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.transport.MessageObserver;
 import org.apache.cxf.transport.MultiplexDestination;
+import org.apache.cxf.transport.jms.util.PollingMessageListenerContainer;
 import org.apache.cxf.transport.jms.util.ResourceCloser;
 
 import org.junit.Ignore;
@@ -172,6 +173,21 @@ public class JMSDestinationTest extends AbstractJMSTester {
         destination.shutdown();
     }
 
+    @Test
+    public void testListenerContainer() throws Exception {
+        EndpointInfo ei = setupServiceInfo("HelloWorldQueueBinMsgService", "HelloWorldQueueBinMsgPort");
+        JMSDestination destination = setupJMSDestination(ei);
+        destination.getJmsConfig().setMaxConcurrentConsumers(4);
+        destination.getJmsConfig().setMaxIdleReceives(5);
+        destination.setMessageObserver(createMessageObserver());
+        PollingMessageListenerContainer container =
+            (PollingMessageListenerContainer)destination.getJMSListenerContainer();
+        assertEquals(4, container.getMaxConcurrentConsumers());
+        assertEquals(5, container.getMaxIdleReceives());
+        assertEquals(1, container.getActiveConsumers());
+        destination.shutdown();
+    }
+
     @Test
     public void testDurableSubscriber() throws Exception {
         EndpointInfo ei = setupServiceInfo("HelloWorldPubSubService", "HelloWorldPubSubPort");
@@ -233,6 +249,28 @@ public class JMSDestinationTest extends AbstractJMSTester {
         destination.shutdown();
     }
 
+    @Test
+    public void testOneWayBatchedDestination() throws Exception {
+        EndpointInfo ei = setupServiceInfo("HWStaticReplyQBinMsgService", "HWStaticReplyQBinMsgPort");
+        JMSDestination destination = setupJMSDestination(ei);
+        destination.setMessageObserver(createMessageObserver());
+
+        JMSConduit conduit = setupJMSConduitWithObserver(ei);
+        conduit.getJmsConfig().setCacheSessions(true);
+        conduit.getJmsConfig().setOneWayBatchSize(10);
+        conduit.getJmsConfig().setOneWayBatchTimeout(50);
+        Message outMessage = createMessage();
+
+        // a single message does not fill the batch, so it is committed by the batch timeout
+        sendOneWayMessage(conduit, outMessage);
+        Message destMessage = waitForReceiveDestMessage();
+        assertNotNull("The destination should have got the message ", destMessage);
+        verifyReceivedMessage(destMessage);
+        verifyHeaders(destMessage, outMessage);
+        conduit.close();
+        destination.shutdown();
+    }
+
     private static void setupMessageHeader(Message outMessage, String correlationId, String replyTo) {
         JMSMessageHeadersType header = new JMSMessageHeadersType();
         header.setJMSCorrelationID(correlationId);
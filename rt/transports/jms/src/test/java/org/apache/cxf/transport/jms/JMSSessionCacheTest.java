@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.jms;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.cxf.transport.jms.util.JMSSender;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class JMSSessionCacheTest {
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger closes = new AtomicInteger();
+    private final Destination destination = proxy(Destination.class);
+    private final Message message = proxy(Message.class);
+    private final JMSSender sender = new JMSSender();
+
+    @Test
+    public void testSessionsArePooledAcrossThreads() throws Exception {
+        JMSSessionCache cache = new JMSSessionCache(1, 0L);
+        Connection connection = createConnection();
+        JMSSessionCache.CachedSession cached = cache.getSession(connection);
+        cached.release();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            JMSSessionCache.CachedSession other = executor.submit(() -> cache.getSession(connection)).get();
+            assertSame(cached, other);
+            assertEquals(1, sessions.get());
+            other.release();
+        } finally {
+            executor.shutdownNow();
+        }
+        cache.close();
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    public void testBatchCommittedWhenFull() throws Exception {
+        JMSSessionCache cache = new JMSSessionCache(2, 60000L);
+        JMSSessionCache.CachedSession cached = cache.getBatchSession(createConnection());
+        cached.send(sender, destination, message);
+        assertEquals(0, commits.get());
+        cached.send(sender, destination, message);
+        assertEquals(1, commits.get());
+        cached.release();
+        cache.close();
+        assertEquals(1, commits.get());
+    }
+
+    @Test
+    public void testExpiredBatchOnlyCommittedByOwner() throws Exception {
+        JMSSessionCache cache = new JMSSessionCache(10, 50L);
+        Connection connection = createConnection();
+        JMSSessionCache.CachedSession cached = cache.getBatchSession(connection);
+        cached.send(sender, destination, message);
+        cached.release();
+
+        // borrowed again, so the timer must leave it alone even once the batch has expired
+        assertSame(cached, cache.getBatchSession(connection));
+        Thread.sleep(100L);
+        cache.flushExpired();
+        assertEquals(0, commits.get());
+        cached.release();
+        assertEquals(1, commits.get());
+
+        cached = cache.getBatchSession(connection);
+        cached.send(sender, destination, message);
+        cached.release();
+        assertEquals(1, commits.get());
+        Thread.sleep(100L);
+        cache.flushExpired();
+        assertEquals(2, commits.get());
+        cache.close();
+    }
+
+    @Test
+    public void testSessionReleasedAfterCloseIsCommittedAndClosed() throws Exception {
+        JMSSessionCache cache = new JMSSessionCache(10, 60000L);
+        JMSSessionCache.CachedSession cached = cache.getBatchSession(createConnection());
+        cached.send(sender, destination, message);
+        cache.close();
+        assertEquals(0, closes.get());
+        cached.release();
+        assertEquals(1, commits.get());
+        assertEquals(1, closes.get());
+    }
+
+    private Connection createConnection() {
+        return proxy(Connection.class, name -> {
+            if ("createSession".equals(name)) {
+                sessions.incrementAndGet();
+                return createSession();
+            }
+            return null;
+        });
+    }
+
+    private Session createSession() {
+        return proxy(Session.class, name -> {
+            if ("commit".equals(name)) {
+                commits.incrementAndGet();
+            } else if ("close".equals(name)) {
+                closes.incrementAndGet();
+            } else if ("createProducer".equals(name)) {
+                return proxy(MessageProducer.class);
+            }
+            return null;
+        });
+    }
+
+    private static <T> T proxy(Class<T> cls) {
+        return proxy(cls, name -> null);
+    }
+
+    private static <T> T proxy(Class<T> cls, Function<String, Object> handler) {
+        return cls.cast(Proxy.newProxyInstance(JMSSessionCacheTest.class.getClassLoader(),
+            new Class<?>[] {cls}, (p, m, args) -> {
+                switch (m.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "equals":
+                    return p == args[0];
+                case "toString":
+                    return cls.getSimpleName();
+                default:
+                    return handler.apply(m.getName());
+                }
+            }));
+    }
+}
@@ -155,6 +155,57 @@ public class MessageListenerTest {
         connection.close();
     }
 
+    @Test
+    public void testConsumerScaling() throws JMSException {
+        ActiveMQConnectionFactory cf = new ActiveMQConnectionFactory("vm://brokerScaling"
+            + "?broker.persistent=false&jms.prefetchPolicy.queuePrefetch=1");
+        Connection connection = cf.createConnection();
+        connection.start();
+        testConsumerScaling(connection, null);
+    }
+
+    @Test
+    public void testConsumerScalingXA() throws JMSException {
+        TransactionManager transactionManager = new GeronimoTransactionManager();
+        Connection connection = createXAConnection("brokerScalingJTA", transactionManager);
+        testConsumerScaling(connection, transactionManager);
+    }
+
+    private void testConsumerScaling(Connection connection, TransactionManager transactionManager)
+        throws JMSException {
+        Queue dest = JMSUtil.createQueue(connection, "test");
+
+        MessageListener listenerHandler = message -> {
+            try {
+                Thread.sleep(200L);
+            } catch (InterruptedException e) {
+                // Ignore
+            }
+        };
+        PollingMessageListenerContainer container =
+            new PollingMessageListenerContainer(connection, dest, listenerHandler, new TestExceptionListener());
+        if (transactionManager != null) {
+            container.setTransacted(false);
+            container.setAcknowledgeMode(Session.SESSION_TRANSACTED);
+            container.setTransactionManager(transactionManager);
+        }
+        container.setConcurrentConsumers(1);
+        container.setMaxConcurrentConsumers(4);
+        container.setMaxIdleReceives(1);
+        container.start();
+
+        for (int i = 0; i < 20; i++) {
+            sendMessage(connection, dest, TestMessage.OK);
+        }
+        Awaitility.await().until(() -> container.getActiveConsumers() > 1);
+        Awaitility.await().until(() -> container.getProcessedMessages() == 20L);
+        Awaitility.await().until(() -> container.getActiveConsumers() == 1);
+        assertEquals(0L, container.getFailedMessages());
+
+        container.stop();
+        connection.close();
+    }
+
     private void testTransactionalBehaviour(Connection connection, Queue dest) throws JMSException,
         InterruptedException {
         Queue dlq = JMSUtil.createQueue(connection, "ActiveMQ.DLQ");
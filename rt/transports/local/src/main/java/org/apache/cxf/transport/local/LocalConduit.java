@@ -22,8 +22,6 @@ package org.apache.cxf.transport.local;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.Executor;
@@ -69,10 +67,10 @@ public class LocalConduit extends AbstractConduit {
             transportFactory.copy(message, inMsg);
 
             if (!empty) {
-                final PipedInputStream stream = new PipedInputStream();
-                wrappedStream = new PipedOutputStream(stream);
+                final LocalPipe pipe = transportFactory.createPipe();
+                wrappedStream = pipe.getOutputStream();
 
-                inMsg.setContent(InputStream.class, stream);
+                inMsg.setContent(InputStream.class, pipe.getInputStream());
             }
             inMsg.setDestination(destination);
             inMsg.put(IN_CONDUIT, conduit);
@@ -22,8 +22,6 @@ package org.apache.cxf.transport.local;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
@@ -101,9 +99,9 @@ public class LocalDestination extends AbstractDestination {
                 final MessageImpl m = new MessageImpl();
                 localDestinationFactory.copy(message, m);
                 if (!empty) {
-                    final PipedInputStream stream = new PipedInputStream();
-                    wrappedStream = new PipedOutputStream(stream);
-                    m.setContent(InputStream.class, stream);
+                    final LocalPipe pipe = localDestinationFactory.createPipe();
+                    wrappedStream = pipe.getOutputStream();
+                    m.setContent(InputStream.class, pipe.getInputStream());
                 }
 
                 final Runnable receiver = new Runnable() {
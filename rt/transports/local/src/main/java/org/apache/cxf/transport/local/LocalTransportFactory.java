@@ -25,6 +25,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
@@ -57,6 +59,8 @@ public class LocalTransportFactory extends AbstractTransportFactory
     public static final String MESSAGE_INCLUDE_PROPERTIES
         = LocalTransportFactory.class.getName() + ".includeProperties";
 
+    public static final int DEFAULT_PIPE_BUFFER_SIZE = 64 * 1024;
+
     private static final Logger LOG = LogUtils.getL7dLogger(LocalTransportFactory.class);
     private static final Set<String> URI_PREFIXES = Collections.singleton("local://");
     private static final String NULL_ADDRESS
@@ -69,6 +73,8 @@ public class LocalTransportFactory extends AbstractTransportFactory
     private Set<String> messageIncludeProperties = new HashSet<>();
     private Set<String> uriPrefixes = new HashSet<>(URI_PREFIXES);
     private volatile Executor executor;
+    private int pipeBufferSize = DEFAULT_PIPE_BUFFER_SIZE;
+    private BlockingQueue<byte[]> pipeBuffers = new ArrayBlockingQueue<>(32);
 
     public LocalTransportFactory() {
         super(DEFAULT_NAMESPACES);
@@ -141,6 +147,26 @@ public class LocalTransportFactory extends AbstractTransportFactory
         this.executor = executor;
     }
 
+    public int getPipeBufferSize() {
+        return pipeBufferSize;
+    }
+
+    /**
+     * Sets the size of the ring buffer used between the client and the service
+     * when messages are not dispatched directly.
+     */
+    public void setPipeBufferSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pipe buffer size must be positive: " + size);
+        }
+        this.pipeBufferSize = size;
+        pipeBuffers.clear();
+    }
+
+    LocalPipe createPipe() {
+        return new LocalPipe(pipeBufferSize, pipeBuffers);
+    }
+
     public Conduit getConduit(EndpointInfo ei, Bus bus) throws IOException {
         return new LocalConduit(this, getDestination(ei, bus));
     }
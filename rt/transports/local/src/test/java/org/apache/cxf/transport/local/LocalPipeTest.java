@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.local;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.apache.cxf.helpers.IOUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LocalPipeTest {
+
+    @Test
+    public void testTransferLargerThanBuffer() throws Exception {
+        final byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)i;
+        }
+        Queue<byte[]> pool = new ArrayBlockingQueue<>(2);
+        LocalPipe pipe = new LocalPipe(1024, pool);
+        final OutputStream out = pipe.getOutputStream();
+        Thread writer = new Thread(() -> {
+            try {
+                out.write(data, 0, 10);
+                out.write(data, 10, data.length - 10);
+                out.close();
+            } catch (IOException e) {
+                // reader will fail on the missing data
+            }
+        });
+        writer.start();
+
+        InputStream in = pipe.getInputStream();
+        byte[] read = IOUtils.readBytesFromStream(in);
+        writer.join();
+        assertArrayEquals(data, read);
+        assertEquals(1, pool.size());
+
+        LocalPipe reused = new LocalPipe(1024, pool);
+        assertEquals(0, pool.size());
+        reused.getOutputStream().close();
+        assertEquals(-1, reused.getInputStream().read());
+    }
+
+    @Test
+    public void testWriteAfterReaderClosed() throws Exception {
+        LocalPipe pipe = new LocalPipe(16, null);
+        pipe.getInputStream().close();
+        try {
+            pipe.getOutputStream().write(1);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
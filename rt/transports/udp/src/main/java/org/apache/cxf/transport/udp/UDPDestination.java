@@ -28,16 +28,27 @@ import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
 import java.net.MulticastSocket;
 import java.net.NetworkInterface;
+import java.net.SocketAddress;
 import java.net.SocketException;
+import java.net.SocketOption;
 import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
 import org.apache.cxf.message.Exchange;
@@ -64,14 +75,28 @@ import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
  */
 public class UDPDestination extends AbstractDestination {
     public static final String NETWORK_INTERFACE = UDPDestination.class.getName() + ".NETWORK_INTERFACE";
+    /**
+     * If true, unicast datagrams are received directly from a java.nio DatagramChannel into pooled
+     * direct buffers instead of through MINA session streams. Each datagram is one message.
+     * Can be set as an EndpointInfo or Bus property.
+     */
+    public static final String USE_NIO_CHANNEL = UDPDestination.class.getName() + ".USE_NIO_CHANNEL";
+    /**
+     * Number of threads receiving from the channel when USE_NIO_CHANNEL is set. If SO_REUSEPORT is
+     * supported each thread gets its own channel bound to the port.
+     */
+    public static final String RECEIVE_THREADS = UDPDestination.class.getName() + ".RECEIVE_THREADS";
 
     private static final Logger LOG = LogUtils.getL7dLogger(UDPDestination.class);
     private static final AttributeKey KEY_IN = new AttributeKey(StreamIoHandler.class, "in");
     private static final AttributeKey KEY_OUT = new AttributeKey(StreamIoHandler.class, "out");
+    private static final int MAX_DATAGRAM_SIZE = 64 * 1024;
 
     NioDatagramAcceptor acceptor;
     AutomaticWorkQueue queue;
     volatile MulticastSocket mcast;
+    final List<DatagramChannel> channels = new CopyOnWriteArrayList<>();
+    final BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(256);
 
     public UDPDestination(Bus b, EndpointReferenceType ref, EndpointInfo ei) {
         super(b, ref, ei);
@@ -114,6 +139,49 @@ public class UDPDestination extends AbstractDestination {
         }
     }
 
+    class ChannelListener implements Runnable {
+        private final DatagramChannel channel;
+
+        ChannelListener(DatagramChannel channel) {
+            this.channel = channel;
+        }
+
+        public void run() {
+            while (channel.isOpen()) {
+                ByteBuffer buffer = acquireBuffer();
+                final SocketAddress remote;
+                try {
+                    remote = channel.receive(buffer);
+                } catch (ClosedChannelException ex) {
+                    return;
+                } catch (IOException ex) {
+                    LOG.log(Level.WARNING, "Could not receive datagram", ex);
+                    releaseBuffer(buffer);
+                    continue;
+                }
+                buffer.flip();
+
+                final MessageImpl m = new MessageImpl();
+                final Exchange exchange = new ExchangeImpl();
+                exchange.setDestination(UDPDestination.this);
+                m.setDestination(UDPDestination.this);
+                exchange.setInMessage(m);
+                m.setContent(InputStream.class, new PooledBufferInputStream(buffer));
+                m.put(OutputStream.class, new UDPDestinationOutputStream(new ChannelOutputStream(channel, remote)));
+                queue.execute(() -> getMessageObserver().onMessage(m));
+            }
+        }
+    }
+
+    ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE) : buffer;
+    }
+
+    void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
 
     /** {@inheritDoc}*/
     @Override
@@ -170,6 +238,8 @@ public class UDPDestination extends AbstractDestination {
                 socket.joinGroup(isa.getAddress());
                 mcast = socket;
                 queue.execute(new MCastListener());
+            } else if (PropertyUtils.isTrue(getProperty(USE_NIO_CHANNEL))) {
+                openChannels(isa);
             } else {
 
                 acceptor = new NioDatagramAcceptor();
@@ -188,6 +258,52 @@ public class UDPDestination extends AbstractDestination {
             throw new RuntimeException(ex);
         }
     }
+
+    private Object getProperty(String name) {
+        Object value = getEndpointInfo().getProperty(name);
+        return value == null ? bus.getProperty(name) : value;
+    }
+
+    private void openChannels(InetSocketAddress isa) throws IOException {
+        Object threadsValue = getProperty(RECEIVE_THREADS);
+        int threads = threadsValue == null ? 1 : Integer.parseInt(threadsValue.toString());
+        SocketOption<Boolean> reusePort = threads > 1 ? getReusePortOption() : null;
+
+        DatagramChannel channel = openChannel(isa, reusePort);
+        boolean channelPerThread = reusePort != null
+            && channel.supportedOptions().contains(reusePort);
+        for (int x = 0; x < threads; x++) {
+            if (x > 0 && channelPerThread) {
+                channel = openChannel(isa, reusePort);
+            }
+            queue.execute(new ChannelListener(channel));
+        }
+    }
+
+    private DatagramChannel openChannel(InetSocketAddress isa,
+                                        SocketOption<Boolean> reusePort) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, Boolean.TRUE);
+        channel.setOption(StandardSocketOptions.SO_RCVBUF, MAX_DATAGRAM_SIZE);
+        channel.setOption(StandardSocketOptions.SO_SNDBUF, MAX_DATAGRAM_SIZE);
+        if (reusePort != null && channel.supportedOptions().contains(reusePort)) {
+            channel.setOption(reusePort, Boolean.TRUE);
+        }
+        channel.bind(isa);
+        channels.add(channel);
+        return channel;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> getReusePortOption() {
+        // SO_REUSEPORT only exists on Java 9 and newer
+        try {
+            return (SocketOption<Boolean>)StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
     private NetworkInterface findNetworkInterface() throws SocketException {
         String name = (String)this.getEndpointInfo().getProperty(UDPDestination.NETWORK_INTERFACE);
         NetworkInterface ret = null;
@@ -226,6 +342,15 @@ public class UDPDestination extends AbstractDestination {
             mcast.close();
             mcast = null;
         }
+        for (DatagramChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                //ignore
+            }
+        }
+        channels.clear();
+        buffers.clear();
     }
 
     class UDPIOHandler extends StreamIoHandler {
@@ -351,4 +476,57 @@ public class UDPDestination extends AbstractDestination {
         }
     }
 
+    /**
+     * Reads a received datagram straight from its pooled buffer and hands the
+     * buffer back to the pool once the stream is closed.
+     */
+    class PooledBufferInputStream extends InputStream {
+        private ByteBuffer buffer;
+
+        PooledBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() throws IOException {
+            if (buffer == null || !buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (buffer == null || !buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+        public int available() throws IOException {
+            return buffer == null ? 0 : buffer.remaining();
+        }
+        public void close() throws IOException {
+            if (buffer != null) {
+                releaseBuffer(buffer);
+                buffer = null;
+            }
+        }
+    }
+
+    static class ChannelOutputStream extends OutputStream {
+        final DatagramChannel channel;
+        final SocketAddress target;
+
+        ChannelOutputStream(DatagramChannel channel, SocketAddress target) {
+            this.channel = channel;
+            this.target = target;
+        }
+
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+        public void write(byte[] b, int off, int len) throws IOException {
+            channel.send(ByteBuffer.wrap(b, off, len), target);
+        }
+    }
+
 }
@@ -22,6 +22,8 @@ package org.apache.cxf.transport.udp;
 import java.net.NetworkInterface;
 import java.util.Enumeration;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
 import org.apache.cxf.endpoint.Server;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
@@ -40,7 +42,9 @@ import static org.junit.Assert.assertTrue;
  */
 public class UDPTransportTest {
     private static final String PORT = TestUtil.getPortNumber(UDPTransportTest.class);
+    private static final String NIO_PORT = TestUtil.getPortNumber(UDPTransportTest.class, 2);
     private static Server server;
+    private static Server nioServer;
 
     static class GreeterImpl implements Greeter {
         private String myName = "defaultGreeter";
@@ -65,6 +69,16 @@ public class UDPTransportTest {
         factory.setServiceBean(new GreeterImpl());
         // factory.setFeatures(Collections.singletonList(new LoggingFeature()));
         server = factory.create();
+
+        Bus bus = BusFactory.newInstance().createBus();
+        bus.setProperty(UDPDestination.USE_NIO_CHANNEL, Boolean.TRUE);
+        bus.setProperty(UDPDestination.RECEIVE_THREADS, 2);
+        factory = new JaxWsServerFactoryBean();
+        factory.setBus(bus);
+        factory.setAddress("udp://:" + NIO_PORT);
+        factory.setServiceClass(Greeter.class);
+        factory.setServiceBean(new GreeterImpl());
+        nioServer = factory.create();
     }
 
     @AfterClass
@@ -72,6 +86,10 @@ public class UDPTransportTest {
         if (server != null) {
             server.stop();
         }
+        if (nioServer != null) {
+            nioServer.stop();
+            nioServer.getBus().shutdown(true);
+        }
     }
 
     @Test
@@ -87,6 +105,24 @@ public class UDPTransportTest {
         ((java.io.Closeable)g).close();
     }
 
+    @Test
+    public void testNioChannelUDP() throws Exception {
+        JaxWsProxyFactoryBean fact = new JaxWsProxyFactoryBean();
+        fact.setAddress("udp://localhost:" + NIO_PORT);
+        Greeter g = fact.create(Greeter.class);
+        for (int x = 0; x < 5; x++) {
+            final String message = Integer.toString(x);
+            assertTrue(g.greetMe(message).endsWith(message));
+        }
+        StringBuilder b = new StringBuilder(100000);
+        for (int x = 0; x < 6500; x++) {
+            b.append("Hello ");
+        }
+        assertEquals("Hello " + b.toString(), g.greetMe(b.toString()));
+
+        ((java.io.Closeable)g).close();
+    }
+
     @Test
     public void testBroadcastUDP() throws Exception {
         // Disable the test on Redhat Enterprise Linux which doesn't enable the UDP broadcast by default
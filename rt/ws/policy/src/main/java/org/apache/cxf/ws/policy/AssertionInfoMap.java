@@ -56,6 +56,18 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
         }
     }
 
+    AssertionInfoMap(AssertionInfoMapTemplate template) {
+        super(template.getCapacity() < 6 ? 6 : template.getCapacity());
+        for (int i = 0; i < template.size(); i++) {
+            Assertion[] assertions = template.getAssertions(i);
+            List<AssertionInfo> ail = new ArrayList<>(assertions.length);
+            for (Assertion a : assertions) {
+                ail.add(new AssertionInfo(a));
+            }
+            put(template.getName(i), ail);
+        }
+    }
+
     private void putAssertionInfo(Assertion a) {
         if (a instanceof PolicyContainingAssertion) {
             Policy p = ((PolicyContainingAssertion)a).getPolicy();
@@ -190,7 +202,7 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
             }
         }
     }
-    private static Collection<Assertion> getAssertions(PolicyOperator p) {
+    static Collection<Assertion> getAssertions(PolicyOperator p) {
         Collection<Assertion> assertions = new ArrayList<>();
         getAssertions(p, assertions);
         return assertions;
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.policy;
+
+import java.util.Collection;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.message.Message;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+
+/**
+ * The immutable layout of the AssertionInfoMap for a collection of assertions: the nested policies
+ * are flattened and the duplicates removed once, so that creating the map for a message only has
+ * to allocate the AssertionInfo objects. Templates are kept by the EffectivePolicyImpl and
+ * EndpointPolicyImpl instances cached by the PolicyEngine.
+ */
+final class AssertionInfoMapTemplate {
+
+    private final Object source;
+    private final Collection<? extends Assertion> assertions;
+    private final int capacity;
+    private final QName[] names;
+    private final Assertion[][] slots;
+
+    AssertionInfoMapTemplate(Collection<? extends Assertion> assertions) {
+        this(assertions, assertions);
+    }
+
+    AssertionInfoMapTemplate(Policy p) {
+        this(p, AssertionInfoMap.getAssertions(p));
+    }
+
+    private AssertionInfoMapTemplate(Object source, Collection<? extends Assertion> assertions) {
+        this.source = source;
+        this.assertions = assertions;
+        AssertionInfoMap aim = new AssertionInfoMap(assertions);
+        capacity = assertions.size();
+        names = new QName[aim.size()];
+        slots = new Assertion[aim.size()][];
+        int i = 0;
+        for (Map.Entry<QName, Collection<AssertionInfo>> e : aim.entrySet()) {
+            names[i] = e.getKey();
+            Assertion[] slot = new Assertion[e.getValue().size()];
+            int j = 0;
+            for (AssertionInfo ai : e.getValue()) {
+                slot[j++] = ai.getAssertion();
+            }
+            slots[i++] = slot;
+        }
+    }
+
+    /**
+     * Returns the template for the given assertions, reusing the cached one if it was built for
+     * the same collection.
+     */
+    static AssertionInfoMapTemplate get(AssertionInfoMapTemplate cached,
+                                        Collection<? extends Assertion> assertions) {
+        if (assertions == null) {
+            return null;
+        }
+        if (cached != null && cached.source == assertions) {
+            return cached;
+        }
+        return new AssertionInfoMapTemplate(assertions);
+    }
+
+    /**
+     * Returns the template for all the assertions of the given policy, reusing the cached one if
+     * it was built for the same policy.
+     */
+    static AssertionInfoMapTemplate get(AssertionInfoMapTemplate cached, Policy p) {
+        if (p == null) {
+            return null;
+        }
+        if (cached != null && cached.source == p) {
+            return cached;
+        }
+        return new AssertionInfoMapTemplate(p);
+    }
+
+    static AssertionInfoMapTemplate getChosenAlternative(EffectivePolicy ep) {
+        if (ep instanceof EffectivePolicyImpl) {
+            return ((EffectivePolicyImpl)ep).getAssertionInfoMapTemplate();
+        }
+        return get(null, ep.getChosenAlternative());
+    }
+
+    static AssertionInfoMapTemplate getPolicy(EffectivePolicy ep) {
+        if (ep instanceof EffectivePolicyImpl) {
+            return ((EffectivePolicyImpl)ep).getPolicyAssertionInfoMapTemplate();
+        }
+        return get(null, ep.getPolicy());
+    }
+
+    static AssertionInfoMapTemplate getVocabulary(EndpointPolicy ep, Message m) {
+        if (ep instanceof EndpointPolicyImpl) {
+            return ((EndpointPolicyImpl)ep).getVocabularyTemplate(m);
+        }
+        return get(null, ep.getVocabulary(m));
+    }
+
+    static AssertionInfoMapTemplate getFaultVocabulary(EndpointPolicy ep, Message m) {
+        if (ep instanceof EndpointPolicyImpl) {
+            return ((EndpointPolicyImpl)ep).getFaultVocabularyTemplate(m);
+        }
+        return get(null, ep.getFaultVocabulary(m));
+    }
+
+    Collection<? extends Assertion> getAssertions() {
+        return assertions;
+    }
+
+    boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    QName getName(int i) {
+        return names[i];
+    }
+
+    Assertion[] getAssertions(int i) {
+        return slots[i];
+    }
+
+    AssertionInfoMap createAssertionInfoMap() {
+        return new AssertionInfoMap(this);
+    }
+}
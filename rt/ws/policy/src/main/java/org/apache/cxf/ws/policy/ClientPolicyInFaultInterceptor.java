@@ -20,7 +20,6 @@
 package org.apache.cxf.ws.policy;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,7 +34,6 @@ import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.Phase;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.Conduit;
-import org.apache.neethi.Assertion;
 import org.apache.neethi.Policy;
 
 /**
@@ -76,7 +74,7 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
         LOG.fine("conduit: " + conduit);
 
         List<Interceptor<? extends Message>> faultInterceptors = new ArrayList<>();
-        Collection<Assertion> assertions = new ArrayList<>();
+        AssertionInfoMapTemplate template = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -88,7 +86,7 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
                                   effectivePolicy.getPolicy());
 
             faultInterceptors.addAll(effectivePolicy.getInterceptors());
-            assertions.addAll(effectivePolicy.getChosenAlternative());
+            template = effectivePolicy.getAssertionInfoMapTemplate();
         } else {
             // 2. Process endpoint policy
             // We do not know the underlying message type yet - so we pre-emptively add interceptors
@@ -98,7 +96,7 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
             LOG.fine("ep: " + ep);
             if (ep != null) {
                 faultInterceptors.addAll(ep.getFaultInterceptors(msg));
-                assertions.addAll(ep.getFaultVocabulary(msg));
+                template = AssertionInfoMapTemplate.getFaultVocabulary(ep, msg);
             }
         }
 
@@ -110,8 +108,8 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
         }
 
         // insert assertions of endpoint's fault vocabulary into message
-        if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+        if (template != null && !template.isEmpty()) {
+            msg.put(AssertionInfoMap.class, template.createAssertionInfoMap());
         }
     }
 }
@@ -56,6 +56,8 @@ public class EffectivePolicyImpl implements EffectivePolicy {
     protected Policy policy;
     protected Collection<Assertion> chosenAlternative;
     protected List<Interceptor<? extends org.apache.cxf.message.Message>> interceptors;
+    private volatile AssertionInfoMapTemplate assertionInfoMapTemplate;
+    private volatile AssertionInfoMapTemplate policyAssertionInfoMapTemplate;
 
     public EffectivePolicyImpl() {
     }
@@ -72,6 +74,20 @@ public class EffectivePolicyImpl implements EffectivePolicy {
         return chosenAlternative;
     }
 
+    AssertionInfoMapTemplate getAssertionInfoMapTemplate() {
+        AssertionInfoMapTemplate template
+            = AssertionInfoMapTemplate.get(assertionInfoMapTemplate, chosenAlternative);
+        assertionInfoMapTemplate = template;
+        return template;
+    }
+
+    AssertionInfoMapTemplate getPolicyAssertionInfoMapTemplate() {
+        AssertionInfoMapTemplate template
+            = AssertionInfoMapTemplate.get(policyAssertionInfoMapTemplate, policy);
+        policyAssertionInfoMapTemplate = template;
+        return template;
+    }
+
     public void initialise(EndpointPolicy epi, PolicyEngine engine, boolean inbound, Message m) {
         initialise(epi, engine, inbound, false, m);
     }
@@ -53,6 +53,8 @@ public class EndpointPolicyImpl implements EndpointPolicy {
 
     private volatile Collection<Assertion> vocabulary;
     private Collection<Assertion> faultVocabulary;
+    private volatile AssertionInfoMapTemplate vocabularyTemplate;
+    private volatile AssertionInfoMapTemplate faultVocabularyTemplate;
     private volatile List<Interceptor<? extends Message>> interceptors;
     private List<Interceptor<? extends Message>> faultInterceptors;
 
@@ -122,6 +124,20 @@ public class EndpointPolicyImpl implements EndpointPolicy {
         return faultVocabulary;
     }
 
+    AssertionInfoMapTemplate getVocabularyTemplate(Message m) {
+        AssertionInfoMapTemplate template
+            = AssertionInfoMapTemplate.get(vocabularyTemplate, getVocabulary(m));
+        vocabularyTemplate = template;
+        return template;
+    }
+
+    AssertionInfoMapTemplate getFaultVocabularyTemplate(Message m) {
+        AssertionInfoMapTemplate template
+            = AssertionInfoMapTemplate.get(faultVocabularyTemplate, getFaultVocabulary(m));
+        faultVocabularyTemplate = template;
+        return template;
+    }
+
     public List<Interceptor<? extends Message>> getInterceptors(Message m) {
         if (interceptors == null) {
             initializeInterceptors(m);
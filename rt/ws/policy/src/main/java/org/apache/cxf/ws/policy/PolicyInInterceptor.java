@@ -20,7 +20,6 @@
 package org.apache.cxf.ws.policy;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,7 +36,6 @@ import org.apache.cxf.service.model.BindingOperationInfo;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.transport.Destination;
-import org.apache.neethi.Assertion;
 import org.apache.neethi.Policy;
 
 /**
@@ -68,7 +66,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
         }
 
         List<Interceptor<? extends Message>> interceptors = new ArrayList<>();
-        Collection<Assertion> assertions = new ArrayList<>();
+        AssertionInfoMapTemplate template = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -81,7 +79,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
                                   effectivePolicy.getPolicy());
 
             interceptors.addAll(effectivePolicy.getInterceptors());
-            assertions.addAll(effectivePolicy.getChosenAlternative());
+            template = effectivePolicy.getAssertionInfoMapTemplate();
         } else if (MessageUtils.isRequestor(msg)) {
             // 2. Process client policy
             BindingOperationInfo boi = exchange.getBindingOperationInfo();
@@ -90,7 +88,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
                 EndpointPolicy ep = pe.getClientEndpointPolicy(ei, conduit, msg);
                 if (ep != null) {
                     interceptors.addAll(ep.getInterceptors(msg));
-                    assertions.addAll(ep.getVocabulary(msg));
+                    template = AssertionInfoMapTemplate.getVocabulary(ep, msg);
                 }
             } else {
                 // We do not know the underlying message type yet - so we pre-emptively add interceptors
@@ -101,7 +99,8 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
                     interceptors.addAll(ep.getInterceptors());
                     // insert assertions of endpoint's vocabulary into message
                     if (ep.getPolicy() != null) {
-                        msg.put(AssertionInfoMap.class, new AssertionInfoMap(ep.getPolicy()));
+                        msg.put(AssertionInfoMap.class,
+                                AssertionInfoMapTemplate.getPolicy(ep).createAssertionInfoMap());
                         msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
                     }
                 }
@@ -116,7 +115,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
             EndpointPolicy ep = pe.getServerEndpointPolicy(ei, destination, msg);
             if (ep != null) {
                 interceptors.addAll(ep.getInterceptors(msg));
-                assertions.addAll(ep.getVocabulary(msg));
+                template = AssertionInfoMapTemplate.getVocabulary(ep, msg);
             }
         }
 
@@ -126,8 +125,8 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
         }
 
         // Insert assertions of endpoint's vocabulary into message
-        if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+        if (template != null && !template.isEmpty()) {
+            msg.put(AssertionInfoMap.class, template.createAssertionInfoMap());
             msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
         }
 
@@ -19,8 +19,6 @@
 
 package org.apache.cxf.ws.policy;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -76,7 +74,7 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
             return;
         }
 
-        Collection<Assertion> assertions = new ArrayList<>();
+        AssertionInfoMapTemplate template = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -89,7 +87,7 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
                                   effectivePolicy.getPolicy());
 
             addInterceptors(effectivePolicy.getInterceptors(), msg);
-            assertions.addAll(effectivePolicy.getChosenAlternative());
+            template = effectivePolicy.getAssertionInfoMapTemplate();
         } else if (MessageUtils.isRequestor(msg)) {
             // 2. Process client policy
             Conduit conduit = exchange.getConduit(msg);
@@ -102,7 +100,7 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
                     LOG, Level.FINEST, "Using effective policy: ", effectivePolicy.getPolicy()
                 );
                 addInterceptors(effectivePolicy.getInterceptors(), msg);
-                assertions.addAll(effectivePolicy.getChosenAlternative());
+                template = AssertionInfoMapTemplate.getChosenAlternative(effectivePolicy);
             }
         } else {
             // 3. Process server policy
@@ -117,23 +115,23 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
                     LOG, Level.FINEST, "Using effective policy: ", effectivePolicy.getPolicy()
                 );
                 addInterceptors(effectivePolicy.getInterceptors(), msg);
-                assertions.addAll(effectivePolicy.getChosenAlternative());
+                template = AssertionInfoMapTemplate.getChosenAlternative(effectivePolicy);
             }
         }
 
         // insert assertions of endpoint's fault vocabulary into message
-        if (!assertions.isEmpty()) {
+        if (template != null && !template.isEmpty()) {
             if (LOG.isLoggable(Level.FINEST)) {
                 StringBuilder buf = new StringBuilder();
                 buf.append("Chosen alternative: ");
                 String nl = SystemPropertyAction.getProperty("line.separator");
                 buf.append(nl);
-                for (Assertion a : assertions) {
+                for (Assertion a : template.getAssertions()) {
                     PolicyUtils.printPolicyComponent(a, buf, 1);
                 }
                 LOG.finest(buf.toString());
             }
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+            msg.put(AssertionInfoMap.class, template.createAssertionInfoMap());
             msg.getInterceptorChain().add(PolicyVerificationOutInterceptor.INSTANCE);
         }
     }
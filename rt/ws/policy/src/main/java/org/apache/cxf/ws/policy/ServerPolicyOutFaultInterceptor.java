@@ -20,7 +20,6 @@
 package org.apache.cxf.ws.policy;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -38,7 +37,6 @@ import org.apache.cxf.service.model.BindingFaultInfo;
 import org.apache.cxf.service.model.BindingOperationInfo;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.Destination;
-import org.apache.neethi.Assertion;
 import org.apache.neethi.Policy;
 
 /**
@@ -85,7 +83,7 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
         Exception ex = exchange.get(Exception.class);
 
         List<Interceptor<? extends Message>> faultInterceptors = new ArrayList<>();
-        Collection<Assertion> assertions = new ArrayList<>();
+        AssertionInfoMapTemplate template = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -97,7 +95,7 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
                                   effectivePolicy.getPolicy());
 
             faultInterceptors.addAll(effectivePolicy.getInterceptors());
-            assertions.addAll(effectivePolicy.getChosenAlternative());
+            template = effectivePolicy.getAssertionInfoMapTemplate();
         } else {
             // 2. Process effective server policy
             BindingFaultInfo bfi = getBindingFaultInfo(msg, ex, boi);
@@ -111,7 +109,7 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
             EffectivePolicy effectivePolicy = pe.getEffectiveServerFaultPolicy(ei, boi, bfi, destination, msg);
             if (effectivePolicy != null) {
                 faultInterceptors.addAll(effectivePolicy.getInterceptors());
-                assertions.addAll(effectivePolicy.getChosenAlternative());
+                template = AssertionInfoMapTemplate.getChosenAlternative(effectivePolicy);
             }
         }
 
@@ -122,8 +120,8 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
         }
 
         // insert assertions of the chosen alternative into the message
-        if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+        if (template != null && !template.isEmpty()) {
+            msg.put(AssertionInfoMap.class, template.createAssertionInfoMap());
         }
     }
 }
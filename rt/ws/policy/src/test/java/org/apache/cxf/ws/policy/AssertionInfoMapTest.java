@@ -221,4 +221,48 @@ public class AssertionInfoMapTest {
                    ais[0].getAssertion(), c);
 
     }
+
+    @Test
+    public void testTemplate() {
+        Policy nested = new Policy();
+        Assertion nb = new PrimitiveAssertion(new QName("http://x.y.z", "b"));
+        nested.addAssertion(nb);
+        Assertion a = new PrimitiveAssertion(new QName("http://x.y.z", "a"));
+        Assertion b = new PrimitiveAssertion(new QName("http://x.y.z", "b"));
+        Assertion c = new PolicyContainingPrimitiveAssertion(
+                               new QName("http://x.y.z", "c"), false, false, nested);
+        List<Assertion> assertions = new ArrayList<>();
+        assertions.add(a);
+        assertions.add(b);
+        assertions.add(c);
+        assertions.add(a);
+
+        EffectivePolicyImpl effectivePolicy = new EffectivePolicyImpl();
+        effectivePolicy.setChosenAlternative(assertions);
+        AssertionInfoMapTemplate template = effectivePolicy.getAssertionInfoMapTemplate();
+        assertSame(template, effectivePolicy.getAssertionInfoMapTemplate());
+
+        AssertionInfoMap expected = new AssertionInfoMap(assertions);
+        AssertionInfoMap aim1 = template.createAssertionInfoMap();
+        AssertionInfoMap aim2 = template.createAssertionInfoMap();
+        assertEquals(expected.keySet(), aim1.keySet());
+        for (QName name : expected.keySet()) {
+            List<Assertion> expectedAssertions = new ArrayList<>();
+            for (AssertionInfo ai : expected.get(name)) {
+                expectedAssertions.add(ai.getAssertion());
+            }
+            List<Assertion> actualAssertions = new ArrayList<>();
+            for (AssertionInfo ai : aim1.get(name)) {
+                actualAssertions.add(ai.getAssertion());
+            }
+            assertEquals(expectedAssertions, actualAssertions);
+        }
+
+        // the state of the assertions is not shared between the maps
+        aim1.getAssertionInfo(a.getName()).iterator().next().setAsserted(true);
+        assertFalse(aim2.getAssertionInfo(a.getName()).iterator().next().isAsserted());
+
+        effectivePolicy.setChosenAlternative(new ArrayList<>(assertions));
+        assertFalse(template == effectivePolicy.getAssertionInfoMapTemplate());
+    }
 }
@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.rm;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * A timer for the resends of the RetransmissionQueue. Unlike java.util.Timer, which keeps its tasks
+ * in a binary heap and runs them on its only thread, the tasks are put in the slot of a wheel
+ * matching the tick they are due in, so that scheduling and cancelling a task is done in constant
+ * time, and the tasks which are due are handed to a pool of worker threads. The timer thread is
+ * started when the first task is scheduled.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOG = LogUtils.getL7dLogger(HashedWheelTimer.class);
+
+    private final String name;
+    private final long tickDuration;
+    private final List<Timeout>[] wheel;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ExecutorService workers;
+    private volatile boolean stopped;
+    private volatile long startTime;
+    private Thread thread;
+
+    /**
+     * @param name the name of the timer thread
+     * @param tickDuration the duration of a tick in milliseconds
+     * @param wheelSize the number of slots of the wheel
+     * @param workerThreads the number of threads running the tasks, or 0 to run them on the timer thread
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String name, long tickDuration, int wheelSize, int workerThreads) {
+        if (tickDuration <= 0 || wheelSize <= 0 || workerThreads < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.name = name;
+        this.tickDuration = tickDuration;
+        wheel = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        if (workerThreads > 0) {
+            AtomicInteger count = new AtomicInteger();
+            workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), r -> {
+                    Thread t = new Thread(r, name + "-Worker-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        } else {
+            workers = null;
+        }
+    }
+
+    /**
+     * Schedules the task to run after the given delay.
+     *
+     * @param task the task
+     * @param delay the delay in milliseconds
+     * @return the handle to cancel the task
+     * @throws IllegalStateException if the timer has been stopped
+     */
+    public Timeout schedule(Runnable task, long delay) {
+        if (stopped) {
+            throw new IllegalStateException("Timer already stopped");
+        }
+        start();
+        Timeout timeout = new Timeout(task, System.currentTimeMillis() + Math.max(delay, 0L));
+        pendingCount.incrementAndGet();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return the number of scheduled tasks which have neither run nor been cancelled yet
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Stops the timer. The pending tasks do not run anymore.
+     */
+    public void stop() {
+        stopped = true;
+        Thread t;
+        synchronized (this) {
+            t = thread;
+        }
+        if (t != null) {
+            t.interrupt();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            startTime = System.currentTimeMillis();
+            synchronized (this) {
+                thread = new Thread(this::run, name);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long sleep = startTime + (tick + 1) * tickDuration - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ex) {
+                    if (stopped) {
+                        break;
+                    }
+                }
+                continue;
+            }
+            tick++;
+            transferNewTimeouts(tick);
+            expireTimeouts(wheel[(int)(tick % wheel.length)], tick);
+        }
+        for (List<Timeout> slot : wheel) {
+            slot.clear();
+        }
+        newTimeouts.clear();
+    }
+
+    private void transferNewTimeouts(long tick) {
+        for (Timeout timeout = newTimeouts.poll(); timeout != null; timeout = newTimeouts.poll()) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            // the tick at the end of which the task is due, but not one which has already passed
+            long due = Math.max((timeout.deadline - startTime + tickDuration - 1) / tickDuration, tick);
+            timeout.dueTick = due;
+            wheel[(int)(due % wheel.length)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> slot, long tick) {
+        for (Iterator<Timeout> it = slot.iterator(); it.hasNext();) {
+            Timeout timeout = it.next();
+            if (timeout.isCancelled()) {
+                it.remove();
+            } else if (timeout.dueTick <= tick) {
+                it.remove();
+                timeout.expire();
+            }
+        }
+    }
+
+    /**
+     * The handle of a scheduled task.
+     */
+    public final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private long dueTick;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                pendingCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            if (workers != null) {
+                try {
+                    workers.execute(this::runTask);
+                    return;
+                } catch (RejectedExecutionException ex) {
+                    if (stopped) {
+                        return;
+                    }
+                }
+            }
+            runTask();
+        }
+
+        private void runTask() {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOG.log(Level.WARNING, "Exception in task of timer " + name, t);
+            }
+        }
+    }
+}
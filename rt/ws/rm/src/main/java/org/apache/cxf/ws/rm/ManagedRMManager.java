@@ -78,6 +78,11 @@ public class ManagedRMManager implements ManagedComponent {
         return manager.getRetransmissionQueue().countUnacknowledged();
     }
 
+    @ManagedAttribute(description = "Total Number of Scheduled Outbound Resends", currencyTimeLimit = 10)
+    public int getScheduledResendsCount() {
+        return manager.getResendTimer().getPendingCount();
+    }
+
 
 //    @ManagedAttribute(description = "Total Number of Inbound Queued Messages", currencyTimeLimit = 10)
 //    public int getQueuedMessagesInboundCount() {
@@ -119,6 +119,10 @@ public class RMManager {
     private RedeliveryQueue redeliveryQueue;
     private Map<Endpoint, RMEndpoint> reliableEndpoints = new ConcurrentHashMap<>();
     private AtomicReference<Timer> timer = new AtomicReference<>();
+    private AtomicReference<HashedWheelTimer> resendTimer = new AtomicReference<>();
+    private long resendTimerTickDuration = 100L;
+    private int resendTimerWheelSize = 512;
+    private int resendThreadPoolSize = 1;
     private RMConfiguration configuration;
     private SourcePolicyType sourcePolicy;
     private DestinationPolicyType destinationPolicy;
@@ -220,6 +224,60 @@ public class RMManager {
         return getTimer(true);
     }
 
+    private HashedWheelTimer getResendTimer(boolean create) {
+        HashedWheelTimer ret = resendTimer.get();
+        if (ret == null && create) {
+            String name = "RMManager-ResendTimer-" + System.identityHashCode(this);
+            HashedWheelTimer newt = new HashedWheelTimer(name, resendTimerTickDuration, resendTimerWheelSize,
+                                                         resendThreadPoolSize);
+            if (!resendTimer.compareAndSet(null, newt)) {
+                newt.stop();
+            }
+        }
+        return resendTimer.get();
+    }
+
+    /**
+     * @return the timer scheduling the resends of the retransmission queue
+     */
+    public HashedWheelTimer getResendTimer() {
+        return getResendTimer(true);
+    }
+
+    public long getResendTimerTickDuration() {
+        return resendTimerTickDuration;
+    }
+
+    /**
+     * @param tickDuration the precision in milliseconds of the resend timer, 100 by default
+     */
+    public void setResendTimerTickDuration(long tickDuration) {
+        resendTimerTickDuration = tickDuration;
+    }
+
+    public int getResendTimerWheelSize() {
+        return resendTimerWheelSize;
+    }
+
+    /**
+     * @param wheelSize the number of slots of the resend timer, 512 by default
+     */
+    public void setResendTimerWheelSize(int wheelSize) {
+        resendTimerWheelSize = wheelSize;
+    }
+
+    public int getResendThreadPoolSize() {
+        return resendThreadPoolSize;
+    }
+
+    /**
+     * @param poolSize the number of threads initiating the resends which are due, 1 by default. With 0 the
+     * resends are initiated on the timer thread.
+     */
+    public void setResendThreadPoolSize(int poolSize) {
+        resendThreadPoolSize = poolSize;
+    }
+
     public BindingFaultFactory getBindingFaultFactory(Binding binding) {
         return new SoapFaultFactory(binding);
     }
@@ -528,6 +586,10 @@ public class RMManager {
             t.purge();
             t.cancel();
         }
+        HashedWheelTimer rt = getResendTimer(false);
+        if (rt != null) {
+            rt.stop();
+        }
 
         // unregistring of this managed bean from the server is done by the bus itself
     }
@@ -19,9 +19,11 @@
 
 package org.apache.cxf.ws.rm.persistence.jdbc;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -36,10 +38,16 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -194,6 +202,14 @@ public class RMTxStore implements RMStore {
     private String tableExistsState = DERBY_TABLE_EXISTS_STATE;
     private int tableExistsCode = ORACLE_TABLE_EXISTS_CODE;
 
+    // group commit of concurrent persistIncoming and persistOutgoing calls, disabled if the window is 0
+    private long groupCommitWindow;
+    private int groupCommitMaxSize = 64;
+    private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Lock groupCommitLock = new ReentrantLock();
+    private final AtomicInteger activeWriters = new AtomicInteger();
+    private final boolean writeMethodsOverridden = overridesWriteMethods(getClass());
+
     public RMTxStore() {
     }
 
@@ -308,6 +324,38 @@ public class RMTxStore implements RMStore {
         createdConnection = false;
     }
 
+    public long getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
+    /**
+     * Enables the group commit of the messages and sequence updates. Concurrent calls of persistIncoming
+     * and persistOutgoing are written with batched statements and committed in one transaction, a call
+     * returns once the transaction containing its data has been committed. When other writers are active,
+     * the transaction is delayed by up to the given number of milliseconds to let them join.
+     * Combined with a pooled DataSource and keepConnection set to false, the other operations of the store
+     * use the connections of the pool.
+     * <p>
+     * Subclasses overriding updateSourceSequence, updateDestinationSequence or storeMessage keep writing
+     * every call in its own transaction, so that their methods are used.
+     *
+     * @param groupCommitWindow the delay in milliseconds, 0 (the default) disables the group commit
+     */
+    public void setGroupCommitWindow(long groupCommitWindow) {
+        this.groupCommitWindow = groupCommitWindow;
+    }
+
+    public int getGroupCommitMaxSize() {
+        return groupCommitMaxSize;
+    }
+
+    /**
+     * @param groupCommitMaxSize the maximum number of persist calls committed in one transaction
+     */
+    public void setGroupCommitMaxSize(int groupCommitMaxSize) {
+        this.groupCommitMaxSize = groupCommitMaxSize;
+    }
+
     // RMStore interface
 
     public void createDestinationSequence(DestinationSequence seq) {
@@ -629,6 +677,10 @@ public class RMTxStore implements RMStore {
     }
 
     public void persistIncoming(DestinationSequence seq, RMMessage msg) {
+        if (groupCommitWindow > 0 && !writeMethodsOverridden) {
+            persistInGroup(seq, msg);
+            return;
+        }
         Connection con = verifyConnection();
         SQLException conex = null;
         try {
@@ -654,6 +706,10 @@ public class RMTxStore implements RMStore {
         }
     }
     public void persistOutgoing(SourceSequence seq, RMMessage msg) {
+        if (groupCommitWindow > 0 && !writeMethodsOverridden) {
+            persistInGroup(seq, msg);
+            return;
+        }
         Connection con = verifyConnection();
         SQLException conex = null;
         try {
@@ -706,6 +762,219 @@ public class RMTxStore implements RMStore {
         }
     }
 
+    private void persistInGroup(SourceSequence seq, RMMessage msg) {
+        PendingWrite write;
+        // queue the writes of a sequence in the order of the sequence state they contain
+        synchronized (seq) {
+            write = new PendingWrite(seq, msg);
+            pendingWrites.add(write);
+        }
+        persistInGroup(write);
+    }
+
+    private void persistInGroup(DestinationSequence seq, RMMessage msg) {
+        PendingWrite write;
+        synchronized (seq) {
+            write = new PendingWrite(seq, msg);
+            pendingWrites.add(write);
+        }
+        persistInGroup(write);
+    }
+
+    /**
+     * Waits until the queued write has been committed. The thread holding the group commit lock
+     * commits all the queued writes in one transaction, the others wait for the lock and return if their
+     * write has been committed in the meantime.
+     */
+    private void persistInGroup(PendingWrite write) {
+        activeWriters.incrementAndGet();
+        try {
+            while (!write.done) {
+                groupCommitLock.lock();
+                try {
+                    if (write.done) {
+                        break;
+                    }
+                    if (activeWriters.get() > 1 && pendingWrites.size() < groupCommitMaxSize) {
+                        // give the concurrent writers the chance to join this transaction
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(groupCommitWindow));
+                    }
+                    List<PendingWrite> writes = new ArrayList<>();
+                    for (PendingWrite w = pendingWrites.poll(); w != null; w = pendingWrites.poll()) {
+                        writes.add(w);
+                        if (writes.size() == groupCommitMaxSize) {
+                            break;
+                        }
+                    }
+                    RMStoreException error = null;
+                    boolean completed = false;
+                    try {
+                        error = commitGroup(writes);
+                        completed = true;
+                    } finally {
+                        for (PendingWrite w : writes) {
+                            w.error = completed ? error
+                                : new RMStoreException(new Message("GROUP_COMMIT_FAILED_MSG", LOG));
+                            w.done = true;
+                        }
+                    }
+                } finally {
+                    groupCommitLock.unlock();
+                }
+            }
+        } finally {
+            activeWriters.decrementAndGet();
+        }
+        if (write.error != null) {
+            // the exception is shared by the writes of the transaction
+            throw new RMStoreException(new Message("GROUP_COMMIT_FAILED_MSG", LOG), write.error);
+        }
+    }
+
+    private RMStoreException commitGroup(List<PendingWrite> writes) {
+        if (writes.isEmpty()) {
+            return null;
+        }
+        Connection con = verifyConnection();
+        if (con == null) {
+            return new RMStoreException(new Message("CONNECT_EXC", LOG));
+        }
+        RMStoreException error = null;
+        SQLException conex = null;
+        try {
+            beginTransaction();
+
+            storeGroup(con, writes);
+
+            commit(con);
+
+        } catch (SQLException ex) {
+            conex = ex;
+            abort(con);
+            error = new RMStoreException(ex);
+        } catch (IOException ex) {
+            abort(con);
+            error = new RMStoreException(ex);
+        } catch (RuntimeException ex) {
+            abort(con);
+            error = ex instanceof RMStoreException ? (RMStoreException)ex : new RMStoreException(ex);
+        } finally {
+            updateConnectionState(con, conex);
+        }
+        if (error == null && LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "Committed {0} writes in one transaction", writes.size());
+        }
+        return error;
+    }
+
+    private void storeGroup(Connection con, List<PendingWrite> writes) throws IOException, SQLException {
+        boolean batch = con.getMetaData().supportsBatchUpdates();
+        PreparedStatement[] stmts = new PreparedStatement[4];
+        List<InputStream> contents = new ArrayList<>();
+        try {
+            // only the most recent state of every sequence is written
+            Map<String, PendingWrite> updates = new LinkedHashMap<>();
+            for (PendingWrite w : writes) {
+                updates.merge((w.outbound ? "out:" : "in:") + w.sid.getValue(), w, PendingWrite::latest);
+            }
+            for (PendingWrite w : updates.values()) {
+                if (w.outbound) {
+                    PreparedStatement stmt = getGroupStatement(con, stmts, 0, UPDATE_SRC_SEQUENCE_STMT_STR);
+                    stmt.setLong(1, w.messageNr);
+                    stmt.setString(2, w.last ? "1" : "0");
+                    stmt.setString(3, w.sid.getValue());
+                    addToBatch(stmt, batch);
+                } else {
+                    PreparedStatement stmt = getGroupStatement(con, stmts, 1, UPDATE_DEST_SEQUENCE_STMT_STR);
+                    stmt.setLong(1, w.messageNr);
+                    stmt.setString(2, w.last ? "1" : "0");
+                    stmt.setBinaryStream(3, new ByteArrayInputStream(w.acknowledgement),
+                                         w.acknowledgement.length);
+                    stmt.setString(4, w.sid.getValue());
+                    addToBatch(stmt, batch);
+                }
+            }
+            for (PendingWrite w : writes) {
+                RMMessage msg = w.msg;
+                if (msg != null && msg.getContent() != null) {
+                    PreparedStatement stmt = w.outbound
+                        ? getGroupStatement(con, stmts, 2, CREATE_OUTBOUND_MESSAGE_STMT_STR)
+                        : getGroupStatement(con, stmts, 3, CREATE_INBOUND_MESSAGE_STMT_STR);
+                    InputStream msgin = msg.getContent().getInputStream();
+                    contents.add(msgin);
+                    stmt.setString(1, w.sid.getValue());
+                    stmt.setLong(2, msg.getMessageNumber());
+                    stmt.setString(3, msg.getTo());
+                    stmt.setLong(4, msg.getCreatedTime());
+                    stmt.setBinaryStream(5, msgin);
+                    stmt.setString(6, msg.getContentType());
+                    addToBatch(stmt, batch);
+                }
+            }
+            if (batch) {
+                for (PreparedStatement stmt : stmts) {
+                    if (stmt != null) {
+                        stmt.executeBatch();
+                    }
+                }
+            }
+        } finally {
+            for (InputStream in : contents) {
+                in.close();
+            }
+            for (PendingWrite w : writes) {
+                if (w.msg != null && w.msg.getContent() != null) {
+                    w.msg.getContent().close();
+                }
+            }
+            for (PreparedStatement stmt : stmts) {
+                if (stmt != null) {
+                    if (batch) {
+                        try {
+                            stmt.clearBatch();
+                        } catch (SQLException ex) {
+                            // ignore
+                        }
+                    }
+                    releaseResources(stmt, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * The batched statements of the group commit replace the methods writing the sequences and messages,
+     * so it is not used when a subclass overrides one of them.
+     */
+    private static boolean overridesWriteMethods(Class<?> cls) {
+        for (Class<?> c = cls; c != null && c != RMTxStore.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                String name = m.getName();
+                if ("updateSourceSequence".equals(name) || "updateDestinationSequence".equals(name)
+                    || "storeMessage".equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private PreparedStatement getGroupStatement(Connection con, PreparedStatement[] stmts, int i, String sql)
+        throws SQLException {
+        if (stmts[i] == null) {
+            stmts[i] = getStatement(con, sql);
+        }
+        return stmts[i];
+    }
+
+    private static void addToBatch(PreparedStatement stmt, boolean batch) throws SQLException {
+        if (batch) {
+            stmt.addBatch();
+        } else {
+            stmt.execute();
+        }
+    }
+
     // transaction demarcation
     //
 
@@ -1243,4 +1512,65 @@ public class RMTxStore implements RMStore {
         // check for a transient or non-transient connection exception
         return ex.getSQLState() != null && ex.getSQLState().startsWith("08");
     }
+
+    /**
+     * A write of persistIncoming or persistOutgoing waiting for the group commit. The state of the
+     * sequence is taken when the write is queued, while holding the lock of the sequence, so the writes
+     * of a sequence are queued in the order of their state.
+     */
+    private static final class PendingWrite {
+        private final boolean outbound;
+        private final Identifier sid;
+        private final long messageNr;
+        private final boolean last;
+        private final byte[] acknowledgement;
+        private final RMMessage msg;
+        private volatile boolean done;
+        private RMStoreException error;
+
+        PendingWrite(SourceSequence seq, RMMessage msg) {
+            outbound = true;
+            sid = seq.getIdentifier();
+            messageNr = seq.getCurrentMessageNr();
+            last = seq.isLastMessage();
+            acknowledgement = null;
+            this.msg = msg;
+        }
+
+        PendingWrite(DestinationSequence seq, RMMessage msg) {
+            outbound = false;
+            messageNr = seq.getLastMessageNumber();
+            last = seq.isTerminated();
+            PersistenceUtils utils = PersistenceUtils.getInstance();
+            try (InputStream is = utils.serialiseAcknowledgment(seq.getAcknowledgment())) {
+                acknowledgement = IOUtils.readBytesFromStream(is);
+            } catch (IOException ex) {
+                throw new RMStoreException(ex);
+            }
+            sid = seq.getIdentifier();
+            this.msg = msg;
+        }
+
+        /**
+         * Returns the more recent of the sequence states of two writes of the same sequence. The message
+         * number and the last message or terminated flag never go backwards, even if the writes were
+         * not queued in order.
+         */
+        static PendingWrite latest(PendingWrite earlier, PendingWrite later) {
+            if (later.messageNr >= earlier.messageNr && (later.last || !earlier.last)) {
+                return later;
+            }
+            return new PendingWrite(later, Math.max(earlier.messageNr, later.messageNr),
+                                    earlier.last || later.last);
+        }
+
+        private PendingWrite(PendingWrite state, long messageNr, boolean last) {
+            outbound = state.outbound;
+            sid = state.sid;
+            this.messageNr = messageNr;
+            this.last = last;
+            acknowledgement = state.acknowledgement;
+            msg = null;
+        }
+    }
 }
@@ -32,9 +32,10 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -83,6 +84,7 @@ import org.apache.cxf.ws.addressing.EndpointReferenceType;
 import org.apache.cxf.ws.addressing.soap.MAPCodec;
 import org.apache.cxf.ws.policy.AssertionInfo;
 import org.apache.cxf.ws.policy.builder.jaxb.JaxbAssertion;
+import org.apache.cxf.ws.rm.HashedWheelTimer;
 import org.apache.cxf.ws.rm.ProtocolVariation;
 import org.apache.cxf.ws.rm.RMCaptureOutInterceptor;
 import org.apache.cxf.ws.rm.RMConfiguration;
@@ -103,20 +105,21 @@ import org.apache.cxf.ws.rm.v200702.SequenceType;
 import org.apache.cxf.ws.rmp.v200502.RMAssertion;
 
 /**
- *
+ * The list of the candidates of a sequence is the lock for the candidates of that sequence, a
+ * sequence is suspended and resumed by moving its list between the candidates maps while holding it.
  */
 public class RetransmissionQueueImpl implements RetransmissionQueue {
 
     private static final Logger LOG = LogUtils.getL7dLogger(RetransmissionQueueImpl.class);
 
     private Map<String, List<ResendCandidate>> candidates =
-        new HashMap<>();
+        new ConcurrentHashMap<>();
     private Map<String, List<ResendCandidate>> suspendedCandidates =
-        new HashMap<>();
+        new ConcurrentHashMap<>();
     private Resender resender;
     private RMManager manager;
 
-    private int unacknowledgedCount;
+    private final AtomicInteger unacknowledgedCount = new AtomicInteger();
 
     public RetransmissionQueueImpl(RMManager m) {
         manager = m;
@@ -138,13 +141,18 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
      * @param seq the sequence under consideration
      * @return the number of unacknowledged messages for that sequence
      */
-    public synchronized int countUnacknowledged(SourceSequence seq) {
+    public int countUnacknowledged(SourceSequence seq) {
         List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
-        return sequenceCandidates == null ? 0 : sequenceCandidates.size();
+        if (sequenceCandidates == null) {
+            return 0;
+        }
+        synchronized (sequenceCandidates) {
+            return sequenceCandidates.size();
+        }
     }
 
     public int countUnacknowledged() {
-        return unacknowledgedCount;
+        return unacknowledgedCount.get();
     }
 
     /**
@@ -178,27 +186,27 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         Collection<Long> purged = new ArrayList<>();
         Collection<ResendCandidate> resends = new ArrayList<>();
         Identifier sid = seq.getIdentifier();
-        synchronized (this) {
-            LOG.fine("Start purging resend candidates.");
-            List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
-            if (null != sequenceCandidates) {
+        LOG.fine("Start purging resend candidates.");
+        List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
+        if (null != sequenceCandidates) {
+            synchronized (sequenceCandidates) {
                 for (int i = sequenceCandidates.size() - 1; i >= 0; i--) {
                     ResendCandidate candidate = sequenceCandidates.get(i);
                     long m = candidate.getNumber();
                     if (any || seq.isAcknowledged(m)) {
                         sequenceCandidates.remove(i);
                         candidate.resolved();
-                        unacknowledgedCount--;
+                        unacknowledgedCount.decrementAndGet();
                         purged.add(m);
                         resends.add(candidate);
                     }
                 }
                 if (sequenceCandidates.isEmpty()) {
-                    candidates.remove(sid.getValue());
+                    candidates.remove(sid.getValue(), sequenceCandidates);
                 }
             }
-            LOG.fine("Completed purging resend candidates.");
         }
+        LOG.fine("Completed purging resend candidates.");
         if (!purged.isEmpty()) {
             RMStore store = manager.getStore();
             if (null != store) {
@@ -215,9 +223,11 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         List<Long> unacknowledged = new ArrayList<>();
         List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
         if (null != sequenceCandidates) {
-            for (int i = 0; i < sequenceCandidates.size(); i++) {
-                ResendCandidate candidate = sequenceCandidates.get(i);
-                unacknowledged.add(candidate.getNumber());
+            synchronized (sequenceCandidates) {
+                for (int i = 0; i < sequenceCandidates.size(); i++) {
+                    ResendCandidate candidate = sequenceCandidates.get(i);
+                    unacknowledged.add(candidate.getNumber());
+                }
             }
         }
         return unacknowledged;
@@ -226,10 +236,12 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
     public RetryStatus getRetransmissionStatus(SourceSequence seq, long num) {
         List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
         if (null != sequenceCandidates) {
-            for (int i = 0; i < sequenceCandidates.size(); i++) {
-                ResendCandidate candidate = sequenceCandidates.get(i);
-                if (num == candidate.getNumber()) {
-                    return candidate;
+            synchronized (sequenceCandidates) {
+                for (int i = 0; i < sequenceCandidates.size(); i++) {
+                    ResendCandidate candidate = sequenceCandidates.get(i);
+                    if (num == candidate.getNumber()) {
+                        return candidate;
+                    }
                 }
             }
         }
@@ -240,9 +252,11 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         Map<Long, RetryStatus> cp = new HashMap<>();
         List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
         if (null != sequenceCandidates) {
-            for (int i = 0; i < sequenceCandidates.size(); i++) {
-                ResendCandidate candidate = sequenceCandidates.get(i);
-                cp.put(candidate.getNumber(), candidate);
+            synchronized (sequenceCandidates) {
+                for (int i = 0; i < sequenceCandidates.size(); i++) {
+                    ResendCandidate candidate = sequenceCandidates.get(i);
+                    cp.put(candidate.getNumber(), candidate);
+                }
             }
         }
         return cp;
@@ -266,15 +280,15 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
      * Stops resending messages for the specified source sequence.
      */
     public void stop(SourceSequence seq) {
-        synchronized (this) {
-            List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
-            if (null != sequenceCandidates) {
+        List<ResendCandidate> sequenceCandidates = getSequenceCandidates(seq);
+        if (null != sequenceCandidates) {
+            synchronized (sequenceCandidates) {
                 for (int i = sequenceCandidates.size() - 1; i >= 0; i--) {
                     ResendCandidate candidate = sequenceCandidates.get(i);
                     candidate.cancel();
                 }
-                LOG.log(Level.FINE, "Cancelled resends for sequence {0}.", seq.getIdentifier().getValue());
             }
+            LOG.log(Level.FINE, "Cancelled resends for sequence {0}.", seq.getIdentifier().getValue());
         }
     }
 
@@ -283,32 +297,40 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
     }
 
     public void suspend(SourceSequence seq) {
-        synchronized (this) {
-            String key = seq.getIdentifier().getValue();
-            List<ResendCandidate> sequenceCandidates = candidates.remove(key);
-            if (null != sequenceCandidates) {
+        String key = seq.getIdentifier().getValue();
+        List<ResendCandidate> sequenceCandidates = candidates.get(key);
+        if (null != sequenceCandidates) {
+            synchronized (sequenceCandidates) {
+                if (candidates.get(key) != sequenceCandidates) {
+                    return;
+                }
                 for (int i = sequenceCandidates.size() - 1; i >= 0; i--) {
                     ResendCandidate candidate = sequenceCandidates.get(i);
                     candidate.suspend();
                 }
                 suspendedCandidates.put(key, sequenceCandidates);
-                LOG.log(Level.FINE, "Suspended resends for sequence {0}.", key);
+                candidates.remove(key, sequenceCandidates);
             }
+            LOG.log(Level.FINE, "Suspended resends for sequence {0}.", key);
         }
     }
 
     public void resume(SourceSequence seq) {
-        synchronized (this) {
-            String key = seq.getIdentifier().getValue();
-            List<ResendCandidate> sequenceCandidates = suspendedCandidates.remove(key);
-            if (null != sequenceCandidates) {
+        String key = seq.getIdentifier().getValue();
+        List<ResendCandidate> sequenceCandidates = suspendedCandidates.get(key);
+        if (null != sequenceCandidates) {
+            synchronized (sequenceCandidates) {
+                if (suspendedCandidates.get(key) != sequenceCandidates) {
+                    return;
+                }
                 for (int i = 0; i < sequenceCandidates.size(); i++) {
                     ResendCandidate candidate = sequenceCandidates.get(i);
                     candidate.resume();
                 }
                 candidates.put(key, sequenceCandidates);
-                LOG.log(Level.FINE, "Resumed resends for sequence {0}.", key);
+                suspendedCandidates.remove(key, sequenceCandidates);
             }
+            LOG.log(Level.FINE, "Resumed resends for sequence {0}.", key);
         }
     }
 
@@ -341,18 +363,28 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
 
         ResendCandidate candidate = null;
 
-        synchronized (this) {
+        while (candidate == null) {
             List<ResendCandidate> sequenceCandidates = getSequenceCandidates(key);
             if (null == sequenceCandidates) {
                 sequenceCandidates = new ArrayList<>();
-                candidates.put(key, sequenceCandidates);
+                List<ResendCandidate> existing = candidates.putIfAbsent(key, sequenceCandidates);
+                if (existing != null) {
+                    sequenceCandidates = existing;
+                }
             }
-            candidate = createResendCandidate(message);
-            if (isSequenceSuspended(key)) {
-                candidate.suspend();
+            synchronized (sequenceCandidates) {
+                // the list may have been purged or moved in the meantime
+                if (getSequenceCandidates(key) == sequenceCandidates) {
+                    candidate = createResendCandidate(message);
+                    if (isSequenceSuspended(key)) {
+                        candidate.suspend();
+                    }
+                    sequenceCandidates.add(candidate);
+                    unacknowledgedCount.incrementAndGet();
+                } else if (sequenceCandidates.isEmpty()) {
+                    candidates.remove(key, sequenceCandidates);
+                }
             }
-            sequenceCandidates.add(candidate);
-            unacknowledgedCount++;
         }
         LOG.fine("Cached unacknowledged message.");
         try {
@@ -375,7 +407,6 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
     /**
      * @param seq the sequence under consideration
      * @return the list of resend candidates for that sequence
-     * @pre called with mutex held
      */
     protected List<ResendCandidate> getSequenceCandidates(SourceSequence seq) {
         return getSequenceCandidates(seq.getIdentifier().getValue());
@@ -384,12 +415,12 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
     /**
      * @param key the sequence identifier under consideration
      * @return the list of resend candidates for that sequence
-     * @pre called with mutex held
      */
     protected List<ResendCandidate> getSequenceCandidates(String key) {
-        List<ResendCandidate> sc = candidates.get(key);
+        // a list being suspended or resumed is in both maps for a moment, a suspended one wins
+        List<ResendCandidate> sc = suspendedCandidates.get(key);
         if (null == sc) {
-            sc = suspendedCandidates.get(key);
+            sc = candidates.get(key);
         }
         return sc;
     }
@@ -397,7 +428,7 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
     /**
      * @param key the sequence identifier under consideration
      * @return true if the sequence is currently suspended; false otherwise
-     * @pre called with mutex held
+     * @pre called with the lock of the candidates of the sequence held
      */
     protected boolean isSequenceSuspended(String key) {
         return suspendedCandidates.containsKey(key);
@@ -410,7 +441,7 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         private Message message;
         private long number;
         private Date next;
-        private TimerTask nextTask;
+        private HashedWheelTimer.Timeout nextTask;
         private int retries;
         private int maxRetries;
         private long nextInterval;
@@ -449,7 +480,7 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
             if (null != rmprops) {
                 number = rmprops.getSequence().getMessageNumber();
             }
-            if (null != manager.getTimer() && maxRetries != 0) {
+            if (null != manager.getResendTimer() && maxRetries != 0) {
                 schedule();
             }
         }
@@ -630,26 +661,17 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         }
 
         protected final synchronized void schedule() {
-            if (null == manager.getTimer()) {
+            HashedWheelTimer timer = manager.getResendTimer();
+            if (null == timer) {
                 return;
             }
-            class ResendTask extends TimerTask {
-                ResendCandidate candidate;
-
-                ResendTask(ResendCandidate c) {
-                    candidate = c;
+            Runnable task = () -> {
+                if (!isPending()) {
+                    initiate(includeAckRequested);
                 }
-
-                @Override
-                public void run() {
-                    if (!candidate.isPending()) {
-                        candidate.initiate(includeAckRequested);
-                    }
-                }
-            }
-            nextTask = new ResendTask(this);
+            };
             try {
-                manager.getTimer().schedule(nextTask, next);
+                nextTask = timer.schedule(task, next.getTime() - System.currentTimeMillis());
             } catch (IllegalStateException ex) {
                 LOG.log(Level.WARNING, "SCHEDULE_RESEND_FAILED_MSG", ex);
             }
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.rm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void testTasksRunWhenDue() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("test", 10L, 8, 2);
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            long start = System.currentTimeMillis();
+            // the second task is due after more than one round of the wheel
+            timer.schedule(latch::countDown, 50L);
+            HashedWheelTimer.Timeout timeout = timer.schedule(latch::countDown, 200L);
+            assertEquals(2, timer.getPendingCount());
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(System.currentTimeMillis() - start >= 200L);
+            assertTrue(timeout.isExpired());
+            assertEquals(0, timer.getPendingCount());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("test", 10L, 8, 0);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            HashedWheelTimer.Timeout timeout = timer.schedule(count::incrementAndGet, 50L);
+            assertTrue(timeout.cancel());
+            assertFalse(timeout.cancel());
+            assertEquals(0, timer.getPendingCount());
+
+            CountDownLatch latch = new CountDownLatch(1);
+            timer.schedule(latch::countDown, 100L);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, count.get());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void testScheduleAfterStop() {
+        HashedWheelTimer timer = new HashedWheelTimer("test", 10L, 8, 1);
+        timer.stop();
+        try {
+            timer.schedule(() -> { }, 10L);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+}
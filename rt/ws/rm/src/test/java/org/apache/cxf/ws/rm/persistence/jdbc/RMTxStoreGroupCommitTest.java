@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.rm.persistence.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.ws.rm.ProtocolVariation;
+import org.apache.cxf.ws.rm.SourceSequence;
+import org.apache.cxf.ws.rm.persistence.RMMessage;
+import org.apache.cxf.ws.rm.v200702.Identifier;
+import org.apache.derby.jdbc.EmbeddedConnectionPoolDataSource;
+
+import org.easymock.EasyMock;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the store tests with the group commit enabled.
+ */
+public class RMTxStoreGroupCommitTest extends RMTxStoreTestBase {
+    private static EmbeddedConnectionPoolDataSource ds;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        RMTxStoreTestBase.setUpOnce();
+
+        RMTxStore.deleteDatabaseFiles("rmdbgc", true);
+
+        ds = new EmbeddedConnectionPoolDataSource();
+        ds.setDatabaseName("rmdbgc");
+        ds.setCreateDatabase("create");
+
+        store = new RMTxStore();
+        store.setDataSource(ds);
+        store.setKeepConnection(false);
+        store.setGroupCommitWindow(5L);
+        store.init();
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        RMTxStore.deleteDatabaseFiles("rmdbgc", false);
+    }
+
+    @Test
+    public void testConcurrentPersistOutgoing() throws Exception {
+        Identifier sid = new Identifier();
+        sid.setValue("groupsequence");
+        SourceSequence seq = control.createMock(SourceSequence.class);
+        EasyMock.expect(seq.getIdentifier()).andReturn(sid).anyTimes();
+        EasyMock.expect(seq.getEndpointIdentifier()).andReturn(CLIENT_ENDPOINT_ID).anyTimes();
+        EasyMock.expect(seq.getProtocol()).andReturn(ProtocolVariation.RM10WSA200408).anyTimes();
+        // every persist call sees a higher message number, like concurrent senders of the sequence
+        AtomicLong currentMessageNr = new AtomicLong();
+        EasyMock.expect(seq.getCurrentMessageNr()).andAnswer(currentMessageNr::incrementAndGet).anyTimes();
+        control.replay();
+        store.createSourceSequence(seq);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Long> msgNrs = new ArrayList<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long i = 1; i <= 20; i++) {
+                final RMMessage msg = createMessage(i);
+                msgNrs.add(i);
+                futures.add(executor.submit(() -> {
+                    store.persistOutgoing(seq, msg);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            Collection<RMMessage> msgs = store.getMessages(sid, true);
+            assertEquals(20, msgs.size());
+            boolean found = false;
+            for (SourceSequence s : store.getSourceSequences(CLIENT_ENDPOINT_ID)) {
+                if ("groupsequence".equals(s.getIdentifier().getValue())) {
+                    assertEquals(currentMessageNr.get(), s.getCurrentMessageNr());
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        } finally {
+            executor.shutdownNow();
+            store.removeMessages(sid, msgNrs, true);
+            store.removeSourceSequence(sid);
+        }
+    }
+
+    @Test
+    public void testOverriddenStoreMessageUsed() throws Exception {
+        final AtomicInteger stored = new AtomicInteger();
+        RMTxStore customStore = new RMTxStore() {
+            @Override
+            protected void storeMessage(Connection con, Identifier sid, RMMessage msg, boolean outbound)
+                throws IOException, SQLException {
+                stored.incrementAndGet();
+                super.storeMessage(con, sid, msg, outbound);
+            }
+        };
+        customStore.setDataSource(ds);
+        customStore.setKeepConnection(false);
+        customStore.setGroupCommitWindow(5L);
+        customStore.init();
+
+        Identifier sid = new Identifier();
+        sid.setValue("customsequence");
+        SourceSequence seq = control.createMock(SourceSequence.class);
+        EasyMock.expect(seq.getIdentifier()).andReturn(sid).anyTimes();
+        EasyMock.expect(seq.getEndpointIdentifier()).andReturn(CLIENT_ENDPOINT_ID).anyTimes();
+        EasyMock.expect(seq.getProtocol()).andReturn(ProtocolVariation.RM10WSA200408).anyTimes();
+        EasyMock.expect(seq.getCurrentMessageNr()).andReturn(1L).anyTimes();
+        control.replay();
+        customStore.createSourceSequence(seq);
+        try {
+            customStore.persistOutgoing(seq, createMessage(1L));
+            assertEquals(1, stored.get());
+            assertEquals(1, customStore.getMessages(sid, true).size());
+        } finally {
+            customStore.removeMessages(sid, Collections.singletonList(1L), true);
+            customStore.removeSourceSequence(sid);
+        }
+    }
+
+    private static RMMessage createMessage(long mn) throws Exception {
+        RMMessage msg = new RMMessage();
+        msg.setMessageNumber(mn);
+        msg.setCreatedTime(System.currentTimeMillis());
+        msg.setContentType("text/xml");
+        CachedOutputStream cos = new CachedOutputStream();
+        IOUtils.copy(new ByteArrayInputStream(("Message " + mn).getBytes()), cos);
+        cos.flush();
+        msg.setContent(cos);
+        return msg;
+    }
+
+    @Override
+    protected Connection getConnection() {
+        return store.verifyConnection();
+    }
+
+    @Override
+    protected void releaseConnection(Connection con) {
+        if (con != null) {
+            try {
+                con.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -224,6 +224,13 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
     public static final String CACHE_CONFIG_FILE =
         "ws-security.cache.config.file";
 
+    /**
+     * Whether to use the built-in in-memory ReplayCache and TokenStore implementations even if EH-Cache
+     * is available. The in-memory implementations are used anyway if EH-Cache is not available. The default
+     * is "false".
+     */
+    public static final String USE_MEMORY_CACHE = "ws-security.cache.memory";
+
     /**
      * The TokenStore instance to use to cache security tokens. By default this uses the
      * EHCacheTokenStore if EhCache is available. Otherwise it uses the MemoryTokenStore.
@@ -421,7 +428,7 @@ public final class SecurityConstants extends org.apache.cxf.rt.security.Security
             ACTOR, VALIDATE_TOKEN, ALWAYS_ENCRYPT_UT, IS_BSP_COMPLIANT, ENABLE_NONCE_CACHE,
             ENABLE_TIMESTAMP_CACHE, TIMESTAMP_TTL, TIMESTAMP_FUTURE_TTL,
             KERBEROS_CLIENT, SPNEGO_CLIENT_ACTION, KERBEROS_JAAS_CONTEXT_NAME, KERBEROS_SPN,
-            NONCE_CACHE_INSTANCE, TIMESTAMP_CACHE_INSTANCE, CACHE_CONFIG_FILE,
+            NONCE_CACHE_INSTANCE, TIMESTAMP_CACHE_INSTANCE, CACHE_CONFIG_FILE, USE_MEMORY_CACHE,
             TOKEN_STORE_CACHE_INSTANCE, USERNAME_TOKEN_VALIDATOR, SAML1_TOKEN_VALIDATOR,
             SAML2_TOKEN_VALIDATOR, TIMESTAMP_TOKEN_VALIDATOR, SIGNATURE_TOKEN_VALIDATOR,
             BST_TOKEN_VALIDATOR, SCT_TOKEN_VALIDATOR, TOKEN, TOKEN_ID, SUBJECT_ROLE_CLASSIFIER,
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.cache;
+
+import java.time.Instant;
+
+import org.apache.wss4j.common.cache.ReplayCache;
+
+/**
+ * An in-memory ReplayCache which does not need EH-Cache, see {@link ExpiringCache}. The default TTL
+ * is 60 minutes and the max TTL is 12 hours.
+ */
+public class CXFMemoryReplayCache implements ReplayCache {
+    public static final long DEFAULT_TTL = 3600L;
+    public static final long MAX_TTL = DEFAULT_TTL * 12L;
+
+    private final ExpiringCache<Boolean> cache = new ExpiringCache<>();
+
+    /**
+     * Add the given identifier to the cache. It will be cached for a default amount of time.
+     * @param identifier The identifier to be added
+     */
+    public void add(String identifier) {
+        add(identifier, null);
+    }
+
+    /**
+     * Add the given identifier to the cache to be cached for the given time
+     * @param identifier The identifier to be added
+     * @param expiry A custom expiry time for the identifier. Can be null in which case, the default expiry is used.
+     */
+    public void add(String identifier, Instant expiry) {
+        if (identifier == null || identifier.isEmpty()) {
+            return;
+        }
+        cache.expireEntries();
+
+        Instant now = Instant.now();
+        Instant maxExpiry = now.plusSeconds(MAX_TTL);
+        if (expiry == null || expiry.isBefore(now) || expiry.isAfter(maxExpiry)) {
+            expiry = now.plusSeconds(DEFAULT_TTL);
+        }
+        cache.put(identifier, Boolean.TRUE, expiry.toEpochMilli());
+    }
+
+    /**
+     * Return true if the given identifier is contained in the cache
+     * @param identifier The identifier to check
+     */
+    public boolean contains(String identifier) {
+        cache.expireEntries();
+        return identifier != null && cache.containsKey(identifier);
+    }
+
+    public void close() {
+        cache.clear();
+    }
+}
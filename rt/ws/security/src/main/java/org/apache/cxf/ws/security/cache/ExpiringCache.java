@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.cache;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent map whose entries expire at a given time, used by the in-memory ReplayCache and
+ * TokenStore implementations. Besides the map, every entry is put in the slot of a timing wheel
+ * matching the second it expires in. Expiring entries only visits the slots of the seconds which
+ * have passed since the last call, so neither adding nor expiring entries has to go through the
+ * whole map or take a lock other than the ones of the concurrent collections. Removed and replaced
+ * entries are taken out of their slot straight away, so they are not kept until they would expire.
+ */
+public class ExpiringCache<V> {
+    private static final long TICK_MILLIS = 1000L;
+    private static final int WHEEL_SIZE = 512;
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Set<Entry<V>>[] wheel;
+    private final AtomicLong lastExpiredTick;
+
+    @SuppressWarnings("unchecked")
+    public ExpiringCache() {
+        wheel = new Set[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        lastExpiredTick = new AtomicLong(System.currentTimeMillis() / TICK_MILLIS);
+    }
+
+    /**
+     * Adds the value, replacing an existing one, until the given time in milliseconds.
+     */
+    public void put(String key, V value, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            unlink(entries.remove(key));
+            return;
+        }
+        // an entry in a slot is expired once the slot is reached in the round it was added for
+        Entry<V> entry = new Entry<>(key, value, expiresAt, slot(expiresAt / TICK_MILLIS + 1));
+        // added to its slot first so that a concurrent remove finds it there
+        wheel[entry.slot].add(entry);
+        unlink(entries.put(key, entry));
+    }
+
+    /**
+     * Returns the value if it has not expired yet.
+     */
+    public V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                unlink(entry);
+            }
+            return null;
+        }
+        return entry.value;
+    }
+
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    public void remove(String key) {
+        unlink(entries.remove(key));
+    }
+
+    public Set<String> keySet() {
+        return entries.keySet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        for (Set<Entry<V>> slot : wheel) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * Removes the entries which have expired since the last call. Only one of the threads calling it
+     * concurrently does the work, the others return immediately.
+     */
+    public void expireEntries() {
+        long now = System.currentTimeMillis();
+        long tick = now / TICK_MILLIS;
+        long lastTick = lastExpiredTick.get();
+        if (tick <= lastTick || !lastExpiredTick.compareAndSet(lastTick, tick)) {
+            return;
+        }
+        for (long t = Math.max(lastTick + 1, tick - WHEEL_SIZE + 1); t <= tick; t++) {
+            for (Iterator<Entry<V>> it = wheel[slot(t)].iterator(); it.hasNext();) {
+                Entry<V> entry = it.next();
+                if (entry.expiresAt <= now) {
+                    it.remove();
+                    // the key may have been added again since
+                    entries.remove(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries waiting in the slots of the timing wheel.
+     */
+    int getWheelSize() {
+        int size = 0;
+        for (Set<Entry<V>> slot : wheel) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private void unlink(Entry<V> entry) {
+        if (entry != null) {
+            wheel[entry.slot].remove(entry);
+        }
+    }
+
+    private static int slot(long tick) {
+        return (int)(tick % WHEEL_SIZE);
+    }
+
+    private static final class Entry<V> {
+        private final String key;
+        private final V value;
+        private final long expiresAt;
+        private final int slot;
+
+        Entry(String key, V value, long expiresAt, int slot) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.slot = slot;
+        }
+    }
+}
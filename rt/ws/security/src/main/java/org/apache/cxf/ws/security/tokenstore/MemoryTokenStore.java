@@ -19,32 +19,31 @@
 
 package org.apache.cxf.ws.security.tokenstore;
 
-import java.time.Instant;
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.ws.security.cache.ExpiringCache;
 
 /**
- * A simple HashMap-based TokenStore. The default TTL is 5 minutes and the max TTL is 1 hour.
+ * A simple in-memory TokenStore, see {@link ExpiringCache}. The default TTL is 5 minutes and the max TTL
+ * is 1 hour.
  */
 public class MemoryTokenStore implements TokenStore {
     public static final long DEFAULT_TTL = 60L * 5L;
     public static final long MAX_TTL = DEFAULT_TTL * 12L;
 
-    private Map<String, CacheEntry> tokens = new ConcurrentHashMap<>();
+    private final ExpiringCache<SecurityToken> tokens = new ExpiringCache<>();
     private long ttl = DEFAULT_TTL;
 
     public void add(SecurityToken token) {
         if (token != null && !StringUtils.isEmpty(token.getId())) {
-            tokens.put(token.getId(), createCacheEntry(token));
+            tokens.put(token.getId(), token, getExpiry());
         }
     }
 
     public void add(String identifier, SecurityToken token) {
         if (token != null && !StringUtils.isEmpty(identifier)) {
-            tokens.put(identifier, createCacheEntry(token));
+            tokens.put(identifier, token, getExpiry());
         }
     }
 
@@ -57,7 +56,7 @@ public class MemoryTokenStore implements TokenStore {
     }
 
     public void remove(String identifier) {
-        if (!StringUtils.isEmpty(identifier) && tokens.containsKey(identifier)) {
+        if (!StringUtils.isEmpty(identifier)) {
             tokens.remove(identifier);
         }
     }
@@ -69,56 +68,15 @@ public class MemoryTokenStore implements TokenStore {
 
     public SecurityToken getToken(String id) {
         processTokenExpiry();
-
-        CacheEntry cacheEntry = tokens.get(id);
-        if (cacheEntry != null) {
-            return cacheEntry.getSecurityToken();
-        }
-        return null;
+        return tokens.get(id);
     }
 
     protected void processTokenExpiry() {
-        Instant current = Instant.now();
-        synchronized (tokens) {
-            for (Map.Entry<String, CacheEntry> entry : tokens.entrySet()) {
-                if (entry.getValue().getExpiry().isBefore(current)) {
-                    tokens.remove(entry.getKey());
-                }
-            }
-        }
+        tokens.expireEntries();
     }
 
-    private CacheEntry createCacheEntry(SecurityToken token) {
-        Instant expires = Instant.now().plusSeconds(ttl);
-        return new CacheEntry(token, expires);
-    }
-
-    private static class CacheEntry {
-
-        private final SecurityToken securityToken;
-        private final Instant expires;
-
-        CacheEntry(SecurityToken securityToken, Instant expires) {
-            this.securityToken = securityToken;
-            this.expires = expires;
-        }
-
-        /**
-         * Get the SecurityToken
-         * @return the SecurityToken
-         */
-        public SecurityToken getSecurityToken() {
-            return securityToken;
-        }
-
-        /**
-         * Get when this CacheEntry is to be removed from the cache
-         * @return when this CacheEntry is to be removed from the cache
-         */
-        public Instant getExpiry() {
-            return expires;
-        }
-
+    private long getExpiry() {
+        return System.currentTimeMillis() + ttl * 1000L;
     }
 
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.ws.security.tokenstore;
 
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.ws.security.SecurityConstants;
@@ -40,7 +41,9 @@ public final class TokenStoreUtils {
                 tokenStore = (TokenStore)info.getProperty(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE);
             }
             if (tokenStore == null) {
-                TokenStoreFactory tokenStoreFactory = TokenStoreFactory.newInstance();
+                TokenStoreFactory tokenStoreFactory = PropertyUtils.isTrue(
+                    message.getContextualProperty(SecurityConstants.USE_MEMORY_CACHE))
+                    ? new MemoryTokenStoreFactory() : TokenStoreFactory.newInstance();
                 StringBuilder cacheKey = new StringBuilder(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE);
                 String cacheIdentifier =
                     (String)message.getContextualProperty(SecurityConstants.CACHE_IDENTIFIER);
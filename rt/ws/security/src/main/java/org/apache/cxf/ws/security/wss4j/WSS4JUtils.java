@@ -45,6 +45,7 @@ import org.apache.cxf.rt.security.utils.SecurityUtils;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.ws.security.SecurityConstants;
 import org.apache.cxf.ws.security.cache.CXFEHCacheReplayCache;
+import org.apache.cxf.ws.security.cache.CXFMemoryReplayCache;
 import org.apache.cxf.ws.security.tokenstore.SecurityToken;
 import org.apache.cxf.ws.security.tokenstore.TokenStoreException;
 import org.apache.cxf.ws.security.tokenstore.TokenStoreUtils;
@@ -101,7 +102,8 @@ public final class WSS4JUtils {
      *
      * It tries to get an instance of ReplayCache via the instanceKey argument from a
      * contextual property, and failing that the message exchange. If it can't find any, then it
-     * defaults to using an EH-Cache instance and stores that on the message exchange.
+     * defaults to using an EH-Cache instance, or a CXFMemoryReplayCache if EH-Cache is not available or
+     * SecurityConstants.USE_MEMORY_CACHE is set, and stores that on the message exchange.
      */
     public static ReplayCache getReplayCache(
         SoapMessage message, String booleanKey, String instanceKey
@@ -136,19 +138,18 @@ public final class WSS4JUtils {
                             cacheKey += "-" + hashcode;
                         }
                     }
-                    URL configFile = SecurityUtils.getConfigFileURL(message, SecurityConstants.CACHE_CONFIG_FILE,
-                            DEFAULT_CONFIG_FILE);
-                    if (configFile == null) {
-                        configFile = Loader.getResource(WSS4JUtils.class.getClassLoader(),
+                    if (ReplayCacheFactory.isEhCacheInstalled() && !PropertyUtils.isTrue(
+                            message.getContextualProperty(SecurityConstants.USE_MEMORY_CACHE))) {
+                        URL configFile = SecurityUtils.getConfigFileURL(message, SecurityConstants.CACHE_CONFIG_FILE,
                                 DEFAULT_CONFIG_FILE);
-                    }
-
-                    if (ReplayCacheFactory.isEhCacheInstalled()) {
+                        if (configFile == null) {
+                            configFile = Loader.getResource(WSS4JUtils.class.getClassLoader(),
+                                    DEFAULT_CONFIG_FILE);
+                        }
                         Bus bus = message.getExchange().getBus();
                         replayCache = new CXFEHCacheReplayCache(cacheKey, bus, configFile);
                     } else {
-                        ReplayCacheFactory replayCacheFactory = ReplayCacheFactory.newInstance();
-                        replayCache = replayCacheFactory.newReplayCache(cacheKey, configFile);
+                        replayCache = new CXFMemoryReplayCache();
                     }
 
                     info.setProperty(instanceKey, replayCache);
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.cache;
+
+import java.time.Instant;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExpiringCacheTest {
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        ExpiringCache<String> cache = new ExpiringCache<>();
+        long now = System.currentTimeMillis();
+        cache.put("short", "1", now + 100L);
+        cache.put("long", "2", now + 60000L);
+        cache.put("expired", "3", now - 1L);
+        assertEquals("1", cache.get("short"));
+        assertNull(cache.get("expired"));
+        assertEquals(2, cache.size());
+
+        Thread.sleep(1200L);
+        assertNull(cache.get("short"));
+        cache.expireEntries();
+        assertEquals(1, cache.size());
+        assertEquals("2", cache.get("long"));
+    }
+
+    @Test
+    public void testReplacedEntryIsNotExpired() throws Exception {
+        ExpiringCache<String> cache = new ExpiringCache<>();
+        cache.put("key", "1", System.currentTimeMillis() + 100L);
+        cache.put("key", "2", System.currentTimeMillis() + 60000L);
+
+        Thread.sleep(1200L);
+        cache.expireEntries();
+        assertEquals("2", cache.get("key"));
+    }
+
+    @Test
+    public void testRemovedEntriesAreNotRetained() {
+        ExpiringCache<String> cache = new ExpiringCache<>();
+        long expiresAt = System.currentTimeMillis() + 60000L;
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "1", expiresAt);
+            cache.put("key" + i, "2", expiresAt + i * 1000L);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.getWheelSize());
+
+        for (int i = 0; i < 100; i++) {
+            cache.remove("key" + i);
+        }
+        cache.put("key0", "3", System.currentTimeMillis() - 1L);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWheelSize());
+    }
+
+    @Test
+    public void testReplayCache() throws Exception {
+        CXFMemoryReplayCache replayCache = new CXFMemoryReplayCache();
+        replayCache.add("nonce1");
+        replayCache.add("nonce2", Instant.now().plusMillis(100L));
+        assertTrue(replayCache.contains("nonce1"));
+        assertTrue(replayCache.contains("nonce2"));
+        assertFalse(replayCache.contains("nonce3"));
+
+        Thread.sleep(1200L);
+        assertTrue(replayCache.contains("nonce1"));
+        assertFalse(replayCache.contains("nonce2"));
+
+        replayCache.close();
+        assertFalse(replayCache.contains("nonce1"));
+    }
+}
@@ -24,8 +24,11 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import javax.annotation.Resource;
 import javax.wsdl.BindingInput;
@@ -74,6 +77,13 @@ public class WSDLManagerImpl implements WSDLManager {
      * The key is the same key that is used to hold the definition object into the definitionsMap
      */
     final Map<Object, ServiceSchemaInfo> schemaCacheMap;
+
+    /**
+     * The definitions being loaded, so that endpoints published in parallel wait for the
+     * definition another thread is loading instead of parsing the same WSDL again. Guarded by
+     * the definitionsMap.
+     */
+    private final Map<String, FutureTask<Definition>> loadingMap = new HashMap<>();
     private boolean disableSchemaCache;
 
     private Bus bus;
@@ -157,16 +167,48 @@ public class WSDLManagerImpl implements WSDLManager {
     }
 
     public Definition getDefinition(String url) throws WSDLException {
+        FutureTask<Definition> task;
+        boolean load = false;
         synchronized (definitionsMap) {
             if (definitionsMap.containsKey(url)) {
                 return definitionsMap.get(url);
             }
+            task = loadingMap.get(url);
+            if (task == null) {
+                task = new FutureTask<>(() -> loadDefinition(url));
+                loadingMap.put(url, task);
+                load = true;
+            }
         }
-        Definition def = loadDefinition(url);
-        synchronized (definitionsMap) {
-            definitionsMap.put(url, def);
+        if (load) {
+            task.run();
+            synchronized (definitionsMap) {
+                loadingMap.remove(url);
+                Definition def = getLoadedDefinition(task);
+                definitionsMap.put(url, def);
+                return def;
+            }
+        }
+        return getLoadedDefinition(task);
+    }
+
+    private static Definition getLoadedDefinition(FutureTask<Definition> task) throws WSDLException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WSDLException(WSDLException.OTHER_ERROR, e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof WSDLException) {
+                throw (WSDLException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new WSDLException(WSDLException.OTHER_ERROR, cause.getMessage(), cause);
         }
-        return def;
     }
 
     public Definition getDefinition(final Element el) throws WSDLException {
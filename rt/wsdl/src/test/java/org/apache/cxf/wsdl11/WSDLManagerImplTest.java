@@ -21,6 +21,12 @@ package org.apache.cxf.wsdl11;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.wsdl.Binding;
 import javax.wsdl.Definition;
@@ -29,6 +35,7 @@ import javax.wsdl.Part;
 import javax.wsdl.Port;
 import javax.wsdl.PortType;
 import javax.wsdl.Service;
+import javax.wsdl.WSDLException;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamReader;
 
@@ -39,6 +46,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class WSDLManagerImplTest {
@@ -132,4 +140,43 @@ public class WSDLManagerImplTest {
         builder.getWSDLFactory().newWSDLWriter().writeWSDL(def, bos);
         assertTrue(bos.toString().contains("http://localhost:99999/SoapContext/SoapPort"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConcurrentLoadsShareDefinition() throws Exception {
+        String wsdlUrl = getClass().getResource("hello_world.wsdl").toString();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WSDLManagerImpl builder = new WSDLManagerImpl() {
+            @Override
+            protected Definition loadDefinition(String url) throws WSDLException {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.loadDefinition(url);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Definition> first = executor.submit(() -> builder.getDefinition(wsdlUrl));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            Future<Definition> second = executor.submit(() -> builder.getDefinition(wsdlUrl));
+            // the second load waits for the first one instead of parsing the WSDL again
+            Thread.sleep(100);
+            release.countDown();
+
+            Definition def = first.get(10, TimeUnit.SECONDS);
+            assertNotNull(def);
+            assertSame(def, second.get(10, TimeUnit.SECONDS));
+            assertSame(def, builder.getDefinition(wsdlUrl));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -24,7 +24,15 @@ import java.net.URISyntaxException;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +55,8 @@ import org.opensaml.saml.common.SAMLVersion;
  */
 public class ClaimsManager {
 
+    public static final int DEFAULT_CLAIMS_CACHE_MAX_ENTRIES = 10000;
+
     private static final Logger LOG = LogUtils.getL7dLogger(ClaimsManager.class);
 
     private List<ClaimsParser> claimParsers;
@@ -54,6 +64,69 @@ public class ClaimsManager {
     private List<String> supportedClaimTypes = new ArrayList<>();
     private boolean stopProcessingOnException = true;
     private IdentityMapper identityMapper;
+    private Executor executor;
+    private long handlerTimeout;
+    private long claimsCacheTimeToLive;
+    private volatile int claimsCacheMaxEntries = DEFAULT_CLAIMS_CACHE_MAX_ENTRIES;
+    private final Map<String, CachedClaims> claimsCache =
+        new LinkedHashMap<String, CachedClaims>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > claimsCacheMaxEntries;
+            }
+        };
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the Executor used to call the ClaimsHandlers concurrently when the requested claims are
+     * supported by more than one of them. The handlers are called one after the other by default.
+     * <p>
+     * The handlers then run on the threads of the Executor, not on the thread processing the request,
+     * so thread-bound state such as PhaseInterceptorChain.getCurrentMessage() is not available to
+     * them. Only set an Executor if none of the ClaimsHandlers depend on such state.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public long getHandlerTimeout() {
+        return handlerTimeout;
+    }
+
+    /**
+     * Sets the number of milliseconds to wait for the ClaimsHandlers called concurrently. A handler
+     * which has not answered in time is treated as a handler which has failed. The default is 0,
+     * to wait for as long as it takes.
+     */
+    public void setHandlerTimeout(long handlerTimeout) {
+        this.handlerTimeout = handlerTimeout;
+    }
+
+    public long getClaimsCacheTimeToLive() {
+        return claimsCacheTimeToLive;
+    }
+
+    /**
+     * Sets the number of seconds the claim values returned by a ClaimsHandler are cached for, keyed by
+     * the principal, the realm, the AppliesTo address and the requested claims. The default is 0, which
+     * disables the cache. Do not enable it for handlers whose claim values depend on other parameters.
+     */
+    public void setClaimsCacheTimeToLive(long claimsCacheTimeToLive) {
+        this.claimsCacheTimeToLive = claimsCacheTimeToLive;
+    }
+
+    public int getClaimsCacheMaxEntries() {
+        return claimsCacheMaxEntries;
+    }
+
+    public void setClaimsCacheMaxEntries(int claimsCacheMaxEntries) {
+        this.claimsCacheMaxEntries = claimsCacheMaxEntries;
+    }
 
 
     public IdentityMapper getIdentityMapper() {
@@ -90,6 +163,7 @@ public class ClaimsManager {
 
     public void setClaimHandlers(List<ClaimsHandler> claimHandlers) {
         this.claimHandlers = claimHandlers;
+        clearClaimsCache();
         if (claimHandlers == null) {
             supportedClaimTypes.clear();
         } else {
@@ -180,44 +254,194 @@ public class ClaimsManager {
 
     private ProcessedClaimCollection handleClaims(ClaimCollection claims, ClaimsParameters parameters) {
         ProcessedClaimCollection returnCollection = new ProcessedClaimCollection();
-        if (claimHandlers == null) {
+        List<ClaimsHandler> handlers = claimHandlers;
+        if (handlers == null) {
             return returnCollection;
         }
 
-        Principal originalPrincipal = parameters.getPrincipal();
-        for (ClaimsHandler handler : claimHandlers) {
-
+        List<Integer> handlerIndexes = new ArrayList<>();
+        List<ClaimCollection> handlerClaims = new ArrayList<>();
+        for (int i = 0; i < handlers.size(); i++) {
             ClaimCollection supportedClaims =
-                filterHandlerClaims(claims, handler.getSupportedClaimTypes());
-            if (supportedClaims.isEmpty()) {
-                continue;
+                filterHandlerClaims(claims, handlers.get(i).getSupportedClaimTypes());
+            if (!supportedClaims.isEmpty()) {
+                handlerIndexes.add(i);
+                handlerClaims.add(supportedClaims);
             }
+        }
 
-            if (isCurrentRealmSupported(handler, parameters)) {
-                ProcessedClaimCollection claimCollection = null;
-                try {
-                    claimCollection = handler.retrieveClaimValues(supportedClaims, parameters);
-                } catch (RuntimeException ex) {
-                    LOG.log(Level.INFO, "Failed retrieving claims from ClaimsHandler "
-                            + handler.getClass().getName(), ex);
-                    if (this.isStopProcessingOnException()) {
-                        throw ex;
-                    }
-                } finally {
-                    // set original principal again, otherwise wrong principal passed to next claim handler in the list
-                    // if no mapping required or wrong source principal used for next identity mapping
-                    parameters.setPrincipal(originalPrincipal);
+        if (executor == null || handlerIndexes.size() < 2) {
+            for (int i = 0; i < handlerIndexes.size(); i++) {
+                ProcessedClaimCollection claimCollection = retrieveHandlerClaims(
+                    handlers.get(handlerIndexes.get(i)), handlerIndexes.get(i), handlerClaims.get(i), parameters);
+                if (claimCollection != null && !claimCollection.isEmpty()) {
+                    returnCollection.addAll(claimCollection);
                 }
+            }
+            return returnCollection;
+        }
+
+        // The handlers are independent of each other, each one gets its own copy of the parameters
+        // as the principal may be mapped to the realm of the handler
+        List<Future<ProcessedClaimCollection>> futures = new ArrayList<>(handlerIndexes.size());
+        for (int i = 0; i < handlerIndexes.size(); i++) {
+            final ClaimsHandler handler = handlers.get(handlerIndexes.get(i));
+            final int handlerIndex = handlerIndexes.get(i);
+            final ClaimCollection supportedClaims = handlerClaims.get(i);
+            final ClaimsParameters handlerParameters = copyParameters(parameters);
+            FutureTask<ProcessedClaimCollection> task = new FutureTask<>(
+                () -> retrieveHandlerClaims(handler, handlerIndex, supportedClaims, handlerParameters));
+            futures.add(task);
+            executor.execute(task);
+        }
 
+        long deadline = handlerTimeout > 0 ? System.currentTimeMillis() + handlerTimeout : 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                ProcessedClaimCollection claimCollection =
+                    getHandlerClaims(futures.get(i), handlers.get(handlerIndexes.get(i)), deadline);
                 if (claimCollection != null && !claimCollection.isEmpty()) {
                     returnCollection.addAll(claimCollection);
                 }
             }
+        } finally {
+            for (Future<ProcessedClaimCollection> future : futures) {
+                future.cancel(true);
+            }
         }
-
         return returnCollection;
     }
 
+    private ProcessedClaimCollection getHandlerClaims(Future<ProcessedClaimCollection> future,
+                                                      ClaimsHandler handler, long deadline) {
+        try {
+            if (deadline == 0) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // retrieveHandlerClaims has already decided whether the failure stops the processing
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)ex.getCause();
+            }
+            throw new STSException("Failed retrieving claims", ex.getCause(), STSException.REQUEST_FAILED);
+        } catch (TimeoutException ex) {
+            LOG.log(Level.INFO, "Timeout retrieving claims from ClaimsHandler " + handler.getClass().getName());
+            if (this.isStopProcessingOnException()) {
+                throw new STSException("Timeout retrieving claims", ex, STSException.REQUEST_FAILED);
+            }
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new STSException("Interrupted retrieving claims", ex, STSException.REQUEST_FAILED);
+        }
+    }
+
+    private ProcessedClaimCollection retrieveHandlerClaims(ClaimsHandler handler, int handlerIndex,
+                                                           ClaimCollection supportedClaims,
+                                                           ClaimsParameters parameters) {
+        Principal originalPrincipal = parameters.getPrincipal();
+        if (!isCurrentRealmSupported(handler, parameters)) {
+            return null;
+        }
+        try {
+            String cacheKey = claimsCacheTimeToLive > 0
+                ? getCacheKey(handlerIndex, supportedClaims, parameters) : null;
+            ProcessedClaimCollection claimCollection = getCachedClaims(cacheKey);
+            if (claimCollection == null) {
+                claimCollection = handler.retrieveClaimValues(supportedClaims, parameters);
+                cacheClaims(cacheKey, claimCollection);
+            }
+            return claimCollection;
+        } catch (RuntimeException ex) {
+            LOG.log(Level.INFO, "Failed retrieving claims from ClaimsHandler "
+                    + handler.getClass().getName(), ex);
+            if (this.isStopProcessingOnException()) {
+                throw ex;
+            }
+            return null;
+        } finally {
+            // set original principal again, otherwise wrong principal passed to next claim handler in the list
+            // if no mapping required or wrong source principal used for next identity mapping
+            parameters.setPrincipal(originalPrincipal);
+        }
+    }
+
+    private static String getCacheKey(int handlerIndex, ClaimCollection claims, ClaimsParameters parameters) {
+        if (parameters.getPrincipal() == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(handlerIndex).append('\n')
+            .append(parameters.getPrincipal().getName()).append('\n')
+            .append(parameters.getRealm()).append('\n')
+            .append(parameters.getAppliesToAddress()).append('\n')
+            .append(claims.getDialect());
+        for (Claim claim : claims) {
+            sb.append('\n').append(claim);
+        }
+        return sb.toString();
+    }
+
+    private ProcessedClaimCollection getCachedClaims(String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        CachedClaims cached;
+        synchronized (claimsCache) {
+            cached = claimsCache.get(cacheKey);
+            if (cached != null && cached.expiresAt <= System.currentTimeMillis()) {
+                claimsCache.remove(cacheKey);
+                cached = null;
+            }
+        }
+        return cached == null ? null : copyClaims(cached.claims);
+    }
+
+    private void cacheClaims(String cacheKey, ProcessedClaimCollection claims) {
+        if (cacheKey != null) {
+            CachedClaims cached = new CachedClaims(
+                claims == null ? new ProcessedClaimCollection() : copyClaims(claims),
+                System.currentTimeMillis() + claimsCacheTimeToLive * 1000L);
+            synchronized (claimsCache) {
+                claimsCache.put(cacheKey, cached);
+            }
+        }
+    }
+
+    private static ProcessedClaimCollection copyClaims(ProcessedClaimCollection claims) {
+        ProcessedClaimCollection copy = new ProcessedClaimCollection();
+        for (ProcessedClaim claim : claims) {
+            copy.add(claim.clone());
+        }
+        return copy;
+    }
+
+    private static ClaimsParameters copyParameters(ClaimsParameters parameters) {
+        ClaimsParameters copy = new ClaimsParameters();
+        copy.setStsProperties(parameters.getStsProperties());
+        copy.setEncryptionProperties(parameters.getEncryptionProperties());
+        copy.setPrincipal(parameters.getPrincipal());
+        copy.setRoles(parameters.getRoles());
+        copy.setMessageContext(parameters.getMessageContext());
+        copy.setKeyRequirements(parameters.getKeyRequirements());
+        copy.setTokenRequirements(parameters.getTokenRequirements());
+        copy.setAppliesToAddress(parameters.getAppliesToAddress());
+        copy.setAdditionalProperties(parameters.getAdditionalProperties());
+        copy.setTokenStore(parameters.getTokenStore());
+        copy.setRealm(parameters.getRealm());
+        return copy;
+    }
+
+    /**
+     * Removes all cached claim values.
+     */
+    public void clearClaimsCache() {
+        synchronized (claimsCache) {
+            claimsCache.clear();
+        }
+    }
+
     private boolean isCurrentRealmSupported(ClaimsHandler handler, ClaimsParameters parameters) {
         if (!(handler instanceof RealmSupport)) {
             return true;
@@ -454,4 +678,13 @@ public class ClaimsManager {
 
     }
 
+    private static final class CachedClaims {
+        private final ProcessedClaimCollection claims;
+        private final long expiresAt;
+
+        CachedClaims(ProcessedClaimCollection claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
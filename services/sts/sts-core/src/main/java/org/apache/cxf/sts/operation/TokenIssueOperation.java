@@ -21,6 +21,7 @@ package org.apache.cxf.sts.operation;
 
 import java.security.Principal;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,14 +30,21 @@ import java.util.logging.Logger;
 
 import javax.xml.bind.JAXBElement;
 
+import org.w3c.dom.Element;
+
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.rt.security.claims.Claim;
+import org.apache.cxf.rt.security.claims.ClaimCollection;
 import org.apache.cxf.sts.QNameConstants;
+import org.apache.cxf.sts.STSConstants;
 import org.apache.cxf.sts.event.STSIssueFailureEvent;
 import org.apache.cxf.sts.event.STSIssueSuccessEvent;
 import org.apache.cxf.sts.request.KeyRequirements;
+import org.apache.cxf.sts.request.Lifetime;
 import org.apache.cxf.sts.request.ReceivedToken;
 import org.apache.cxf.sts.request.ReceivedToken.STATE;
+import org.apache.cxf.sts.request.Renewing;
 import org.apache.cxf.sts.request.RequestRequirements;
 import org.apache.cxf.sts.request.TokenRequirements;
 import org.apache.cxf.sts.service.EncryptionProperties;
@@ -76,6 +84,45 @@ public class TokenIssueOperation extends AbstractOperation implements IssueOpera
 
     static final Logger LOG = LogUtils.getL7dLogger(TokenIssueOperation.class);
 
+    private long issuedTokenCacheTimeToLive;
+    private volatile int issuedTokenCacheMaxEntries = 1000;
+    private final Map<String, CachedToken> issuedTokens =
+        new LinkedHashMap<String, CachedToken>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+                return size() > issuedTokenCacheMaxEntries;
+            }
+        };
+
+    public long getIssuedTokenCacheTimeToLive() {
+        return issuedTokenCacheTimeToLive;
+    }
+
+    /**
+     * Sets the number of seconds an issued bearer token is returned again for identical requests
+     * of the same principal, as long as the token has not expired. Requests with OnBehalfOf, ActAs,
+     * Entropy or custom content always get a new token. The default is 0, which disables the cache.
+     * Do not enable it if the TokenProviders use anything else than the principal, the realm, the
+     * token type, the AppliesTo address, the requested lifetime and the claims.
+     * <p>
+     * A cache hit returns the very same token, with the same ID, timestamps and signature. Relying
+     * parties that enforce one-time use of a token, or that keep a replay cache of token IDs, will
+     * reject it, so only enable the cache when they accept a token more than once within its lifetime.
+     */
+    public void setIssuedTokenCacheTimeToLive(long issuedTokenCacheTimeToLive) {
+        this.issuedTokenCacheTimeToLive = issuedTokenCacheTimeToLive;
+    }
+
+    public int getIssuedTokenCacheMaxEntries() {
+        return issuedTokenCacheMaxEntries;
+    }
+
+    public void setIssuedTokenCacheMaxEntries(int issuedTokenCacheMaxEntries) {
+        this.issuedTokenCacheMaxEntries = issuedTokenCacheMaxEntries;
+    }
+
 
     public RequestSecurityTokenResponseCollectionType issue(
             RequestSecurityTokenType request,
@@ -159,33 +206,37 @@ public class TokenIssueOperation extends AbstractOperation implements IssueOpera
             }
 
             // create token
-            TokenProviderResponse tokenResponse = null;
-            for (TokenProvider tokenProvider : tokenProviders) {
-                boolean canHandle = false;
-                if (realm == null) {
-                    canHandle = tokenProvider.canHandleToken(tokenType);
-                } else {
-                    canHandle = tokenProvider.canHandleToken(tokenType, realm);
-                }
-                if (canHandle) {
-                    try {
-                        tokenResponse = tokenProvider.createToken(providerParameters);
-                    } catch (STSException ex) {
-                        LOG.log(Level.WARNING, "", ex);
-                        throw ex;
-                    } catch (RuntimeException ex) {
-                        LOG.log(Level.WARNING, "", ex);
-                        throw new STSException("Error in providing a token", ex, STSException.REQUEST_FAILED);
+            String cacheKey = getIssuedTokenCacheKey(providerParameters, requestRequirements);
+            TokenProviderResponse tokenResponse = getCachedToken(cacheKey);
+            if (tokenResponse == null) {
+                for (TokenProvider tokenProvider : tokenProviders) {
+                    boolean canHandle = false;
+                    if (realm == null) {
+                        canHandle = tokenProvider.canHandleToken(tokenType);
+                    } else {
+                        canHandle = tokenProvider.canHandleToken(tokenType, realm);
+                    }
+                    if (canHandle) {
+                        try {
+                            tokenResponse = tokenProvider.createToken(providerParameters);
+                        } catch (STSException ex) {
+                            LOG.log(Level.WARNING, "", ex);
+                            throw ex;
+                        } catch (RuntimeException ex) {
+                            LOG.log(Level.WARNING, "", ex);
+                            throw new STSException("Error in providing a token", ex, STSException.REQUEST_FAILED);
+                        }
+                        break;
                     }
-                    break;
                 }
-            }
-            if (tokenResponse == null || tokenResponse.getToken() == null) {
-                LOG.log(Level.WARNING, "No token provider found for requested token type: " + tokenType);
-                throw new STSException(
-                        "No token provider found for requested token type: " + tokenType,
-                        STSException.REQUEST_FAILED
-                );
+                if (tokenResponse == null || tokenResponse.getToken() == null) {
+                    LOG.log(Level.WARNING, "No token provider found for requested token type: " + tokenType);
+                    throw new STSException(
+                            "No token provider found for requested token type: " + tokenType,
+                            STSException.REQUEST_FAILED
+                    );
+                }
+                cacheToken(cacheKey, tokenResponse);
             }
             // prepare response
             try {
@@ -215,6 +266,77 @@ public class TokenIssueOperation extends AbstractOperation implements IssueOpera
         }
     }
 
+    private String getIssuedTokenCacheKey(TokenProviderParameters providerParameters,
+                                          RequestRequirements requestRequirements) {
+        TokenRequirements tokenRequirements = requestRequirements.getTokenRequirements();
+        KeyRequirements keyRequirements = requestRequirements.getKeyRequirements();
+        Principal principal = providerParameters.getPrincipal();
+        if (issuedTokenCacheTimeToLive <= 0 || principal == null
+            || !STSConstants.BEARER_KEY_KEYTYPE.equals(keyRequirements.getKeyType())
+            || keyRequirements.getEntropy() != null
+            || tokenRequirements.getOnBehalfOf() != null || tokenRequirements.getActAs() != null
+            || tokenRequirements.getCustomContent() != null && !tokenRequirements.getCustomContent().isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(principal.getClass().getName()).append('\n')
+            .append(principal.getName()).append('\n')
+            .append(providerParameters.getRealm()).append('\n')
+            .append(tokenRequirements.getTokenType()).append('\n')
+            .append(providerParameters.getAppliesToAddress());
+        Lifetime lifetime = tokenRequirements.getLifetime();
+        if (lifetime != null) {
+            sb.append('\n').append(lifetime.getCreated()).append('\n').append(lifetime.getExpires());
+        }
+        Renewing renewing = tokenRequirements.getRenewing();
+        if (renewing != null) {
+            sb.append('\n').append(renewing.isAllowRenewing())
+                .append('\n').append(renewing.isAllowRenewingAfterExpiry());
+        }
+        appendClaims(sb, tokenRequirements.getPrimaryClaims());
+        appendClaims(sb, tokenRequirements.getSecondaryClaims());
+        return sb.toString();
+    }
+
+    private static void appendClaims(StringBuilder sb, ClaimCollection claims) {
+        if (claims != null) {
+            sb.append('\n').append(claims.getDialect());
+            for (Claim claim : claims) {
+                sb.append('\n').append(claim);
+            }
+        }
+    }
+
+    private TokenProviderResponse getCachedToken(String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        CachedToken cached;
+        synchronized (issuedTokens) {
+            cached = issuedTokens.get(cacheKey);
+            if (cached != null && cached.expiresAt <= System.currentTimeMillis()) {
+                issuedTokens.remove(cacheKey);
+                cached = null;
+            }
+        }
+        return cached == null ? null : cached.copyResponse();
+    }
+
+    private void cacheToken(String cacheKey, TokenProviderResponse tokenResponse) {
+        if (cacheKey == null || tokenResponse.isComputedKey() || tokenResponse.getEntropy() != null
+            || !(tokenResponse.getToken() instanceof Element || tokenResponse.getToken() instanceof String)) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + issuedTokenCacheTimeToLive * 1000L;
+        if (tokenResponse.getExpires() != null) {
+            expiresAt = Math.min(expiresAt, tokenResponse.getExpires().toEpochMilli());
+        }
+        CachedToken cached = new CachedToken(tokenResponse, expiresAt);
+        synchronized (issuedTokens) {
+            issuedTokens.put(cacheKey, cached);
+        }
+    }
+
     private void handleDelegationToken(
         ReceivedToken validateTarget,
         TokenProviderParameters providerParameters,
@@ -436,4 +558,35 @@ public class TokenIssueOperation extends AbstractOperation implements IssueOpera
         binarySecretType.setValue(secret);
         return QNameConstants.WS_TRUST_FACTORY.createBinarySecret(binarySecretType);
     }
+
+    private static final class CachedToken {
+        private final TokenProviderResponse response;
+        private final long expiresAt;
+
+        CachedToken(TokenProviderResponse response, long expiresAt) {
+            // the cached DOM token is never returned, every response gets its own copy
+            this.response = copyResponse(response);
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized TokenProviderResponse copyResponse() {
+            return copyResponse(response);
+        }
+
+        private static TokenProviderResponse copyResponse(TokenProviderResponse response) {
+            TokenProviderResponse copy = new TokenProviderResponse();
+            Object token = response.getToken();
+            if (token instanceof Element) {
+                token = ((Element)token).cloneNode(true);
+            }
+            copy.setToken(token);
+            copy.setTokenId(response.getTokenId());
+            copy.setKeySize(response.getKeySize());
+            copy.setAttachedReference(response.getAttachedReference());
+            copy.setUnattachedReference(response.getUnAttachedReference());
+            copy.setCreated(response.getCreated());
+            copy.setExpires(response.getExpires());
+            return copy;
+        }
+    }
 }
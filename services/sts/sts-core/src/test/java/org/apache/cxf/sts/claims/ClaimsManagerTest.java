@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.sts.claims;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.rt.security.claims.Claim;
+import org.apache.cxf.rt.security.claims.ClaimCollection;
+import org.apache.cxf.ws.security.sts.provider.STSException;
+import org.apache.wss4j.common.principal.CustomTokenPrincipal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ClaimsManagerTest {
+    private static final String CLAIM_1 = "http://example.org/claims/1";
+    private static final String CLAIM_2 = "http://example.org/claims/2";
+
+    @Test
+    public void testHandlersAreCalledConcurrently() throws Exception {
+        // each handler waits for the other one, which only works if they are called concurrently
+        CountDownLatch latch = new CountDownLatch(2);
+        ClaimsManager claimsManager = new ClaimsManager();
+        claimsManager.setClaimHandlers(Arrays.<ClaimsHandler>asList(
+            new TestClaimsHandler(CLAIM_1, latch), new TestClaimsHandler(CLAIM_2, latch)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            claimsManager.setExecutor(executor);
+            ProcessedClaimCollection claims =
+                claimsManager.retrieveClaimValues(createClaims(), createParameters("alice"));
+            assertEquals(2, claims.size());
+            assertEquals(CLAIM_1, claims.get(0).getClaimType());
+            assertEquals(CLAIM_2, claims.get(1).getClaimType());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHandlerTimeout() throws Exception {
+        ClaimsManager claimsManager = new ClaimsManager();
+        claimsManager.setClaimHandlers(Arrays.<ClaimsHandler>asList(
+            new TestClaimsHandler(CLAIM_1, null), new TestClaimsHandler(CLAIM_2, new CountDownLatch(100))));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            claimsManager.setExecutor(executor);
+            claimsManager.setHandlerTimeout(200L);
+            try {
+                claimsManager.retrieveClaimValues(createClaims(), createParameters("alice"));
+                fail("STSException expected");
+            } catch (STSException ex) {
+                // expected
+            }
+
+            claimsManager.setStopProcessingOnException(false);
+            ClaimCollection claims = createClaims();
+            claims.get(1).setOptional(true);
+            ProcessedClaimCollection processedClaims =
+                claimsManager.retrieveClaimValues(claims, createParameters("alice"));
+            assertEquals(1, processedClaims.size());
+            assertEquals(CLAIM_1, processedClaims.get(0).getClaimType());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClaimsAreCached() throws Exception {
+        TestClaimsHandler handler = new TestClaimsHandler(CLAIM_1, null);
+        ClaimsManager claimsManager = new ClaimsManager();
+        claimsManager.setClaimHandlers(Collections.<ClaimsHandler>singletonList(handler));
+        claimsManager.setClaimsCacheTimeToLive(60L);
+
+        ClaimCollection claims = createClaims();
+        claims.remove(1);
+        claimsManager.retrieveClaimValues(claims, createParameters("alice"));
+        ProcessedClaimCollection processedClaims =
+            claimsManager.retrieveClaimValues(claims, createParameters("alice"));
+        assertEquals(1, handler.count.get());
+        assertEquals(Collections.singletonList("alice"), processedClaims.get(0).getValues());
+
+        processedClaims = claimsManager.retrieveClaimValues(claims, createParameters("bob"));
+        assertEquals(2, handler.count.get());
+        assertEquals(Collections.singletonList("bob"), processedClaims.get(0).getValues());
+
+        claimsManager.clearClaimsCache();
+        claimsManager.retrieveClaimValues(claims, createParameters("alice"));
+        assertEquals(3, handler.count.get());
+    }
+
+    private static ClaimCollection createClaims() {
+        ClaimCollection claims = new ClaimCollection();
+        Claim claim1 = new Claim();
+        claim1.setClaimType(CLAIM_1);
+        claims.add(claim1);
+        Claim claim2 = new Claim();
+        claim2.setClaimType(CLAIM_2);
+        claims.add(claim2);
+        return claims;
+    }
+
+    private static ClaimsParameters createParameters(String user) {
+        ClaimsParameters parameters = new ClaimsParameters();
+        parameters.setPrincipal(new CustomTokenPrincipal(user));
+        return parameters;
+    }
+
+    private static class TestClaimsHandler implements ClaimsHandler {
+        private final String claimType;
+        private final CountDownLatch latch;
+        private final AtomicInteger count = new AtomicInteger();
+
+        TestClaimsHandler(String claimType, CountDownLatch latch) {
+            this.claimType = claimType;
+            this.latch = latch;
+        }
+
+        public List<String> getSupportedClaimTypes() {
+            return Collections.singletonList(claimType);
+        }
+
+        public ProcessedClaimCollection retrieveClaimValues(ClaimCollection claims, ClaimsParameters parameters) {
+            count.incrementAndGet();
+            if (latch != null) {
+                latch.countDown();
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            ProcessedClaim claim = new ProcessedClaim();
+            claim.setClaimType(claimType);
+            claim.addValue(parameters.getPrincipal().getName());
+            ProcessedClaimCollection processedClaims = new ProcessedClaimCollection();
+            processedClaims.add(claim);
+            return processedClaims;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.sts.operation;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.JAXBElement;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import org.apache.cxf.helpers.DOMUtils;
+import org.apache.cxf.jaxws.context.WrappedMessageContext;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.sts.QNameConstants;
+import org.apache.cxf.sts.STSConstants;
+import org.apache.cxf.sts.StaticSTSProperties;
+import org.apache.cxf.sts.service.ServiceMBean;
+import org.apache.cxf.sts.service.StaticService;
+import org.apache.cxf.sts.token.provider.TokenProviderParameters;
+import org.apache.cxf.sts.token.provider.TokenProviderResponse;
+import org.apache.cxf.ws.security.sts.provider.model.BinarySecretType;
+import org.apache.cxf.ws.security.sts.provider.model.EntropyType;
+import org.apache.cxf.ws.security.sts.provider.model.RequestSecurityTokenResponseCollectionType;
+import org.apache.cxf.ws.security.sts.provider.model.RequestSecurityTokenType;
+import org.apache.wss4j.common.WSS4JConstants;
+import org.apache.wss4j.common.principal.CustomTokenPrincipal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Some unit tests for the cache of issued tokens of the issue operation.
+ */
+public class IssueCachedTokenUnitTest {
+
+    private final CountingTokenProvider tokenProvider = new CountingTokenProvider();
+
+    private final Principal principal = new CustomTokenPrincipal("alice");
+
+    /**
+     * An identical bearer token request of the same principal gets the cached token.
+     */
+    @org.junit.Test
+    public void testCachedTokenReturned() throws Exception {
+        TokenIssueOperation issueOperation = createIssueOperation();
+        issueOperation.setIssuedTokenCacheTimeToLive(60L);
+
+        issue(issueOperation, createRequest());
+        RequestSecurityTokenResponseCollectionType response = issue(issueOperation, createRequest());
+        assertFalse(response.getRequestSecurityTokenResponse().isEmpty());
+        assertEquals(1, tokenProvider.calls.get());
+
+        issueOperation.issue(createRequest(), new CustomTokenPrincipal("bob"), createMessageContext());
+        assertEquals(2, tokenProvider.calls.get());
+    }
+
+    /**
+     * No token is cached by default.
+     */
+    @org.junit.Test
+    public void testCacheDisabledByDefault() throws Exception {
+        TokenIssueOperation issueOperation = createIssueOperation();
+
+        issue(issueOperation, createRequest());
+        issue(issueOperation, createRequest());
+        assertEquals(2, tokenProvider.calls.get());
+    }
+
+    /**
+     * A new token is issued once the cached one is older than the time to live.
+     */
+    @org.junit.Test
+    public void testCachedTokenExpires() throws Exception {
+        TokenIssueOperation issueOperation = createIssueOperation();
+        issueOperation.setIssuedTokenCacheTimeToLive(1L);
+
+        issue(issueOperation, createRequest());
+        issue(issueOperation, createRequest());
+        assertEquals(1, tokenProvider.calls.get());
+
+        Thread.sleep(1100L);
+        issue(issueOperation, createRequest());
+        assertEquals(2, tokenProvider.calls.get());
+    }
+
+    /**
+     * A request with Entropy always gets a new token.
+     */
+    @org.junit.Test
+    public void testEntropyBypassesCache() throws Exception {
+        TokenIssueOperation issueOperation = createIssueOperation();
+        issueOperation.setIssuedTokenCacheTimeToLive(60L);
+
+        issue(issueOperation, addEntropy(createRequest()));
+        issue(issueOperation, addEntropy(createRequest()));
+        assertEquals(2, tokenProvider.calls.get());
+    }
+
+    /**
+     * A request with custom content always gets a new token.
+     */
+    @org.junit.Test
+    public void testCustomContentBypassesCache() throws Exception {
+        TokenIssueOperation issueOperation = createIssueOperation();
+        issueOperation.setAllowCustomContent(true);
+        issueOperation.setIssuedTokenCacheTimeToLive(60L);
+
+        RequestSecurityTokenType request = createRequest();
+        request.getAny().add(createCustomElement());
+        issue(issueOperation, request);
+        request = createRequest();
+        request.getAny().add(createCustomElement());
+        issue(issueOperation, request);
+        assertEquals(2, tokenProvider.calls.get());
+    }
+
+    private TokenIssueOperation createIssueOperation() {
+        TokenIssueOperation issueOperation = new TokenIssueOperation();
+        issueOperation.setTokenProviders(Collections.singletonList(tokenProvider));
+
+        ServiceMBean service = new StaticService();
+        service.setEndpoints(Collections.singletonList("http://dummy-service.com/dummy"));
+        issueOperation.setServices(Collections.singletonList(service));
+
+        issueOperation.setStsProperties(new StaticSTSProperties());
+        return issueOperation;
+    }
+
+    private RequestSecurityTokenResponseCollectionType issue(TokenIssueOperation issueOperation,
+                                                             RequestSecurityTokenType request) {
+        return issueOperation.issue(request, principal, createMessageContext());
+    }
+
+    private static WrappedMessageContext createMessageContext() {
+        return new WrappedMessageContext(new MessageImpl());
+    }
+
+    private static RequestSecurityTokenType createRequest() {
+        RequestSecurityTokenType request = new RequestSecurityTokenType();
+        JAXBElement<String> tokenType =
+            new JAXBElement<String>(
+                QNameConstants.TOKEN_TYPE, String.class, DummyTokenProvider.TOKEN_TYPE
+            );
+        request.getAny().add(tokenType);
+        JAXBElement<String> keyType =
+            new JAXBElement<String>(
+                QNameConstants.KEY_TYPE, String.class, STSConstants.BEARER_KEY_KEYTYPE
+            );
+        request.getAny().add(keyType);
+        request.getAny().add(createAppliesToElement("http://dummy-service.com/dummy"));
+        return request;
+    }
+
+    private static RequestSecurityTokenType addEntropy(RequestSecurityTokenType request) {
+        BinarySecretType binarySecretType = new BinarySecretType();
+        binarySecretType.setType(STSConstants.NONCE_TYPE);
+        binarySecretType.setValue(new byte[32]);
+        JAXBElement<BinarySecretType> binarySecretTypeJaxb =
+            new JAXBElement<BinarySecretType>(
+                QNameConstants.BINARY_SECRET, BinarySecretType.class, binarySecretType
+            );
+
+        EntropyType entropyType = new EntropyType();
+        entropyType.getAny().add(binarySecretTypeJaxb);
+        request.getAny().add(new JAXBElement<>(QNameConstants.ENTROPY, EntropyType.class, entropyType));
+        return request;
+    }
+
+    private static Element createCustomElement() {
+        Document doc = DOMUtils.getEmptyDocument();
+        Element custom = doc.createElementNS("http://custom.apache.org", "custom:Content");
+        custom.setAttributeNS(WSS4JConstants.XMLNS_NS, "xmlns:custom", "http://custom.apache.org");
+        custom.setTextContent("custom");
+        return custom;
+    }
+
+    private static Element createAppliesToElement(String addressUrl) {
+        Document doc = DOMUtils.getEmptyDocument();
+        Element appliesTo = doc.createElementNS(STSConstants.WSP_NS, "wsp:AppliesTo");
+        appliesTo.setAttributeNS(WSS4JConstants.XMLNS_NS, "xmlns:wsp", STSConstants.WSP_NS);
+        Element endpointRef = doc.createElementNS(STSConstants.WSA_NS_05, "wsa:EndpointReference");
+        endpointRef.setAttributeNS(WSS4JConstants.XMLNS_NS, "xmlns:wsa", STSConstants.WSA_NS_05);
+        Element address = doc.createElementNS(STSConstants.WSA_NS_05, "wsa:Address");
+        address.setAttributeNS(WSS4JConstants.XMLNS_NS, "xmlns:wsa", STSConstants.WSA_NS_05);
+        address.setTextContent(addressUrl);
+        endpointRef.appendChild(address);
+        appliesTo.appendChild(endpointRef);
+        return appliesTo;
+    }
+
+    private static final class CountingTokenProvider extends DummyTokenProvider {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public TokenProviderResponse createToken(TokenProviderParameters tokenParameters) {
+            calls.incrementAndGet();
+            return super.createToken(tokenParameters);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.systest.jaxrs.description.openapi;
+
+import java.util.Collections;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.openapi.OpenApiCustomizer;
+import org.apache.cxf.jaxrs.openapi.OpenApiFeature;
+
+import io.swagger.v3.core.filter.AbstractSpecFilter;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class OpenApiCustomizerFilterTest extends AbstractOpenApiServiceDescriptionTest {
+    private static final String PORT = allocatePort(OpenApiCustomizerFilterTest.class);
+
+    public static class SpecFilter extends AbstractSpecFilter {
+    }
+
+    public static class OpenApiRegular extends Server {
+        public OpenApiRegular() {
+            super(PORT, false);
+        }
+
+        public static void main(String[] args) {
+            start(new OpenApiRegular());
+        }
+
+        @Override
+        protected OpenApiFeature createOpenApiFeature() {
+            final OpenApiCustomizer customizer = new OpenApiCustomizer();
+            customizer.setDynamicBasePath(true);
+
+            final OpenApiFeature feature = super.createOpenApiFeature();
+            feature.setCustomizer(customizer);
+            feature.setFilterClass(SpecFilter.class.getName());
+            feature.setScan(false);
+            feature.setResourcePackages(Collections.singleton(getClass().getPackage().getName()));
+
+            return feature;
+        }
+    }
+
+    @BeforeClass
+    public static void startServers() throws Exception {
+        startServers(OpenApiRegular.class);
+    }
+
+    @Override
+    protected String getPort() {
+        return PORT;
+    }
+
+    @Test
+    public void testApiListingIsProperlyReturnedJSON() throws Exception {
+        doTestApiListingIsProperlyReturnedJSON(false, "http://localhost:" + getPort());
+    }
+
+    @Test
+    public void testApiListingNotCachedWithFilter() throws Exception {
+        // the filter may depend on the request, so the document is generated every time
+        try (Response r = createWebClient("/openapi.json").get()) {
+            assertEquals(200, r.getStatus());
+            assertNull(r.getEntityTag());
+        }
+
+        final WebClient client = createWebClient("/openapi.json")
+            .header(HttpHeaders.IF_NONE_MATCH, "\"any\"");
+        try (Response r = client.get()) {
+            assertEquals(200, r.getStatus());
+            assertNull(r.getEntityTag());
+        }
+    }
+}
@@ -21,11 +21,15 @@ package org.apache.cxf.systest.jaxrs.description.openapi;
 import java.util.Arrays;
 import java.util.Collections;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.RuntimeDelegate;
 
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
 import org.apache.cxf.jaxrs.openapi.OpenApiCustomizer;
 import org.apache.cxf.jaxrs.openapi.OpenApiFeature;
@@ -33,6 +37,9 @@ import org.apache.cxf.jaxrs.openapi.OpenApiFeature;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
 public class OpenApiCustomizerTest extends AbstractOpenApiServiceDescriptionTest {
     private static final String PORT = allocatePort(OpenApiCustomizerTest.class);
 
@@ -99,4 +106,30 @@ public class OpenApiCustomizerTest extends AbstractOpenApiServiceDescriptionTest
     public void testApiListingIsProperlyReturnedJSON() throws Exception {
         doTestApiListingIsProperlyReturnedJSON(false, "http://localhost:" + getPort());
     }
+
+    @Test
+    public void testApiListingCached() throws Exception {
+        final String json;
+        final EntityTag tag;
+        try (Response r = createWebClient("/openapi.json").get()) {
+            assertEquals(200, r.getStatus());
+            json = r.readEntity(String.class);
+            tag = r.getEntityTag();
+            assertNotNull(tag);
+        }
+
+        // the cached document is returned with the same tag
+        try (Response r = createWebClient("/openapi.json").get()) {
+            assertEquals(200, r.getStatus());
+            assertEquals(tag, r.getEntityTag());
+            assertEquals(json, r.readEntity(String.class));
+        }
+
+        final WebClient client = createWebClient("/openapi.json")
+            .header(HttpHeaders.IF_NONE_MATCH, tag.toString());
+        try (Response r = client.get()) {
+            assertEquals(304, r.getStatus());
+            assertEquals(tag, r.getEntityTag());
+        }
+    }
 }
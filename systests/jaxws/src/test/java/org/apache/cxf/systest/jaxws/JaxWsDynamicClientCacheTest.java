@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.systest.jaxws;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.common.jaxb.JAXBUtils.SchemaCompiler;
+import org.apache.cxf.common.util.PersistentCache;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.helpers.FileUtils;
+import org.apache.cxf.jaxws.endpoint.dynamic.JaxWsDynamicClientFactory;
+import org.apache.cxf.service.model.MessagePartInfo;
+import org.apache.cxf.service.model.OperationInfo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that dynamic clients reuse the classes generated for a contract, from memory and from the
+ * PersistentCache.
+ */
+public class JaxWsDynamicClientCacheTest {
+    private static final String CACHE_AREA = "dynamic-clients";
+
+    private Bus bus;
+    private File dir;
+    private URL wsdlURL;
+    private ClassLoader orig;
+
+    @Before
+    public void setUp() throws Exception {
+        bus = BusFactory.newInstance().createBus();
+        dir = FileUtils.createTmpDir();
+        System.setProperty(PersistentCache.CACHE_DIRECTORY_PROPERTY, dir.getAbsolutePath());
+        wsdlURL = getClass().getResource("/wsdl/no_body_parts.wsdl");
+        orig = Thread.currentThread().getContextClassLoader();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Thread.currentThread().setContextClassLoader(orig);
+        System.clearProperty(PersistentCache.CACHE_DIRECTORY_PROPERTY);
+        FileUtils.removeDir(dir);
+        bus.shutdown(true);
+    }
+
+    @Test
+    public void testGeneratedClassesReused() throws Exception {
+        AtomicInteger compilations = new AtomicInteger();
+        JaxWsDynamicClientFactory dcf = createFactory(compilations);
+        ClassLoader loader = newClassLoader();
+        checkTypeClasses(dcf.createClient(wsdlURL, loader));
+        assertEquals(1, compilations.get());
+
+        // in memory
+        checkTypeClasses(dcf.createClient(wsdlURL, loader));
+        assertEquals(1, compilations.get());
+
+        // from the disk, in another factory and class loader, as after a restart
+        AtomicInteger restartCompilations = new AtomicInteger();
+        checkTypeClasses(createFactory(restartCompilations).createClient(wsdlURL, newClassLoader()));
+        assertEquals(0, restartCompilations.get());
+    }
+
+    @Test
+    public void testCorruptEntryRegenerated() throws Exception {
+        AtomicInteger compilations = new AtomicInteger();
+        createFactory(compilations).createClient(wsdlURL, newClassLoader());
+        assertEquals(1, compilations.get());
+
+        // an entry without the classes of the packages it lists
+        File[] entries = new File(dir, CACHE_AREA).listFiles((d, name) -> !name.endsWith(".tmp"));
+        assertNotNull(entries);
+        assertEquals(1, entries.length);
+        String key = entries[0].getName();
+        byte[] corrupt = createCorruptEntry();
+        PersistentCache cache = PersistentCache.getInstance();
+        cache.put(CACHE_AREA, key, corrupt);
+
+        AtomicInteger restartCompilations = new AtomicInteger();
+        checkTypeClasses(createFactory(restartCompilations).createClient(wsdlURL, newClassLoader()));
+        assertEquals(1, restartCompilations.get());
+        byte[] replaced = cache.get(CACHE_AREA, key);
+        assertNotNull(replaced);
+        assertFalse(Arrays.equals(corrupt, replaced));
+    }
+
+    private JaxWsDynamicClientFactory createFactory(AtomicInteger compilations) {
+        return new JaxWsDynamicClientFactory(bus) {
+            @Override
+            protected SchemaCompiler createSchemaCompiler() {
+                compilations.incrementAndGet();
+                return super.createSchemaCompiler();
+            }
+        };
+    }
+
+    private ClassLoader newClassLoader() {
+        return new URLClassLoader(new URL[0], orig);
+    }
+
+    private static void checkTypeClasses(Client client) {
+        int typed = 0;
+        for (OperationInfo op : client.getEndpoint().getService().getServiceInfos().get(0)
+            .getInterface().getOperations()) {
+            for (MessagePartInfo part : op.getInput().getMessageParts()) {
+                if (part.getTypeClass() != null) {
+                    typed++;
+                }
+            }
+        }
+        assertTrue(typed > 0);
+    }
+
+    private static byte[] createCorruptEntry() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bos)) {
+            zip.putNextEntry(new ZipEntry("META-INF/cxf/dynamic-client.properties"));
+            String props = "packages=org.apache.cxf.systest.jaxws.missing\n";
+            zip.write(props.getBytes(StandardCharsets.ISO_8859_1));
+            zip.closeEntry();
+        }
+        return bos.toByteArray();
+    }
+}